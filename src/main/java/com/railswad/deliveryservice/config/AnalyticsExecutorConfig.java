@@ -0,0 +1,46 @@
+package com.railswad.deliveryservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AnalyticsExecutorConfig {
+
+    // Every section holds a governor permit while it runs, so threads beyond the permits would only wait on them.
+    @Value("${analytics.dashboard.pool-size:${analytics.governor.max-concurrent:4}}")
+    private int poolSize;
+
+    @Value("${analytics.dashboard.queue-capacity:64}")
+    private int queueCapacity;
+
+    // The toolchain is Java 17, so dashboard sections fan out on a small bounded pool
+    // instead of virtual threads. Sections are short read-only queries, so a handful of
+    // platform threads is enough to run a full dashboard in parallel.
+    @Bean(name = "analyticsExecutor")
+    public ThreadPoolTaskExecutor analyticsExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("analytics-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // The nightly export scans all order history with no statement timeout, so it runs on its own thread
+    // rather than the shared scheduler; a run still going when the next one fires is skipped.
+    @Bean(name = "snapshotExecutor")
+    public ThreadPoolTaskExecutor snapshotExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("snapshot-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,33 @@
+package com.railswad.deliveryservice.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions that were opened through {@code AnalyticsQueryGovernor} to the analytics pool.
+ * Everything else, including Spring Data's own read-only repository calls, stays on the OLTP pool.
+ */
+public class AnalyticsRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String OLTP = "oltp";
+    public static final String ANALYTICS = "analytics";
+
+    private static final ThreadLocal<Boolean> ANALYTICS_ROUTE = new ThreadLocal<>();
+
+    public static void enterAnalytics() {
+        ANALYTICS_ROUTE.set(Boolean.TRUE);
+    }
+
+    public static void exitAnalytics() {
+        ANALYTICS_ROUTE.remove();
+    }
+
+    public static boolean isAnalytics() {
+        return Boolean.TRUE.equals(ANALYTICS_ROUTE.get());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return isAnalytics() && TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? ANALYTICS : OLTP;
+    }
+}
@@ -0,0 +1,50 @@
+package com.railswad.deliveryservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class CancellationExecutorConfig {
+
+    @Value("${train.cancellation.pool-size:1}")
+    private int jobPoolSize;
+
+    @Value("${train.cancellation.queue-capacity:16}")
+    private int jobQueueCapacity;
+
+    @Value("${payment.refund.pool-size:4}")
+    private int refundPoolSize;
+
+    @Value("${payment.refund.claim-size:50}")
+    private int claimSize;
+
+    // Cancellation jobs are few and short, refunds being left to the refund worker; jobs cut short by
+    // shutdown resume on the next start.
+    @Bean(name = "cancellationExecutor")
+    public ThreadPoolTaskExecutor cancellationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(jobPoolSize);
+        executor.setMaxPoolSize(jobPoolSize);
+        executor.setQueueCapacity(jobQueueCapacity);
+        executor.setThreadNamePrefix("train-cancel-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // Refund calls block on the gateway; the pool bounds calls in flight and the queue holds the batch the refund
+    // worker has claimed.
+    @Bean(name = "refundExecutor")
+    public ThreadPoolTaskExecutor refundExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(refundPoolSize);
+        executor.setMaxPoolSize(refundPoolSize);
+        executor.setQueueCapacity(claimSize);
+        executor.setThreadNamePrefix("refund-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
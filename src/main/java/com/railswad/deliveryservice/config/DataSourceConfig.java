@@ -0,0 +1,72 @@
+package com.railswad.deliveryservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Two named Hikari pools: {@code oltp} for checkout and menu writes, {@code analytics} for dashboards and exports.
+ * The analytics pool can point at a read replica and enforces a server-side statement timeout, so slow
+ * reports can neither exhaust checkout connections nor run unbounded.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties oltpDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource oltpDataSource(@Qualifier("oltpDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("oltp");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource analyticsDataSource(
+            @Qualifier("oltpDataSourceProperties") DataSourceProperties oltpProperties,
+            @Value("${analytics.datasource.url:}") String url,
+            @Value("${analytics.datasource.username:}") String username,
+            @Value("${analytics.datasource.password:}") String password,
+            @Value("${analytics.datasource.maximum-pool-size:4}") int maximumPoolSize,
+            @Value("${analytics.datasource.statement-timeout-ms:15000}") long statementTimeoutMs) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("analytics");
+        // Without an explicit replica URL the analytics pool reads the primary, but still through its own connections.
+        dataSource.setJdbcUrl(url.isBlank() ? oltpProperties.determineUrl() : url);
+        dataSource.setUsername(username.isBlank() ? oltpProperties.determineUsername() : username);
+        dataSource.setPassword(password.isBlank() ? oltpProperties.determinePassword() : password);
+        dataSource.setDriverClassName(oltpProperties.determineDriverClassName());
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setReadOnly(true);
+        dataSource.setConnectionInitSql("SET statement_timeout = " + statementTimeoutMs);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("oltpDataSource") DataSource oltpDataSource,
+                                 @Qualifier("analyticsDataSource") DataSource analyticsDataSource) {
+        AnalyticsRoutingDataSource routing = new AnalyticsRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                AnalyticsRoutingDataSource.OLTP, oltpDataSource,
+                AnalyticsRoutingDataSource.ANALYTICS, analyticsDataSource));
+        routing.setDefaultTargetDataSource(oltpDataSource);
+        routing.afterPropertiesSet();
+        // The lazy proxy defers picking a pool until the first statement, after the transaction is marked read-only.
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,30 @@
+package com.railswad.deliveryservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ImageExecutorConfig {
+
+    @Value("${image.thumbnail.pool-size:2}")
+    private int poolSize;
+
+    @Value("${image.thumbnail.queue-capacity:64}")
+    private int queueCapacity;
+
+    // Decoding and scaling images is memory-hungry; a bounded pool caps how many source images are held at once.
+    // A rejected thumbnail is served from the original image and generated on a later request.
+    @Bean(name = "imageExecutor")
+    public ThreadPoolTaskExecutor imageExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,30 @@
+package com.railswad.deliveryservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class MenuEncodingExecutorConfig {
+
+    @Value("${menu.encoding.pool-size:1}")
+    private int poolSize;
+
+    @Value("${menu.encoding.queue-capacity:256}")
+    private int queueCapacity;
+
+    // Serializing and compressing a menu is CPU-only and short; a small pool keeps it from competing with requests.
+    // A warm-up that is rejected or lost at shutdown is simply done by the next read.
+    @Bean(name = "menuEncodingExecutor")
+    public ThreadPoolTaskExecutor menuEncodingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("menu-encoding-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,30 @@
+package com.railswad.deliveryservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class MenuImportExecutorConfig {
+
+    @Value("${menu.import.pool-size:2}")
+    private int poolSize;
+
+    @Value("${menu.import.queue-capacity:16}")
+    private int queueCapacity;
+
+    // Imports are long, write-heavy and hold menu_items row locks per chunk, so only a couple run at once.
+    // Jobs cut short by shutdown are re-queued once their lease lapses and resume from their checkpoint.
+    @Bean(name = "menuImportExecutor")
+    public ThreadPoolTaskExecutor menuImportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("menu-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,10 +1,12 @@
 package com.railswad.deliveryservice.controller;
 
 import com.railswad.deliveryservice.dto.*;
-import com.railswad.deliveryservice.repository.OrderItemRepository;
+import com.railswad.deliveryservice.repository.AnalyticsRepository;
 import com.railswad.deliveryservice.repository.OrderRepository;
+import com.railswad.deliveryservice.service.AnalyticsQueryGovernor;
+import com.railswad.deliveryservice.service.DashboardService;
+import com.railswad.deliveryservice.service.HeatmapService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -23,14 +25,23 @@ public class AdminDashboardController {
     private OrderRepository orderRepository;
 
     @Autowired
-    private OrderItemRepository orderItemRepository;
+    private AnalyticsRepository analyticsRepository;
+
+    @Autowired
+    private AnalyticsQueryGovernor analyticsQueryGovernor;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private HeatmapService heatmapService;
 
     @GetMapping("/vendors/{vendorId}/sales")
     public ResponseEntity<VendorSalesSummaryDTO> getVendorSalesSummary(
             @PathVariable Long vendorId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate) {
-        VendorSalesSummaryDTO summary = orderRepository.getVendorSalesSummary(vendorId, startDate, endDate);
+        VendorSalesSummaryDTO summary = analyticsQueryGovernor.execute(() -> orderRepository.getVendorSalesSummary(vendorId, startDate, endDate));
         return ResponseEntity.ok(summary);
     }
 
@@ -39,7 +50,7 @@ public class AdminDashboardController {
             @PathVariable Long vendorId) {
         ZonedDateTime endDate = ZonedDateTime.now().with(TemporalAdjusters.firstDayOfMonth());
         ZonedDateTime startDate = endDate.minusMonths(1);
-        VendorSalesSummaryDTO summary = orderRepository.getVendorLastMonthSales(vendorId, startDate, endDate);
+        VendorSalesSummaryDTO summary = analyticsQueryGovernor.execute(() -> orderRepository.getVendorLastMonthSales(vendorId, startDate, endDate));
         return ResponseEntity.ok(summary);
     }
 
@@ -48,7 +59,7 @@ public class AdminDashboardController {
             @PathVariable Long vendorId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate) {
-        List<MonthlySalesDTO> monthlySales = orderRepository.getMonthlySalesByVendor(vendorId, startDate, endDate);
+        List<MonthlySalesDTO> monthlySales = analyticsQueryGovernor.execute(() -> analyticsRepository.getMonthlySalesByVendor(vendorId, startDate, endDate));
         return ResponseEntity.ok(monthlySales);
     }
 
@@ -59,8 +70,8 @@ public class AdminDashboardController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate,
             @RequestParam(defaultValue = "5") int limit,
             @RequestParam(defaultValue = "quantity") String sortBy) {
-        List<TopSellingItemDTO> favoriteItems = orderItemRepository.getFavoriteItemsByVendor(
-                vendorId, startDate, endDate, sortBy, PageRequest.of(0, limit));
+        List<TopSellingItemDTO> favoriteItems = analyticsQueryGovernor.execute(() -> analyticsRepository.getFavoriteItemsByVendor(
+                vendorId, startDate, endDate, sortBy, limit));
         return ResponseEntity.ok(favoriteItems);
     }
 
@@ -68,7 +79,7 @@ public class AdminDashboardController {
     public ResponseEntity<List<VendorSalesOverviewDTO>> getAllVendorsSalesOverview(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate) {
-        List<VendorSalesOverviewDTO> overview = orderRepository.getAllVendorsSalesOverview(startDate, endDate);
+        List<VendorSalesOverviewDTO> overview = analyticsQueryGovernor.execute(() -> analyticsRepository.getAllVendorsSalesOverview(startDate, endDate));
         return ResponseEntity.ok(overview);
     }
 
@@ -77,7 +88,7 @@ public class AdminDashboardController {
             @PathVariable Long stationId) {
         ZonedDateTime endDate = ZonedDateTime.now().with(TemporalAdjusters.firstDayOfMonth());
         ZonedDateTime startDate = endDate.minusMonths(1);
-        StationSalesSummaryDTO summary = orderRepository.getStationLastMonthSales(Math.toIntExact(stationId), startDate, endDate);
+        StationSalesSummaryDTO summary = analyticsQueryGovernor.execute(() -> orderRepository.getStationLastMonthSales(Math.toIntExact(stationId), startDate, endDate));
         return ResponseEntity.ok(summary);
     }
 
@@ -88,8 +99,8 @@ public class AdminDashboardController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate,
             @RequestParam(defaultValue = "5") int limit,
             @RequestParam(defaultValue = "revenue") String sortBy) {
-        List<VendorSalesOverviewDTO> topVendors = orderRepository.getTopVendorsByStation(
-                Math.toIntExact(stationId), startDate, endDate, sortBy, PageRequest.of(0, limit));
+        List<VendorSalesOverviewDTO> topVendors = analyticsQueryGovernor.execute(() -> analyticsRepository.getTopVendorsByStation(
+                Math.toIntExact(stationId), startDate, endDate, sortBy, limit));
         return ResponseEntity.ok(topVendors);
     }
 
@@ -97,9 +108,30 @@ public class AdminDashboardController {
     public ResponseEntity<List<StationSalesOverviewDTO>> getStationsLastMonthSalesOverview() {
         ZonedDateTime endDate = ZonedDateTime.now().with(TemporalAdjusters.firstDayOfMonth());
         ZonedDateTime startDate = endDate.minusMonths(1);
-        List<StationSalesOverviewDTO> overview = orderRepository.getStationsLastMonthSalesOverview(startDate, endDate);
+        List<StationSalesOverviewDTO> overview = analyticsQueryGovernor.execute(() -> orderRepository.getStationsLastMonthSalesOverview(startDate, endDate));
         return ResponseEntity.ok(overview);
     }
 
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardDTO> getDashboard(
+            @RequestParam(required = false) Long vendorId,
+            @RequestParam(required = false) Integer stationId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate,
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(defaultValue = "3000") long deadlineMs) {
+        DashboardDTO dashboard = dashboardService.getDashboard(vendorId, stationId, startDate, endDate, limit, deadlineMs);
+        return ResponseEntity.ok(dashboard);
+    }
+
+    @GetMapping("/heatmap")
+    public ResponseEntity<List<HeatmapCellDTO>> getOrderHeatmap(
+            @RequestParam(defaultValue = "4") int zoom,
+            @RequestParam(defaultValue = "6.0") double minLat,
+            @RequestParam(defaultValue = "68.0") double minLon,
+            @RequestParam(defaultValue = "37.0") double maxLat,
+            @RequestParam(defaultValue = "98.0") double maxLon) {
+        return ResponseEntity.ok(heatmapService.getTile(zoom, minLat, minLon, maxLat, maxLon));
+    }
 
 }
\ No newline at end of file
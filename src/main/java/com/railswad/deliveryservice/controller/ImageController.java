@@ -0,0 +1,70 @@
+package com.railswad.deliveryservice.controller;
+
+import com.railswad.deliveryservice.service.ImageThumbnailService;
+import com.railswad.deliveryservice.service.ThumbnailDiskCache;
+import com.railswad.deliveryservice.util.FileTransfer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageController.class);
+
+    private static final String THUMBNAIL_PATH = "/api/images/thumbnails/";
+
+    @Autowired
+    private ImageThumbnailService imageThumbnailService;
+
+    @GetMapping("/items/{itemId}")
+    public void getMenuItemImage(@PathVariable Long itemId,
+                                 @RequestParam(value = "width", defaultValue = "240") int width,
+                                 HttpServletResponse response) {
+        logger.debug("Received request for image of menu item ID: {} at width {}", itemId, width);
+        redirect(imageThumbnailService.getItemImageUrl(itemId), width, response);
+    }
+
+    @GetMapping("/vendors/{vendorId}/logo")
+    public void getVendorLogo(@PathVariable Long vendorId,
+                              @RequestParam(value = "width", defaultValue = "96") int width,
+                              HttpServletResponse response) {
+        logger.debug("Received request for logo of vendor ID: {} at width {}", vendorId, width);
+        redirect(imageThumbnailService.getVendorLogoUrl(vendorId), width, response);
+    }
+
+    // The redirect is cached briefly since the item's image may change; the thumbnail it points at never does.
+    private void redirect(String sourceUrl, int width, HttpServletResponse response) {
+        String name = imageThumbnailService.getThumbnailName(sourceUrl, imageThumbnailService.snapWidth(width));
+        response.setStatus(HttpServletResponse.SC_FOUND);
+        response.setHeader(HttpHeaders.LOCATION, name != null ? THUMBNAIL_PATH + name : sourceUrl);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, name != null ? "private, max-age=300" : "no-cache");
+    }
+
+    @GetMapping("/thumbnails/{name:.+}")
+    public void getThumbnail(@PathVariable String name, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        ThumbnailDiskCache.CachedFile file = imageThumbnailService.getThumbnail(name);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Thumbnail " + name + " not found");
+            return;
+        }
+        String etag = "\"" + name + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        FileTransfer.write(request, response, file.path(), file.length());
+    }
+}
@@ -1,30 +1,40 @@
 package com.railswad.deliveryservice.controller;
 
+import com.railswad.deliveryservice.dto.MenuAvailabilityUpdateDTO;
 import com.railswad.deliveryservice.dto.MenuCategoryDTO;
+import com.railswad.deliveryservice.dto.MenuDeltaDTO;
+import com.railswad.deliveryservice.dto.MenuImportJobDTO;
 import com.railswad.deliveryservice.dto.MenuItemDTO;
-import com.railswad.deliveryservice.entity.MenuCategory;
-import com.railswad.deliveryservice.entity.MenuItem;
-import com.railswad.deliveryservice.entity.Vendor;
-import com.railswad.deliveryservice.repository.MenuCategoryRepository;
-import com.railswad.deliveryservice.repository.MenuItemRepository;
-import com.railswad.deliveryservice.repository.VendorRepository;
+import com.railswad.deliveryservice.dto.MenuSearchResultDTO;
+import com.railswad.deliveryservice.dto.StationMenuItemDTO;
+import com.railswad.deliveryservice.service.MenuDeltaService;
+import com.railswad.deliveryservice.service.MenuExportService;
+import com.railswad.deliveryservice.service.MenuPayloadService;
+import com.railswad.deliveryservice.service.MenuSearchService;
 import com.railswad.deliveryservice.service.MenuService;
+import com.railswad.deliveryservice.service.StationMenuFilterService;
+import com.railswad.deliveryservice.util.ExcelHelper;
+import com.railswad.deliveryservice.util.PrecompressedBody;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/menu")
@@ -36,13 +46,19 @@ public class MenuController {
     private MenuService menuService;
 
     @Autowired
-    private VendorRepository vendorRepository;
+    private MenuPayloadService menuPayloadService;
 
     @Autowired
-    private MenuCategoryRepository menuCategoryRepository;
+    private MenuDeltaService menuDeltaService;
 
     @Autowired
-    private MenuItemRepository menuItemRepository;
+    private MenuSearchService menuSearchService;
+
+    @Autowired
+    private StationMenuFilterService stationMenuFilterService;
+
+    @Autowired
+    private MenuExportService menuExportService;
 
     @PostMapping("/categories")
     @PreAuthorize("hasAnyRole('ADMIN', 'VENDOR')")
@@ -95,9 +111,18 @@ public class MenuController {
     }
 
     @GetMapping("/vendors/{vendorId}/items")
-    public ResponseEntity<List<MenuItemDTO>> getAvailableMenuItemsByVendor(@PathVariable Long vendorId) {
+    public void getAvailableMenuItemsByVendor(@PathVariable Long vendorId, HttpServletRequest request,
+                                              HttpServletResponse response) throws IOException {
         logger.info("Received request to fetch available menu items for vendor ID: {}", vendorId);
-        return ResponseEntity.ok(menuService.getAvailableMenuItemsByVendor(vendorId));
+        menuPayloadService.getAvailableBody(vendorId).writeTo(request, response);
+    }
+
+    @PutMapping("/vendors/{vendorId}/availability")
+    @PreAuthorize("hasAnyRole('ADMIN', 'VENDOR')")
+    public ResponseEntity<List<MenuAvailabilityUpdateDTO>> updateAvailability(@PathVariable Long vendorId,
+                                                                              @RequestBody List<MenuAvailabilityUpdateDTO> updates) {
+        logger.info("Received {} availability updates for vendor ID: {}", updates.size(), vendorId);
+        return ResponseEntity.ok(menuService.updateAvailability(vendorId, updates));
     }
 
     @GetMapping("/vendors/{vendorId}/categories")
@@ -106,56 +131,95 @@ public class MenuController {
         return ResponseEntity.ok(menuService.getMenuCategoriesByVendor(vendorId, pageable));
     }
 
+    @GetMapping("/stations/{stationId}/search")
+    public ResponseEntity<List<MenuSearchResultDTO>> searchStationMenus(
+            @PathVariable Integer stationId,
+            @RequestParam("q") String query,
+            @RequestParam(value = "vegOnly", defaultValue = "false") boolean vegOnly,
+            @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+            @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        logger.info("Received menu search '{}' at station ID: {}", query, stationId);
+        return ResponseEntity.ok(menuSearchService.search(stationId, query, vegOnly, minPrice, maxPrice, limit));
+    }
+
+    @GetMapping("/stations/{stationId}/items")
+    public ResponseEntity<Page<StationMenuItemDTO>> filterStationMenus(
+            @PathVariable Integer stationId,
+            @RequestParam(value = "vegetarian", required = false) Boolean vegetarian,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "maxPrepMinutes", required = false) Integer maxPrepMinutes,
+            @RequestParam(value = "availableNow", defaultValue = "false") boolean availableNow,
+            @RequestParam(value = "sort", defaultValue = "menu") String sort,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        logger.info("Received menu filter request for station ID: {}", stationId);
+        return ResponseEntity.ok(stationMenuFilterService.filter(stationId, vegetarian, minPrice, maxPrice,
+                maxPrepMinutes, availableNow, sort, page, size));
+    }
+
     @PostMapping("/upload")
     @PreAuthorize("hasAnyRole('ADMIN', 'VENDOR')")
-    public ResponseEntity<String> uploadExcelFile(
+    public ResponseEntity<?> uploadExcelFile(
             @RequestParam("file") MultipartFile file,
             @RequestParam("vendorId") Long vendorId,
             @RequestParam(value = "clearExisting", defaultValue = "false") boolean clearExisting) {
         logger.info("Received request to upload menu for vendor ID: {}, clearExisting: {}", vendorId, clearExisting);
         try {
-            String message = menuService.uploadMenuItems(file, vendorId, clearExisting);
-            logger.info("Menu upload successful for vendor ID: {}", vendorId);
-            return ResponseEntity.status(HttpStatus.OK).body(message);
+            MenuImportJobDTO job = menuService.uploadMenuItems(file, vendorId, clearExisting);
+            logger.info("Menu upload queued as job {} for vendor ID: {}", job.getJobId(), vendorId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
         } catch (Exception e) {
             logger.error("Menu upload failed for vendor ID: {}: {}", vendorId, e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Could not upload the file: " + e.getMessage());
         }
     }
 
+    @GetMapping("/upload/{jobId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'VENDOR')")
+    public ResponseEntity<MenuImportJobDTO> getUploadStatus(@PathVariable String jobId) {
+        logger.info("Received request to fetch menu import job {}", jobId);
+        return ResponseEntity.ok(menuService.getMenuImportJob(jobId));
+    }
+
+    @GetMapping("/vendors/{vendorId}/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'VENDOR')")
+    public ResponseEntity<StreamingResponseBody> exportMenu(@PathVariable Long vendorId,
+                                                            @RequestParam(value = "format", defaultValue = "xlsx") String format) {
+        logger.info("Received request to export menu for vendor ID: {} as {}", vendorId, format);
+        if (!"xlsx".equalsIgnoreCase(format) && !"csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean csv = "csv".equalsIgnoreCase(format);
+        menuService.checkMenuExportAccess(vendorId);
+
+        StreamingResponseBody body = os -> menuExportService.writeMenu(vendorId, csv, os);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? ExcelHelper.CSV_TYPE : ExcelHelper.TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("menu-" + vendorId + (csv ? ".csv" : ".xlsx")).build().toString())
+                .body(body);
+    }
+
     @GetMapping("/vendors/{vendorId}/menu")
-    public ResponseEntity<?> getMenuByVendor(@PathVariable Long vendorId) {
+    public void getMenuByVendor(@PathVariable Long vendorId, HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
         logger.info("Received request to fetch full menu for vendor ID: {}", vendorId);
-        Optional<Vendor> vendorOpt = vendorRepository.findById(vendorId);
-        if (!vendorOpt.isPresent()) {
+        PrecompressedBody body = menuPayloadService.getMenuBody(vendorId);
+        if (body == null) {
             logger.error("Vendor ID {} not found", vendorId);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Vendor ID " + vendorId + " not found");
-        }
-        Vendor vendor = vendorOpt.get();
-        List<MenuCategory> categories = menuCategoryRepository.findByVendorVendorId(vendorId);
-        Map<String, List<MenuItemDTO>> menu = new HashMap<>();
-        for (MenuCategory category : categories) {
-            List<MenuItem> items = menuItemRepository.findByCategory(category);
-            List<MenuItemDTO> itemDTOs = items.stream().map(item -> {
-                MenuItemDTO dto = new MenuItemDTO();
-                dto.setItemId(item.getItemId());
-                dto.setCategoryId(item.getCategory().getCategoryId());
-                dto.setCategoryName(item.getCategory().getCategoryName());
-                dto.setItemName(item.getItemName());
-                dto.setDescription(item.getDescription());
-                dto.setPrice(item.getPrice());
-                dto.setVegetarian(item.isVegetarian());
-                dto.setAvailable(item.isAvailable());
-                dto.setPreparationTimeMin(item.getPreparationTimeMin());
-                dto.setImageUrl(item.getImageUrl());
-                dto.setDisplayOrder(item.getDisplayOrder());
-                dto.setAvailableStartTime(item.getAvailableStartTime());
-                dto.setAvailableEndTime(item.getAvailableEndTime());
-                return dto;
-            }).collect(Collectors.toList());
-            menu.put(category.getCategoryName(), itemDTOs);
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Vendor ID " + vendorId + " not found");
+            return;
         }
-        logger.info("Fetched menu with {} categories for vendor ID: {}", menu.size(), vendorId);
-        return ResponseEntity.ok(menu);
+        logger.info("Serving menu version {} for vendor ID: {}", body.getVersion(), vendorId);
+        body.writeTo(request, response);
+    }
+
+    @GetMapping("/vendors/{vendorId}/changes")
+    public ResponseEntity<MenuDeltaDTO> getMenuChanges(@PathVariable Long vendorId,
+                                                       @RequestParam(value = "since", defaultValue = "0") long since) {
+        logger.info("Received request for menu changes of vendor ID: {} since sequence {}", vendorId, since);
+        return ResponseEntity.ok(menuDeltaService.getChanges(vendorId, since));
     }
-}
\ No newline at end of file
+}
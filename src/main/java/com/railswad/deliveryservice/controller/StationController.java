@@ -1,7 +1,12 @@
 package com.railswad.deliveryservice.controller;
 
 import com.railswad.deliveryservice.dto.StationDTO;
+import com.railswad.deliveryservice.dto.StationDistanceDTO;
+import com.railswad.deliveryservice.service.GeoIndexService;
+import com.railswad.deliveryservice.service.StationCatalogService;
 import com.railswad.deliveryservice.service.StationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -9,6 +14,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/stations")
 public class StationController {
@@ -16,6 +24,12 @@ public class StationController {
     @Autowired
     private StationService stationService;
 
+    @Autowired
+    private StationCatalogService stationCatalogService;
+
+    @Autowired
+    private GeoIndexService geoIndexService;
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<StationDTO> createStation(@RequestBody StationDTO stationDTO) {
@@ -40,6 +54,27 @@ public class StationController {
         return ResponseEntity.ok(stationService.getStationById(stationId));
     }
 
+    @GetMapping("/{stationId}/catalog")
+    public void getStationCatalog(@PathVariable Integer stationId, HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        stationCatalogService.getCatalog(stationId).writeTo(request, response);
+    }
+
+    @GetMapping("/nearest")
+    public ResponseEntity<List<StationDistanceDTO>> getNearestStations(@RequestParam("lat") double latitude,
+                                                                       @RequestParam("lon") double longitude,
+                                                                       @RequestParam(value = "limit", defaultValue = "5") int limit) {
+        return ResponseEntity.ok(geoIndexService.findNearestStations(latitude, longitude, limit));
+    }
+
+    @GetMapping("/within")
+    public ResponseEntity<List<StationDistanceDTO>> getStationsWithin(@RequestParam("lat") double latitude,
+                                                                      @RequestParam("lon") double longitude,
+                                                                      @RequestParam("radiusKm") double radiusKm,
+                                                                      @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        return ResponseEntity.ok(geoIndexService.findStationsWithin(latitude, longitude, radiusKm, limit));
+    }
+
     @GetMapping
     public ResponseEntity<Page<StationDTO>> getAllStations(Pageable pageable) {
         return ResponseEntity.ok(stationService.getAllStations(pageable));
@@ -0,0 +1,108 @@
+package com.railswad.deliveryservice.controller;
+
+import com.railswad.deliveryservice.dto.ExpectedStopDTO;
+import com.railswad.deliveryservice.dto.JourneyStopsDTO;
+import com.railswad.deliveryservice.dto.TrainCancellationJobDTO;
+import com.railswad.deliveryservice.dto.TrainDTO;
+import com.railswad.deliveryservice.dto.TrainDelayDTO;
+import com.railswad.deliveryservice.dto.TrainStopDTO;
+import com.railswad.deliveryservice.service.TrainCancellationService;
+import com.railswad.deliveryservice.service.TrainDelayService;
+import com.railswad.deliveryservice.service.TrainRouteIndex;
+import com.railswad.deliveryservice.service.TrainRouteService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/trains")
+public class TrainController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainController.class);
+
+    @Autowired
+    private TrainRouteService trainRouteService;
+
+    @Autowired
+    private TrainRouteIndex trainRouteIndex;
+
+    @Autowired
+    private TrainDelayService trainDelayService;
+
+    @Autowired
+    private TrainCancellationService trainCancellationService;
+
+    @GetMapping("/{trainId}")
+    public ResponseEntity<TrainDTO> getTrain(@PathVariable Integer trainId) {
+        return ResponseEntity.ok(trainRouteService.getTrain(trainId));
+    }
+
+    @GetMapping("/{trainId}/route")
+    public ResponseEntity<List<TrainStopDTO>> getRoute(@PathVariable Integer trainId) {
+        return ResponseEntity.ok(trainRouteService.getRoute(trainId));
+    }
+
+    @PutMapping("/{trainId}/route")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<TrainStopDTO>> replaceRoute(@PathVariable Integer trainId, @RequestBody List<TrainStopDTO> stops,
+                                                           @RequestParam(value = "runningDays", required = false) Integer runningDays) {
+        logger.info("Received route with {} stops for train ID: {}", stops.size(), trainId);
+        return ResponseEntity.ok(trainRouteService.replaceRoute(trainId, stops, runningDays));
+    }
+
+    @PostMapping("/routes/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> importRoutes(@RequestParam("file") MultipartFile file) throws IOException {
+        logger.info("Received route import {}", file.getOriginalFilename());
+        return ResponseEntity.ok(Map.of("trains", trainRouteService.importRoutes(file)));
+    }
+
+    @GetMapping("/{trainId}/stops-with-vendors")
+    public ResponseEntity<JourneyStopsDTO> getStopsWithVendors(
+            @PathVariable Integer trainId,
+            @RequestParam(value = "destinationStationId", required = false) Integer destinationStationId,
+            @RequestParam(value = "journeyDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate journeyDate) {
+        return ResponseEntity.ok(trainRouteIndex.getStopsWithVendors(trainId, destinationStationId, journeyDate));
+    }
+
+    @PostMapping("/delays")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> reportDelays(@RequestBody List<TrainDelayDTO> reports) {
+        logger.info("Received {} train delay reports", reports.size());
+        return ResponseEntity.ok(trainDelayService.ingest(reports));
+    }
+
+    @GetMapping("/{trainId}/delays")
+    public ResponseEntity<List<ExpectedStopDTO>> getExpectedStops(
+            @PathVariable Integer trainId,
+            @RequestParam(value = "journeyDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate journeyDate) {
+        return ResponseEntity.ok(trainDelayService.getExpectedStops(trainId, journeyDate));
+    }
+
+    @PostMapping("/{trainId}/cancellations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TrainCancellationJobDTO> cancelRun(
+            @PathVariable Integer trainId,
+            @RequestParam("journeyDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate journeyDate,
+            @RequestParam(value = "reason", required = false) String reason) {
+        logger.info("Received cancellation of train ID {} on {}", trainId, journeyDate);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(trainCancellationService.submit(trainId, journeyDate, reason));
+    }
+
+    @GetMapping("/cancellations/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TrainCancellationJobDTO> getCancellation(@PathVariable String jobId) {
+        return ResponseEntity.ok(trainCancellationService.getJob(jobId));
+    }
+}
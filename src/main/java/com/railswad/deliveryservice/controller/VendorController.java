@@ -1,13 +1,20 @@
 package com.railswad.deliveryservice.controller;
 
+import com.railswad.deliveryservice.dto.DeliveringVendorDTO;
 import com.railswad.deliveryservice.dto.VendorDTO;
+import com.railswad.deliveryservice.dto.VendorNoticeDTO;
+import com.railswad.deliveryservice.service.GeoIndexService;
+import com.railswad.deliveryservice.service.VendorNoticeService;
 import com.railswad.deliveryservice.service.VendorService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/vendors")
 public class VendorController {
@@ -15,6 +22,12 @@ public class VendorController {
     @Autowired
     private VendorService vendorService;
 
+    @Autowired
+    private GeoIndexService geoIndexService;
+
+    @Autowired
+    private VendorNoticeService vendorNoticeService;
+
     @PostMapping
     public ResponseEntity<VendorDTO> createVendor(@RequestBody VendorDTO vendorDTO) {
         VendorDTO createdVendor = vendorService.createVendor(vendorDTO);
@@ -39,6 +52,19 @@ public class VendorController {
         return ResponseEntity.ok(vendorDTO);
     }
 
+    @GetMapping("/delivering")
+    public ResponseEntity<List<DeliveringVendorDTO>> getVendorsDeliveringTo(@RequestParam("lat") double latitude,
+                                                                            @RequestParam("lon") double longitude) {
+        return ResponseEntity.ok(geoIndexService.findVendorsDeliveringTo(latitude, longitude));
+    }
+
+    @GetMapping("/{vendorId}/notices")
+    @PreAuthorize("hasAnyRole('ADMIN', 'VENDOR')")
+    public ResponseEntity<List<VendorNoticeDTO>> getNotices(@PathVariable Long vendorId,
+                                                            @RequestParam(value = "since", defaultValue = "0") long since) {
+        return ResponseEntity.ok(vendorNoticeService.getNotices(vendorId, since));
+    }
+
     @GetMapping
     public ResponseEntity<Page<VendorDTO>> getAllVendors(Pageable pageable) {
         Page<VendorDTO> vendors = vendorService.getAllVendors(pageable);
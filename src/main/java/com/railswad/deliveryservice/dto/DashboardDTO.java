@@ -0,0 +1,14 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class DashboardDTO {
+    private long deadlineMs;
+    private long totalDurationMs;
+    private boolean complete;
+    private Map<String, DashboardSectionDTO> sections = new LinkedHashMap<>();
+}
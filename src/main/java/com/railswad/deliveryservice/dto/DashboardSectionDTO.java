@@ -0,0 +1,11 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.Data;
+
+@Data
+public class DashboardSectionDTO {
+    private String status; // OK, TIMED_OUT, FAILED, REJECTED or SKIPPED
+    private long durationMs;
+    private String error;
+    private Object data;
+}
@@ -0,0 +1,14 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DeliveringVendorDTO {
+    private Long vendorId;
+    private String businessName;
+    private Integer stationId;
+    private Integer deliveryRadiusMeters;
+    private long distanceMeters; // from the vendor's station
+}
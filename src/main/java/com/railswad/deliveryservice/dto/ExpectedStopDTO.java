@@ -0,0 +1,19 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+
+@Data
+@AllArgsConstructor
+public class ExpectedStopDTO {
+    private Integer stationId;
+    private String stationCode;
+    private int stopSequence;
+    private ZonedDateTime scheduledArrival; // null at the origin
+    private ZonedDateTime scheduledDeparture; // null at the terminus
+    private ZonedDateTime expectedArrival;
+    private ZonedDateTime expectedDeparture;
+    private int delayMinutes;
+}
@@ -0,0 +1,14 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class HeatmapCellDTO {
+    private String geohash;
+    private Double latitude;
+    private Double longitude;
+    private Long orderCount;
+    private Double revenue;
+}
@@ -0,0 +1,20 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class JourneyStopDTO {
+    private Integer stationId;
+    private String stationCode;
+    private String stationName;
+    private int stopSequence;
+    private ZonedDateTime arrival; // null at the origin
+    private ZonedDateTime departure; // null at the terminus
+    private Integer haltMinutes;
+    private List<StopVendorDTO> vendors;
+}
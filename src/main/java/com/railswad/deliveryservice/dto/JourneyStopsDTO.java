@@ -0,0 +1,17 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class JourneyStopsDTO {
+    private Integer trainId;
+    private String trainNumber;
+    private String trainName;
+    private LocalDate journeyDate; // the day the train left its origin
+    private List<JourneyStopDTO> stops;
+}
@@ -0,0 +1,14 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuAvailabilityUpdateDTO {
+    private Long itemId;
+    private Boolean available; // null leaves the toggle unchanged
+    private Integer stockCount; // null leaves the count unchanged, -1 removes the limit
+}
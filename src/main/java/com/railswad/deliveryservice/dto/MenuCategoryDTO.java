@@ -10,4 +10,5 @@ public class MenuCategoryDTO {
     private Long vendorId;
     private String categoryName;
     private Integer displayOrder;
+    private Long version; // when sent on update, must match the stored version
 }
\ No newline at end of file
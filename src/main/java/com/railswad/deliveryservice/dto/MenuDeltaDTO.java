@@ -0,0 +1,26 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Menu changes since a client's sequence. When {@code full} is set the client replaces its copy with
+ * {@code menu}; otherwise it applies the upserts and deletes, dropping the items of deleted categories.
+ * Either way it stores {@code sequence} and sends it back next time.
+ */
+@Getter
+@Setter
+public class MenuDeltaDTO {
+    private Long vendorId;
+    private long sequence;
+    private boolean full;
+    private Map<String, List<MenuItemDTO>> menu;
+    private List<MenuCategoryDTO> upsertedCategories = new ArrayList<>();
+    private List<Long> deletedCategoryIds = new ArrayList<>();
+    private List<MenuItemDTO> upsertedItems = new ArrayList<>();
+    private List<Long> deletedItemIds = new ArrayList<>();
+}
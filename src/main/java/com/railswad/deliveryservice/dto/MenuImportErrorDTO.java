@@ -0,0 +1,11 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class MenuImportErrorDTO {
+    private Integer row;
+    private String message;
+}
@@ -0,0 +1,24 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Data
+public class MenuImportJobDTO {
+    private String jobId;
+    private Long vendorId;
+    private String status;
+    private String fileName;
+    private boolean clearExisting;
+    private Integer totalRows;
+    private int committedRows;
+    private int errorCount;
+    private List<MenuImportErrorDTO> errors;
+    private String message;
+    private Double rowsPerSecond;
+    private ZonedDateTime createdAt;
+    private ZonedDateTime startedAt;
+    private ZonedDateTime finishedAt;
+}
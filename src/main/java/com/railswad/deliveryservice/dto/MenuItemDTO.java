@@ -20,4 +20,5 @@ public class MenuItemDTO {
     private Integer displayOrder;
     private LocalTime availableStartTime;
     private LocalTime availableEndTime;
+    private Long version; // when sent on update, must match the stored version
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class MenuSearchResultDTO {
+    private Long itemId;
+    private Long vendorId;
+    private String vendorName;
+    private String categoryName;
+    private String itemName;
+    private String description;
+    private BigDecimal price;
+    private boolean vegetarian;
+    private double score;
+}
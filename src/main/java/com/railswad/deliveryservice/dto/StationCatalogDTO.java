@@ -0,0 +1,15 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class StationCatalogDTO {
+    private Integer stationId;
+    private ZonedDateTime builtAt;
+    private List<StationCatalogVendorDTO> vendors;
+}
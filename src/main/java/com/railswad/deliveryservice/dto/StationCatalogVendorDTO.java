@@ -0,0 +1,17 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class StationCatalogVendorDTO {
+    private Long vendorId;
+    private String businessName;
+    private Double rating;
+    private Integer preparationTimeMin;
+    private Map<String, List<MenuItemDTO>> menu;
+}
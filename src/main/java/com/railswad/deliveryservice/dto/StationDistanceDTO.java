@@ -0,0 +1,17 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StationDistanceDTO {
+    private Integer stationId;
+    private String stationCode;
+    private String stationName;
+    private String city;
+    private String state;
+    private Double latitude;
+    private Double longitude;
+    private long distanceMeters;
+}
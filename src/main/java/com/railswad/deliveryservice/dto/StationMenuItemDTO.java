@@ -0,0 +1,21 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class StationMenuItemDTO {
+    private Long itemId;
+    private Long vendorId;
+    private String vendorName;
+    private Double vendorRating;
+    private String categoryName;
+    private String itemName;
+    private BigDecimal price;
+    private boolean vegetarian;
+    private Integer preparationTimeMin;
+    private String imageUrl;
+}
@@ -0,0 +1,13 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StopVendorDTO {
+    private Long vendorId;
+    private String businessName;
+    private Double rating;
+    private Integer preparationTimeMin;
+}
@@ -0,0 +1,28 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+@Data
+public class TrainCancellationJobDTO {
+    private String jobId;
+    private Integer trainId;
+    private String trainNumber;
+    private LocalDate journeyDate;
+    private String reason;
+    private String status;
+    private int ordersCancelled;
+    private long refundsQueued;
+    private long refundsPending; // waiting, retrying or being submitted
+    private long refundsCompleted;
+    private long refundsFailed;
+    private long refundsManual; // paid orders with no payment reference to refund against
+    private long amountRefundedPaise;
+    private Double refundsPerSecond;
+    private String message;
+    private ZonedDateTime createdAt;
+    private ZonedDateTime startedAt;
+    private ZonedDateTime finishedAt;
+}
@@ -0,0 +1,15 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainDTO {
+    private Integer trainId;
+    private String trainNumber;
+    private String trainName;
+    private Integer runningDays; // bit 0 = Monday .. bit 6 = Sunday; 127 runs daily
+}
@@ -0,0 +1,15 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+@Data
+public class TrainDelayDTO {
+    private String trainNumber;
+    private LocalDate journeyDate; // the day the run left its origin; inferred when null
+    private String stationCode; // the delay holds from this station onwards
+    private Integer delayMinutes;
+    private ZonedDateTime reportedAt; // defaults to the time of receipt
+}
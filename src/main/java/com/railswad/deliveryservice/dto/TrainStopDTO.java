@@ -0,0 +1,16 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.Data;
+
+import java.time.LocalTime;
+
+@Data
+public class TrainStopDTO {
+    private Integer stopSequence;
+    private Integer stationId;
+    private LocalTime arrivalTime; // null at the origin
+    private LocalTime departureTime; // null at the terminus
+    private int arrivalDay; // days after the train leaves its origin
+    private int departureDay;
+    private Integer distanceKm;
+}
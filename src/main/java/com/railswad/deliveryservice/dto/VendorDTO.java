@@ -18,4 +18,5 @@ public class VendorDTO {
     private boolean verified;
     private Double rating;
     private boolean activeStatus;
+    private Integer deliveryRadiusMeters; // null when the vendor delivers only at its own station
 }
\ No newline at end of file
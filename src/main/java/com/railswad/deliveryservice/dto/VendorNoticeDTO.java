@@ -0,0 +1,17 @@
+package com.railswad.deliveryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+
+@Data
+@AllArgsConstructor
+public class VendorNoticeDTO {
+    private long sequence;
+    private String type;
+    private Long orderId;
+    private ZonedDateTime deliveryTime;
+    private String message;
+    private ZonedDateTime createdAt;
+}
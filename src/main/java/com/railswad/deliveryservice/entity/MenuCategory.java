@@ -27,6 +27,10 @@ public class MenuCategory {
     @Column(name = "display_order")
     private Integer displayOrder = 0;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL)
     private List<MenuItem> menuItems;
 }
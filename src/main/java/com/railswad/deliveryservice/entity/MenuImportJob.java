@@ -0,0 +1,75 @@
+package com.railswad.deliveryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "menu_import_jobs")
+@Getter
+@Setter
+public class MenuImportJob {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String VALIDATING = "VALIDATING";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @Column(name = "job_id", length = 36)
+    private String jobId;
+
+    @Column(name = "vendor_id", nullable = false)
+    private Long vendorId;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "spool_path", nullable = false)
+    private String spoolPath;
+
+    @Column(name = "clear_existing", nullable = false)
+    private boolean clearExisting;
+
+    @Column(name = "total_rows")
+    private Integer totalRows;
+
+    // Checkpoint: rows before this index are committed, a resumed job continues from here.
+    @Column(name = "committed_rows", nullable = false)
+    private int committedRows;
+
+    @Column(name = "error_count", nullable = false)
+    private int errorCount;
+
+    @Column(name = "message")
+    private String message;
+
+    @Column(name = "created_at", nullable = false)
+    private ZonedDateTime createdAt;
+
+    @Column(name = "started_at")
+    private ZonedDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private ZonedDateTime finishedAt;
+
+    // Instance id of the node running the job; only that node writes progress while its heartbeat is fresh.
+    @Column(name = "claimed_by", length = 36)
+    private String claimedBy;
+
+    @Column(name = "heartbeat_at")
+    private ZonedDateTime heartbeatAt;
+
+    @ElementCollection
+    @CollectionTable(name = "menu_import_job_errors", joinColumns = @JoinColumn(name = "job_id"))
+    @OrderBy("rowNumber")
+    private List<MenuImportJobError> errors = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.railswad.deliveryservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuImportJobError {
+
+    @Column(name = "row_number", nullable = false)
+    private int rowNumber;
+
+    @Column(name = "message", nullable = false)
+    private String message;
+}
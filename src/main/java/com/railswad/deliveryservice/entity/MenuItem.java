@@ -39,6 +39,10 @@ public class    MenuItem {
     @Column(name = "is_available", nullable = false)
     private boolean available = true;
 
+    // Remaining portions, or null for no limit; only MenuStockService writes it, so entity saves never overwrite a count.
+    @Column(name = "stock_count", insertable = false, updatable = false)
+    private Integer stockCount;
+
     @Column(name = "preparation_time_min")
     private Integer preparationTimeMin;
 
@@ -54,16 +58,10 @@ public class    MenuItem {
     @Column(name = "available_end_time")
     private LocalTime availableEndTime;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @OneToMany(mappedBy = "item", cascade = CascadeType.ALL)
     private List<OrderItem> orderItems;
-
-    @PrePersist
-    @PreUpdate
-    private void validateTimes() {
-        if (availableStartTime != null && availableEndTime != null) {
-            if (availableEndTime.isBefore(availableStartTime)) {
-                throw new IllegalArgumentException("End time must be after start time");
-            }
-        }
-    }
 }
@@ -42,6 +42,10 @@ public class Order {
     @Column(name = "delivery_time", nullable = false)
     private ZonedDateTime deliveryTime;
 
+    // Train delay already folded into deliveryTime, in minutes.
+    @Column(name = "applied_delay_minutes", nullable = false)
+    private int appliedDelayMinutes;
+
     @Column(name = "order_status", nullable = false)
     private String orderStatus;
 
@@ -66,6 +70,9 @@ public class Order {
     @Column(name = "payment_method")
     private String paymentMethod;
 
+    @Column(name = "payment_reference")
+    private String paymentReference;
+
     @Column(name = "created_at")
     private ZonedDateTime createdAt;
 
@@ -3,6 +3,7 @@ package com.railswad.deliveryservice.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.locationtech.jts.geom.Point;
 
 @Entity
 @Table(name = "stations")
@@ -29,4 +30,8 @@ public class Station {
     private Double latitude;
 
     private Double longitude;
+
+    // Mirrors latitude/longitude for spatial queries in the database.
+    @Column(columnDefinition = "geometry(Point,4326)")
+    private Point location;
 }
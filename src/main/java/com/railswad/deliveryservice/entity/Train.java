@@ -30,4 +30,8 @@ public class Train {
     private Station destinationStation;
 
     private String averageJourneyTime;
+
+    // Bit 0 = Monday .. bit 6 = Sunday; the weekdays on which the train leaves its origin.
+    @Column(name = "running_days", nullable = false)
+    private Integer runningDays = 127;
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.railswad.deliveryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+@Entity
+@Table(name = "train_cancellation_jobs")
+@Getter
+@Setter
+public class TrainCancellationJob {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String CANCELLING = "CANCELLING";
+    public static final String REFUNDING = "REFUNDING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @Column(name = "job_id", length = 36)
+    private String jobId;
+
+    @Column(name = "train_id", nullable = false)
+    private Integer trainId;
+
+    @Column(name = "journey_date", nullable = false)
+    private LocalDate journeyDate;
+
+    @Column(name = "reason")
+    private String reason;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "orders_cancelled", nullable = false)
+    private int ordersCancelled;
+
+    @Column(name = "message")
+    private String message;
+
+    @Column(name = "created_at", nullable = false)
+    private ZonedDateTime createdAt;
+
+    @Column(name = "started_at")
+    private ZonedDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private ZonedDateTime finishedAt;
+}
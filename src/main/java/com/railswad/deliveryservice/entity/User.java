@@ -47,6 +47,11 @@ public class User {
     @Column(name = "last_login")
     private ZonedDateTime lastLogin;
 
+    // Raised whenever the user gains or loses a vendor; access tokens issued before that stop authorizing menu writes.
+    // Changed only by UserRepository.incrementOwnershipVersion, so saving a stale User can never roll it back.
+    @Column(name = "ownership_version", nullable = false, updatable = false)
+    private long ownershipVersion;
+
     @OneToMany(mappedBy = "user", fetch = FetchType.EAGER)
     private Set<UserRole> userRoles;
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.railswad.deliveryservice.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.locationtech.jts.geom.Polygon;
 
 @Setter
 @Entity
@@ -47,4 +48,11 @@ public class Vendor {
     @Column(name = "active_status")
     private Boolean activeStatus;
 
+    @Column(name = "delivery_radius_m")
+    private Integer deliveryRadiusMeters;
+
+    // Circle of deliveryRadiusMeters around the station; null when the vendor serves only its own station.
+    @Column(name = "delivery_area", columnDefinition = "geometry(Polygon,4326)")
+    private Polygon deliveryArea;
+
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.railswad.deliveryservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@code MenuCacheService} once a vendor's menu version has advanced: after the writing transaction
+ * commits, or when a write committed on another instance is picked up.
+ */
+@Getter
+@AllArgsConstructor
+public class MenuChangedEvent {
+    private final Long vendorId;
+    private final long version;
+}
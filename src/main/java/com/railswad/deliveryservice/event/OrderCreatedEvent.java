@@ -0,0 +1,20 @@
+package com.railswad.deliveryservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.ZonedDateTime;
+
+/** Published by {@code OrderService.createOrder}; listeners run after the order transaction commits. */
+@Getter
+@AllArgsConstructor
+public class OrderCreatedEvent {
+    private final Long orderId;
+    private final Long vendorId;
+    private final Integer stationId;
+    private final Double latitude;
+    private final Double longitude;
+    private final Double finalAmount;
+    private final ZonedDateTime createdAt;
+    private final ZonedDateTime deliveryTime;
+}
@@ -0,0 +1,22 @@
+package com.railswad.deliveryservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published by {@code TrainCancellationService} when a cancelled train run's orders are cancelled; listeners
+ * run after the cancelling transaction commits. Order ids are grouped by vendor.
+ */
+@Getter
+@AllArgsConstructor
+public class OrdersCancelledEvent {
+    private final Integer trainId;
+    private final String trainNumber;
+    private final LocalDate journeyDate;
+    private final String reason;
+    private final Map<Long, List<Long>> orderIdsByVendor;
+}
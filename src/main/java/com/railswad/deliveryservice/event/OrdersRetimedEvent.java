@@ -0,0 +1,31 @@
+package com.railswad.deliveryservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published by {@code TrainDelayService} when a delay report moves orders of a train run; listeners run after
+ * the re-timing transaction commits. Orders are grouped by vendor.
+ */
+@Getter
+@AllArgsConstructor
+public class OrdersRetimedEvent {
+    private final Integer trainId;
+    private final String trainNumber;
+    private final LocalDate journeyDate;
+    private final Map<Long, List<RetimedOrder>> ordersByVendor;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RetimedOrder {
+        private final Long orderId;
+        private final Integer stationId;
+        private final ZonedDateTime deliveryTime;
+        private final int delayMinutes;
+    }
+}
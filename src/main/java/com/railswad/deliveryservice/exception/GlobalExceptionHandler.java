@@ -3,6 +3,8 @@ package com.railswad.deliveryservice.exception;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -20,6 +22,16 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler({MenuWriteConflictException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponse> handleWriteConflict(RuntimeException ex) {
+        String message = ex instanceof MenuWriteConflictException
+                ? ex.getMessage()
+                : "The record was changed by another request; reload it and retry";
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse("WRITE_CONFLICT", message));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
         String errorMessage = ex.getBindingResult().getAllErrors().stream()
@@ -0,0 +1,8 @@
+package com.railswad.deliveryservice.exception;
+
+/** Another writer holds or has just changed the same menu; the request can be retried as is. */
+public class MenuWriteConflictException extends RuntimeException {
+    public MenuWriteConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.railswad.deliveryservice.exception;
+
+import lombok.Getter;
+
+/** A refund the payment gateway did not accept; a retryable one may succeed if sent again later. */
+@Getter
+public class RefundFailedException extends RuntimeException {
+    private final boolean retryable;
+
+    public RefundFailedException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+}
@@ -0,0 +1,83 @@
+package com.railswad.deliveryservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assembles analytics JPQL from only the predicates and ordering a caller actually asked for.
+ * Optional filters are dropped instead of being written as {@code (:p IS NULL OR ...)}, so Postgres
+ * sees a concrete predicate it can match against the composite indexes and cache a plan for.
+ */
+public class AnalyticsQueryBuilder {
+
+    private final String selectFrom;
+    private final List<String> predicates = new ArrayList<>();
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+    private String groupBy;
+    private String orderBy;
+    private Integer maxResults;
+
+    private AnalyticsQueryBuilder(String selectFrom) {
+        this.selectFrom = selectFrom;
+    }
+
+    public static AnalyticsQueryBuilder select(String selectFrom) {
+        return new AnalyticsQueryBuilder(selectFrom);
+    }
+
+    public AnalyticsQueryBuilder where(String predicate, String name, Object value) {
+        predicates.add(predicate);
+        parameters.put(name, value);
+        return this;
+    }
+
+    public AnalyticsQueryBuilder whereIfPresent(String predicate, String name, Object value) {
+        if (value != null) {
+            where(predicate, name, value);
+        }
+        return this;
+    }
+
+    public AnalyticsQueryBuilder groupBy(String groupBy) {
+        this.groupBy = groupBy;
+        return this;
+    }
+
+    public AnalyticsQueryBuilder orderBy(String orderBy) {
+        this.orderBy = orderBy;
+        return this;
+    }
+
+    public AnalyticsQueryBuilder limit(Integer maxResults) {
+        this.maxResults = maxResults;
+        return this;
+    }
+
+    public String toJpql() {
+        StringBuilder jpql = new StringBuilder(selectFrom);
+        if (!predicates.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        if (groupBy != null) {
+            jpql.append(" GROUP BY ").append(groupBy);
+        }
+        if (orderBy != null) {
+            jpql.append(" ORDER BY ").append(orderBy);
+        }
+        return jpql.toString();
+    }
+
+    public <T> TypedQuery<T> build(EntityManager entityManager, Class<T> resultType) {
+        TypedQuery<T> query = entityManager.createQuery(toJpql(), resultType);
+        parameters.forEach(query::setParameter);
+        if (maxResults != null) {
+            query.setMaxResults(maxResults);
+        }
+        return query;
+    }
+}
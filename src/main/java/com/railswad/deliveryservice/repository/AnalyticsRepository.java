@@ -0,0 +1,74 @@
+package com.railswad.deliveryservice.repository;
+
+import com.railswad.deliveryservice.dto.MonthlySalesDTO;
+import com.railswad.deliveryservice.dto.TopSellingItemDTO;
+import com.railswad.deliveryservice.dto.VendorSalesOverviewDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Repository
+public class AnalyticsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<MonthlySalesDTO> getMonthlySalesByVendor(Long vendorId, ZonedDateTime startDate, ZonedDateTime endDate) {
+        return AnalyticsQueryBuilder.select("SELECT new com.railswad.deliveryservice.dto.MonthlySalesDTO(" +
+                        "CONCAT(EXTRACT(YEAR FROM o.createdAt), '-', LPAD(CAST(EXTRACT(MONTH FROM o.createdAt) AS STRING), 2, '0')), " +
+                        "COUNT(o), SUM(o.finalAmount)) " +
+                        "FROM Order o")
+                .where("o.vendor.vendorId = :vendorId", "vendorId", vendorId)
+                .whereIfPresent("o.createdAt >= :startDate", "startDate", startDate)
+                .whereIfPresent("o.createdAt <= :endDate", "endDate", endDate)
+                .groupBy("EXTRACT(YEAR FROM o.createdAt), EXTRACT(MONTH FROM o.createdAt)")
+                .orderBy("EXTRACT(YEAR FROM o.createdAt), EXTRACT(MONTH FROM o.createdAt)")
+                .build(entityManager, MonthlySalesDTO.class)
+                .getResultList();
+    }
+
+    public List<VendorSalesOverviewDTO> getAllVendorsSalesOverview(ZonedDateTime startDate, ZonedDateTime endDate) {
+        return AnalyticsQueryBuilder.select("SELECT new com.railswad.deliveryservice.dto.VendorSalesOverviewDTO(" +
+                        "v.vendorId, v.businessName, COUNT(o), SUM(o.finalAmount)) " +
+                        "FROM Order o JOIN o.vendor v")
+                .whereIfPresent("o.createdAt >= :startDate", "startDate", startDate)
+                .whereIfPresent("o.createdAt <= :endDate", "endDate", endDate)
+                .groupBy("v.vendorId, v.businessName")
+                .orderBy("SUM(o.finalAmount) DESC")
+                .build(entityManager, VendorSalesOverviewDTO.class)
+                .getResultList();
+    }
+
+    public List<VendorSalesOverviewDTO> getTopVendorsByStation(Integer stationId, ZonedDateTime startDate,
+                                                               ZonedDateTime endDate, String sortBy, int limit) {
+        return AnalyticsQueryBuilder.select("SELECT new com.railswad.deliveryservice.dto.VendorSalesOverviewDTO(" +
+                        "v.vendorId, v.businessName, COUNT(o), SUM(o.finalAmount)) " +
+                        "FROM Order o JOIN o.vendor v")
+                .where("o.deliveryStation.stationId = :stationId", "stationId", stationId)
+                .whereIfPresent("o.createdAt >= :startDate", "startDate", startDate)
+                .whereIfPresent("o.createdAt <= :endDate", "endDate", endDate)
+                .groupBy("v.vendorId, v.businessName")
+                .orderBy("orders".equals(sortBy) ? "COUNT(o) DESC" : "SUM(o.finalAmount) DESC")
+                .limit(limit)
+                .build(entityManager, VendorSalesOverviewDTO.class)
+                .getResultList();
+    }
+
+    public List<TopSellingItemDTO> getFavoriteItemsByVendor(Long vendorId, ZonedDateTime startDate,
+                                                            ZonedDateTime endDate, String sortBy, int limit) {
+        return AnalyticsQueryBuilder.select("SELECT new com.railswad.deliveryservice.dto.TopSellingItemDTO(" +
+                        "mi.itemId, mi.itemName, mc.categoryName, SUM(oi.quantity), SUM(oi.quantity * oi.unitPrice)) " +
+                        "FROM OrderItem oi JOIN oi.item mi JOIN mi.category mc JOIN oi.order o")
+                .where("o.vendor.vendorId = :vendorId", "vendorId", vendorId)
+                .whereIfPresent("o.createdAt >= :startDate", "startDate", startDate)
+                .whereIfPresent("o.createdAt <= :endDate", "endDate", endDate)
+                .groupBy("mi.itemId, mi.itemName, mc.categoryName")
+                .orderBy("revenue".equals(sortBy) ? "SUM(oi.quantity * oi.unitPrice) DESC" : "SUM(oi.quantity) DESC")
+                .limit(limit)
+                .build(entityManager, TopSellingItemDTO.class)
+                .getResultList();
+    }
+}
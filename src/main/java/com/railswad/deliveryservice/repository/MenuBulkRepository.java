@@ -0,0 +1,136 @@
+package com.railswad.deliveryservice.repository;
+
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based reads and batched writes for menu imports. Menu ids are IDENTITY columns, which stop Hibernate
+ * from batching inserts, so imports go through JDBC batches that join the caller's transaction instead.
+ */
+@Repository
+public class MenuBulkRepository {
+
+    private static final String INSERT_CATEGORY_SQL =
+            "INSERT INTO menu_categories (vendor_id, category_name, display_order) VALUES (?, ?, ?)";
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO menu_items (category_id, item_name, description, price, is_vegetarian, is_available, " +
+            "preparation_time_min, image_url, display_order, available_start_time, available_end_time) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Rows the sheet leaves as they are keep their version, so re-uploading a sheet logs no menu changes.
+    private static final String UPDATE_ITEM_SQL =
+            "UPDATE menu_items m SET category_id = v.category_id, item_name = v.item_name, description = v.description, " +
+            "price = v.price, is_vegetarian = v.is_vegetarian, is_available = v.is_available, " +
+            "preparation_time_min = v.preparation_time_min, image_url = v.image_url, display_order = v.display_order, " +
+            "available_start_time = v.available_start_time, available_end_time = v.available_end_time, version = m.version + 1 " +
+            "FROM (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS NUMERIC), CAST(? AS BOOLEAN), " +
+            "CAST(? AS BOOLEAN), CAST(? AS INTEGER), CAST(? AS VARCHAR), CAST(? AS INTEGER), CAST(? AS TIME), CAST(? AS TIME), " +
+            "CAST(? AS BIGINT))) AS v (category_id, item_name, description, price, is_vegetarian, is_available, " +
+            "preparation_time_min, image_url, display_order, available_start_time, available_end_time, item_id) " +
+            "WHERE m.item_id = v.item_id AND (m.category_id, m.item_name, m.description, m.price, m.is_vegetarian, m.is_available, " +
+            "m.preparation_time_min, m.image_url, m.display_order, m.available_start_time, m.available_end_time) IS DISTINCT FROM " +
+            "(v.category_id, v.item_name, v.description, v.price, v.is_vegetarian, v.is_available, " +
+            "v.preparation_time_min, v.image_url, v.display_order, v.available_start_time, v.available_end_time)";
+
+    // Items that appear on past orders are retired rather than deleted so order history keeps its references.
+    private static final String RETIRE_ORDERED_ITEM_SQL =
+            "UPDATE menu_items SET is_available = false, version = version + 1 WHERE item_id = ? " +
+            "AND EXISTS (SELECT 1 FROM order_items oi WHERE oi.item_id = menu_items.item_id)";
+
+    private static final String DELETE_UNORDERED_ITEM_SQL =
+            "DELETE FROM menu_items WHERE item_id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM order_items oi WHERE oi.item_id = menu_items.item_id)";
+
+    private static final String DELETE_EMPTY_CATEGORY_SQL =
+            "DELETE FROM menu_categories WHERE category_id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM menu_items i WHERE i.category_id = menu_categories.category_id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${menu.import.batch-size:500}")
+    private int batchSize;
+
+    /** Key of a menu item within a vendor's menu: its category and its exact name. */
+    public record ItemKey(Long categoryId, String itemName) {
+    }
+
+    public Map<String, Long> findCategoryIds(Long vendorId) {
+        Map<String, Long> categoryIds = new HashMap<>();
+        jdbcTemplate.query("SELECT category_name, category_id FROM menu_categories WHERE vendor_id = ?",
+                rs -> {
+                    categoryIds.put(rs.getString(1), rs.getLong(2));
+                }, vendorId);
+        return categoryIds;
+    }
+
+    public Map<ItemKey, Long> findItemIds(Long vendorId) {
+        Map<ItemKey, Long> itemIds = new HashMap<>();
+        jdbcTemplate.query("SELECT i.category_id, i.item_name, i.item_id FROM menu_items i " +
+                        "JOIN menu_categories c ON c.category_id = i.category_id WHERE c.vendor_id = ?",
+                rs -> {
+                    itemIds.put(new ItemKey(rs.getLong(1), rs.getString(2)), rs.getLong(3));
+                }, vendorId);
+        return itemIds;
+    }
+
+    /** Inserts the named categories with their display orders. */
+    public void insertCategories(Long vendorId, Map<String, Integer> displayOrders) {
+        jdbcTemplate.batchUpdate(INSERT_CATEGORY_SQL, displayOrders.entrySet(), batchSize, (ps, category) -> {
+            ps.setLong(1, vendorId);
+            ps.setString(2, category.getKey());
+            ps.setInt(3, category.getValue() != null ? category.getValue() : 0);
+        });
+    }
+
+    /** Inserts items; each DTO's {@code categoryId} must already be resolved. */
+    public void insertItems(List<MenuItemDTO> items) {
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, items, batchSize, MenuBulkRepository::bindItem);
+    }
+
+    /** Overwrites changed items in place; each DTO's {@code itemId} and {@code categoryId} must be set. */
+    public void updateItems(List<MenuItemDTO> items) {
+        jdbcTemplate.batchUpdate(UPDATE_ITEM_SQL, items, batchSize, (ps, item) -> {
+            bindItem(ps, item);
+            ps.setLong(12, item.getItemId());
+        });
+    }
+
+    /** Deletes the items, or marks them unavailable when past orders still reference them. */
+    public void removeItems(Collection<Long> itemIds) {
+        jdbcTemplate.batchUpdate(RETIRE_ORDERED_ITEM_SQL, itemIds, batchSize, (ps, itemId) -> ps.setLong(1, itemId));
+        jdbcTemplate.batchUpdate(DELETE_UNORDERED_ITEM_SQL, itemIds, batchSize, (ps, itemId) -> ps.setLong(1, itemId));
+    }
+
+    /** Deletes those of the given categories that no longer hold any item. */
+    public void removeEmptyCategories(Collection<Long> categoryIds) {
+        jdbcTemplate.batchUpdate(DELETE_EMPTY_CATEGORY_SQL, categoryIds, batchSize, (ps, categoryId) -> ps.setLong(1, categoryId));
+    }
+
+    private static void bindItem(PreparedStatement ps, MenuItemDTO item) throws SQLException {
+        ps.setLong(1, item.getCategoryId());
+        ps.setString(2, item.getItemName());
+        ps.setString(3, item.getDescription());
+        ps.setBigDecimal(4, item.getPrice());
+        ps.setBoolean(5, item.isVegetarian());
+        ps.setBoolean(6, item.isAvailable());
+        ps.setObject(7, item.getPreparationTimeMin(), Types.INTEGER);
+        ps.setString(8, item.getImageUrl());
+        ps.setInt(9, item.getDisplayOrder() != null ? item.getDisplayOrder() : 0);
+        ps.setTime(10, item.getAvailableStartTime() != null ? Time.valueOf(item.getAvailableStartTime()) : null);
+        ps.setTime(11, item.getAvailableEndTime() != null ? Time.valueOf(item.getAvailableEndTime()) : null);
+    }
+}
@@ -1,17 +1,24 @@
 package com.railswad.deliveryservice.repository;
 
 import com.railswad.deliveryservice.entity.MenuCategory;
-import com.railswad.deliveryservice.entity.Vendor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MenuCategoryRepository extends JpaRepository<MenuCategory, Long> {
     List<MenuCategory> findByVendorVendorId(Long vendorId);
     Page<MenuCategory> findByVendorVendorId(Long vendorId, Pageable pageable);
-    MenuCategory findByVendorAndCategoryName(Vendor vendor, String categoryName);
+
+    @Query("SELECT DISTINCT c FROM MenuCategory c LEFT JOIN FETCH c.menuItems WHERE c.vendor.vendorId = :vendorId")
+    List<MenuCategory> findByVendorIdWithItems(@Param("vendorId") Long vendorId);
+
+    @Query("SELECT DISTINCT c FROM MenuCategory c LEFT JOIN FETCH c.menuItems WHERE c.vendor.vendorId IN :vendorIds")
+    List<MenuCategory> findByVendorIdsWithItems(@Param("vendorIds") Collection<Long> vendorIds);
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.railswad.deliveryservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the {@code menu_changes} log, which database triggers append to on every menu category and item write.
+ * Each vendor's entries are numbered from {@code vendors.menu_seq} under the vendor's row lock, so they commit
+ * in sequence order and a reader never sees a later entry while an earlier one is still pending.
+ */
+@Repository
+public class MenuChangeRepository {
+
+    public static final char CATEGORY = 'C';
+    public static final char ITEM = 'I';
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public record ChangeRow(long seq, char entityType, Long entityId, boolean deleted) {
+    }
+
+    /** The vendor's latest sequence, and the latest one pruned from the log. */
+    public record VendorSequence(long current, long pruned) {
+    }
+
+    /** The vendor's changes after {@code since} in sequence order, at most {@code limit} of them. */
+    public List<ChangeRow> findSince(Long vendorId, long since, int limit) {
+        return jdbcTemplate.query(
+                "SELECT vendor_seq, entity_type, entity_id, deleted FROM menu_changes " +
+                "WHERE vendor_id = ? AND vendor_seq > ? ORDER BY vendor_seq LIMIT ?",
+                (rs, rowNum) -> new ChangeRow(rs.getLong(1), rs.getString(2).charAt(0), rs.getLong(3), rs.getBoolean(4)),
+                vendorId, since, limit);
+    }
+
+    /** Empty when the vendor does not exist. */
+    public Optional<VendorSequence> findSequence(Long vendorId) {
+        return jdbcTemplate.query("SELECT menu_seq, menu_pruned_seq FROM vendors WHERE vendor_id = ?",
+                (rs, rowNum) -> new VendorSequence(rs.getLong(1), rs.getLong(2)), vendorId).stream().findFirst();
+    }
+
+    /** Deletes entries older than the cutoff and raises each affected vendor's pruned sequence past them. */
+    public int deleteOlderThan(ZonedDateTime cutoff) {
+        return jdbcTemplate.update(
+                "WITH pruned AS (DELETE FROM menu_changes WHERE changed_at < ? RETURNING vendor_id, vendor_seq) " +
+                "UPDATE vendors v SET menu_pruned_seq = GREATEST(v.menu_pruned_seq, p.max_seq) " +
+                "FROM (SELECT vendor_id, MAX(vendor_seq) AS max_seq FROM pruned GROUP BY vendor_id) p " +
+                "WHERE v.vendor_id = p.vendor_id",
+                Timestamp.from(cutoff.toInstant()));
+    }
+}
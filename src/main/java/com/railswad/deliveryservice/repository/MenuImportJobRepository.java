@@ -0,0 +1,52 @@
+package com.railswad.deliveryservice.repository;
+
+import com.railswad.deliveryservice.entity.MenuImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Import jobs are shared by every instance through this table: a job is run by whichever instance claims
+ * it out of {@code QUEUED}, and the per-vendor limit is checked under the vendor's row lock.
+ */
+@Repository
+public interface MenuImportJobRepository extends JpaRepository<MenuImportJob, String> {
+    List<MenuImportJob> findByStatusIn(Collection<String> statuses);
+
+    long countByVendorIdAndStatusIn(Long vendorId, Collection<String> statuses);
+
+    /** Serializes job submission per vendor across instances; call inside the submitting transaction. */
+    @Query(value = "SELECT vendor_id FROM vendors WHERE vendor_id = :vendorId FOR UPDATE", nativeQuery = true)
+    Long lockVendor(@Param("vendorId") Long vendorId);
+
+    @Query(value = "SELECT job_id FROM menu_import_jobs WHERE status = 'QUEUED' ORDER BY created_at LIMIT :limit", nativeQuery = true)
+    List<String> findQueuedJobIds(@Param("limit") int limit);
+
+    /** Takes a queued job for this instance; returns 0 when another instance got it first. */
+    @Modifying
+    @Query("UPDATE MenuImportJob j SET j.status = 'VALIDATING', j.claimedBy = :owner, j.heartbeatAt = :now, " +
+            "j.startedAt = COALESCE(j.startedAt, :now) WHERE j.jobId = :jobId AND j.status = 'QUEUED'")
+    int claim(@Param("jobId") String jobId, @Param("owner") String owner, @Param("now") ZonedDateTime now);
+
+    @Modifying
+    @Query("UPDATE MenuImportJob j SET j.heartbeatAt = :now WHERE j.jobId IN :jobIds AND j.claimedBy = :owner")
+    int heartbeat(@Param("jobIds") Collection<String> jobIds, @Param("owner") String owner, @Param("now") ZonedDateTime now);
+
+    /** Queues again the jobs whose instance stopped sending heartbeats; they resume from their checkpoint. */
+    @Modifying
+    @Query("UPDATE MenuImportJob j SET j.status = 'QUEUED', j.claimedBy = NULL " +
+            "WHERE j.status IN ('VALIDATING', 'RUNNING') AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :before)")
+    int requeueStale(@Param("before") ZonedDateTime before);
+
+    @Modifying
+    @Query("UPDATE MenuImportJob j SET j.committedRows = :committedRows, j.heartbeatAt = :now " +
+            "WHERE j.jobId = :jobId AND j.claimedBy = :owner")
+    int updateCheckpoint(@Param("jobId") String jobId, @Param("owner") String owner,
+                         @Param("committedRows") int committedRows, @Param("now") ZonedDateTime now);
+}
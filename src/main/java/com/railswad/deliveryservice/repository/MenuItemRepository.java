@@ -1,23 +1,32 @@
 package com.railswad.deliveryservice.repository;
 
-import com.railswad.deliveryservice.entity.MenuCategory;
 import com.railswad.deliveryservice.entity.MenuItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
 
-    @Query("SELECT m FROM MenuItem m WHERE m.category.vendor.vendorId = :vendorId " +
-            "AND m.available = true " +
-            "AND (m.availableStartTime IS NULL OR m.availableEndTime IS NULL OR " +
-            "(m.availableStartTime <= :currentTime AND m.availableEndTime >= :currentTime))")
-    List<MenuItem> findAvailableItemsByVendor(Long vendorId, LocalTime currentTime);
+    // Read through a server-side cursor; must be consumed inside a transaction and closed afterwards.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM MenuItem i JOIN FETCH i.category c WHERE c.vendor.vendorId = :vendorId " +
+            "ORDER BY c.displayOrder, c.categoryId, i.displayOrder, i.itemId")
+    Stream<MenuItem> streamByVendorId(@Param("vendorId") Long vendorId);
 
-    Optional<MenuItem> findByCategoryAndItemName(MenuCategory category, String itemName);
+    @Query("SELECT i FROM MenuItem i JOIN FETCH i.category c JOIN FETCH c.vendor WHERE i.itemId IN :itemIds")
+    List<MenuItem> findWithCategoryByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 
-    List<MenuItem> findByCategory(MenuCategory category); // Added for clearing existing items
-}
\ No newline at end of file
+    @Query("SELECT i.imageUrl FROM MenuItem i WHERE i.itemId = :itemId AND i.imageUrl IS NOT NULL")
+    Optional<String> findImageUrlByItemId(@Param("itemId") Long itemId);
+}
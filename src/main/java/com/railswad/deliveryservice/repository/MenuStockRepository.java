@@ -0,0 +1,108 @@
+package com.railswad.deliveryservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Availability toggles and stock counts of menu items for MenuStockService. Stock is taken with a conditional
+ * decrement, so the database and not any one instance decides whether a portion is left.
+ */
+@Repository
+public class MenuStockRepository {
+
+    private static final String SELECT_STOCK_SQL =
+            "SELECT i.item_id, c.vendor_id, i.is_available, i.stock_count FROM menu_items i " +
+            "JOIN menu_categories c ON c.category_id = i.category_id";
+
+    // Items without a limit have a null stock_count and never match, so callers send only limited items.
+    private static final String TAKE_STOCK_SQL =
+            "UPDATE menu_items i SET stock_count = i.stock_count - q.quantity " +
+            "FROM unnest(?, ?) AS q(item_id, quantity) " +
+            "WHERE i.item_id = q.item_id AND i.is_available AND i.stock_count >= q.quantity " +
+            "RETURNING i.item_id, i.stock_count";
+
+    // A null toggle leaves is_available alone; the stock is written only when the update carries one.
+    private static final String UPDATE_AVAILABILITY_SQL =
+            "UPDATE menu_items SET is_available = COALESCE(?, is_available), " +
+            "stock_count = CASE WHEN ? THEN ? ELSE stock_count END WHERE item_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${menu.import.batch-size:500}")
+    private int batchSize;
+
+    /** One item's toggle and remaining stock; {@code stockCount} is null when the item has no limit. */
+    public record StockRow(Long itemId, Long vendorId, boolean available, Integer stockCount) {
+    }
+
+    /** A vendor's change to one item; null fields are left as they are, and a stock of null means no limit. */
+    public record AvailabilityChange(Long itemId, Boolean available, boolean setStock, Integer stockCount) {
+    }
+
+    public List<StockRow> findAll() {
+        List<StockRow> rows = new ArrayList<>();
+        jdbcTemplate.query(SELECT_STOCK_SQL, rs -> {
+            rows.add(new StockRow(rs.getLong(1), rs.getLong(2), rs.getBoolean(3), (Integer) rs.getObject(4)));
+        });
+        return rows;
+    }
+
+    public List<StockRow> findByVendorId(Long vendorId) {
+        List<StockRow> rows = new ArrayList<>();
+        jdbcTemplate.query(SELECT_STOCK_SQL + " WHERE c.vendor_id = ?", rs -> {
+            rows.add(new StockRow(rs.getLong(1), rs.getLong(2), rs.getBoolean(3), (Integer) rs.getObject(4)));
+        }, vendorId);
+        return rows;
+    }
+
+    public List<StockRow> findByItemIds(Collection<Long> itemIds) {
+        List<StockRow> rows = new ArrayList<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_STOCK_SQL + " WHERE i.item_id = ANY (?)");
+            ps.setArray(1, connection.createArrayOf("int8", itemIds.toArray()));
+            return ps;
+        }, rs -> {
+            rows.add(new StockRow(rs.getLong(1), rs.getLong(2), rs.getBoolean(3), (Integer) rs.getObject(4)));
+        });
+        return rows;
+    }
+
+    /**
+     * Takes the quantities off the items that are switched on and have enough left, in one statement, and
+     * returns what remains of each item taken from. Items missing from the result were not touched. Joins
+     * the caller's transaction, which must roll back if any item fell short.
+     */
+    public Map<Long, Integer> take(Map<Long, Integer> quantities) {
+        List<Long> itemIds = new ArrayList<>(quantities.keySet());
+        Map<Long, Integer> remaining = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(TAKE_STOCK_SQL);
+            ps.setArray(1, connection.createArrayOf("int8", itemIds.toArray()));
+            ps.setArray(2, connection.createArrayOf("int4", itemIds.stream().map(quantities::get).toArray()));
+            return ps;
+        }, rs -> {
+            remaining.put(rs.getLong(1), rs.getInt(2));
+        });
+        return remaining;
+    }
+
+    public void updateAvailability(Collection<AvailabilityChange> changes) {
+        jdbcTemplate.batchUpdate(UPDATE_AVAILABILITY_SQL, changes, batchSize, (ps, change) -> {
+            ps.setObject(1, change.available(), Types.BOOLEAN);
+            ps.setBoolean(2, change.setStock());
+            ps.setObject(3, change.stockCount(), Types.INTEGER);
+            ps.setLong(4, change.itemId());
+        });
+    }
+}
@@ -2,12 +2,12 @@ package com.railswad.deliveryservice.repository;
 
 import com.railswad.deliveryservice.dto.*;
 import com.railswad.deliveryservice.entity.Order;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -32,31 +32,6 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             @Param("startDate") ZonedDateTime startDate,
             @Param("endDate") ZonedDateTime endDate);
 
-    @Query("SELECT new com.railswad.deliveryservice.dto.MonthlySalesDTO(" +
-            "CONCAT(EXTRACT(YEAR FROM o.createdAt), '-', LPAD(CAST(EXTRACT(MONTH FROM o.createdAt) AS STRING), 2, '0')), " +
-            "COUNT(o), SUM(o.finalAmount)) " +
-            "FROM Order o " +
-            "WHERE o.vendor.vendorId = :vendorId " +
-            "AND (:startDate IS NULL OR o.createdAt >= :startDate) " +
-            "AND (:endDate IS NULL OR o.createdAt <= :endDate) " +
-            "GROUP BY EXTRACT(YEAR FROM o.createdAt), EXTRACT(MONTH FROM o.createdAt) " +
-            "ORDER BY EXTRACT(YEAR FROM o.createdAt), EXTRACT(MONTH FROM o.createdAt)")
-    List<MonthlySalesDTO> getMonthlySalesByVendor(
-            @Param("vendorId") Long vendorId,
-            @Param("startDate") ZonedDateTime startDate,
-            @Param("endDate") ZonedDateTime endDate);
-
-    @Query("SELECT new com.railswad.deliveryservice.dto.VendorSalesOverviewDTO(" +
-            "v.vendorId, v.businessName, COUNT(o), SUM(o.finalAmount)) " +
-            "FROM Order o JOIN o.vendor v " +
-            "WHERE (:startDate IS NULL OR o.createdAt >= :startDate) " +
-            "AND (:endDate IS NULL OR o.createdAt <= :endDate) " +
-            "GROUP BY v.vendorId, v.businessName " +
-            "ORDER BY SUM(o.finalAmount) DESC")
-    List<VendorSalesOverviewDTO> getAllVendorsSalesOverview(
-            @Param("startDate") ZonedDateTime startDate,
-            @Param("endDate") ZonedDateTime endDate);
-
     @Query("SELECT new com.railswad.deliveryservice.dto.StationSalesSummaryDTO(" +
             "s.stationId, s.stationName, COUNT(o), SUM(o.finalAmount), AVG(o.finalAmount)) " +
             "FROM Order o JOIN o.deliveryStation s " +
@@ -68,22 +43,6 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             @Param("startDate") ZonedDateTime startDate,
             @Param("endDate") ZonedDateTime endDate);
 
-    @Query("SELECT new com.railswad.deliveryservice.dto.VendorSalesOverviewDTO(" +
-            "v.vendorId, v.businessName, COUNT(o), SUM(o.finalAmount)) " +
-            "FROM Order o JOIN o.vendor v JOIN o.deliveryStation s " +
-            "WHERE s.stationId = :stationId " +
-            "AND (:startDate IS NULL OR o.createdAt >= :startDate) " +
-            "AND (:endDate IS NULL OR o.createdAt <= :endDate) " +
-            "GROUP BY v.vendorId, v.businessName " +
-            "ORDER BY " +
-            "CASE WHEN :sortBy = 'orders' THEN COUNT(o) ELSE SUM(o.finalAmount) END DESC")
-    List<VendorSalesOverviewDTO> getTopVendorsByStation(
-            @Param("stationId") Integer stationId,
-            @Param("startDate") ZonedDateTime startDate,
-            @Param("endDate") ZonedDateTime endDate,
-            @Param("sortBy") String sortBy,
-            Pageable pageable);
-
     @Query("SELECT new com.railswad.deliveryservice.dto.StationSalesOverviewDTO(" +
             "s.stationId, s.stationName, COUNT(o), SUM(o.finalAmount)) " +
             "FROM Order o JOIN o.deliveryStation s " +
@@ -94,5 +53,17 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             @Param("startDate") ZonedDateTime startDate,
             @Param("endDate") ZonedDateTime endDate);
 
+    @Query("SELECT s.latitude, s.longitude, COUNT(o), SUM(o.finalAmount) " +
+            "FROM Order o JOIN o.deliveryStation s " +
+            "WHERE s.latitude IS NOT NULL AND s.longitude IS NOT NULL AND o.createdAt < :cutoff " +
+            "GROUP BY s.stationId, s.latitude, s.longitude")
+    List<Object[]> getOrderTotalsByStationLocation(@Param("cutoff") ZonedDateTime cutoff);
+
+    @Query("SELECT o.orderId, s.latitude, s.longitude, o.finalAmount " +
+            "FROM Order o JOIN o.deliveryStation s " +
+            "WHERE s.latitude IS NOT NULL AND s.longitude IS NOT NULL AND o.createdAt >= :cutoff")
+    List<Object[]> getOrdersByStationLocationSince(@Param("cutoff") ZonedDateTime cutoff);
 
-}
\ No newline at end of file
+    @Query("SELECT o.vendor.vendorId, o.orderId, o.deliveryTime FROM Order o WHERE o.orderStatus NOT IN :closedStatuses")
+    List<Object[]> findOpenOrderDeliveryTimes(@Param("closedStatuses") Collection<String> closedStatuses);
+}
@@ -2,6 +2,11 @@ package com.railswad.deliveryservice.repository;
 
 import com.railswad.deliveryservice.entity.Station;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface StationRepository extends JpaRepository<Station, Integer> {
-}
\ No newline at end of file
+    @Query("SELECT s FROM Station s WHERE s.latitude IS NOT NULL AND s.longitude IS NOT NULL")
+    List<Station> findAllWithCoordinates();
+}
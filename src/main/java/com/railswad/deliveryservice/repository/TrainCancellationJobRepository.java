@@ -0,0 +1,28 @@
+package com.railswad.deliveryservice.repository;
+
+import com.railswad.deliveryservice.entity.TrainCancellationJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TrainCancellationJobRepository extends JpaRepository<TrainCancellationJob, String> {
+    List<TrainCancellationJob> findByStatusIn(Collection<String> statuses);
+
+    Optional<TrainCancellationJob> findByTrainIdAndJourneyDate(Integer trainId, LocalDate journeyDate);
+
+    // trainId, journeyDate
+    @Query("SELECT j.trainId, j.journeyDate FROM TrainCancellationJob j WHERE j.journeyDate >= :from")
+    List<Object[]> findCancelledRunsFrom(@Param("from") LocalDate from);
+
+    @Modifying
+    @Query("UPDATE TrainCancellationJob j SET j.ordersCancelled = j.ordersCancelled + :count WHERE j.jobId = :jobId")
+    void addCancelled(@Param("jobId") String jobId, @Param("count") int count);
+}
@@ -0,0 +1,167 @@
+package com.railswad.deliveryservice.repository;
+
+import com.railswad.deliveryservice.repository.TrainDelayRepository.StopWindow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-wise cancellation of a train run's orders and the refund queue in {@code order_refunds}. Refund rows
+ * are claimed in batches with {@code SKIP LOCKED} and their outcomes written back in JDBC batches.
+ */
+@Repository
+public class TrainCancellationRepository {
+
+    public static final String PENDING = "PENDING";
+    public static final String SUBMITTING = "SUBMITTING";
+    public static final String REFUNDED = "REFUNDED";
+    public static final String FAILED = "FAILED";
+    public static final String MANUAL = "MANUAL";
+
+    // Matches a run's orders the way TrainDelayRepository re-times them; captured payments become refund-pending.
+    private static final String CANCEL_ORDERS_SQL =
+            "UPDATE orders o SET order_status = 'CANCELLED', " +
+            "payment_status = CASE WHEN o.payment_status = 'CAPTURED' THEN 'REFUND_PENDING' ELSE o.payment_status END, updated_at = ? " +
+            "FROM unnest(?, ?, ?) AS s(station_id, window_start, window_end) " +
+            "WHERE o.train_id = ? AND o.delivery_time >= ? AND o.delivery_time <= ? " +
+            "AND o.delivery_station_id = s.station_id " +
+            "AND o.delivery_time - make_interval(mins => o.applied_delay_minutes) BETWEEN s.window_start AND s.window_end " +
+            "AND o.order_status <> ALL (?) " +
+            "RETURNING o.order_id, o.vendor_id, o.payment_status, o.payment_reference, o.final_amount";
+
+    private static final String INSERT_REFUND_SQL =
+            "INSERT INTO order_refunds (order_id, job_id, payment_reference, amount_paise, status, next_attempt_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (order_id) DO NOTHING";
+
+    private static final String CLAIM_REFUNDS_SQL =
+            "UPDATE order_refunds r SET status = 'SUBMITTING', attempts = r.attempts + 1, updated_at = ? " +
+            "WHERE r.order_id IN (SELECT order_id FROM order_refunds WHERE job_id = ? AND status = 'PENDING' " +
+            "AND next_attempt_at <= ? ORDER BY next_attempt_at, order_id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING r.order_id, r.payment_reference, r.amount_paise, r.attempts";
+
+    private static final String RECORD_OUTCOME_SQL =
+            "UPDATE order_refunds SET status = ?, refund_reference = ?, last_error = ?, next_attempt_at = COALESCE(?::timestamptz, next_attempt_at), " +
+            "updated_at = ? WHERE order_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${train.cancellation.batch-size:500}")
+    private int batchSize;
+
+    public record CancelledOrder(Long orderId, Long vendorId, String paymentStatus, String paymentReference, long amountPaise) {
+    }
+
+    public record RefundClaim(Long orderId, String paymentReference, long amountPaise, int attempts) {
+    }
+
+    /** Where a refund attempt left the order; {@code nextAttemptAt} is set only for a retry. */
+    public record RefundOutcome(Long orderId, String status, String refundReference, String error, ZonedDateTime nextAttemptAt) {
+    }
+
+    /** Cancels every open order of the run in one statement and returns them. Joins the caller's transaction. */
+    public List<CancelledOrder> cancelOrders(Integer trainId, List<StopWindow> stops, ZonedDateTime from, ZonedDateTime to,
+                                             Collection<String> closedStatuses, ZonedDateTime now) {
+        if (stops.isEmpty()) {
+            return List.of();
+        }
+        // Amounts are truncated to paise as PaymentService captured them, so a full refund never exceeds the capture.
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(CANCEL_ORDERS_SQL);
+            ps.setTimestamp(1, Timestamp.from(now.toInstant()));
+            ps.setArray(2, connection.createArrayOf("int4", stops.stream().map(StopWindow::stationId).toArray()));
+            ps.setArray(3, connection.createArrayOf("timestamptz", stops.stream()
+                    .map(stop -> Timestamp.from(stop.windowStart().toInstant())).toArray()));
+            ps.setArray(4, connection.createArrayOf("timestamptz", stops.stream()
+                    .map(stop -> Timestamp.from(stop.windowEnd().toInstant())).toArray()));
+            ps.setInt(5, trainId);
+            ps.setTimestamp(6, Timestamp.from(from.toInstant()));
+            ps.setTimestamp(7, Timestamp.from(to.toInstant()));
+            ps.setArray(8, connection.createArrayOf("varchar", closedStatuses.toArray()));
+            return ps;
+        }, (rs, rowNum) -> new CancelledOrder(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4),
+                (long) (rs.getDouble(5) * 100)));
+    }
+
+    /** Queues refunds of the cancelled orders that were paid; orders already queued are left alone. */
+    public void insertRefunds(String jobId, Collection<CancelledOrder> orders, ZonedDateTime now) {
+        Timestamp timestamp = Timestamp.from(now.toInstant());
+        jdbcTemplate.batchUpdate(INSERT_REFUND_SQL, orders, batchSize, (ps, order) -> {
+            ps.setLong(1, order.orderId());
+            ps.setString(2, jobId);
+            ps.setString(3, order.paymentReference());
+            ps.setLong(4, order.amountPaise());
+            ps.setString(5, order.paymentReference() != null ? PENDING : MANUAL);
+            ps.setTimestamp(6, timestamp);
+            ps.setTimestamp(7, timestamp);
+        });
+    }
+
+    /** Takes up to {@code limit} due refunds of the job, marking them as being submitted. */
+    public List<RefundClaim> claim(String jobId, int limit, ZonedDateTime now) {
+        Timestamp timestamp = Timestamp.from(now.toInstant());
+        return jdbcTemplate.query(CLAIM_REFUNDS_SQL,
+                (rs, rowNum) -> new RefundClaim(rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getInt(4)),
+                timestamp, jobId, timestamp, limit);
+    }
+
+    /** Writes back the outcomes and moves the orders' payment status for refunds that finished either way. */
+    public void recordOutcomes(Collection<RefundOutcome> outcomes, ZonedDateTime now) {
+        Timestamp timestamp = Timestamp.from(now.toInstant());
+        jdbcTemplate.batchUpdate(RECORD_OUTCOME_SQL, outcomes, batchSize, (ps, outcome) -> {
+            ps.setString(1, outcome.status());
+            ps.setString(2, outcome.refundReference());
+            ps.setString(3, outcome.error() != null && outcome.error().length() > 255 ? outcome.error().substring(0, 255) : outcome.error());
+            ps.setObject(4, outcome.nextAttemptAt() != null ? Timestamp.from(outcome.nextAttemptAt().toInstant()) : null, Types.TIMESTAMP);
+            ps.setTimestamp(5, timestamp);
+            ps.setLong(6, outcome.orderId());
+        });
+        List<RefundOutcome> finished = outcomes.stream()
+                .filter(outcome -> REFUNDED.equals(outcome.status()) || FAILED.equals(outcome.status()))
+                .toList();
+        jdbcTemplate.batchUpdate("UPDATE orders SET payment_status = ?, updated_at = ? WHERE order_id = ?", finished, batchSize,
+                (ps, outcome) -> {
+                    ps.setString(1, REFUNDED.equals(outcome.status()) ? "REFUNDED" : "REFUND_FAILED");
+                    ps.setTimestamp(2, timestamp);
+                    ps.setLong(3, outcome.orderId());
+                });
+    }
+
+    /**
+     * Returns refunds claimed before the cutoff and still mid-submission to the queue; claims taken since are
+     * left to the instance working them. The gateway's receipt check prevents doubles.
+     */
+    public int releaseSubmitting(String jobId, ZonedDateTime claimedBefore) {
+        return jdbcTemplate.update("UPDATE order_refunds SET status = 'PENDING' WHERE job_id = ? AND status = 'SUBMITTING' AND updated_at < ?",
+                jobId, Timestamp.from(claimedBefore.toInstant()));
+    }
+
+    /** Queues the job's failed refunds again with a fresh attempt count. */
+    public int requeueFailed(String jobId, ZonedDateTime now) {
+        Timestamp timestamp = Timestamp.from(now.toInstant());
+        jdbcTemplate.update("UPDATE orders SET payment_status = 'REFUND_PENDING', updated_at = ? WHERE order_id IN " +
+                "(SELECT order_id FROM order_refunds WHERE job_id = ? AND status = 'FAILED')", timestamp, jobId);
+        return jdbcTemplate.update("UPDATE order_refunds SET status = 'PENDING', attempts = 0, next_attempt_at = ?, updated_at = ? " +
+                "WHERE job_id = ? AND status = 'FAILED'", timestamp, timestamp, jobId);
+    }
+
+    /** Refund count and amount in paise by status, for the job's progress report. */
+    public Map<String, long[]> countByStatus(String jobId) {
+        Map<String, long[]> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT status, COUNT(*), COALESCE(SUM(amount_paise), 0) FROM order_refunds WHERE job_id = ? GROUP BY status",
+                rs -> {
+                    counts.put(rs.getString(1), new long[]{rs.getLong(2), rs.getLong(3)});
+                }, jobId);
+        return counts;
+    }
+}
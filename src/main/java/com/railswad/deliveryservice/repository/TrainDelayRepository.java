@@ -0,0 +1,152 @@
+package com.railswad.deliveryservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reported train delays in {@code train_delays}, and the set-based re-timing of the orders on a delayed
+ * run: one UPDATE per run moves every affected order, one JDBC batch writes their tracking rows.
+ */
+@Repository
+public class TrainDelayRepository {
+
+    private static final String UPSERT_DELAY_SQL =
+            "INSERT INTO train_delays (train_id, journey_date, station_id, delay_minutes, reported_at) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (train_id, journey_date, station_id) DO UPDATE SET delay_minutes = EXCLUDED.delay_minutes, " +
+            "reported_at = EXCLUDED.reported_at WHERE train_delays.reported_at <= EXCLUDED.reported_at";
+
+    // Each stop of the run is one row of the unnest; an order matches the stop at its delivery station when
+    // its delivery time, less the delay already applied, falls in the stop's scheduled window. The plain
+    // delivery_time bounds keep the scan on idx_orders_train_delivery_time.
+    private static final String RETIME_ORDERS_SQL =
+            "UPDATE orders o SET delivery_time = o.delivery_time + make_interval(mins => s.delay_minutes - o.applied_delay_minutes), " +
+            "applied_delay_minutes = s.delay_minutes, updated_at = ? " +
+            "FROM unnest(?, ?, ?, ?) AS s(station_id, window_start, window_end, delay_minutes) " +
+            "WHERE o.train_id = ? AND o.delivery_time >= ? AND o.delivery_time <= ? " +
+            "AND o.delivery_station_id = s.station_id " +
+            "AND o.delivery_time - make_interval(mins => o.applied_delay_minutes) BETWEEN s.window_start AND s.window_end " +
+            "AND o.applied_delay_minutes <> s.delay_minutes " +
+            "AND o.order_status <> ALL (?) " +
+            "RETURNING o.order_id, o.vendor_id, o.delivery_station_id, o.order_status, o.delivery_time, s.delay_minutes";
+
+    private static final String INSERT_TRACKING_SQL =
+            "INSERT INTO order_tracking (order_id, status, remarks, created_at) VALUES (?, ?, ?, ?)";
+
+    // First key of the two-key advisory lock, keeping train locks apart from any other use of advisory locks.
+    private static final int ADVISORY_LOCK_CLASS = 49;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${train.delay.batch-size:500}")
+    private int batchSize;
+
+    public record DelayRow(Integer trainId, LocalDate journeyDate, Integer stationId, int delayMinutes,
+                           ZonedDateTime reportedAt) {
+    }
+
+    /** The scheduled window of one stop, and the delay now expected there. */
+    public record StopWindow(Integer stationId, ZonedDateTime windowStart, ZonedDateTime windowEnd, int delayMinutes) {
+    }
+
+    public record RetimedOrder(Long orderId, Long vendorId, Integer stationId, String orderStatus,
+                               ZonedDateTime deliveryTime, int delayMinutes) {
+    }
+
+    public record TrackingRow(Long orderId, String status, String remarks) {
+    }
+
+    /** Stores the reports, keeping a stored one that is newer than the incoming report; joins the caller's transaction. */
+    public void upsert(Collection<DelayRow> rows) {
+        jdbcTemplate.batchUpdate(UPSERT_DELAY_SQL, rows, batchSize, (ps, row) -> {
+            ps.setInt(1, row.trainId());
+            ps.setDate(2, Date.valueOf(row.journeyDate()));
+            ps.setInt(3, row.stationId());
+            ps.setInt(4, row.delayMinutes());
+            ps.setTimestamp(5, Timestamp.from(row.reportedAt().toInstant()));
+        });
+    }
+
+    public List<DelayRow> findFrom(LocalDate journeyDate, ZoneId zone) {
+        return jdbcTemplate.query("SELECT train_id, journey_date, station_id, delay_minutes, reported_at FROM train_delays " +
+                        "WHERE journey_date >= ? ORDER BY train_id, journey_date",
+                (rs, rowNum) -> new DelayRow(rs.getInt(1), rs.getDate(2).toLocalDate(), rs.getInt(3), rs.getInt(4),
+                        rs.getTimestamp(5).toInstant().atZone(zone)),
+                Date.valueOf(journeyDate));
+    }
+
+    /** Reports of one run, read inside the ingesting transaction after its own reports were stored. */
+    public List<DelayRow> findRun(Integer trainId, LocalDate journeyDate, ZoneId zone) {
+        return jdbcTemplate.query("SELECT train_id, journey_date, station_id, delay_minutes, reported_at FROM train_delays " +
+                        "WHERE train_id = ? AND journey_date = ?",
+                (rs, rowNum) -> new DelayRow(rs.getInt(1), rs.getDate(2).toLocalDate(), rs.getInt(3), rs.getInt(4),
+                        rs.getTimestamp(5).toInstant().atZone(zone)),
+                trainId, Date.valueOf(journeyDate));
+    }
+
+    /** Serializes re-timing of the train across instances until the current transaction ends. */
+    public void lockTrain(Integer trainId) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> {
+        }, ADVISORY_LOCK_CLASS, trainId);
+    }
+
+    public int deleteBefore(LocalDate journeyDate) {
+        return jdbcTemplate.update("DELETE FROM train_delays WHERE journey_date < ?", Date.valueOf(journeyDate));
+    }
+
+    /**
+     * Moves the open orders of one run of the train to the expected times at their stops in a single
+     * statement, returning the orders it changed. {@code from} and {@code to} bound the delivery times,
+     * delay included, of any order the run can hold. Joins the caller's transaction.
+     */
+    public List<RetimedOrder> retimeOrders(Integer trainId, List<StopWindow> stops, ZonedDateTime from, ZonedDateTime to,
+                                           Collection<String> closedStatuses, ZonedDateTime now) {
+        if (stops.isEmpty()) {
+            return List.of();
+        }
+        ZoneId zone = now.getZone();
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(RETIME_ORDERS_SQL);
+            ps.setTimestamp(1, Timestamp.from(now.toInstant()));
+            ps.setArray(2, connection.createArrayOf("int4", stops.stream().map(StopWindow::stationId).toArray()));
+            ps.setArray(3, timestamps(connection, stops.stream().map(StopWindow::windowStart).toList()));
+            ps.setArray(4, timestamps(connection, stops.stream().map(StopWindow::windowEnd).toList()));
+            ps.setArray(5, connection.createArrayOf("int4", stops.stream().map(StopWindow::delayMinutes).toArray()));
+            ps.setInt(6, trainId);
+            ps.setTimestamp(7, Timestamp.from(from.toInstant()));
+            ps.setTimestamp(8, Timestamp.from(to.toInstant()));
+            ps.setArray(9, connection.createArrayOf("varchar", closedStatuses.toArray()));
+            return ps;
+        }, (rs, rowNum) -> new RetimedOrder(rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getString(4),
+                rs.getTimestamp(5).toInstant().atZone(zone), rs.getInt(6)));
+    }
+
+    private static Array timestamps(Connection connection, List<ZonedDateTime> times) throws SQLException {
+        return connection.createArrayOf("timestamptz", times.stream().map(time -> Timestamp.from(time.toInstant())).toArray());
+    }
+
+    /** Appends the tracking rows in JDBC batches; joins the caller's transaction. */
+    public void insertTracking(Collection<TrackingRow> rows, ZonedDateTime now) {
+        Timestamp createdAt = Timestamp.from(now.toInstant());
+        jdbcTemplate.batchUpdate(INSERT_TRACKING_SQL, rows, batchSize, (ps, row) -> {
+            ps.setLong(1, row.orderId());
+            ps.setString(2, row.status());
+            ps.setString(3, row.remarks());
+            ps.setTimestamp(4, createdAt);
+        });
+    }
+}
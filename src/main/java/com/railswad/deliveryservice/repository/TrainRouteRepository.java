@@ -0,0 +1,111 @@
+package com.railswad.deliveryservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Time;
+import java.sql.Types;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/** Train timetables in {@code train_stops}, read whole for the route index and replaced a train at a time. */
+@Repository
+public class TrainRouteRepository {
+
+    private static final String SELECT_STOPS_SQL =
+            "SELECT train_id, stop_sequence, station_id, arrival_time, departure_time, arrival_day, departure_day, distance_km " +
+            "FROM train_stops";
+
+    private static final String INSERT_STOP_SQL =
+            "INSERT INTO train_stops (train_id, stop_sequence, station_id, arrival_time, departure_time, arrival_day, " +
+            "departure_day, distance_km) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${train.route.batch-size:500}")
+    private int batchSize;
+
+    /** One scheduled stop; {@code arrival} is null at the origin and {@code departure} at the terminus. */
+    public record StopRow(Integer trainId, int sequence, Integer stationId, LocalTime arrival, LocalTime departure,
+                          int arrivalDay, int departureDay, Integer distanceKm) {
+    }
+
+    /** A train's number, name and running days, for the route index. */
+    public record TrainRow(Integer trainId, String trainNumber, String trainName, int runningDays) {
+    }
+
+    private static final RowMapper<StopRow> STOP_MAPPER = (rs, rowNum) -> {
+        Time arrival = rs.getTime(4);
+        Time departure = rs.getTime(5);
+        return new StopRow(rs.getInt(1), rs.getInt(2), rs.getInt(3), arrival != null ? arrival.toLocalTime() : null,
+                departure != null ? departure.toLocalTime() : null, rs.getInt(6), rs.getInt(7), (Integer) rs.getObject(8));
+    };
+
+    public List<StopRow> findAll() {
+        return jdbcTemplate.query(SELECT_STOPS_SQL + " ORDER BY train_id, stop_sequence", STOP_MAPPER);
+    }
+
+    public List<StopRow> findByTrainId(Integer trainId) {
+        return jdbcTemplate.query(SELECT_STOPS_SQL + " WHERE train_id = ? ORDER BY stop_sequence", STOP_MAPPER, trainId);
+    }
+
+    public List<TrainRow> findTrains() {
+        return jdbcTemplate.query("SELECT train_id, train_number, train_name, running_days FROM trains",
+                (rs, rowNum) -> new TrainRow(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getInt(4)));
+    }
+
+    public Optional<TrainRow> findTrain(Integer trainId) {
+        return jdbcTemplate.query("SELECT train_id, train_number, train_name, running_days FROM trains WHERE train_id = ?",
+                (rs, rowNum) -> new TrainRow(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getInt(4)), trainId)
+                .stream().findFirst();
+    }
+
+    public Map<String, Integer> findTrainIdsByNumber() {
+        Map<String, Integer> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT train_number, train_id FROM trains", rs -> {
+            ids.put(rs.getString(1), rs.getInt(2));
+        });
+        return ids;
+    }
+
+    public Map<String, Integer> findStationIdsByCode() {
+        Map<String, Integer> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT station_code, station_id FROM stations", rs -> {
+            ids.put(rs.getString(1), rs.getInt(2));
+        });
+        return ids;
+    }
+
+    /** Deletes the trains' stops and inserts the given ones in JDBC batches; joins the caller's transaction. */
+    public void replaceStops(Collection<Integer> trainIds, Collection<StopRow> rows) {
+        jdbcTemplate.batchUpdate("DELETE FROM train_stops WHERE train_id = ?", trainIds, batchSize,
+                (ps, trainId) -> ps.setInt(1, trainId));
+        jdbcTemplate.batchUpdate(INSERT_STOP_SQL, rows, batchSize, (ps, row) -> {
+            ps.setInt(1, row.trainId());
+            ps.setInt(2, row.sequence());
+            ps.setInt(3, row.stationId());
+            ps.setObject(4, row.arrival() != null ? Time.valueOf(row.arrival()) : null, Types.TIME);
+            ps.setObject(5, row.departure() != null ? Time.valueOf(row.departure()) : null, Types.TIME);
+            ps.setInt(6, row.arrivalDay());
+            ps.setInt(7, row.departureDay());
+            ps.setObject(8, row.distanceKm(), Types.INTEGER);
+        });
+    }
+
+    /** Sets the running days of each train in the map; joins the caller's transaction. */
+    public void updateRunningDays(Map<Integer, Integer> runningDays) {
+        jdbcTemplate.batchUpdate("UPDATE trains SET running_days = ? WHERE train_id = ?", runningDays.entrySet(), batchSize,
+                (ps, entry) -> {
+                    ps.setInt(1, entry.getValue());
+                    ps.setInt(2, entry.getKey());
+                });
+    }
+}
@@ -2,8 +2,13 @@ package com.railswad.deliveryservice.repository;
 
 import com.railswad.deliveryservice.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -12,4 +17,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     Optional<User> findByPhone(String phone);
+
+    @Modifying
+    @Query("UPDATE User u SET u.ownershipVersion = u.ownershipVersion + 1 WHERE u.userId = :userId")
+    int incrementOwnershipVersion(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.lastLogin = :lastLogin WHERE u.userId = :userId")
+    int updateLastLogin(@Param("userId") Long userId, @Param("lastLogin") ZonedDateTime lastLogin);
+
+    @Query("SELECT u.ownershipVersion FROM User u WHERE u.userId = :userId")
+    Optional<Long> findOwnershipVersion(@Param("userId") Long userId);
+
+    @Query("SELECT u.userId, u.ownershipVersion FROM User u WHERE u.ownershipVersion > 0")
+    List<Object[]> findOwnershipVersions();
 }
\ No newline at end of file
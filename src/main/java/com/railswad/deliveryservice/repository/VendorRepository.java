@@ -2,6 +2,44 @@ package com.railswad.deliveryservice.repository;
 
 import com.railswad.deliveryservice.entity.Vendor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface VendorRepository extends JpaRepository<Vendor, Long> {
-}
\ No newline at end of file
+    @Query("SELECT v.vendorId FROM Vendor v")
+    List<Long> findAllVendorIds();
+
+    @Query("SELECT v.vendorId FROM Vendor v WHERE v.user.userId = :userId")
+    List<Long> findVendorIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT v.logoUrl FROM Vendor v WHERE v.vendorId = :vendorId AND v.logoUrl IS NOT NULL")
+    Optional<String> findLogoUrlByVendorId(@Param("vendorId") Long vendorId);
+
+    List<Vendor> findByStationStationId(Integer stationId);
+
+    // vendorId, businessName, stationId, station latitude, station longitude, deliveryRadiusMeters, deliveryArea
+    @Query("SELECT v.vendorId, v.businessName, s.stationId, s.latitude, s.longitude, v.deliveryRadiusMeters, v.deliveryArea " +
+            "FROM Vendor v JOIN v.station s WHERE v.activeStatus = true AND v.deliveryArea IS NOT NULL")
+    List<Object[]> findActiveDeliveryAreas();
+
+    // vendorId, stationId, businessName, rating, preparationTimeMin, activeStatus; vendors without a station are left out
+    @Query("SELECT v.vendorId, s.stationId, v.businessName, v.rating, v.preparationTimeMin, v.activeStatus " +
+            "FROM Vendor v JOIN v.station s WHERE v.vendorId IN :vendorIds")
+    List<Object[]> findStationMenuHeaders(@Param("vendorIds") Collection<Long> vendorIds);
+
+    @Modifying
+    @Query(value = "UPDATE vendors SET menu_version = menu_version + 1 WHERE vendor_id = :vendorId", nativeQuery = true)
+    int incrementMenuVersion(@Param("vendorId") Long vendorId);
+
+    @Query(value = "SELECT menu_version FROM vendors WHERE vendor_id = :vendorId", nativeQuery = true)
+    Optional<Long> findMenuVersion(@Param("vendorId") Long vendorId);
+
+    // vendorId, menuVersion of vendors whose menu has been written
+    @Query(value = "SELECT vendor_id, menu_version FROM vendors WHERE menu_version > 0", nativeQuery = true)
+    List<Object[]> findMenuVersions();
+}
@@ -0,0 +1,25 @@
+package com.railswad.deliveryservice.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.security.Principal;
+import java.util.Set;
+
+/**
+ * The caller as described by their access token: who they are, which vendors they owned when it was issued,
+ * and the ownership version it was issued at.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements Principal {
+    private final String name;
+    private final Long userId;
+    private final Set<Long> vendorIds;
+    private final long ownershipVersion;
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -1,6 +1,7 @@
 package com.railswad.deliveryservice.security;
 
 import com.railswad.deliveryservice.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +17,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -44,13 +48,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         if (token != null && jwtUtil.validateToken(token)) {
-            String username = jwtUtil.extractUsername(token);
+            AuthenticatedUser user = jwtUtil.extractClaim(token, JwtAuthenticationFilter::toAuthenticatedUser);
             String role = jwtUtil.extractRole(token);
             UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    username, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
+                    user, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         filterChain.doFilter(request, response);
     }
+
+    private static AuthenticatedUser toAuthenticatedUser(Claims claims) {
+        Number userId = claims.get("userId", Number.class);
+        Number ownershipVersion = claims.get("ownershipVersion", Number.class);
+        Set<Long> vendorIds = new HashSet<>();
+        List<?> vendorClaim = claims.get("vendorIds", List.class);
+        if (vendorClaim != null) {
+            for (Object vendorId : vendorClaim) {
+                vendorIds.add(((Number) vendorId).longValue());
+            }
+        }
+        return new AuthenticatedUser(claims.getSubject(), userId != null ? userId.longValue() : null,
+                Collections.unmodifiableSet(vendorIds), ownershipVersion != null ? ownershipVersion.longValue() : 0L);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.config.AnalyticsRoutingDataSource;
+import com.railswad.deliveryservice.exception.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for analytics reads. Caps how many run at once and opens a read-only transaction
+ * that {@link AnalyticsRoutingDataSource} sends to the analytics pool.
+ */
+@Service
+public class AnalyticsQueryGovernor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsQueryGovernor.class);
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public AnalyticsQueryGovernor(PlatformTransactionManager transactionManager,
+                                  @Value("${analytics.governor.max-concurrent:4}") int maxConcurrent,
+                                  @Value("${analytics.governor.acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.transactionManager = transactionManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public <T> T execute(Supplier<T> query) {
+        return execute(query, readOnlyTransaction);
+    }
+
+    /**
+     * Runs the query with a transaction timeout, which Spring applies as the JDBC query timeout of every
+     * statement in it, so the database cancels a query still running when the caller's deadline passes.
+     */
+    public <T> T execute(Supplier<T> query, long timeoutMs) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs + 999)));
+        return execute(query, transaction);
+    }
+
+    private <T> T execute(Supplier<T> query, TransactionTemplate transaction) {
+        // Re-entrant calls already hold a permit and an analytics transaction.
+        if (AnalyticsRoutingDataSource.isAnalytics()) {
+            return query.get();
+        }
+        acquire();
+        AnalyticsRoutingDataSource.enterAnalytics();
+        try {
+            return transaction.execute(status -> query.get());
+        } finally {
+            AnalyticsRoutingDataSource.exitAnalytics();
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Analytics query rejected after {} ms, {} callers still waiting", acquireTimeoutMs, permits.getQueueLength());
+                throw new ServiceException("ANALYTICS_BUSY", "Too many analytics queries running, please retry shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("ANALYTICS_BUSY", "Interrupted while waiting for an analytics slot");
+        }
+    }
+}
@@ -53,6 +53,9 @@ public class AuthService implements UserDetailsService {
     @Autowired
     private OtpService otpService;
 
+    @Autowired
+    private VendorOwnershipService vendorOwnershipService;
+
     @Transactional
     public UserDTO registerUser(UserDTO userDTO, String ipAddress, String deviceInfo) {
         logger.info("Registering user with email: {} and role: {}", userDTO.getEmail(), userDTO.getRole());
@@ -152,9 +155,10 @@ public class AuthService implements UserDetailsService {
                 .findFirst()
                 .orElseThrow(() -> new RuntimeException("No role assigned to user"));
         Map<String, List<String>> roles = Collections.singletonMap("roles", Collections.singletonList(role));
-        String token = jwtService.generateToken(user.getUserId(), username, roles);
-        user.setLastLogin(ZonedDateTime.now());
-        userRepository.save(user);
+        List<Long> vendorIds = vendorOwnershipService.findOwnedVendorIds(user.getUserId());
+        String token = jwtService.generateToken(user.getUserId(), username, roles, vendorIds, user.getOwnershipVersion());
+        // A targeted update: saving the loaded user would write back every column it read.
+        userRepository.updateLastLogin(user.getUserId(), ZonedDateTime.now());
         return token;
     }
 
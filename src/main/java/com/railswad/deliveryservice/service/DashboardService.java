@@ -0,0 +1,151 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.DashboardDTO;
+import com.railswad.deliveryservice.dto.DashboardSectionDTO;
+import com.railswad.deliveryservice.repository.AnalyticsRepository;
+import com.railswad.deliveryservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    private static final long MAX_DEADLINE_MS = 30_000;
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private AnalyticsRepository analyticsRepository;
+
+    @Autowired
+    private AnalyticsQueryGovernor analyticsQueryGovernor;
+
+    @Autowired
+    @Qualifier("analyticsExecutor")
+    private ThreadPoolTaskExecutor analyticsExecutor;
+
+    public DashboardDTO getDashboard(Long vendorId, Integer stationId, ZonedDateTime startDate,
+                                     ZonedDateTime endDate, int limit, long deadlineMs) {
+        long budget = Math.max(1, Math.min(deadlineMs, MAX_DEADLINE_MS));
+        int rows = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        logger.info("Building dashboard for vendor ID: {}, station ID: {} with deadline {} ms", vendorId, stationId, budget);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(budget);
+
+        ZonedDateTime monthEnd = ZonedDateTime.now().with(TemporalAdjusters.firstDayOfMonth());
+        ZonedDateTime monthStart = monthEnd.minusMonths(1);
+
+        Map<String, Supplier<Object>> tasks = new LinkedHashMap<>();
+        tasks.put("vendorOverview", () -> analyticsRepository.getAllVendorsSalesOverview(startDate, endDate));
+        tasks.put("stationOverview", () -> orderRepository.getStationsLastMonthSalesOverview(monthStart, monthEnd));
+        tasks.put("topVendors", stationId == null ? null : () -> analyticsRepository.getTopVendorsByStation(
+                stationId, startDate, endDate, "revenue", rows));
+        tasks.put("favoriteItems", vendorId == null ? null : () -> analyticsRepository.getFavoriteItemsByVendor(
+                vendorId, startDate, endDate, "quantity", rows));
+        tasks.put("monthlySales", vendorId == null ? null : () -> analyticsRepository.getMonthlySalesByVendor(
+                vendorId, startDate, endDate));
+
+        // Fire every section first so they overlap, then collect against the shared deadline.
+        Map<String, Future<DashboardSectionDTO>> futures = new LinkedHashMap<>();
+        Map<String, DashboardSectionDTO> rejected = new LinkedHashMap<>();
+        tasks.forEach((name, task) -> {
+            if (task != null) {
+                try {
+                    futures.put(name, analyticsExecutor.submit(() -> runSection(task, deadline)));
+                } catch (TaskRejectedException e) {
+                    logger.warn("Dashboard section {} rejected, analytics executor is saturated", name);
+                    DashboardSectionDTO section = new DashboardSectionDTO();
+                    section.setStatus("REJECTED");
+                    section.setError("Too many analytics queries running, please retry shortly");
+                    rejected.put(name, section);
+                }
+            }
+        });
+
+        DashboardDTO dashboard = new DashboardDTO();
+        dashboard.setDeadlineMs(budget);
+        boolean complete = true;
+        for (String name : tasks.keySet()) {
+            Future<DashboardSectionDTO> future = futures.get(name);
+            DashboardSectionDTO section;
+            if (rejected.containsKey(name)) {
+                section = rejected.get(name);
+            } else if (future == null) {
+                section = new DashboardSectionDTO();
+                section.setStatus("SKIPPED");
+                section.setError("Section requires a " + (name.equals("topVendors") ? "stationId" : "vendorId"));
+            } else {
+                section = awaitSection(name, future, deadline, start);
+            }
+            complete &= "OK".equals(section.getStatus()) || "SKIPPED".equals(section.getStatus());
+            dashboard.getSections().put(name, section);
+        }
+        dashboard.setComplete(complete);
+        dashboard.setTotalDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info("Dashboard built in {} ms, complete: {}", dashboard.getTotalDurationMs(), complete);
+        return dashboard;
+    }
+
+    private DashboardSectionDTO runSection(Supplier<Object> task, long deadline) {
+        long sectionStart = System.nanoTime();
+        DashboardSectionDTO section = new DashboardSectionDTO();
+        // The statements get the time left to the deadline, so a section given up on stops holding its connection.
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - sectionStart);
+        if (remainingMs <= 0) {
+            section.setStatus("TIMED_OUT");
+            return section;
+        }
+        section.setData(analyticsQueryGovernor.execute(task, remainingMs));
+        section.setStatus("OK");
+        section.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sectionStart));
+        return section;
+    }
+
+    private DashboardSectionDTO awaitSection(String name, Future<DashboardSectionDTO> future,
+                                             long deadline, long start) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Dashboard section {} timed out", name);
+            DashboardSectionDTO section = new DashboardSectionDTO();
+            section.setStatus("TIMED_OUT");
+            section.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return section;
+        } catch (ExecutionException e) {
+            logger.error("Dashboard section {} failed: {}", name, e.getCause().getMessage());
+            DashboardSectionDTO section = new DashboardSectionDTO();
+            section.setStatus("FAILED");
+            section.setError(e.getCause().getMessage());
+            section.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return section;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            DashboardSectionDTO section = new DashboardSectionDTO();
+            section.setStatus("TIMED_OUT");
+            section.setError("Interrupted");
+            return section;
+        }
+    }
+}
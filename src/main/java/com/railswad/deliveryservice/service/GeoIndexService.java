@@ -0,0 +1,225 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.DeliveringVendorDTO;
+import com.railswad.deliveryservice.dto.StationDistanceDTO;
+import com.railswad.deliveryservice.entity.Station;
+import com.railswad.deliveryservice.exception.ServiceException;
+import com.railswad.deliveryservice.repository.StationRepository;
+import com.railswad.deliveryservice.repository.VendorRepository;
+import com.railswad.deliveryservice.util.GeoShapes;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Station and delivery-area lookups by coordinate, answered from STR-trees held in memory. Trees are
+ * immutable once built, so a rebuild swaps in a new pair and readers never lock. Station and vendor writes
+ * only mark the index dirty once they commit; one scheduled path rebuilds it, and rebuilds run one at a
+ * time so an older read of the tables never replaces a newer one. Envelopes narrow the candidates;
+ * great-circle distance and prepared-polygon containment decide.
+ */
+@Service
+public class GeoIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeoIndexService.class);
+
+    // Half the Earth's circumference: every station lies within this of any point.
+    private static final double MAX_DISTANCE_METERS = 20_037_509;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Value("${geo.nearest.initial-radius-m:5000}")
+    private double initialRadiusMeters;
+
+    @Value("${geo.nearest.max-results:50}")
+    private int maxResults;
+
+    @Value("${geo.within.max-radius-km:200}")
+    private double maxRadiusKm;
+
+    private volatile Index index = new Index(emptyTree(), emptyTree(), Map.of(), 0);
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private record StationPoint(Integer stationId, String stationCode, String stationName, String city, String state,
+                                double latitude, double longitude) {
+    }
+
+    private record DeliveryArea(Long vendorId, String businessName, Integer stationId, double latitude, double longitude,
+                                Integer radiusMeters, PreparedGeometry area) {
+    }
+
+    private record Index(STRtree stations, STRtree deliveryAreas, Map<Long, DeliveryArea> areasByVendor, int stationCount) {
+    }
+
+    private record Hit(StationPoint station, double distance) {
+    }
+
+    /** Asks for a rebuild once the caller's transaction commits; the writer never waits for it. */
+    public void markDirty() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirty.set(true);
+                }
+            });
+        } else {
+            dirty.set(true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${geo.index.dirty-check-ms:1000}")
+    public void rebuildIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            dirty.set(true);
+            throw e;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${geo.index.refresh-ms:60000}", initialDelayString = "${geo.index.refresh-ms:60000}")
+    public synchronized void refresh() {
+        STRtree stations = new STRtree();
+        List<Station> located = stationRepository.findAllWithCoordinates();
+        for (Station station : located) {
+            StationPoint point = new StationPoint(station.getStationId(), station.getStationCode(), station.getStationName(),
+                    station.getCity(), station.getState(), station.getLatitude(), station.getLongitude());
+            stations.insert(new Envelope(point.longitude(), point.longitude(), point.latitude(), point.latitude()), point);
+        }
+        stations.build();
+
+        STRtree deliveryAreas = new STRtree();
+        Map<Long, DeliveryArea> areasByVendor = new HashMap<>();
+        List<Object[]> rows = vendorRepository.findActiveDeliveryAreas();
+        for (Object[] row : rows) {
+            Geometry area = (Geometry) row[6];
+            if (row[3] == null || row[4] == null) {
+                continue;
+            }
+            DeliveryArea deliveryArea = new DeliveryArea((Long) row[0], (String) row[1], (Integer) row[2],
+                    (Double) row[3], (Double) row[4], (Integer) row[5], PreparedGeometryFactory.prepare(area));
+            deliveryAreas.insert(area.getEnvelopeInternal(), deliveryArea);
+            areasByVendor.put(deliveryArea.vendorId(), deliveryArea);
+        }
+        deliveryAreas.build();
+
+        index = new Index(stations, deliveryAreas, Map.copyOf(areasByVendor), located.size());
+        logger.debug("Geo index holds {} stations and {} delivery areas", located.size(), rows.size());
+    }
+
+    /** The stations closest to the coordinate, nearest first. */
+    public List<StationDistanceDTO> findNearestStations(double latitude, double longitude, int limit) {
+        checkCoordinates(latitude, longitude);
+        int wanted = Math.min(Math.max(limit, 1), maxResults);
+        Index current = index;
+        // Widens the search circle until it holds enough stations; everything inside a circle is exact.
+        double radius = initialRadiusMeters;
+        List<Hit> hits;
+        while (true) {
+            hits = within(current, latitude, longitude, radius);
+            if (hits.size() >= Math.min(wanted, current.stationCount()) || radius >= MAX_DISTANCE_METERS) {
+                break;
+            }
+            radius = Math.min(radius * 2, MAX_DISTANCE_METERS);
+        }
+        return hits.stream().limit(wanted).map(GeoIndexService::toDTO).toList();
+    }
+
+    /** Stations within the radius of the coordinate, nearest first. */
+    public List<StationDistanceDTO> findStationsWithin(double latitude, double longitude, double radiusKm, int limit) {
+        checkCoordinates(latitude, longitude);
+        if (radiusKm <= 0 || radiusKm > maxRadiusKm) {
+            throw new ServiceException("INVALID_RADIUS", "Radius must be greater than 0 and at most " + maxRadiusKm + " km");
+        }
+        return within(index, latitude, longitude, radiusKm * 1000).stream()
+                .limit(Math.min(Math.max(limit, 1), maxResults))
+                .map(GeoIndexService::toDTO)
+                .toList();
+    }
+
+    /** Active vendors whose delivery area covers the coordinate, nearest station first. */
+    public List<DeliveringVendorDTO> findVendorsDeliveringTo(double latitude, double longitude) {
+        checkCoordinates(latitude, longitude);
+        Point point = GeoShapes.point(latitude, longitude);
+        List<DeliveringVendorDTO> vendors = new ArrayList<>();
+        for (Object candidate : index.deliveryAreas().query(point.getEnvelopeInternal())) {
+            DeliveryArea area = (DeliveryArea) candidate;
+            if (area.area().covers(point)) {
+                vendors.add(new DeliveringVendorDTO(area.vendorId(), area.businessName(), area.stationId(), area.radiusMeters(),
+                        Math.round(GeoShapes.distanceMeters(latitude, longitude, area.latitude(), area.longitude()))));
+            }
+        }
+        vendors.sort(Comparator.comparingLong(DeliveringVendorDTO::getDistanceMeters));
+        return vendors;
+    }
+
+    /** Whether the vendor's delivery area covers the coordinate; false when the vendor has none. */
+    public boolean isInDeliveryArea(Long vendorId, double latitude, double longitude) {
+        DeliveryArea area = index.areasByVendor().get(vendorId);
+        return area != null && area.area().covers(GeoShapes.point(latitude, longitude));
+    }
+
+    private static List<Hit> within(Index current, double latitude, double longitude, double radiusMeters) {
+        List<Hit> hits = new ArrayList<>();
+        Envelope search = radiusMeters >= MAX_DISTANCE_METERS
+                ? new Envelope(-180, 180, -90, 90)
+                : GeoShapes.envelope(latitude, longitude, radiusMeters);
+        for (Object candidate : current.stations().query(search)) {
+            StationPoint station = (StationPoint) candidate;
+            double distance = GeoShapes.distanceMeters(latitude, longitude, station.latitude(), station.longitude());
+            if (distance <= radiusMeters) {
+                hits.add(new Hit(station, distance));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distance));
+        return hits;
+    }
+
+    // Built up front: an unbuilt tree builds itself on first query, which is not safe across threads.
+    private static STRtree emptyTree() {
+        STRtree tree = new STRtree();
+        tree.build();
+        return tree;
+    }
+
+    private static void checkCoordinates(double latitude, double longitude) {
+        if (!GeoShapes.isValid(latitude, longitude)) {
+            throw new ServiceException("INVALID_COORDINATES", "Latitude must be within ±90 and longitude within ±180");
+        }
+    }
+
+    private static StationDistanceDTO toDTO(Hit hit) {
+        StationPoint station = hit.station();
+        return new StationDistanceDTO(station.stationId(), station.stationCode(), station.stationName(), station.city(),
+                station.state(), station.latitude(), station.longitude(), Math.round(hit.distance()));
+    }
+}
@@ -0,0 +1,165 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.HeatmapCellDTO;
+import com.railswad.deliveryservice.event.OrderCreatedEvent;
+import com.railswad.deliveryservice.exception.ServiceException;
+import com.railswad.deliveryservice.repository.OrderRepository;
+import com.railswad.deliveryservice.util.GeoHash;
+import org.locationtech.jts.geom.Envelope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Order count and revenue per geohash cell at several zoom levels, kept in memory.
+ * The grid is seeded from the database at startup and then advanced by {@link OrderCreatedEvent}s.
+ *
+ * <p>Order ids are not assigned in commit order, so the seed cannot be matched to events by an id
+ * watermark. Instead orders created before a cutoff a few minutes back are seeded as aggregates, and
+ * orders since the cutoff are read one by one and remembered; an event is counted only if its order is
+ * newer than the cutoff and was not in the seed. That holds as long as no order commits more than the
+ * overlap window after it was created.
+ */
+@Service
+public class HeatmapService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeatmapService.class);
+
+    public static final int MIN_ZOOM = 3;
+    public static final int MAX_ZOOM = 6;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private AnalyticsQueryGovernor analyticsQueryGovernor;
+
+    @Value("${analytics.heatmap.overlap-minutes:10}")
+    private int overlapMinutes;
+
+    /** A seeded grid with what it already counts: every order before {@code cutoff}, plus {@code seenOrderIds}. */
+    private record Seed(Map<Integer, Map<String, Cell>> grids, ZonedDateTime cutoff, Set<Long> seenOrderIds) {
+    }
+
+    private volatile Seed seed = new Seed(emptyGrids(), null, Set.of());
+    // Guarded by pendingEvents; events arriving while the seed queries run wait here for the new grid.
+    private boolean rebuilding = true;
+    private final List<OrderCreatedEvent> pendingEvents = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${analytics.heatmap.rebuild-cron:0 0 3 * * *}")
+    public synchronized void rebuild() {
+        logger.info("Rebuilding order heatmap");
+        synchronized (pendingEvents) {
+            rebuilding = true;
+        }
+        Seed fresh = null;
+        try {
+            ZonedDateTime cutoff = ZonedDateTime.now().minusMinutes(overlapMinutes);
+            Map<Integer, Map<String, Cell>> grids = emptyGrids();
+            Set<Long> seen = new HashSet<>();
+            // Recent orders first: one committing between the two queries is then either older than the
+            // cutoff and in the aggregate, or newer and left to its event.
+            for (Object[] row : analyticsQueryGovernor.execute(() -> orderRepository.getOrdersByStationLocationSince(cutoff))) {
+                seen.add(((Number) row[0]).longValue());
+                addTo(grids, (Double) row[1], (Double) row[2], 1, row[3] == null ? 0 : ((Number) row[3]).doubleValue());
+            }
+            for (Object[] row : analyticsQueryGovernor.execute(() -> orderRepository.getOrderTotalsByStationLocation(cutoff))) {
+                double revenue = row[3] == null ? 0 : ((Number) row[3]).doubleValue();
+                addTo(grids, (Double) row[0], (Double) row[1], ((Number) row[2]).longValue(), revenue);
+            }
+            fresh = new Seed(grids, cutoff, seen);
+        } finally {
+            // On failure the old grid stays, and the queued events are applied to it as they would have been.
+            synchronized (pendingEvents) {
+                if (fresh != null) {
+                    seed = fresh;
+                }
+                pendingEvents.forEach(this::apply);
+                pendingEvents.clear();
+                rebuilding = false;
+            }
+        }
+        logger.info("Order heatmap rebuilt with {} cells at zoom {}", fresh.grids().get(MAX_ZOOM).size(), MAX_ZOOM);
+    }
+
+    @TransactionalEventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (event.getLatitude() == null || event.getLongitude() == null) {
+            return;
+        }
+        synchronized (pendingEvents) {
+            if (rebuilding) {
+                pendingEvents.add(event);
+                return;
+            }
+        }
+        apply(event);
+    }
+
+    private void apply(OrderCreatedEvent event) {
+        Seed current = seed;
+        if (current.cutoff() != null && (event.getCreatedAt() == null || event.getCreatedAt().isBefore(current.cutoff())
+                || current.seenOrderIds().contains(event.getOrderId()))) {
+            return;
+        }
+        double revenue = event.getFinalAmount() == null ? 0 : event.getFinalAmount();
+        addTo(current.grids(), event.getLatitude(), event.getLongitude(), 1, revenue);
+    }
+
+    public List<HeatmapCellDTO> getTile(int zoom, double minLat, double minLon, double maxLat, double maxLon) {
+        if (zoom < MIN_ZOOM || zoom > MAX_ZOOM) {
+            throw new ServiceException("INVALID_ZOOM", "Zoom must be between " + MIN_ZOOM + " and " + MAX_ZOOM);
+        }
+        Envelope tile = new Envelope(minLon, maxLon, minLat, maxLat);
+        List<HeatmapCellDTO> cells = new ArrayList<>();
+        seed.grids().get(zoom).forEach((geohash, cell) -> {
+            Envelope bounds = GeoHash.bounds(geohash);
+            if (tile.intersects(bounds)) {
+                cells.add(new HeatmapCellDTO(geohash, bounds.centre().y, bounds.centre().x,
+                        cell.count.sum(), cell.revenue.sum()));
+            }
+        });
+        cells.sort(Comparator.comparing(HeatmapCellDTO::getOrderCount).reversed());
+        return cells;
+    }
+
+    private static void addTo(Map<Integer, Map<String, Cell>> target, double latitude, double longitude,
+                              long count, double revenue) {
+        for (int zoom = MIN_ZOOM; zoom <= MAX_ZOOM; zoom++) {
+            Cell cell = target.get(zoom).computeIfAbsent(GeoHash.encode(latitude, longitude, zoom), k -> new Cell());
+            cell.count.add(count);
+            cell.revenue.add(revenue);
+        }
+    }
+
+    private static Map<Integer, Map<String, Cell>> emptyGrids() {
+        Map<Integer, Map<String, Cell>> empty = new ConcurrentHashMap<>();
+        for (int zoom = MIN_ZOOM; zoom <= MAX_ZOOM; zoom++) {
+            empty.put(zoom, new ConcurrentHashMap<>());
+        }
+        return empty;
+    }
+
+    private static final class Cell {
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder revenue = new DoubleAdder();
+    }
+}
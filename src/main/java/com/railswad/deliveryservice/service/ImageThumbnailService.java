@@ -0,0 +1,421 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.repository.MenuItemRepository;
+import com.railswad.deliveryservice.repository.VendorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Small JPEG renditions of menu item images and vendor logos for slow connections. The first request for an
+ * image downloads the original on the image pool and renders every configured width from one decode into
+ * {@link ThumbnailDiskCache}; requests that find the pool busy, or the image unreadable, get the original.
+ * Thumbnail names come from a digest of the original's bytes, so items sharing a photo share the files.
+ * Originals are fetched only from the configured image hosts, never from private or loopback addresses, and
+ * redirects are followed by hand so every hop is checked the same way. The HTTP client resolves a host again
+ * after the check, so the allow-list is what keeps a host from rebinding to an internal address in between;
+ * with no hosts configured nothing is fetched.
+ */
+@Service
+public class ImageThumbnailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageThumbnailService.class);
+
+    private static final Pattern THUMBNAIL_NAME = Pattern.compile("[0-9a-f]{32}-[0-9]{1,4}\\.jpg");
+
+    @Autowired
+    private ThumbnailDiskCache thumbnailDiskCache;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    @Qualifier("imageExecutor")
+    private ThreadPoolTaskExecutor imageExecutor;
+
+    @Value("${image.thumbnail.widths:96,240,480}")
+    private int[] widths;
+
+    @Value("${image.thumbnail.quality:0.8}")
+    private float quality;
+
+    @Value("${image.thumbnail.wait-ms:3000}")
+    private long waitMs;
+
+    @Value("${image.thumbnail.retry-after-ms:600000}")
+    private long retryAfterMs;
+
+    @Value("${image.source.max-bytes:10485760}")
+    private int maxSourceBytes;
+
+    @Value("${image.source.max-pixels:40000000}")
+    private long maxSourcePixels;
+
+    @Value("${image.source.timeout-ms:10000}")
+    private long sourceTimeoutMs;
+
+    // Hosts originals may be fetched from, subdomains included; empty fetches nothing and serves originals.
+    @Value("${image.source.allowed-hosts:}")
+    private List<String> allowedHosts;
+
+    @Value("${image.source.max-redirects:3}")
+    private int maxRedirects;
+
+    // An original replaced under the same URL is picked up once its digest is this old.
+    @Value("${image.thumbnail.digest-ttl-ms:3600000}")
+    private long digestTtlMs;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private record Digest(String digest, long renderedAt) {
+    }
+
+    // Source URL to the digest of its bytes, once its thumbnails have been rendered.
+    private final Map<String, Digest> digests = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Long> failedUntil = new ConcurrentHashMap<>();
+
+    public String getItemImageUrl(Long itemId) {
+        return menuItemRepository.findImageUrlByItemId(itemId)
+                .orElseThrow(() -> new ResourceNotFoundException("No image for menu item with id: " + itemId));
+    }
+
+    public String getVendorLogoUrl(Long vendorId) {
+        return vendorRepository.findLogoUrlByVendorId(vendorId)
+                .orElseThrow(() -> new ResourceNotFoundException("No logo for vendor with id: " + vendorId));
+    }
+
+    /** The configured width closest to the request without going under it, or the largest one. */
+    public int snapWidth(int requested) {
+        int[] sorted = widths.clone();
+        Arrays.sort(sorted);
+        for (int width : sorted) {
+            if (width >= requested) {
+                return width;
+            }
+        }
+        return sorted[sorted.length - 1];
+    }
+
+    /**
+     * Name of the cached thumbnail of the source at the given configured width, waiting a short while for
+     * it to be rendered; null when the original should be served instead.
+     */
+    public String getThumbnailName(String sourceUrl, int width) {
+        Digest digest = digests.get(sourceUrl);
+        if (digest != null && digest.renderedAt() + digestTtlMs > System.currentTimeMillis()
+                && thumbnailDiskCache.get(name(digest.digest(), width)) != null) {
+            return name(digest.digest(), width);
+        }
+        Long retryAt = failedUntil.get(sourceUrl);
+        if (retryAt != null) {
+            if (retryAt > System.currentTimeMillis()) {
+                return null;
+            }
+            failedUntil.remove(sourceUrl, retryAt);
+        }
+
+        CompletableFuture<String> started;
+        try {
+            started = inFlight.computeIfAbsent(sourceUrl,
+                    url -> CompletableFuture.supplyAsync(() -> render(url), imageExecutor));
+        } catch (TaskRejectedException e) {
+            logger.debug("Image pool busy; serving the original of {}", sourceUrl);
+            return null;
+        }
+        // Attached outside computeIfAbsent: a render that has already finished runs this at once, and
+        // removing from the map inside its own mapping function is a recursive update.
+        CompletableFuture<String> rendering = started;
+        rendering.whenComplete((result, error) -> inFlight.remove(sourceUrl, rendering));
+        try {
+            return name(rendering.get(waitMs, TimeUnit.MILLISECONDS), width);
+        } catch (TimeoutException e) {
+            // Keeps rendering; a later request finds it cached.
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    public ThumbnailDiskCache.CachedFile getThumbnail(String name) {
+        if (!THUMBNAIL_NAME.matcher(name).matches()) {
+            return null;
+        }
+        return thumbnailDiskCache.get(name);
+    }
+
+    private String render(String sourceUrl) {
+        try {
+            byte[] original = download(sourceUrl);
+            String digest = digest(original);
+            BufferedImage image = null;
+            for (int width : widths) {
+                if (thumbnailDiskCache.get(name(digest, width)) != null) {
+                    continue;
+                }
+                if (image == null) {
+                    image = flatten(decode(original));
+                }
+                thumbnailDiskCache.put(name(digest, width), encodeJpeg(scale(image, width)));
+            }
+            digests.put(sourceUrl, new Digest(digest, System.currentTimeMillis()));
+            logger.debug("Rendered thumbnails of {} as {}", sourceUrl, digest);
+            return digest;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not render thumbnails of {}: {}", sourceUrl, e.getMessage());
+            failedUntil.put(sourceUrl, System.currentTimeMillis() + retryAfterMs);
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Forgets digests past their age, so replaced originals are rendered again and the map stays bounded. */
+    @Scheduled(fixedDelayString = "${image.thumbnail.digest-ttl-ms:3600000}")
+    public void expireDigests() {
+        long now = System.currentTimeMillis();
+        digests.values().removeIf(digest -> digest.renderedAt() + digestTtlMs <= now);
+        failedUntil.values().removeIf(retryAt -> retryAt <= now);
+    }
+
+    private byte[] download(String sourceUrl) throws IOException, InterruptedException {
+        URI uri = URI.create(sourceUrl);
+        for (int redirects = 0; ; redirects++) {
+            checkSource(uri);
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofMillis(sourceTimeoutMs)).GET().build();
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                int status = response.statusCode();
+                if (status >= 300 && status < 400 && response.headers().firstValue("Location").isPresent()) {
+                    if (redirects >= maxRedirects) {
+                        throw new IOException("Image download redirected more than " + maxRedirects + " times");
+                    }
+                    uri = uri.resolve(response.headers().firstValue("Location").get());
+                    continue;
+                }
+                if (status != 200) {
+                    throw new IOException("Image download returned HTTP " + status);
+                }
+                byte[] bytes = body.readNBytes(maxSourceBytes + 1);
+                if (bytes.length > maxSourceBytes) {
+                    throw new IOException("Image is larger than " + maxSourceBytes + " bytes");
+                }
+                return bytes;
+            }
+        }
+    }
+
+    /** Rejects sources off the allowed hosts or resolving to an address inside our own network. */
+    private void checkSource(URI uri) throws IOException {
+        if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())) {
+            throw new IOException("Unsupported image URL scheme: " + uri.getScheme());
+        }
+        String host = uri.getHost();
+        if (host == null) {
+            throw new IOException("Image URL has no host");
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        if (!isAllowedHost(host)) {
+            throw new IOException("Image host is not allowed: " + host);
+        }
+        for (InetAddress address : InetAddress.getAllByName(host)) {
+            if (!isPublic(address)) {
+                throw new IOException("Image host " + host + " resolves to a non-public address");
+            }
+        }
+    }
+
+    private boolean isAllowedHost(String host) {
+        for (String allowed : allowedHosts) {
+            String suffix = allowed.trim().toLowerCase(Locale.ROOT);
+            if (!suffix.isEmpty() && (host.equals(suffix) || host.endsWith("." + suffix))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] raw = address.getAddress();
+        if (raw.length == 4) {
+            // 0.0.0.0/8 and the carrier-grade NAT range 100.64.0.0/10.
+            return raw[0] != 0 && !((raw[0] & 0xff) == 100 && (raw[1] & 0xc0) == 64);
+        }
+        // IPv4-mapped, IPv4-compatible and NAT64 addresses reach the IPv4 address in their last four bytes.
+        if (embedsIpv4(raw)) {
+            try {
+                return isPublic(InetAddress.getByAddress(Arrays.copyOfRange(raw, 12, 16)));
+            } catch (UnknownHostException e) {
+                return false;
+            }
+        }
+        // Unique local IPv6, fc00::/7.
+        return (raw[0] & 0xfe) != 0xfc;
+    }
+
+    // ::ffff:0:0/96, ::/96 and 64:ff9b::/96.
+    private static boolean embedsIpv4(byte[] raw) {
+        boolean nat64 = raw[0] == 0 && raw[1] == 0x64 && raw[2] == (byte) 0xff && raw[3] == (byte) 0x9b;
+        for (int i = nat64 ? 4 : 0; i < 10; i++) {
+            if (raw[i] != 0) {
+                return false;
+            }
+        }
+        if (nat64) {
+            return raw[10] == 0 && raw[11] == 0;
+        }
+        return (raw[10] == (byte) 0xff && raw[11] == (byte) 0xff) || (raw[10] == 0 && raw[11] == 0);
+    }
+
+    private BufferedImage decode(byte[] bytes) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                // Checked from the header before decoding, so a small file cannot expand into a huge raster.
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxSourcePixels) {
+                    throw new IOException("Image has " + pixels + " pixels, more than " + maxSourcePixels);
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Opaque RGB on white, which JPEG needs and which also drops any palette or alpha channel. */
+    private static BufferedImage flatten(BufferedImage source) {
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+            g.drawImage(source, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    /**
+     * Halves the image with bilinear filtering until one more halving would overshoot, then scales to the
+     * target; a single bilinear step over a large ratio skips most source pixels and aliases. Never upscales.
+     */
+    private static BufferedImage scale(BufferedImage source, int targetWidth) {
+        if (source.getWidth() <= targetWidth) {
+            return source;
+        }
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth) {
+            current = resize(current, current.getWidth() / 2, Math.max(targetHeight, current.getHeight() / 2));
+        }
+        return current.getWidth() == targetWidth ? current : resize(current, targetWidth, targetHeight);
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return resized;
+    }
+
+    /** Progressive JPEG, so a slow connection shows the whole picture early and sharpens it as bytes arrive. */
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String name(String digest, int width) {
+        return digest + "-" + width + ".jpg";
+    }
+
+    private static String digest(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -28,13 +28,16 @@ public class JwtService {
     @Value("${jwt.refresh.expiration}")
     private long refreshTokenExpiration;
 
-    public String generateToken(Long userId, String email, Map<String, List<String>> roles) {
-        logger.info("Generating access token for userId: {}, email: {}, roles: {}", userId, email, roles);
+    public String generateToken(Long userId, String email, Map<String, List<String>> roles,
+                                List<Long> vendorIds, long ownershipVersion) {
+        logger.info("Generating access token for userId: {}, email: {}, roles: {}, vendors: {}", userId, email, roles, vendorIds);
         try {
             return Jwts.builder()
                     .setSubject(email)
                     .claim("userId", userId)
                     .claim("roles", roles)
+                    .claim("vendorIds", vendorIds)
+                    .claim("ownershipVersion", ownershipVersion)
                     .setIssuedAt(new Date())
                     .setExpiration(new Date(System.currentTimeMillis() + accessTokenExpiration))
                     .signWith(Keys.hmacShaKeyFor(secretKey.getBytes()), SignatureAlgorithm.HS256)
@@ -0,0 +1,175 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Precomputed answers to "which items can be ordered right now" per vendor. Item time windows split the
+ * day into a handful of intervals; each interval's item list is built once from the {@link MenuCacheService}
+ * snapshot and a scheduled task flips the active list at every boundary. A window whose end is before its
+ * start runs overnight. An index is rebuilt on the next read after the vendor's menu version moves.
+ */
+@Service
+public class MenuAvailabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuAvailabilityService.class);
+
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    @Autowired
+    private MenuCacheService menuCacheService;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    // Item windows are station-local times, like the timetables, whatever zone the server runs in.
+    @Value("${train.timezone:Asia/Kolkata}")
+    private ZoneId zone;
+
+    private final Map<Long, AvailabilityIndex> indexes = new ConcurrentHashMap<>();
+
+    private static final class AvailabilityIndex {
+        private final long version;
+        // boundaries[i] is the first second of interval i; boundaries[0] is always midnight.
+        private final int[] boundaries;
+        private final List<MenuItemDTO>[] intervals;
+        private volatile int active;
+        private volatile ScheduledFuture<?> nextFlip;
+
+        private AvailabilityIndex(long version, int[] boundaries, List<MenuItemDTO>[] intervals) {
+            this.version = version;
+            this.boundaries = boundaries;
+            this.intervals = intervals;
+        }
+
+        private int intervalAt(int secondOfDay) {
+            int position = Arrays.binarySearch(boundaries, secondOfDay);
+            return position >= 0 ? position : -position - 2;
+        }
+
+        private int end(int interval) {
+            return interval + 1 < boundaries.length ? boundaries[interval + 1] : SECONDS_PER_DAY;
+        }
+    }
+
+    public List<MenuItemDTO> getAvailableItems(Long vendorId) {
+        AvailabilityIndex index = indexes.get(vendorId);
+        if (index == null || index.version != menuCacheService.currentVersion(vendorId)) {
+            index = rebuild(vendorId);
+            if (index == null) {
+                return Collections.emptyList();
+            }
+        }
+        int now = LocalTime.now(zone).toSecondOfDay();
+        int active = index.active;
+        // A flip that runs late must not serve the previous interval; fall back to a search without locking.
+        if (now < index.boundaries[active] || now >= index.end(active)) {
+            active = index.intervalAt(now);
+        }
+        return index.intervals[active];
+    }
+
+    private synchronized AvailabilityIndex rebuild(Long vendorId) {
+        long version = menuCacheService.currentVersion(vendorId);
+        AvailabilityIndex current = indexes.get(vendorId);
+        if (current != null && current.version == version) {
+            return current;
+        }
+        MenuCacheService.MenuSnapshot snapshot = menuCacheService.getMenu(vendorId);
+        if (snapshot == null) {
+            discard(vendorId);
+            return null;
+        }
+
+        List<MenuItemDTO> items = new ArrayList<>();
+        snapshot.getMenu().values().forEach(category -> category.stream().filter(MenuItemDTO::isAvailable).forEach(items::add));
+        TreeSet<Integer> cuts = new TreeSet<>();
+        cuts.add(0);
+        for (MenuItemDTO item : items) {
+            if (item.getAvailableStartTime() != null && item.getAvailableEndTime() != null) {
+                cuts.add(item.getAvailableStartTime().toSecondOfDay());
+                // Windows include their end second, so the item drops out one second later.
+                int after = item.getAvailableEndTime().toSecondOfDay() + 1;
+                cuts.add(after == SECONDS_PER_DAY ? 0 : after);
+            }
+        }
+        int[] boundaries = cuts.stream().mapToInt(Integer::intValue).toArray();
+
+        @SuppressWarnings("unchecked")
+        List<MenuItemDTO>[] intervals = new List[boundaries.length];
+        for (int i = 0; i < boundaries.length; i++) {
+            int second = boundaries[i];
+            intervals[i] = items.stream().filter(item -> isAvailableAt(item, second)).toList();
+        }
+
+        AvailabilityIndex index = new AvailabilityIndex(snapshot.getVersion(), boundaries, intervals);
+        index.active = index.intervalAt(LocalTime.now(zone).toSecondOfDay());
+        AvailabilityIndex previous = indexes.put(vendorId, index);
+        if (previous != null && previous.nextFlip != null) {
+            previous.nextFlip.cancel(false);
+        }
+        scheduleFlip(vendorId, index);
+        logger.info("Built availability index for vendor ID: {} at version {} with {} intervals", vendorId, index.version, boundaries.length);
+        return index;
+    }
+
+    private void discard(Long vendorId) {
+        AvailabilityIndex previous = indexes.remove(vendorId);
+        if (previous != null && previous.nextFlip != null) {
+            previous.nextFlip.cancel(false);
+        }
+    }
+
+    private void scheduleFlip(Long vendorId, AvailabilityIndex index) {
+        if (index.boundaries.length == 1) {
+            return;
+        }
+        int boundary = index.end(index.active) % SECONDS_PER_DAY;
+        ZonedDateTime now = ZonedDateTime.now(zone);
+        ZonedDateTime at = now.toLocalDate().atTime(LocalTime.ofSecondOfDay(boundary)).atZone(zone);
+        if (!at.isAfter(now)) {
+            at = at.plusDays(1);
+        }
+        index.nextFlip = taskScheduler.schedule(() -> flip(vendorId, index, boundary), at.toInstant());
+    }
+
+    private void flip(Long vendorId, AvailabilityIndex index, int boundary) {
+        if (indexes.get(vendorId) != index) {
+            return;
+        }
+        // Flip to the interval the boundary opens, even if the timer fired a moment early.
+        index.active = index.intervalAt(boundary);
+        logger.debug("Vendor ID {} availability moved to interval {} of {}", vendorId, index.active, index.boundaries.length);
+        scheduleFlip(vendorId, index);
+    }
+
+    static boolean isAvailableAt(MenuItemDTO item, int secondOfDay) {
+        LocalTime start = item.getAvailableStartTime();
+        LocalTime end = item.getAvailableEndTime();
+        if (start == null || end == null) {
+            return true;
+        }
+        int from = start.toSecondOfDay();
+        int to = end.toSecondOfDay();
+        return from <= to
+                ? secondOfDay >= from && secondOfDay <= to
+                : secondOfDay >= from || secondOfDay <= to;
+    }
+}
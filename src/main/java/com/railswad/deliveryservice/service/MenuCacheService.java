@@ -0,0 +1,216 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import com.railswad.deliveryservice.entity.MenuCategory;
+import com.railswad.deliveryservice.entity.MenuItem;
+import com.railswad.deliveryservice.event.MenuChangedEvent;
+import com.railswad.deliveryservice.repository.MenuCategoryRepository;
+import com.railswad.deliveryservice.repository.VendorRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-vendor menu snapshots keyed by the vendor's menu version. Every write that changes what a menu shows
+ * raises {@code vendors.menu_version} in its own transaction and the new version takes effect locally once
+ * it commits; versions raised on other instances are picked up by a periodic re-read. A snapshot built for
+ * an older version is rebuilt on the next read with a single fetch-join query. Each advance is announced as
+ * a {@link MenuChangedEvent}.
+ */
+@Service
+public class MenuCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuCacheService.class);
+
+    private static final Comparator<Integer> DISPLAY_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final Map<Long, MenuSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MenuCategoryRepository menuCategoryRepository;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Getter
+    @AllArgsConstructor
+    public static class MenuSnapshot {
+        private final long version;
+        private final Map<String, List<MenuItemDTO>> menu;
+    }
+
+    /** Version 0 until the vendor's menu is first written; reads never create an entry. */
+    public long currentVersion(Long vendorId) {
+        return versions.getOrDefault(vendorId, 0L);
+    }
+
+    /** Raises the vendor's menu version; the new version takes effect locally once the transaction commits. */
+    @Transactional
+    public void bumpVersion(Long vendorId) {
+        vendorRepository.incrementMenuVersion(vendorId);
+        Long version = vendorRepository.findMenuVersion(vendorId).orElse(null);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (version != null) {
+                    advance(vendorId, version);
+                } else if (!evict(vendorId)) {
+                    logger.warn("Ignoring menu version bump for unknown vendor ID {}", vendorId);
+                }
+            }
+        });
+    }
+
+    /** Picks up versions raised on other instances and drops vendors deleted there. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${menu.cache.refresh-ms:1000}", initialDelayString = "${menu.cache.refresh-ms:1000}")
+    public void refreshVersions() {
+        Map<Long, Long> stored = new HashMap<>();
+        for (Object[] row : vendorRepository.findMenuVersions()) {
+            stored.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        stored.forEach(this::advance);
+        for (Long vendorId : versions.keySet()) {
+            if (!stored.containsKey(vendorId)) {
+                evict(vendorId);
+            }
+        }
+    }
+
+    private void advance(Long vendorId, long version) {
+        if (version <= currentVersion(vendorId)) {
+            return;
+        }
+        versions.merge(vendorId, version, Math::max);
+        snapshots.remove(vendorId);
+        logger.debug("Menu version for vendor ID {} advanced to {}", vendorId, version);
+        eventPublisher.publishEvent(new MenuChangedEvent(vendorId, version));
+    }
+
+    private boolean evict(Long vendorId) {
+        Long version = versions.remove(vendorId);
+        snapshots.remove(vendorId);
+        if (version == null) {
+            return false;
+        }
+        logger.debug("Dropped menu version of deleted vendor ID {}", vendorId);
+        eventPublisher.publishEvent(new MenuChangedEvent(vendorId, version + 1));
+        return true;
+    }
+
+    /** Returns the current snapshot for the vendor, or {@code null} when the vendor does not exist. */
+    public MenuSnapshot getMenu(Long vendorId) {
+        long version = currentVersion(vendorId);
+        MenuSnapshot snapshot = snapshots.get(vendorId);
+        if (snapshot != null && snapshot.getVersion() == version) {
+            return snapshot;
+        }
+
+        List<MenuCategory> categories = menuCategoryRepository.findByVendorIdWithItems(vendorId);
+        if (categories.isEmpty() && !vendorRepository.existsById(vendorId)) {
+            return null;
+        }
+        return cache(vendorId, version, categories);
+    }
+
+    /**
+     * Current snapshots of vendors known to exist, building every stale one from a single fetch-join query.
+     * A vendor without categories gets an empty menu.
+     */
+    public Map<Long, MenuSnapshot> getMenus(Collection<Long> vendorIds) {
+        Map<Long, MenuSnapshot> menus = new HashMap<>();
+        Map<Long, Long> staleVersions = new HashMap<>();
+        for (Long vendorId : vendorIds) {
+            long version = currentVersion(vendorId);
+            MenuSnapshot snapshot = snapshots.get(vendorId);
+            if (snapshot != null && snapshot.getVersion() == version) {
+                menus.put(vendorId, snapshot);
+            } else {
+                staleVersions.put(vendorId, version);
+            }
+        }
+        if (staleVersions.isEmpty()) {
+            return menus;
+        }
+        Map<Long, List<MenuCategory>> categoriesByVendor = menuCategoryRepository.findByVendorIdsWithItems(staleVersions.keySet())
+                .stream()
+                .collect(Collectors.groupingBy(category -> category.getVendor().getVendorId()));
+        staleVersions.forEach((vendorId, version) ->
+                menus.put(vendorId, cache(vendorId, version, categoriesByVendor.getOrDefault(vendorId, List.of()))));
+        return menus;
+    }
+
+    private MenuSnapshot cache(Long vendorId, long version, List<MenuCategory> categories) {
+        Map<String, List<MenuItemDTO>> menu = toMenu(categories);
+
+        // Tagged with the version read before loading: a concurrent write makes this entry stale, never wrong.
+        MenuSnapshot built = new MenuSnapshot(version, Collections.unmodifiableMap(menu));
+        snapshots.merge(vendorId, built, (existing, fresh) -> existing.getVersion() >= fresh.getVersion() ? existing : fresh);
+        logger.info("Built menu snapshot for vendor ID: {} at version {} with {} categories", vendorId, version, menu.size());
+        return built;
+    }
+
+    /** Categories in display order, each with its items in display order; the categories' items must be loaded. */
+    public Map<String, List<MenuItemDTO>> toMenu(List<MenuCategory> categories) {
+        Map<String, List<MenuItemDTO>> menu = new LinkedHashMap<>();
+        categories.stream()
+                .sorted(Comparator.comparing(MenuCategory::getDisplayOrder, DISPLAY_ORDER)
+                        .thenComparing(MenuCategory::getCategoryId))
+                .forEach(category -> menu.put(category.getCategoryName(), toItemDTOs(category)));
+        return menu;
+    }
+
+    private List<MenuItemDTO> toItemDTOs(MenuCategory category) {
+        if (category.getMenuItems() == null) {
+            return Collections.emptyList();
+        }
+        return category.getMenuItems().stream()
+                .sorted(Comparator.comparing(MenuItem::getDisplayOrder, DISPLAY_ORDER)
+                        .thenComparing(MenuItem::getItemId))
+                .map(item -> toItemDTO(item, category))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    public MenuItemDTO toItemDTO(MenuItem item, MenuCategory category) {
+        MenuItemDTO dto = new MenuItemDTO();
+        dto.setItemId(item.getItemId());
+        dto.setCategoryId(category.getCategoryId());
+        dto.setCategoryName(category.getCategoryName());
+        dto.setItemName(item.getItemName());
+        dto.setDescription(item.getDescription());
+        dto.setPrice(item.getPrice());
+        dto.setVegetarian(item.isVegetarian());
+        dto.setAvailable(item.isAvailable() && (item.getStockCount() == null || item.getStockCount() > 0));
+        dto.setPreparationTimeMin(item.getPreparationTimeMin());
+        dto.setImageUrl(item.getImageUrl());
+        dto.setDisplayOrder(item.getDisplayOrder());
+        dto.setAvailableStartTime(item.getAvailableStartTime());
+        dto.setAvailableEndTime(item.getAvailableEndTime());
+        dto.setVersion(item.getVersion());
+        return dto;
+    }
+}
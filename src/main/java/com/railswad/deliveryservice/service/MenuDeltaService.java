@@ -0,0 +1,148 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.MenuCategoryDTO;
+import com.railswad.deliveryservice.dto.MenuDeltaDTO;
+import com.railswad.deliveryservice.entity.MenuCategory;
+import com.railswad.deliveryservice.entity.MenuItem;
+import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.repository.MenuCategoryRepository;
+import com.railswad.deliveryservice.repository.MenuChangeRepository;
+import com.railswad.deliveryservice.repository.MenuChangeRepository.ChangeRow;
+import com.railswad.deliveryservice.repository.MenuChangeRepository.VendorSequence;
+import com.railswad.deliveryservice.repository.MenuItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Menu sync for clients that keep a copy: given the sequence a client last saw, returns the categories and
+ * items written since then from the {@code menu_changes} log, or the whole menu when the client is new, the
+ * log no longer reaches back that far, or more has changed than a delta is worth. Every read runs in one
+ * repeatable-read transaction so the sequence handed back matches the rows returned with it.
+ */
+@Service
+public class MenuDeltaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuDeltaService.class);
+
+    @Autowired
+    private MenuChangeRepository menuChangeRepository;
+
+    @Autowired
+    private MenuCategoryRepository menuCategoryRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuCacheService menuCacheService;
+
+    @Value("${menu.delta.max-changes:500}")
+    private int maxChanges;
+
+    @Value("${menu.delta.retention-days:30}")
+    private int retentionDays;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public MenuDeltaService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public MenuDeltaDTO getChanges(Long vendorId, long since) {
+        return transactionTemplate.execute(status -> {
+            VendorSequence sequence = menuChangeRepository.findSequence(vendorId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Vendor not found with id: " + vendorId));
+            // Below the pruned sequence the client may have missed entries; above the current one it is not ours.
+            if (since > 0 && since >= sequence.pruned() && since <= sequence.current()) {
+                List<ChangeRow> changes = menuChangeRepository.findSince(vendorId, since, maxChanges + 1);
+                if (changes.size() <= maxChanges) {
+                    return delta(vendorId, since, changes);
+                }
+            }
+            return snapshot(vendorId, sequence.current());
+        });
+    }
+
+    private MenuDeltaDTO snapshot(Long vendorId, long sequence) {
+        List<MenuCategory> categories = menuCategoryRepository.findByVendorIdWithItems(vendorId);
+        MenuDeltaDTO dto = new MenuDeltaDTO();
+        dto.setVendorId(vendorId);
+        dto.setFull(true);
+        dto.setSequence(sequence);
+        dto.setMenu(menuCacheService.toMenu(categories));
+        logger.debug("Sending full menu for vendor ID {} at sequence {}", vendorId, dto.getSequence());
+        return dto;
+    }
+
+    private MenuDeltaDTO delta(Long vendorId, long since, List<ChangeRow> changes) {
+        // Only the latest entry per category or item matters.
+        Map<Long, Boolean> categories = new LinkedHashMap<>();
+        Map<Long, Boolean> items = new LinkedHashMap<>();
+        long sequence = since;
+        for (ChangeRow change : changes) {
+            Map<Long, Boolean> target = change.entityType() == MenuChangeRepository.CATEGORY ? categories : items;
+            target.remove(change.entityId());
+            target.put(change.entityId(), change.deleted());
+            sequence = Math.max(sequence, change.seq());
+        }
+
+        MenuDeltaDTO dto = new MenuDeltaDTO();
+        dto.setVendorId(vendorId);
+        dto.setSequence(sequence);
+        List<Long> upsertedCategoryIds = new ArrayList<>();
+        categories.forEach((id, deleted) -> (deleted ? dto.getDeletedCategoryIds() : upsertedCategoryIds).add(id));
+        List<Long> upsertedItemIds = new ArrayList<>();
+        items.forEach((id, deleted) -> (deleted ? dto.getDeletedItemIds() : upsertedItemIds).add(id));
+
+        if (!upsertedCategoryIds.isEmpty()) {
+            for (MenuCategory category : menuCategoryRepository.findAllById(upsertedCategoryIds)) {
+                if (category.getVendor().getVendorId().equals(vendorId)) {
+                    MenuCategoryDTO categoryDTO = new MenuCategoryDTO();
+                    categoryDTO.setCategoryId(category.getCategoryId());
+                    categoryDTO.setVendorId(vendorId);
+                    categoryDTO.setCategoryName(category.getCategoryName());
+                    categoryDTO.setDisplayOrder(category.getDisplayOrder());
+                    categoryDTO.setVersion(category.getVersion());
+                    dto.getUpsertedCategories().add(categoryDTO);
+                }
+            }
+        }
+        if (!upsertedItemIds.isEmpty()) {
+            for (MenuItem item : menuItemRepository.findWithCategoryByItemIdIn(upsertedItemIds)) {
+                // Moved to another vendor since; the move logged a delete for this one.
+                if (item.getCategory().getVendor().getVendorId().equals(vendorId)) {
+                    dto.getUpsertedItems().add(menuCacheService.toItemDTO(item, item.getCategory()));
+                }
+            }
+        }
+        logger.debug("Sending {} menu changes for vendor ID {} from sequence {} to {}", changes.size(), vendorId, since, sequence);
+        return dto;
+    }
+
+    @Scheduled(fixedDelayString = "${menu.delta.prune-ms:3600000}")
+    public void prune() {
+        try {
+            int vendors = menuChangeRepository.deleteOlderThan(ZonedDateTime.now().minusDays(retentionDays));
+            if (vendors > 0) {
+                logger.info("Pruned menu change log entries older than {} days for {} vendors", retentionDays, vendors);
+            }
+        } catch (Exception e) {
+            logger.error("Error pruning menu change log: {}", e.getMessage());
+        }
+    }
+}
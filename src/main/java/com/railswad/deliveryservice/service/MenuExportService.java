@@ -0,0 +1,87 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import com.railswad.deliveryservice.entity.MenuItem;
+import com.railswad.deliveryservice.repository.MenuItemRepository;
+import com.railswad.deliveryservice.util.ExcelHelper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+/**
+ * Writes a vendor's menu in the upload layout straight from a database cursor. Each item is detached
+ * once converted, so memory stays flat however large the catalog is.
+ */
+@Service
+public class MenuExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuExportService.class);
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private ExcelHelper excelHelper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public MenuExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /** Streams the menu as CSV or XLSX; the caller has already checked access to the vendor. */
+    public void writeMenu(Long vendorId, boolean csv, OutputStream os) throws IOException {
+        long start = System.currentTimeMillis();
+        try {
+            // Postgres only uses a cursor for the fetch size inside a transaction.
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<MenuItem> items = menuItemRepository.streamByVendorId(vendorId)) {
+                    Stream<MenuItemDTO> rows = items.map(this::toDTO);
+                    if (csv) {
+                        excelHelper.writeMenuItemsCsv(rows, os);
+                    } else {
+                        excelHelper.writeMenuItemsXlsx(rows, os);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        logger.info("Exported menu for vendor ID: {} as {} in {} ms", vendorId, csv ? "CSV" : "XLSX", System.currentTimeMillis() - start);
+    }
+
+    private MenuItemDTO toDTO(MenuItem item) {
+        MenuItemDTO dto = new MenuItemDTO();
+        dto.setItemId(item.getItemId());
+        dto.setCategoryId(item.getCategory().getCategoryId());
+        dto.setCategoryName(item.getCategory().getCategoryName());
+        dto.setItemName(item.getItemName());
+        dto.setDescription(item.getDescription());
+        dto.setPrice(item.getPrice());
+        dto.setVegetarian(item.isVegetarian());
+        dto.setAvailable(item.isAvailable());
+        dto.setPreparationTimeMin(item.getPreparationTimeMin());
+        dto.setImageUrl(item.getImageUrl());
+        dto.setDisplayOrder(item.getDisplayOrder());
+        dto.setAvailableStartTime(item.getAvailableStartTime());
+        dto.setAvailableEndTime(item.getAvailableEndTime());
+        entityManager.detach(item);
+        return dto;
+    }
+}
@@ -0,0 +1,396 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.MenuImportErrorDTO;
+import com.railswad.deliveryservice.dto.MenuImportJobDTO;
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import com.railswad.deliveryservice.entity.MenuImportJob;
+import com.railswad.deliveryservice.entity.MenuImportJobError;
+import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.exception.ServiceException;
+import com.railswad.deliveryservice.repository.MenuBulkRepository;
+import com.railswad.deliveryservice.repository.MenuImportJobRepository;
+import com.railswad.deliveryservice.util.ExcelHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Runs menu Excel imports as background jobs. The upload is spooled to disk and validated in full first;
+ * rows are then committed in chunks of {@code menu.import.chunk-size}, each chunk advancing the job's
+ * checkpoint in the same transaction, so a job interrupted by a restart resumes where it stopped.
+ *
+ * <p>Job state lives only in {@code menu_import_jobs}, so it holds across instances: a job runs on whichever
+ * instance claims it out of {@code QUEUED}, keeps its claim by heartbeat, and is re-queued for another
+ * instance when the heartbeat lapses.
+ */
+@Service
+public class MenuImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuImportJobService.class);
+
+    private static final Set<String> ACTIVE_STATUSES = Set.of(MenuImportJob.QUEUED, MenuImportJob.VALIDATING, MenuImportJob.RUNNING);
+    private static final int MAX_MESSAGE_LENGTH = 255;
+
+    @Autowired
+    private MenuImportJobRepository menuImportJobRepository;
+
+    @Autowired
+    private MenuBulkRepository menuBulkRepository;
+
+    @Autowired
+    private MenuCacheService menuCacheService;
+
+    @Autowired
+    private ExcelHelper excelHelper;
+
+    @Autowired
+    private MenuWriteLocks menuWriteLocks;
+
+    @Autowired
+    @Qualifier("menuImportExecutor")
+    private ThreadPoolTaskExecutor menuImportExecutor;
+
+    @Value("${menu.import.directory:menu-imports}")
+    private String spoolDirectory;
+
+    @Value("${menu.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${menu.import.max-jobs-per-vendor:1}")
+    private int maxJobsPerVendor;
+
+    @Value("${menu.import.max-stored-errors:500}")
+    private int maxStoredErrors;
+
+    // Imports run in the background, so a chunk waits out single-item edits instead of failing on them.
+    @Value("${menu.import.lock-timeout-ms:30000}")
+    private long lockTimeoutMs;
+
+    // Jobs are claimed for a lease; a job whose heartbeat is older than this is taken over by another instance.
+    @Value("${menu.import.lease-ms:120000}")
+    private long leaseMs;
+
+    private final TransactionTemplate transactionTemplate;
+    // Identifies this process in claimed_by; a restarted instance gets a new id and its old claims lapse.
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Set<String> runningJobs = ConcurrentHashMap.newKeySet();
+
+    public MenuImportJobService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Spools the upload and queues it; the caller has already checked format and authorization. The spool
+     * directory must be shared by all instances, since any of them may claim the job.
+     */
+    public MenuImportJobDTO submit(MultipartFile file, Long vendorId, boolean clearExisting) throws IOException {
+        String jobId = UUID.randomUUID().toString();
+        Path directory = Paths.get(spoolDirectory);
+        Files.createDirectories(directory);
+        Path spool = directory.resolve(jobId + ".xlsx");
+        try (InputStream is = file.getInputStream()) {
+            Files.copy(is, spool);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                menuImportJobRepository.lockVendor(vendorId);
+                if (menuImportJobRepository.countByVendorIdAndStatusIn(vendorId, ACTIVE_STATUSES) >= maxJobsPerVendor) {
+                    throw new ServiceException("IMPORT_IN_PROGRESS", "A menu import is already running for vendor ID " + vendorId);
+                }
+                MenuImportJob job = new MenuImportJob();
+                job.setJobId(jobId);
+                job.setVendorId(vendorId);
+                job.setStatus(MenuImportJob.QUEUED);
+                job.setFileName(file.getOriginalFilename());
+                job.setSpoolPath(spool.toString());
+                job.setClearExisting(clearExisting);
+                job.setCreatedAt(ZonedDateTime.now());
+                menuImportJobRepository.save(job);
+            });
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+
+        try {
+            menuImportExecutor.execute(() -> run(jobId));
+        } catch (TaskRejectedException e) {
+            // Stays queued in the table; the next poll on any instance with room picks it up.
+            logger.info("Import pool is full, menu import job {} waits for the next poll", jobId);
+        }
+        logger.info("Queued menu import job {} for vendor ID: {}", jobId, vendorId);
+        return getJob(jobId);
+    }
+
+    public MenuImportJobDTO getJob(String jobId) {
+        return transactionTemplate.execute(status -> toDTO(menuImportJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Menu import job not found with id: " + jobId))));
+    }
+
+    /** Picks up queued jobs at startup, including jobs interrupted when the application last stopped. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        poll();
+    }
+
+    /**
+     * Renews the leases of the jobs running here, re-queues jobs whose instance has gone quiet, and
+     * hands queued jobs to the local pool while it has room.
+     */
+    @Scheduled(fixedDelayString = "${menu.import.poll-ms:5000}")
+    public void poll() {
+        ZonedDateTime now = ZonedDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!runningJobs.isEmpty()) {
+                menuImportJobRepository.heartbeat(Set.copyOf(runningJobs), instanceId, now);
+            }
+            int requeued = menuImportJobRepository.requeueStale(now.minus(Duration.ofMillis(leaseMs)));
+            if (requeued > 0) {
+                logger.info("Re-queued {} menu import jobs whose instance stopped responding", requeued);
+            }
+        });
+
+        int room = menuImportExecutor.getMaxPoolSize() - menuImportExecutor.getActiveCount()
+                - menuImportExecutor.getQueueSize();
+        if (room <= 0) {
+            return;
+        }
+        for (String jobId : menuImportJobRepository.findQueuedJobIds(room)) {
+            try {
+                menuImportExecutor.execute(() -> run(jobId));
+            } catch (TaskRejectedException e) {
+                return;
+            }
+        }
+    }
+
+    void run(String jobId) {
+        Integer claimed = transactionTemplate.execute(status -> menuImportJobRepository.claim(jobId, instanceId, ZonedDateTime.now()));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+        MenuImportJob job = menuImportJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        runningJobs.add(jobId);
+        Long vendorId = job.getVendorId();
+        if (job.getCommittedRows() > 0) {
+            logger.info("Resuming menu import job {} for vendor ID: {} from row {}", jobId, vendorId, job.getCommittedRows());
+        }
+        try {
+            Map<String, MenuItemDTO> rowsByKey = new LinkedHashMap<>();
+            List<MenuImportErrorDTO> errors = excelHelper.readMenuItems(Paths.get(job.getSpoolPath()).toFile(),
+                    (rowNumber, dto) -> validateRow(dto, rowsByKey));
+            List<MenuItemDTO> rows = new ArrayList<>(rowsByKey.values());
+            if (!errors.isEmpty()) {
+                update(jobId, j -> {
+                    j.setTotalRows(rows.size() + errors.size());
+                    j.setErrorCount(errors.size());
+                    errors.stream().limit(maxStoredErrors)
+                            .forEach(error -> j.getErrors().add(new MenuImportJobError(error.getRow(), truncate(error.getMessage()))));
+                });
+                finish(jobId, MenuImportJob.FAILED, errors.size() + " invalid rows, nothing was imported");
+                return;
+            }
+            update(jobId, j -> {
+                j.setTotalRows(rows.size());
+                j.setStatus(MenuImportJob.RUNNING);
+            });
+
+            Map<String, Long> categoryIds = createMissingCategories(vendorId, rows);
+            rows.forEach(row -> row.setCategoryId(categoryIds.get(row.getCategoryName())));
+            importChunks(job, rows);
+            if (job.isClearExisting()) {
+                removeUnlisted(vendorId, rows, categoryIds);
+            }
+
+            finish(jobId, MenuImportJob.COMPLETED, "Imported " + rows.size() + " menu items");
+        } catch (ClaimLostException e) {
+            logger.warn("Menu import job {} for vendor ID: {} was taken over by another instance", jobId, vendorId);
+        } catch (Exception e) {
+            logger.error("Menu import job {} for vendor ID: {} failed: {}", jobId, vendorId, e.getMessage());
+            try {
+                finish(jobId, MenuImportJob.FAILED, "Import stopped: " + e.getMessage());
+            } catch (ClaimLostException lost) {
+                logger.warn("Menu import job {} for vendor ID: {} was taken over by another instance", jobId, vendorId);
+            }
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+
+    private void validateRow(MenuItemDTO dto, Map<String, MenuItemDTO> rowsByKey) {
+        if (dto.getCategoryName() == null || dto.getCategoryName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Category name is required");
+        }
+        if (dto.getItemName() == null || dto.getItemName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Item name is required");
+        }
+        if (dto.getPrice() == null) {
+            throw new IllegalArgumentException("Price is required");
+        }
+        if (rowsByKey.putIfAbsent(dto.getCategoryName() + '\u0000' + dto.getItemName(), dto) != null) {
+            throw new IllegalArgumentException("Item '" + dto.getItemName() + "' appears more than once in category '" + dto.getCategoryName() + "'");
+        }
+    }
+
+    private Map<String, Long> createMissingCategories(Long vendorId, List<MenuItemDTO> rows) {
+        return transactionTemplate.execute(status -> {
+            menuWriteLocks.lockForTransaction(vendorId, lockTimeoutMs);
+            Map<String, Long> categoryIds = menuBulkRepository.findCategoryIds(vendorId);
+            Map<String, Integer> newCategories = new LinkedHashMap<>();
+            for (MenuItemDTO row : rows) {
+                if (!categoryIds.containsKey(row.getCategoryName())) {
+                    newCategories.putIfAbsent(row.getCategoryName(), row.getDisplayOrder());
+                }
+            }
+            if (newCategories.isEmpty()) {
+                return categoryIds;
+            }
+            menuBulkRepository.insertCategories(vendorId, newCategories);
+            menuCacheService.bumpVersion(vendorId);
+            return menuBulkRepository.findCategoryIds(vendorId);
+        });
+    }
+
+    private void importChunks(MenuImportJob job, List<MenuItemDTO> rows) {
+        Long vendorId = job.getVendorId();
+        // Rows committed before a restart are found here and rewritten as no-op updates if a chunk replays.
+        Map<MenuBulkRepository.ItemKey, Long> existingItems = menuBulkRepository.findItemIds(vendorId);
+        for (int from = job.getCommittedRows(); from < rows.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, rows.size());
+            List<MenuItemDTO> inserts = new ArrayList<>();
+            List<MenuItemDTO> updates = new ArrayList<>();
+            for (MenuItemDTO row : rows.subList(from, to)) {
+                Long itemId = existingItems.get(new MenuBulkRepository.ItemKey(row.getCategoryId(), row.getItemName()));
+                if (itemId == null) {
+                    inserts.add(row);
+                } else {
+                    row.setItemId(itemId);
+                    updates.add(row);
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                menuWriteLocks.lockForTransaction(vendorId, lockTimeoutMs);
+                menuBulkRepository.insertItems(inserts);
+                menuBulkRepository.updateItems(updates);
+                if (menuImportJobRepository.updateCheckpoint(job.getJobId(), instanceId, to, ZonedDateTime.now()) == 0) {
+                    throw new ClaimLostException();
+                }
+                menuCacheService.bumpVersion(vendorId);
+            });
+            logger.debug("Menu import job {} committed rows up to {} of {}", job.getJobId(), to, rows.size());
+        }
+    }
+
+    private void removeUnlisted(Long vendorId, List<MenuItemDTO> rows, Map<String, Long> categoryIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            menuWriteLocks.lockForTransaction(vendorId, lockTimeoutMs);
+            Map<MenuBulkRepository.ItemKey, Long> unlistedItems = menuBulkRepository.findItemIds(vendorId);
+            rows.forEach(row -> unlistedItems.remove(new MenuBulkRepository.ItemKey(row.getCategoryId(), row.getItemName())));
+            menuBulkRepository.removeItems(unlistedItems.values());
+
+            Set<String> listedCategories = rows.stream().map(MenuItemDTO::getCategoryName).collect(Collectors.toSet());
+            menuBulkRepository.removeEmptyCategories(categoryIds.entrySet().stream()
+                    .filter(category -> !listedCategories.contains(category.getKey()))
+                    .map(Map.Entry::getValue)
+                    .collect(Collectors.toList()));
+            menuCacheService.bumpVersion(vendorId);
+            logger.info("Removed {} unlisted menu items for vendor ID: {}", unlistedItems.size(), vendorId);
+        });
+    }
+
+    private void finish(String jobId, String status, String message) {
+        update(jobId, j -> {
+            j.setStatus(status);
+            j.setMessage(truncate(message));
+            j.setFinishedAt(ZonedDateTime.now());
+        });
+        menuImportJobRepository.findById(jobId).ifPresent(job -> {
+            try {
+                Files.deleteIfExists(Paths.get(job.getSpoolPath()));
+            } catch (IOException e) {
+                logger.warn("Could not delete spooled import file {}: {}", job.getSpoolPath(), e.getMessage());
+            }
+            logger.info("Menu import job {} for vendor ID: {} finished as {}: {}", jobId, job.getVendorId(), status, message);
+        });
+    }
+
+    /** Applies a change to a job this instance holds; throws {@link ClaimLostException} once another instance took it over. */
+    private void update(String jobId, Consumer<MenuImportJob> change) {
+        transactionTemplate.executeWithoutResult(status -> menuImportJobRepository.findById(jobId).ifPresent(job -> {
+            if (!instanceId.equals(job.getClaimedBy())) {
+                throw new ClaimLostException();
+            }
+            change.accept(job);
+        }));
+    }
+
+    /** The job's lease lapsed and another instance re-claimed it; this run stops without touching the job. */
+    private static final class ClaimLostException extends RuntimeException {
+        private ClaimLostException() {
+            super("Menu import job claim lost", null, false, false);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private static MenuImportJobDTO toDTO(MenuImportJob job) {
+        MenuImportJobDTO dto = new MenuImportJobDTO();
+        dto.setJobId(job.getJobId());
+        dto.setVendorId(job.getVendorId());
+        dto.setStatus(job.getStatus());
+        dto.setFileName(job.getFileName());
+        dto.setClearExisting(job.isClearExisting());
+        dto.setTotalRows(job.getTotalRows());
+        dto.setCommittedRows(job.getCommittedRows());
+        dto.setErrorCount(job.getErrorCount());
+        dto.setErrors(job.getErrors().stream()
+                .map(error -> new MenuImportErrorDTO(error.getRowNumber(), error.getMessage()))
+                .collect(Collectors.toList()));
+        dto.setMessage(job.getMessage());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        if (job.getStartedAt() != null) {
+            ZonedDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : ZonedDateTime.now();
+            long millis = Math.max(1, Duration.between(job.getStartedAt(), end).toMillis());
+            dto.setRowsPerSecond(job.getCommittedRows() * 1000.0 / millis);
+        }
+        return dto;
+    }
+}
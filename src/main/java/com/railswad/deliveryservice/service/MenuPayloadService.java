@@ -0,0 +1,138 @@
+package com.railswad.deliveryservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import com.railswad.deliveryservice.event.MenuChangedEvent;
+import com.railswad.deliveryservice.util.PrecompressedBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Ready-to-send JSON for the public menu endpoints. The full menu is serialized and gzipped once per
+ * {@link MenuCacheService} version and the available-items list once per {@link MenuAvailabilityService}
+ * interval; a {@link MenuChangedEvent} re-encodes both on the encoding pool so reads find them waiting,
+ * and a read that arrives first joins the encoding in flight rather than starting another.
+ */
+@Service
+public class MenuPayloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuPayloadService.class);
+
+    @Autowired
+    private MenuCacheService menuCacheService;
+
+    @Autowired
+    private MenuAvailabilityService menuAvailabilityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("menuEncodingExecutor")
+    private ThreadPoolTaskExecutor menuEncodingExecutor;
+
+    private final Map<Long, Encoding<Long>> menuBodies = new ConcurrentHashMap<>();
+    private final Map<Long, Encoding<List<MenuItemDTO>>> availableBodies = new ConcurrentHashMap<>();
+
+    /**
+     * A body for one source: a menu version, or an availability list, which the index hands out as the same
+     * instance for as long as its interval is active. The first caller encodes; others wait on its future.
+     */
+    private record Encoding<K>(K source, CompletableFuture<PrecompressedBody> body) {
+    }
+
+    @EventListener
+    public void onMenuChanged(MenuChangedEvent event) {
+        Long vendorId = event.getVendorId();
+        try {
+            menuEncodingExecutor.execute(() -> {
+                try {
+                    getMenuBody(vendorId);
+                    getAvailableBody(vendorId);
+                } catch (RuntimeException e) {
+                    logger.warn("Could not pre-encode menu of vendor ID {}: {}", vendorId, e.getMessage());
+                }
+            });
+        } catch (TaskRejectedException e) {
+            logger.debug("Encoding queue full; menu of vendor ID {} will be encoded on its next read", vendorId);
+        }
+    }
+
+    /** The full menu, or {@code null} when the vendor does not exist. */
+    public PrecompressedBody getMenuBody(Long vendorId) {
+        long version = menuCacheService.currentVersion(vendorId);
+        return singleFlight(menuBodies, vendorId, version, existing -> existing >= version, () -> {
+            MenuCacheService.MenuSnapshot snapshot = menuCacheService.getMenu(vendorId);
+            if (snapshot == null) {
+                return null;
+            }
+            PrecompressedBody built = encode(snapshot.getVersion(), snapshot.getMenu());
+            logger.info("Encoded menu of vendor ID {} at version {}: {} bytes, {} gzipped", vendorId, built.getVersion(),
+                    built.getIdentitySize(), built.getGzipSize());
+            return built;
+        });
+    }
+
+    public PrecompressedBody getAvailableBody(Long vendorId) {
+        List<MenuItemDTO> items = menuAvailabilityService.getAvailableItems(vendorId);
+        return singleFlight(availableBodies, vendorId, items, existing -> existing == items, () -> {
+            PrecompressedBody built = encode(menuCacheService.currentVersion(vendorId), items);
+            logger.debug("Encoded {} available items of vendor ID {}: {} bytes gzipped", items.size(), vendorId, built.getGzipSize());
+            return built;
+        });
+    }
+
+    /**
+     * Returns the vendor's body when its source is still {@code usable}, otherwise encodes it once for
+     * {@code source}: concurrent callers for the same source wait for one encoding instead of each
+     * compressing the payload themselves. A {@code null} body, for a vendor that is gone, is not kept.
+     */
+    private static <K> PrecompressedBody singleFlight(Map<Long, Encoding<K>> bodies, Long vendorId, K source,
+                                                      Predicate<K> usable, Supplier<PrecompressedBody> build) {
+        Encoding<K> candidate = new Encoding<>(source, new CompletableFuture<>());
+        Encoding<K> current = bodies.compute(vendorId, (id, existing) ->
+                existing != null && usable.test(existing.source()) && !existing.body().isCompletedExceptionally()
+                        ? existing : candidate);
+        if (current == candidate) {
+            try {
+                PrecompressedBody built = build.get();
+                candidate.body().complete(built);
+                if (built == null) {
+                    bodies.remove(vendorId, candidate);
+                }
+            } catch (RuntimeException e) {
+                candidate.body().completeExceptionally(e);
+                bodies.remove(vendorId, candidate);
+                throw e;
+            }
+        }
+        try {
+            return current.body().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private PrecompressedBody encode(long version, Object payload) {
+        try {
+            return PrecompressedBody.encode(version, objectMapper.writeValueAsBytes(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize menu payload", e);
+        }
+    }
+}
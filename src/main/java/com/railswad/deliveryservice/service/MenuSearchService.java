@@ -0,0 +1,252 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import com.railswad.deliveryservice.dto.MenuSearchResultDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Full-text search over item names, descriptions and category names of every active vendor at a station.
+ * Each station has its own immutable shard: an inverted index with sorted terms for prefix matches and a
+ * trigram index over the terms for typo tolerance. {@link StationMenuRegistry} hands over a station's
+ * vendors whenever one of them changes, and the shard is swapped in whole so queries never take a lock.
+ */
+@Service
+public class MenuSearchService implements StationMenuRegistry.StationMenuListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSearchService.class);
+
+    private static final int ITEM_NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.7f;
+    private static final float FUZZY = 0.5f;
+
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_LIMIT = 100;
+
+    private final Map<Integer, StationShard> shards = new ConcurrentHashMap<>();
+
+    private record Doc(MenuItemDTO item, StationMenuRegistry.VendorMenu vendor) {
+    }
+
+    private record Posting(int[] docs, int[] weights) {
+    }
+
+    private static final class StationShard {
+        private final Doc[] docs;
+        private final NavigableMap<String, Posting> terms;
+        private final Map<String, List<String>> termsByTrigram;
+
+        private StationShard(Doc[] docs, NavigableMap<String, Posting> terms, Map<String, List<String>> termsByTrigram) {
+            this.docs = docs;
+            this.terms = terms;
+            this.termsByTrigram = termsByTrigram;
+        }
+    }
+
+    @Override
+    public void onStationMenusChanged(Integer stationId, List<StationMenuRegistry.VendorMenu> vendors) {
+        List<Doc> docs = new ArrayList<>();
+        Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+        for (StationMenuRegistry.VendorMenu vendor : vendors) {
+            if (!vendor.isActive()) {
+                continue;
+            }
+            for (MenuItemDTO item : vendor.getItems()) {
+                if (!item.isAvailable()) {
+                    continue;
+                }
+                int doc = docs.size();
+                docs.add(new Doc(item, vendor));
+                addField(postings, doc, item.getItemName(), ITEM_NAME_WEIGHT);
+                addField(postings, doc, item.getCategoryName(), CATEGORY_WEIGHT);
+                addField(postings, doc, item.getDescription(), DESCRIPTION_WEIGHT);
+            }
+        }
+        if (docs.isEmpty()) {
+            shards.remove(stationId);
+            return;
+        }
+
+        NavigableMap<String, Posting> terms = new TreeMap<>();
+        Map<String, List<String>> termsByTrigram = new HashMap<>();
+        postings.forEach((term, byDoc) -> {
+            int[] docIds = new int[byDoc.size()];
+            int[] weights = new int[byDoc.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Integer> entry : byDoc.entrySet()) {
+                docIds[i] = entry.getKey();
+                weights[i++] = entry.getValue();
+            }
+            terms.put(term, new Posting(docIds, weights));
+            for (String trigram : trigrams(term)) {
+                termsByTrigram.computeIfAbsent(trigram, k -> new ArrayList<>()).add(term);
+            }
+        });
+        shards.put(stationId, new StationShard(docs.toArray(new Doc[0]), Collections.unmodifiableNavigableMap(terms), termsByTrigram));
+        logger.debug("Search shard for station ID {} holds {} items and {} terms", stationId, docs.size(), terms.size());
+    }
+
+    /** Items matching every query word, best first; a word matches exactly, as a prefix, or within a typo or two. */
+    public List<MenuSearchResultDTO> search(Integer stationId, String query, boolean vegOnly,
+                                            BigDecimal minPrice, BigDecimal maxPrice, int limit) {
+        StationShard shard = shards.get(stationId);
+        List<String> tokens = new ArrayList<>(tokenize(query));
+        if (shard == null || tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        int size = shard.docs.length;
+        float[] scores = new float[size];
+        int[] matchedTokens = new int[size];
+        float[] tokenScores = new float[size];
+        for (String token : tokens) {
+            Arrays.fill(tokenScores, 0f);
+            matchTerms(shard, token).forEach((term, quality) -> {
+                Posting posting = shard.terms.get(term);
+                for (int i = 0; i < posting.docs.length; i++) {
+                    int doc = posting.docs[i];
+                    tokenScores[doc] = Math.max(tokenScores[doc], quality * posting.weights[i]);
+                }
+            });
+            for (int doc = 0; doc < size; doc++) {
+                if (tokenScores[doc] > 0) {
+                    scores[doc] += tokenScores[doc];
+                    matchedTokens[doc]++;
+                }
+            }
+        }
+
+        List<Integer> hits = new ArrayList<>();
+        for (int doc = 0; doc < size; doc++) {
+            if (matchedTokens[doc] == tokens.size() && passesFilters(shard.docs[doc].item, vegOnly, minPrice, maxPrice)) {
+                hits.add(doc);
+            }
+        }
+        Comparator<Integer> byScore = Comparator.comparingDouble(doc -> -scores[doc]);
+        hits.sort(byScore.thenComparing(doc -> shard.docs[doc].item.getPrice(), Comparator.nullsLast(Comparator.naturalOrder())));
+
+        List<MenuSearchResultDTO> results = new ArrayList<>();
+        for (Integer doc : hits.subList(0, Math.min(hits.size(), Math.min(Math.max(limit, 1), MAX_LIMIT)))) {
+            MenuItemDTO item = shard.docs[doc].item;
+            StationMenuRegistry.VendorMenu vendor = shard.docs[doc].vendor;
+            results.add(new MenuSearchResultDTO(item.getItemId(), vendor.getVendorId(), vendor.getBusinessName(),
+                    item.getCategoryName(), item.getItemName(), item.getDescription(), item.getPrice(),
+                    item.isVegetarian(), scores[doc]));
+        }
+        return results;
+    }
+
+    private static boolean passesFilters(MenuItemDTO item, boolean vegOnly, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (vegOnly && !item.isVegetarian()) {
+            return false;
+        }
+        BigDecimal price = item.getPrice();
+        if (minPrice != null && (price == null || price.compareTo(minPrice) < 0)) {
+            return false;
+        }
+        return maxPrice == null || (price != null && price.compareTo(maxPrice) <= 0);
+    }
+
+    private static Map<String, Float> matchTerms(StationShard shard, String token) {
+        Map<String, Float> matches = new LinkedHashMap<>();
+        if (shard.terms.containsKey(token)) {
+            matches.put(token, EXACT);
+        }
+        for (String term : shard.terms.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+            matches.put(term, PREFIX);
+        }
+        if (matches.isEmpty() && token.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = token.length() <= 5 ? 1 : 2;
+            Set<String> tokenTrigrams = trigrams(token);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String trigram : tokenTrigrams) {
+                for (String term : shard.termsByTrigram.getOrDefault(trigram, Collections.emptyList())) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+            shared.forEach((term, count) -> {
+                // Each edit destroys at most three trigrams, so fewer shared ones rule the term out early.
+                if (count >= tokenTrigrams.size() - 3 * maxEdits && editDistance(token, term, maxEdits) <= maxEdits) {
+                    matches.put(term, FUZZY);
+                }
+            });
+        }
+        return matches;
+    }
+
+    private static void addField(Map<String, Map<Integer, Integer>> postings, int doc, String text, int weight) {
+        for (String term : tokenize(text)) {
+            postings.computeIfAbsent(term, k -> new LinkedHashMap<>()).merge(doc, weight, Math::max);
+        }
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() >= 2) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> trigrams(String term) {
+        String padded = "^" + term + "$";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /** Levenshtein distance, giving up with {@code max + 1} once every path exceeds {@code max}. */
+    private static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -1,15 +1,17 @@
 package com.railswad.deliveryservice.service;
 
+import com.railswad.deliveryservice.dto.MenuAvailabilityUpdateDTO;
 import com.railswad.deliveryservice.dto.MenuCategoryDTO;
+import com.railswad.deliveryservice.dto.MenuImportJobDTO;
 import com.railswad.deliveryservice.dto.MenuItemDTO;
 import com.railswad.deliveryservice.entity.MenuCategory;
 import com.railswad.deliveryservice.entity.MenuItem;
-import com.railswad.deliveryservice.entity.User;
 import com.railswad.deliveryservice.entity.Vendor;
+import com.railswad.deliveryservice.exception.MenuWriteConflictException;
 import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.exception.ServiceException;
 import com.railswad.deliveryservice.repository.MenuCategoryRepository;
 import com.railswad.deliveryservice.repository.MenuItemRepository;
-import com.railswad.deliveryservice.repository.UserRepository;
 import com.railswad.deliveryservice.repository.VendorRepository;
 import com.railswad.deliveryservice.util.ExcelHelper;
 import org.slf4j.Logger;
@@ -24,10 +26,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class MenuService {
@@ -44,35 +43,52 @@ public class MenuService {
     private VendorRepository vendorRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private VendorOwnershipService vendorOwnershipService;
+
+    @Autowired
+    private MenuStockService menuStockService;
+
+    @Autowired
+    private MenuWriteLocks menuWriteLocks;
+
+    @Autowired
+    private MenuImportJobService menuImportJobService;
+
+    @Autowired
+    private MenuAvailabilityService menuAvailabilityService;
 
     @Autowired
     private ExcelHelper excelHelper;
 
+    @Autowired
+    private MenuCacheService menuCacheService;
+
     private void checkAuthorization(Long vendorId) {
         logger.debug("Checking authorization for vendor ID: {}", vendorId);
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User user = userRepository.findByUsername(auth.getName())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + auth.getName()));
 
         boolean isAdmin = auth.getAuthorities().stream()
                 .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_ADMIN"));
 
-        if (!isAdmin) {
-            Vendor vendor = vendorRepository.findById(vendorId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Vendor not found with id: " + vendorId));
-            if (!vendor.getUser().getUserId().equals(user.getUserId())) {
-                logger.error("User {} not authorized to modify vendor ID: {}", auth.getName(), vendorId);
-                throw new SecurityException("User not authorized to modify this vendor's menu");
-            }
+        // Ownership comes from the access token's claims, so bulk edits cost no user or vendor lookups.
+        if (!isAdmin && !vendorOwnershipService.isOwner(auth, vendorId)) {
+            logger.error("User {} not authorized to modify vendor ID: {}", auth.getName(), vendorId);
+            throw new SecurityException("User not authorized to modify this vendor's menu");
         }
         logger.debug("Authorization check passed for vendor ID: {}", vendorId);
     }
 
+    private static void checkVersion(Long expected, Long actual, String entity, Long id) {
+        if (expected != null && !expected.equals(actual)) {
+            throw new MenuWriteConflictException(entity + " " + id + " was changed by another request; reload it and retry");
+        }
+    }
+
     @Transactional
     public MenuCategoryDTO createMenuCategory(MenuCategoryDTO categoryDTO) {
         logger.info("Creating menu category for vendor ID: {}", categoryDTO.getVendorId());
         checkAuthorization(categoryDTO.getVendorId());
+        menuWriteLocks.lockForTransaction(categoryDTO.getVendorId());
 
         Vendor vendor = vendorRepository.findById(categoryDTO.getVendorId())
                 .orElseThrow(() -> new ResourceNotFoundException("Vendor not found with id: " + categoryDTO.getVendorId()));
@@ -83,7 +99,9 @@ public class MenuService {
         category.setDisplayOrder(categoryDTO.getDisplayOrder());
 
         MenuCategory savedCategory = menuCategoryRepository.save(category);
+        menuCacheService.bumpVersion(vendor.getVendorId());
         categoryDTO.setCategoryId(savedCategory.getCategoryId());
+        categoryDTO.setVersion(savedCategory.getVersion());
         logger.info("Menu category created with ID: {}", savedCategory.getCategoryId());
         return categoryDTO;
     }
@@ -95,13 +113,18 @@ public class MenuService {
                 .orElseThrow(() -> new ResourceNotFoundException("Menu category not found with id: " + categoryId));
 
         checkAuthorization(category.getVendor().getVendorId());
+        menuWriteLocks.lockForTransaction(category.getVendor().getVendorId());
+        checkVersion(categoryDTO.getVersion(), category.getVersion(), "Menu category", categoryId);
 
         category.setCategoryName(categoryDTO.getCategoryName());
         category.setDisplayOrder(categoryDTO.getDisplayOrder());
 
-        MenuCategory updatedCategory = menuCategoryRepository.save(category);
+        // Flushed here so a concurrent change on another node surfaces while the vendor lock is still held.
+        MenuCategory updatedCategory = menuCategoryRepository.saveAndFlush(category);
+        menuCacheService.bumpVersion(updatedCategory.getVendor().getVendorId());
         categoryDTO.setCategoryId(updatedCategory.getCategoryId());
         categoryDTO.setVendorId(updatedCategory.getVendor().getVendorId());
+        categoryDTO.setVersion(updatedCategory.getVersion());
         logger.info("Menu category updated with ID: {}", categoryId);
         return categoryDTO;
     }
@@ -113,8 +136,10 @@ public class MenuService {
                 .orElseThrow(() -> new ResourceNotFoundException("Menu category not found with id: " + categoryId));
 
         checkAuthorization(category.getVendor().getVendorId());
+        menuWriteLocks.lockForTransaction(category.getVendor().getVendorId());
 
         menuCategoryRepository.delete(category);
+        menuCacheService.bumpVersion(category.getVendor().getVendorId());
         logger.info("Menu category deleted with ID: {}", categoryId);
     }
 
@@ -125,6 +150,7 @@ public class MenuService {
                 .orElseThrow(() -> new ResourceNotFoundException("Menu category not found with id: " + itemDTO.getCategoryId()));
 
         checkAuthorization(category.getVendor().getVendorId());
+        menuWriteLocks.lockForTransaction(category.getVendor().getVendorId());
 
         MenuItem item = new MenuItem();
         item.setCategory(category);
@@ -140,7 +166,9 @@ public class MenuService {
         item.setAvailableEndTime(itemDTO.getAvailableEndTime());
 
         MenuItem savedItem = menuItemRepository.save(item);
+        menuCacheService.bumpVersion(category.getVendor().getVendorId());
         itemDTO.setItemId(savedItem.getItemId());
+        itemDTO.setVersion(savedItem.getVersion());
         logger.info("Menu item created with ID: {}", savedItem.getItemId());
         return itemDTO;
     }
@@ -154,6 +182,12 @@ public class MenuService {
                 .orElseThrow(() -> new ResourceNotFoundException("Menu category not found with id: " + itemDTO.getCategoryId()));
 
         checkAuthorization(category.getVendor().getVendorId());
+        Long previousVendorId = item.getCategory().getVendor().getVendorId();
+        menuWriteLocks.lockForTransaction(category.getVendor().getVendorId());
+        if (!previousVendorId.equals(category.getVendor().getVendorId())) {
+            menuWriteLocks.lockForTransaction(previousVendorId);
+        }
+        checkVersion(itemDTO.getVersion(), item.getVersion(), "Menu item", itemId);
 
         item.setCategory(category);
         item.setItemName(itemDTO.getItemName());
@@ -167,8 +201,13 @@ public class MenuService {
         item.setAvailableStartTime(itemDTO.getAvailableStartTime());
         item.setAvailableEndTime(itemDTO.getAvailableEndTime());
 
-        MenuItem updatedItem = menuItemRepository.save(item);
+        MenuItem updatedItem = menuItemRepository.saveAndFlush(item);
+        menuCacheService.bumpVersion(category.getVendor().getVendorId());
+        if (!previousVendorId.equals(category.getVendor().getVendorId())) {
+            menuCacheService.bumpVersion(previousVendorId);
+        }
         itemDTO.setItemId(updatedItem.getItemId());
+        itemDTO.setVersion(updatedItem.getVersion());
         logger.info("Menu item updated with ID: {}", itemId);
         return itemDTO;
     }
@@ -180,8 +219,10 @@ public class MenuService {
                 .orElseThrow(() -> new ResourceNotFoundException("Menu item not found with id: " + itemId));
 
         checkAuthorization(item.getCategory().getVendor().getVendorId());
+        menuWriteLocks.lockForTransaction(item.getCategory().getVendor().getVendorId());
 
         menuItemRepository.delete(item);
+        menuCacheService.bumpVersion(item.getCategory().getVendor().getVendorId());
         logger.info("Menu item deleted with ID: {}", itemId);
     }
 
@@ -203,32 +244,22 @@ public class MenuService {
         itemDTO.setDisplayOrder(item.getDisplayOrder());
         itemDTO.setAvailableStartTime(item.getAvailableStartTime());
         itemDTO.setAvailableEndTime(item.getAvailableEndTime());
+        itemDTO.setVersion(item.getVersion());
         logger.debug("Fetched menu item ID: {}", itemId);
         return itemDTO;
     }
 
+    public List<MenuAvailabilityUpdateDTO> updateAvailability(Long vendorId, List<MenuAvailabilityUpdateDTO> updates) {
+        logger.info("Updating availability of {} menu items for vendor ID: {}", updates.size(), vendorId);
+        checkAuthorization(vendorId);
+        return menuStockService.update(vendorId, updates);
+    }
+
     public List<MenuItemDTO> getAvailableMenuItemsByVendor(Long vendorId) {
         logger.info("Fetching available menu items for vendor ID: {}", vendorId);
-        LocalTime currentTime = LocalTime.now();
-        List<MenuItem> items = menuItemRepository.findAvailableItemsByVendor(vendorId, currentTime);
+        List<MenuItemDTO> items = menuAvailabilityService.getAvailableItems(vendorId);
         logger.debug("Found {} available menu items for vendor ID: {}", items.size(), vendorId);
-        return items.stream().map(item -> {
-            MenuItemDTO itemDTO = new MenuItemDTO();
-            itemDTO.setItemId(item.getItemId());
-            itemDTO.setCategoryId(item.getCategory().getCategoryId());
-            itemDTO.setCategoryName(item.getCategory().getCategoryName());
-            itemDTO.setItemName(item.getItemName());
-            itemDTO.setDescription(item.getDescription());
-            itemDTO.setPrice(item.getPrice());
-            itemDTO.setVegetarian(item.isVegetarian());
-            itemDTO.setAvailable(item.isAvailable());
-            itemDTO.setPreparationTimeMin(item.getPreparationTimeMin());
-            itemDTO.setImageUrl(item.getImageUrl());
-            itemDTO.setDisplayOrder(item.getDisplayOrder());
-            itemDTO.setAvailableStartTime(item.getAvailableStartTime());
-            itemDTO.setAvailableEndTime(item.getAvailableEndTime());
-            return itemDTO;
-        }).collect(Collectors.toList());
+        return items;
     }
 
     public Page<MenuCategoryDTO> getMenuCategoriesByVendor(Long vendorId, Pageable pageable) {
@@ -241,105 +272,47 @@ public class MenuService {
             categoryDTO.setVendorId(category.getVendor().getVendorId());
             categoryDTO.setCategoryName(category.getCategoryName());
             categoryDTO.setDisplayOrder(category.getDisplayOrder());
+            categoryDTO.setVersion(category.getVersion());
             return categoryDTO;
         });
     }
 
-    @Transactional
-    public String uploadMenuItems(MultipartFile file, Long vendorId, boolean clearExisting) {
+    /** Validates the request and queues the import as a background job; progress is read through {@link #getMenuImportJob}. */
+    public MenuImportJobDTO uploadMenuItems(MultipartFile file, Long vendorId, boolean clearExisting) {
         logger.info("Starting menu upload for vendor ID: {}, clearExisting: {}", vendorId, clearExisting);
         try {
             if (!excelHelper.hasExcelFormat(file)) {
                 logger.error("Invalid file format: {}", file.getContentType());
-                return "Please upload an Excel file!";
+                throw new ServiceException("INVALID_MENU_FILE", "Please upload an Excel file!");
             }
 
             // Validate authorization
             checkAuthorization(vendorId);
 
             // Validate vendor
-            Vendor vendor = vendorRepository.findById(vendorId)
-                    .orElseThrow(() -> {
-                        logger.error("Vendor ID {} not found", vendorId);
-                        return new ResourceNotFoundException("Vendor not found with id: " + vendorId);
-                    });
-
-            // Clear existing menu if requested
-            if (clearExisting) {
-                logger.info("Clearing existing menu for vendor ID: {}", vendorId);
-                List<MenuCategory> existingCategories = menuCategoryRepository.findByVendorVendorId(vendorId);
-                for (MenuCategory category : existingCategories) {
-                    List<MenuItem> items = menuItemRepository.findByCategory(category);
-                    logger.debug("Deleting {} items in category ID: {}", items.size(), category.getCategoryId());
-                    menuItemRepository.deleteAll(items);
-                }
-                menuCategoryRepository.deleteAll(existingCategories);
-                logger.info("Cleared {} categories for vendor ID: {}", existingCategories.size(), vendorId);
+            if (!vendorRepository.existsById(vendorId)) {
+                logger.error("Vendor ID {} not found", vendorId);
+                throw new ResourceNotFoundException("Vendor not found with id: " + vendorId);
             }
 
-            // Parse Excel file
-            List<MenuItemDTO> dtos = excelHelper.excelToMenuItemDTOs(file.getInputStream());
-            logger.info("Parsed {} menu items from Excel file", dtos.size());
-
-            List<MenuItem> menuItems = new ArrayList<>();
-            for (MenuItemDTO dto : dtos) {
-                // Validate required fields
-                if (dto.getCategoryName() == null || dto.getCategoryName().trim().isEmpty()) {
-                    logger.error("Category name is required at row {}", dtos.indexOf(dto) + 2);
-                    throw new IllegalArgumentException("Category name is required at row " + (dtos.indexOf(dto) + 2));
-                }
-                if (dto.getItemName() == null || dto.getItemName().trim().isEmpty()) {
-                    logger.error("Item name is required at row {}", dtos.indexOf(dto) + 2);
-                    throw new IllegalArgumentException("Item name is required at row " + (dtos.indexOf(dto) + 2));
-                }
-                if (dto.getPrice() == null) {
-                    logger.error("Price is required at row {}", dtos.indexOf(dto) + 2);
-                    throw new IllegalArgumentException("Price is required at row " + (dtos.indexOf(dto) + 2));
-                }
-
-                // Find or create category
-                MenuCategory category = menuCategoryRepository.findByVendorAndCategoryName(vendor, dto.getCategoryName());
-                if (category == null) {
-                    logger.info("Creating new category '{}' for vendor ID: {}", dto.getCategoryName(), vendorId);
-                    category = new MenuCategory();
-                    category.setVendor(vendor);
-                    category.setCategoryName(dto.getCategoryName());
-                    category.setDisplayOrder(dto.getDisplayOrder() != null ? dto.getDisplayOrder() : 0);
-                    category = menuCategoryRepository.save(category);
-                    logger.debug("Created category ID: {}", category.getCategoryId());
-                }
-
-                // Check for duplicate item
-                if (menuItemRepository.findByCategoryAndItemName(category, dto.getItemName()).isPresent()) {
-                    logger.error("Duplicate item '{}' in category '{}' at row {}", dto.getItemName(), dto.getCategoryName(), dtos.indexOf(dto) + 2);
-                    throw new IllegalArgumentException("Item '" + dto.getItemName() + "' already exists in category '" + dto.getCategoryName() + "' at row " + (dtos.indexOf(dto) + 2));
-                }
-
-                // Create MenuItem
-                MenuItem item = new MenuItem();
-                item.setCategory(category);
-                item.setItemName(dto.getItemName());
-                item.setDescription(dto.getDescription());
-                item.setPrice(dto.getPrice());
-                item.setVegetarian(dto.isVegetarian());
-                item.setAvailable(dto.isAvailable());
-                item.setPreparationTimeMin(dto.getPreparationTimeMin());
-                item.setImageUrl(dto.getImageUrl());
-                item.setDisplayOrder(dto.getDisplayOrder() != null ? dto.getDisplayOrder() : 0);
-                item.setAvailableStartTime(dto.getAvailableStartTime());
-                item.setAvailableEndTime(dto.getAvailableEndTime());
-
-                menuItems.add(item);
-                logger.debug("Prepared menu item: {} in category: {}", dto.getItemName(), dto.getCategoryName());
-            }
-
-            // Save all menu items
-            menuItemRepository.saveAll(menuItems);
-            logger.info("Successfully saved {} menu items for vendor ID: {}", menuItems.size(), vendorId);
-            return "Uploaded the file successfully for vendor ID " + vendorId + ": " + file.getOriginalFilename();
+            return menuImportJobService.submit(file, vendorId, clearExisting);
         } catch (IOException e) {
             logger.error("Failed to process Excel file: {}", e.getMessage());
             throw new RuntimeException("Failed to process Excel file: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    public void checkMenuExportAccess(Long vendorId) {
+        checkAuthorization(vendorId);
+        if (!vendorRepository.existsById(vendorId)) {
+            logger.error("Vendor ID {} not found", vendorId);
+            throw new ResourceNotFoundException("Vendor not found with id: " + vendorId);
+        }
+    }
+
+    public MenuImportJobDTO getMenuImportJob(String jobId) {
+        MenuImportJobDTO job = menuImportJobService.getJob(jobId);
+        checkAuthorization(job.getVendorId());
+        return job;
+    }
+}
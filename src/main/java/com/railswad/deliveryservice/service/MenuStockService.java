@@ -0,0 +1,307 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.MenuAvailabilityUpdateDTO;
+import com.railswad.deliveryservice.event.MenuChangedEvent;
+import com.railswad.deliveryservice.exception.ServiceException;
+import com.railswad.deliveryservice.repository.MenuStockRepository;
+import com.railswad.deliveryservice.repository.MenuStockRepository.AvailabilityChange;
+import com.railswad.deliveryservice.repository.MenuStockRepository.StockRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live availability and stock of every menu item. The database owns the counts: an order takes its portions
+ * with one conditional decrement, so instances cannot sell the same last portion twice, and a vendor's toggles
+ * and restocks are written straight through. The in-memory copy turns away switched-off items before any
+ * query, is refreshed from each decrement's result and from a periodic re-read, and tells the flush tick when
+ * an item came into or went out of stock, the only stock change that moves a vendor's menu version.
+ */
+@Service
+public class MenuStockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuStockService.class);
+
+    public static final int UNLIMITED = -1;
+
+    @Autowired
+    private MenuStockRepository menuStockRepository;
+
+    @Autowired
+    private MenuCacheService menuCacheService;
+
+    @Autowired
+    private MenuWriteLocks menuWriteLocks;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, ItemStock> items = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> itemsByVendor = new ConcurrentHashMap<>();
+    // Items whose availability may have changed since their vendor's menu version last moved.
+    private final Set<Long> dirtyItems = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyVendors = ConcurrentHashMap.newKeySet();
+
+    public MenuStockService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private static final class ItemStock {
+        private final Long vendorId;
+        private volatile boolean enabled;
+        private volatile int stock;
+        // Availability the vendor's menu version last reflected, to spot items coming into or going out of stock.
+        private volatile boolean publishedAvailable;
+
+        private ItemStock(Long vendorId, boolean enabled, int stock) {
+            this.vendorId = vendorId;
+            this.enabled = enabled;
+            this.stock = stock;
+            this.publishedAvailable = isAvailable();
+        }
+
+        private boolean isAvailable() {
+            return enabled && stock != 0;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        List<StockRow> rows = menuStockRepository.findAll();
+        rows.forEach(this::track);
+        logger.info("Tracking stock for {} menu items", rows.size());
+    }
+
+    @EventListener
+    public void onMenuChanged(MenuChangedEvent event) {
+        // Picked up on the next flush tick; reading here would run inside the writer's completed transaction.
+        dirtyVendors.add(event.getVendorId());
+    }
+
+    /**
+     * Takes the ordered quantities off the items' stock, all or nothing, in the caller's transaction. Items
+     * switched off here are refused without a query; items with a limit are decremented in the database,
+     * which refuses the order if another instance sold the last portions first. Items not tracked yet are
+     * left for the order path to validate.
+     */
+    public void reserve(Map<Long, Integer> quantities) {
+        Map<Long, Integer> limited = new HashMap<>();
+        // Captured now: a re-read or flush may stop tracking an item before the order's transaction completes.
+        Set<Long> vendorIds = new HashSet<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            ItemStock item = items.get(entry.getKey());
+            if (item == null || entry.getValue() <= 0) {
+                continue;
+            }
+            if (!item.enabled || (item.stock != UNLIMITED && item.stock < entry.getValue())) {
+                throw unavailable(entry.getKey());
+            }
+            if (item.stock != UNLIMITED) {
+                limited.put(entry.getKey(), entry.getValue());
+                vendorIds.add(item.vendorId);
+            }
+        }
+        if (limited.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Integer> remaining = menuStockRepository.take(limited);
+            remaining.forEach((itemId, stock) -> {
+                ItemStock item = items.get(itemId);
+                if (item != null) {
+                    item.stock = stock;
+                    dirtyItems.add(itemId);
+                }
+            });
+            for (Long itemId : limited.keySet()) {
+                if (!remaining.containsKey(itemId)) {
+                    // Our copy was behind the database; re-read the vendor so the next order is refused up front.
+                    dirtyVendors.addAll(vendorIds);
+                    throw unavailable(itemId);
+                }
+            }
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        // The decrements rolled back with the order; take the counts from the database again.
+                        dirtyVendors.addAll(vendorIds);
+                    }
+                }
+            });
+        }
+    }
+
+    private static ServiceException unavailable(Long itemId) {
+        return new ServiceException("ITEM_UNAVAILABLE", "Menu item " + itemId + " is unavailable or out of stock");
+    }
+
+    /**
+     * Applies toggles and restocks to items of the vendor and writes them through; only the fields an update
+     * carries are written, so a toggle never overwrites a concurrent restock or the other way round.
+     */
+    public List<MenuAvailabilityUpdateDTO> update(Long vendorId, List<MenuAvailabilityUpdateDTO> updates) {
+        for (MenuAvailabilityUpdateDTO update : updates) {
+            ItemStock item = update.getItemId() != null ? items.get(update.getItemId()) : null;
+            if (item == null || !item.vendorId.equals(vendorId)) {
+                throw new ServiceException("UNKNOWN_ITEM", "Menu item " + update.getItemId() + " does not belong to vendor " + vendorId);
+            }
+            if (update.getStockCount() != null && update.getStockCount() < UNLIMITED) {
+                throw new ServiceException("INVALID_STOCK", "Stock for menu item " + update.getItemId() + " must be -1 or more");
+            }
+        }
+
+        List<AvailabilityChange> changes = updates.stream()
+                .map(update -> new AvailabilityChange(update.getItemId(), update.getAvailable(), update.getStockCount() != null,
+                        update.getStockCount() == null || update.getStockCount() == UNLIMITED ? null : update.getStockCount()))
+                .toList();
+        List<StockRow> written = transactionTemplate.execute(status -> {
+            menuWriteLocks.lockForTransaction(vendorId);
+            menuStockRepository.updateAvailability(changes);
+            List<StockRow> rows = menuStockRepository.findByItemIds(changes.stream().map(AvailabilityChange::itemId).toList());
+            boolean availabilityChanged = false;
+            for (StockRow row : rows) {
+                ItemStock item = items.get(row.itemId());
+                availabilityChanged |= item != null && item.publishedAvailable != isAvailable(row);
+            }
+            if (availabilityChanged) {
+                menuCacheService.bumpVersion(vendorId);
+            }
+            return rows;
+        });
+
+        List<MenuAvailabilityUpdateDTO> results = new ArrayList<>(written.size());
+        for (StockRow row : written) {
+            ItemStock item = items.get(row.itemId());
+            if (item != null) {
+                apply(item, row);
+                // The version moved with the write if this item came into or went out of stock.
+                item.publishedAvailable = item.isAvailable();
+            }
+            results.add(new MenuAvailabilityUpdateDTO(row.itemId(), row.available(),
+                    row.stockCount() != null ? row.stockCount() : UNLIMITED));
+        }
+        logger.info("Applied {} availability updates for vendor ID: {}", updates.size(), vendorId);
+        return results;
+    }
+
+    /** Moves the menu version of vendors whose items ran out or came back through orders since the last tick. */
+    @Scheduled(fixedDelayString = "${menu.stock.flush-ms:2000}")
+    public void flush() {
+        reloadChangedVendors();
+        if (dirtyItems.isEmpty()) {
+            return;
+        }
+        List<Long> batch = new ArrayList<>(dirtyItems);
+        dirtyItems.removeAll(batch);
+        Map<Long, List<Long>> changedByVendor = new HashMap<>();
+        for (Long itemId : batch) {
+            ItemStock item = items.get(itemId);
+            if (item != null && item.publishedAvailable != item.isAvailable()) {
+                changedByVendor.computeIfAbsent(item.vendorId, id -> new ArrayList<>()).add(itemId);
+            }
+        }
+
+        for (Map.Entry<Long, List<Long>> entry : changedByVendor.entrySet()) {
+            Long vendorId = entry.getKey();
+            try {
+                // Taken like any other menu write, so the version moves in order with the vendor's edits.
+                transactionTemplate.executeWithoutResult(status -> {
+                    menuWriteLocks.lockForTransaction(vendorId, 0);
+                    menuCacheService.bumpVersion(vendorId);
+                });
+            } catch (RuntimeException e) {
+                logger.debug("Menu version of vendor ID {} left for the next flush: {}", vendorId, e.getMessage());
+                dirtyItems.addAll(entry.getValue());
+                continue;
+            }
+            entry.getValue().forEach(itemId -> {
+                ItemStock item = items.get(itemId);
+                if (item != null) {
+                    item.publishedAvailable = item.isAvailable();
+                }
+            });
+        }
+        logger.debug("Checked {} menu items; menu versions moved for {} vendors", batch.size(), changedByVendor.size());
+    }
+
+    /** Re-reads every item, picking up toggles and restocks made on other instances. */
+    @Scheduled(fixedDelayString = "${menu.stock.resync-ms:30000}", initialDelayString = "${menu.stock.resync-ms:30000}")
+    public void resync() {
+        for (StockRow row : menuStockRepository.findAll()) {
+            ItemStock item = items.get(row.itemId());
+            if (item == null || !item.vendorId.equals(row.vendorId())) {
+                track(row);
+            } else {
+                apply(item, row);
+                if (item.publishedAvailable != item.isAvailable()) {
+                    dirtyItems.add(row.itemId());
+                }
+            }
+        }
+    }
+
+    private static boolean isAvailable(StockRow row) {
+        return row.available() && (row.stockCount() == null || row.stockCount() > 0);
+    }
+
+    private static void apply(ItemStock item, StockRow row) {
+        item.enabled = row.available();
+        item.stock = row.stockCount() != null ? row.stockCount() : UNLIMITED;
+    }
+
+    /** Re-reads vendors whose menu was written elsewhere; their version already moved with that write. */
+    private void reloadChangedVendors() {
+        if (dirtyVendors.isEmpty()) {
+            return;
+        }
+        List<Long> vendors = new ArrayList<>(dirtyVendors);
+        dirtyVendors.removeAll(vendors);
+        for (Long vendorId : vendors) {
+            Set<Long> seen = new HashSet<>();
+            for (StockRow row : menuStockRepository.findByVendorId(vendorId)) {
+                seen.add(row.itemId());
+                ItemStock item = items.get(row.itemId());
+                if (item == null || !item.vendorId.equals(vendorId)) {
+                    track(row);
+                    continue;
+                }
+                apply(item, row);
+                if (item.publishedAvailable != item.isAvailable()) {
+                    dirtyItems.add(row.itemId());
+                }
+            }
+            Set<Long> known = itemsByVendor.getOrDefault(vendorId, Set.of());
+            for (Long itemId : List.copyOf(known)) {
+                if (!seen.contains(itemId)) {
+                    // An item moved to another vendor's category is already tracked under that vendor.
+                    items.computeIfPresent(itemId, (id, item) -> item.vendorId.equals(vendorId) ? null : item);
+                    known.remove(itemId);
+                }
+            }
+        }
+    }
+
+    private void track(StockRow row) {
+        items.put(row.itemId(), new ItemStock(row.vendorId(), row.available(),
+                row.stockCount() != null ? row.stockCount() : UNLIMITED));
+        itemsByVendor.computeIfAbsent(row.vendorId(), id -> ConcurrentHashMap.newKeySet()).add(row.itemId());
+    }
+}
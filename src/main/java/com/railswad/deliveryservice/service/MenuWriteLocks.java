@@ -0,0 +1,65 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.exception.MenuWriteConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes menu writes per vendor within this instance. Vendors hash onto a fixed set of lock stripes; a
+ * lock is taken inside the writer's transaction and released only after it completes, so the cache version
+ * bump registered by the write runs before the next writer for the vendor can start. A writer that cannot
+ * get the lock in time fails fast with {@link MenuWriteConflictException}. Across instances the entity
+ * {@code @Version} columns catch what these locks cannot see.
+ */
+@Service
+public class MenuWriteLocks {
+
+    private final ReentrantLock[] stripes;
+
+    @Value("${menu.write.lock-timeout-ms:250}")
+    private long lockTimeoutMs;
+
+    public MenuWriteLocks(@Value("${menu.write.lock-stripes:64}") int stripeCount) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /** Locks the vendor's menu until the current transaction completes, waiting at most the request timeout. */
+    public void lockForTransaction(Long vendorId) {
+        lockForTransaction(vendorId, lockTimeoutMs);
+    }
+
+    public void lockForTransaction(Long vendorId, long timeoutMs) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Menu write locks are held for a transaction, but none is active");
+        }
+        ReentrantLock lock = stripes[Math.floorMod(vendorId.hashCode(), stripes.length)];
+        if (lock.isHeldByCurrentThread()) {
+            // Already held for this transaction, possibly through another vendor on the same stripe.
+            return;
+        }
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new MenuWriteConflictException("Menu of vendor " + vendorId + " is being changed by another request; retry shortly");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
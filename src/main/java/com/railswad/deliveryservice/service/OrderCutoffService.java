@@ -0,0 +1,181 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.OrderDTO;
+import com.railswad.deliveryservice.entity.Station;
+import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.exception.ServiceException;
+import com.railswad.deliveryservice.repository.VendorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Turns away orders that cannot reach the train: the train must call at the delivery station near the
+ * requested time, halt long enough to hand food over, and still be due after the vendor's preparation time
+ * plus the wait behind its open orders due before this one. Times are those expected after any reported
+ * running delay. Inputs come from in-memory indexes; only a vendor the station index has not picked up yet
+ * is read from the database.
+ */
+@Service
+public class OrderCutoffService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderCutoffService.class);
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("dd MMM HH:mm");
+
+    @Autowired
+    private TrainRouteIndex trainRouteIndex;
+
+    @Autowired
+    private StationMenuRegistry stationMenuRegistry;
+
+    @Autowired
+    private VendorQueueService vendorQueueService;
+
+    @Autowired
+    private GeoIndexService geoIndexService;
+
+    @Autowired
+    private TrainDelayService trainDelayService;
+
+    @Autowired
+    private TrainCancellationService trainCancellationService;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Value("${order.cutoff.require-route:false}")
+    private boolean requireRoute;
+
+    @Value("${order.cutoff.min-halt-min:2}")
+    private int minHaltMinutes;
+
+    @Value("${order.cutoff.time-tolerance-min:30}")
+    private int toleranceMinutes;
+
+    @Value("${order.cutoff.handover-min:5}")
+    private int handoverMinutes;
+
+    @Value("${order.cutoff.default-prep-min:30}")
+    private int defaultPrepMinutes;
+
+    @Value("${order.cutoff.minutes-per-queued-order:3}")
+    private int minutesPerQueuedOrder;
+
+    @Value("${order.cutoff.max-queue-depth:50}")
+    private int maxQueueDepth;
+
+    /** Returns the running delay, in minutes, expected at the delivery station; zero when the train has no timetable. */
+    public int validate(OrderDTO order) {
+        if (order.getDeliveryTime() == null || order.getTrainId() == null || order.getDeliveryStationId() == null
+                || order.getVendorId() == null) {
+            throw new ServiceException("INVALID_ORDER", "Vendor, train, delivery station and delivery time are required");
+        }
+        StationMenuRegistry.VendorMenu vendor = stationMenuRegistry.getVendorMenu(order.getVendorId());
+        if (vendor == null) {
+            vendor = loadVendor(order.getVendorId());
+        }
+        if (!vendor.isActive()) {
+            throw new ServiceException("VENDOR_INACTIVE", "Vendor " + order.getVendorId() + " is not taking orders");
+        }
+        checkServesStation(vendor, order.getDeliveryStationId());
+
+        TrainRouteIndex.Route route = trainRouteIndex.getRoute(order.getTrainId());
+        if (route == null) {
+            if (requireRoute) {
+                throw new ServiceException("NO_TIMETABLE", "No timetable is known for train " + order.getTrainId());
+            }
+            logger.debug("No timetable for train ID {}; order accepted without a halt check", order.getTrainId());
+            return 0;
+        }
+        int position = route.positionOf(order.getDeliveryStationId());
+        if (position < 0) {
+            throw new ServiceException("STATION_NOT_ON_ROUTE", "Train " + route.trainNumber() + " does not stop at station " + order.getDeliveryStationId());
+        }
+        TrainRouteIndex.Stop stop = route.stops().get(position);
+        Integer halt = stop.haltMinutes();
+        if (halt != null && halt < minHaltMinutes) {
+            throw new ServiceException("HALT_TOO_SHORT", "Train " + route.trainNumber() + " halts only " + halt + " min at this station");
+        }
+
+        // Food must be on the platform when the train pulls in; at the origin that is its departure.
+        int dueMinute = stop.arrivalMinute() >= 0 ? stop.arrivalMinute() : stop.departureMinute();
+        LocalDate journeyDate = closestRun(route, dueMinute, order.getDeliveryTime());
+        if (journeyDate == null) {
+            throw new ServiceException("TRAIN_NOT_RUNNING", "Train " + route.trainNumber() + " does not run around " + order.getDeliveryTime());
+        }
+        if (trainCancellationService.isCancelled(route.trainId(), journeyDate)) {
+            throw new ServiceException("TRAIN_CANCELLED", "Train " + route.trainNumber() + " of " + journeyDate + " is cancelled");
+        }
+        int delay = trainDelayService.getDelayMinutes(route, journeyDate, position);
+        ZonedDateTime due = trainRouteIndex.at(journeyDate, dueMinute).plusMinutes(delay);
+        ZonedDateTime leaves = trainRouteIndex.at(journeyDate, stop.lastMinute()).plusMinutes(delay);
+        if (order.getDeliveryTime().isBefore(due.minusMinutes(toleranceMinutes))
+                || order.getDeliveryTime().isAfter(leaves.plusMinutes(toleranceMinutes))) {
+            throw new ServiceException("DELIVERY_TIME_MISMATCH", "Train " + route.trainNumber() + " is due at this station at "
+                    + due.format(TIME) + ", not at the requested delivery time");
+        }
+
+        ZonedDateTime now = ZonedDateTime.now(trainRouteIndex.getZone());
+        // Orders due later are cooked after this one and do not hold it up.
+        int queued = vendorQueueService.getDepthDueBy(order.getVendorId(), due);
+        if (queued >= maxQueueDepth) {
+            throw new ServiceException("VENDOR_BUSY", "Vendor " + order.getVendorId() + " has too many open orders, please try another vendor");
+        }
+        Integer prep = vendor.getPreparationTimeMin();
+        ZonedDateTime ready = now.plusMinutes((prep != null ? prep : defaultPrepMinutes) + (long) queued * minutesPerQueuedOrder + handoverMinutes);
+        if (ready.isAfter(due)) {
+            throw new ServiceException("ORDER_TOO_LATE", "Train " + route.trainNumber() + " is due at " + due.format(TIME)
+                    + " but the order cannot be ready before " + ready.format(TIME));
+        }
+        return delay;
+    }
+
+    /** The vendor as the station index would hold it, read from the database until the index picks it up. */
+    private StationMenuRegistry.VendorMenu loadVendor(Long vendorId) {
+        List<Object[]> headers = vendorRepository.findStationMenuHeaders(List.of(vendorId));
+        if (headers.isEmpty()) {
+            throw new ResourceNotFoundException("Vendor not found with id: " + vendorId);
+        }
+        Object[] header = headers.get(0);
+        return new StationMenuRegistry.VendorMenu(vendorId, (Integer) header[1], (String) header[2], (Double) header[3],
+                (Integer) header[4], Boolean.TRUE.equals(header[5]), 0, List.of());
+    }
+
+    private void checkServesStation(StationMenuRegistry.VendorMenu vendor, Integer stationId) {
+        if (stationId.equals(vendor.getStationId())) {
+            return;
+        }
+        Station station = trainRouteIndex.getStation(stationId);
+        if (station == null || station.getLatitude() == null || station.getLongitude() == null
+                || !geoIndexService.isInDeliveryArea(vendor.getVendorId(), station.getLatitude(), station.getLongitude())) {
+            throw new ServiceException("VENDOR_NOT_AT_STATION", "Vendor " + vendor.getVendorId() + " does not deliver at station " + stationId);
+        }
+    }
+
+    /** The origin date of the run that reaches the stop closest to the requested time, or null if none runs. */
+    private LocalDate closestRun(TrainRouteIndex.Route route, int dueMinute, ZonedDateTime requested) {
+        LocalDate requestedDate = requested.withZoneSameInstant(trainRouteIndex.getZone()).toLocalDate();
+        LocalDate best = null;
+        long bestGap = Long.MAX_VALUE;
+        for (LocalDate date = requestedDate.minusDays(dueMinute / (24 * 60) + 1); !date.isAfter(requestedDate.plusDays(1)); date = date.plusDays(1)) {
+            if (!route.runsOn(date)) {
+                continue;
+            }
+            long gap = Math.abs(Duration.between(trainRouteIndex.at(date, dueMinute), requested).toMinutes());
+            if (gap < bestGap) {
+                best = date;
+                bestGap = gap;
+            }
+        }
+        return best;
+    }
+}
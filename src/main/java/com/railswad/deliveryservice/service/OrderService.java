@@ -4,11 +4,14 @@ import com.railswad.deliveryservice.dto.OrderDTO;
 import com.railswad.deliveryservice.dto.OrderItemDTO;
 import com.railswad.deliveryservice.entity.*;
 import com.railswad.deliveryservice.entity.MenuItem;
+import com.railswad.deliveryservice.event.OrderCreatedEvent;
 import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.exception.ServiceException;
 import com.railswad.deliveryservice.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -48,9 +51,27 @@ public class OrderService {
     @Autowired
     private MenuItemRepository menuItemRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MenuStockService menuStockService;
+
+    @Autowired
+    private OrderCutoffService orderCutoffService;
+
+    @Autowired
+    private VendorQueueService vendorQueueService;
+
     @Transactional
     public OrderDTO createOrder(OrderDTO orderDTO) {
         logger.info("Creating order for customer ID: {}", orderDTO.getCustomerId());
+        validateItems(orderDTO.getItems());
+        // Orders the train or the kitchen cannot meet are rejected from memory before anything is reserved.
+        int appliedDelayMinutes = orderCutoffService.validate(orderDTO);
+        // Sold-out or switched-off items are turned away from memory before any lookup is made.
+        menuStockService.reserve(orderDTO.getItems().stream().collect(Collectors.toMap(
+                OrderItemDTO::getItemId, item -> item.getQuantity() != null ? item.getQuantity() : 1, Integer::sum)));
         User customer = userRepository.findById(orderDTO.getCustomerId())
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + orderDTO.getCustomerId()));
         Vendor vendor = vendorRepository.findById(orderDTO.getVendorId())
@@ -69,6 +90,8 @@ public class OrderService {
         order.setSeatNumber(orderDTO.getSeatNumber());
         order.setDeliveryStation(deliveryStation);
         order.setDeliveryTime(orderDTO.getDeliveryTime());
+        // The requested time already allows for the train's reported delay; later reports move it by the difference.
+        order.setAppliedDelayMinutes(appliedDelayMinutes);
         order.setOrderStatus("PLACED");
         order.setTotalAmount(orderDTO.getTotalAmount());
         order.setDeliveryCharges(orderDTO.getDeliveryCharges());
@@ -104,11 +127,29 @@ public class OrderService {
         tracking.setCreatedAt(ZonedDateTime.now());
         orderTrackingRepository.save(tracking);
 
+        eventPublisher.publishEvent(new OrderCreatedEvent(savedOrder.getOrderId(), vendor.getVendorId(),
+                deliveryStation.getStationId(), deliveryStation.getLatitude(), deliveryStation.getLongitude(),
+                savedOrder.getFinalAmount(), savedOrder.getCreatedAt(), savedOrder.getDeliveryTime()));
+
         orderDTO.setOrderId(savedOrder.getOrderId());
         logger.info("Order created successfully with ID: {}", savedOrder.getOrderId());
         return orderDTO;
     }
 
+    private void validateItems(List<OrderItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            throw new ServiceException("INVALID_ORDER_ITEMS", "Order must contain at least one item");
+        }
+        for (OrderItemDTO item : items) {
+            if (item == null || item.getItemId() == null) {
+                throw new ServiceException("INVALID_ORDER_ITEMS", "Every order item must name a menu item");
+            }
+            if (item.getQuantity() != null && item.getQuantity() <= 0) {
+                throw new ServiceException("INVALID_ORDER_ITEMS", "Quantity of menu item " + item.getItemId() + " must be positive");
+            }
+        }
+    }
+
     @Transactional
     public OrderDTO updateOrderStatus(Long orderId, String status, String remarks, Long updatedById) {
         logger.info("Updating status for order ID: {} to {}", orderId, status);
@@ -117,9 +158,12 @@ public class OrderService {
         User updatedBy = userRepository.findById(updatedById)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + updatedById));
 
+        String previousStatus = order.getOrderStatus();
         order.setOrderStatus(status);
         order.setUpdatedAt(ZonedDateTime.now());
         Order updatedOrder = orderRepository.save(order);
+        vendorQueueService.statusChanged(updatedOrder.getVendor().getVendorId(), orderId, updatedOrder.getDeliveryTime(),
+                previousStatus, status);
 
         OrderTracking tracking = new OrderTracking();
         tracking.setOrder(updatedOrder);
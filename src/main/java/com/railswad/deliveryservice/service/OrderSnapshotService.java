@@ -0,0 +1,153 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.util.ColumnarSnapshotWriter;
+import com.railswad.deliveryservice.util.OrderSnapshotColumns;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
+/**
+ * Nightly export of order history into columnar snapshot files that analysts can query locally with
+ * {@link com.railswad.deliveryservice.util.SnapshotQueryEngine} instead of running ad-hoc SQL on production.
+ */
+@Service
+public class OrderSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderSnapshotService.class);
+
+    private static final String ORDERS_SQL =
+            "SELECT o.order_id, EXTRACT(EPOCH FROM o.created_at)::BIGINT AS created_at, v.business_name, " +
+            "s.station_code, o.order_status, o.final_amount " +
+            "FROM orders o LEFT JOIN vendors v ON v.vendor_id = o.vendor_id " +
+            "JOIN stations s ON s.station_id = o.delivery_station_id " +
+            "ORDER BY o.order_id";
+
+    private static final String ORDER_ITEMS_SQL =
+            "SELECT oi.order_id, oi.item_id, oi.quantity, oi.unit_price, " +
+            "EXTRACT(EPOCH FROM o.created_at)::BIGINT AS created_at, v.business_name, s.station_code " +
+            "FROM order_items oi JOIN orders o ON o.order_id = oi.order_id " +
+            "LEFT JOIN vendors v ON v.vendor_id = o.vendor_id " +
+            "JOIN stations s ON s.station_id = o.delivery_station_id " +
+            "ORDER BY oi.order_id";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${analytics.snapshot.directory:snapshots}")
+    private String snapshotDirectory;
+
+    @Value("${analytics.snapshot.fetch-size:5000}")
+    private int fetchSize;
+
+    @Autowired
+    private AnalyticsQueryGovernor analyticsQueryGovernor;
+
+    @Autowired
+    @Qualifier("snapshotExecutor")
+    private ThreadPoolTaskExecutor snapshotExecutor;
+
+    @Scheduled(cron = "${analytics.snapshot.cron:0 30 2 * * *}")
+    public void exportNightly() {
+        LocalDate date = LocalDate.now();
+        try {
+            snapshotExecutor.execute(() -> {
+                try {
+                    exportSnapshot(date);
+                } catch (IOException | RuntimeException e) {
+                    logger.error("Nightly order snapshot export failed: {}", e.getMessage());
+                }
+            });
+        } catch (TaskRejectedException e) {
+            logger.warn("Skipping order snapshot export for {}: the previous export is still running", date);
+        }
+    }
+
+    public Path exportSnapshot(LocalDate date) throws IOException {
+        Path directory = Paths.get(snapshotDirectory);
+        Files.createDirectories(directory);
+        try {
+            return analyticsQueryGovernor.execute(() -> {
+                try {
+                    return writeSnapshot(directory, date);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Path writeSnapshot(Path directory, LocalDate date) throws IOException {
+        // Postgres only streams with a cursor when the fetch size is set inside a transaction.
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        // The full-history scan is expected to outlast the analytics pool's statement timeout.
+        jdbcTemplate.execute("SET LOCAL statement_timeout = 0");
+
+        long start = System.currentTimeMillis();
+        Path ordersFile = directory.resolve("orders-" + date + ".rsnp");
+        int orderCount;
+        try (ColumnarSnapshotWriter orders = new ColumnarSnapshotWriter(directory)
+                .longColumn(OrderSnapshotColumns.ORDER_ID)
+                .longColumn(OrderSnapshotColumns.CREATED_AT)
+                .dictionaryColumn(OrderSnapshotColumns.VENDOR)
+                .dictionaryColumn(OrderSnapshotColumns.STATION)
+                .dictionaryColumn(OrderSnapshotColumns.STATUS)
+                .doubleColumn(OrderSnapshotColumns.FINAL_AMOUNT)) {
+            jdbcTemplate.query(ORDERS_SQL, rs -> {
+                orders.putLong(OrderSnapshotColumns.ORDER_ID, rs.getLong(1));
+                orders.putLong(OrderSnapshotColumns.CREATED_AT, rs.getLong(2));
+                orders.putString(OrderSnapshotColumns.VENDOR, rs.getString(3));
+                orders.putString(OrderSnapshotColumns.STATION, rs.getString(4));
+                orders.putString(OrderSnapshotColumns.STATUS, rs.getString(5));
+                orders.putDouble(OrderSnapshotColumns.FINAL_AMOUNT, rs.getDouble(6));
+                orders.endRow();
+            });
+            orders.writeTo(ordersFile);
+            orderCount = orders.getRowCount();
+        }
+
+        int itemCount;
+        try (ColumnarSnapshotWriter items = new ColumnarSnapshotWriter(directory)
+                .longColumn(OrderSnapshotColumns.ORDER_ID)
+                .longColumn(OrderSnapshotColumns.ITEM_ID)
+                .intColumn(OrderSnapshotColumns.QUANTITY)
+                .doubleColumn(OrderSnapshotColumns.UNIT_PRICE)
+                .longColumn(OrderSnapshotColumns.CREATED_AT)
+                .dictionaryColumn(OrderSnapshotColumns.VENDOR)
+                .dictionaryColumn(OrderSnapshotColumns.STATION)) {
+            jdbcTemplate.query(ORDER_ITEMS_SQL, rs -> {
+                items.putLong(OrderSnapshotColumns.ORDER_ID, rs.getLong(1));
+                items.putLong(OrderSnapshotColumns.ITEM_ID, rs.getLong(2));
+                items.putInt(OrderSnapshotColumns.QUANTITY, rs.getInt(3));
+                items.putDouble(OrderSnapshotColumns.UNIT_PRICE, rs.getDouble(4));
+                items.putLong(OrderSnapshotColumns.CREATED_AT, rs.getLong(5));
+                items.putString(OrderSnapshotColumns.VENDOR, rs.getString(6));
+                items.putString(OrderSnapshotColumns.STATION, rs.getString(7));
+                items.endRow();
+            });
+            items.writeTo(directory.resolve("order-items-" + date + ".rsnp"));
+            itemCount = items.getRowCount();
+        }
+
+        logger.info("Exported order snapshot for {}: {} orders, {} order items in {} ms",
+                date, orderCount, itemCount, System.currentTimeMillis() - start);
+        return ordersFile;
+    }
+}
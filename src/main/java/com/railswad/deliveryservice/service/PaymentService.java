@@ -115,6 +115,7 @@ public class PaymentService {
         // Update order
         order.setPaymentStatus("CAPTURED");
         order.setPaymentMethod("RAZORPAY");
+        order.setPaymentReference(paymentId);
         orderRepository.save(order);
 
         // Generate invoice
@@ -0,0 +1,47 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.exception.RefundFailedException;
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import com.razorpay.Refund;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Refunds through Razorpay. The payment's existing refunds are read first, so a refund whose response was
+ * lost before a restart is found by its receipt instead of being issued twice.
+ */
+@Service
+@ConditionalOnProperty(name = "payment.refund.gateway", havingValue = "razorpay", matchIfMissing = true)
+public class RazorpayRefundGateway implements RefundGateway {
+
+    @Autowired
+    private RazorpayClient razorpayClient;
+
+    @Override
+    public String refund(String paymentReference, long amountPaise, String receipt) {
+        try {
+            for (Refund existing : razorpayClient.payments.fetchAllRefunds(paymentReference, new JSONObject())) {
+                if (receipt.equals(existing.get("receipt"))) {
+                    return existing.get("id");
+                }
+            }
+            JSONObject request = new JSONObject();
+            request.put("amount", amountPaise);
+            request.put("speed", "normal");
+            request.put("receipt", receipt);
+            Refund refund = razorpayClient.payments.refund(paymentReference, request);
+            return refund.get("id");
+        } catch (RazorpayException e) {
+            throw new RefundFailedException(e.getMessage(), isRetryable(e.getMessage()));
+        }
+    }
+
+    // Razorpay reports request errors as BAD_REQUEST_ERROR, which repeat if re-sent, except for rate limiting;
+    // server and network errors may clear.
+    private static boolean isRetryable(String message) {
+        return message == null || !message.startsWith("BAD_REQUEST_ERROR") || message.contains("Too many requests");
+    }
+}
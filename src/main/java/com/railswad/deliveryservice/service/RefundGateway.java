@@ -0,0 +1,15 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.exception.RefundFailedException;
+
+/** Issues refunds of captured payments; chosen by {@code payment.refund.gateway}. */
+public interface RefundGateway {
+
+    /**
+     * Refunds {@code amountPaise} of the payment and returns the gateway's refund id. The receipt names the
+     * refund: if a refund with the same receipt already exists, its id is returned and no second refund is made.
+     *
+     * @throws RefundFailedException when the gateway refuses or cannot be reached
+     */
+    String refund(String paymentReference, long amountPaise, String receipt);
+}
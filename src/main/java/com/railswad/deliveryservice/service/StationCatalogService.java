@@ -0,0 +1,94 @@
+package com.railswad.deliveryservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import com.railswad.deliveryservice.dto.StationCatalogDTO;
+import com.railswad.deliveryservice.dto.StationCatalogVendorDTO;
+import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.repository.StationRepository;
+import com.railswad.deliveryservice.util.PrecompressedBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The passenger app's station screen in one payload: every active vendor at the station, best rated first,
+ * with their available items by category. {@link StationMenuRegistry} hands over a station whenever one of
+ * its vendors or menus changes, and only that station's catalog is rebuilt, serialized and compressed.
+ * Items keep their time windows so the app can grey out dishes outside them.
+ */
+@Service
+public class StationCatalogService implements StationMenuRegistry.StationMenuListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationCatalogService.class);
+
+    private static final Comparator<StationMenuRegistry.VendorMenu> BY_RATING = Comparator
+            .comparing(StationMenuRegistry.VendorMenu::getRating, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(StationMenuRegistry.VendorMenu::getBusinessName, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(StationMenuRegistry.VendorMenu::getVendorId);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    private final AtomicLong builds = new AtomicLong();
+    private final Map<Integer, PrecompressedBody> catalogs = new ConcurrentHashMap<>();
+
+    @Override
+    public void onStationMenusChanged(Integer stationId, List<StationMenuRegistry.VendorMenu> vendors) {
+        List<StationCatalogVendorDTO> entries = new ArrayList<>();
+        vendors.stream().filter(StationMenuRegistry.VendorMenu::isActive).sorted(BY_RATING).forEach(vendor -> {
+            Map<String, List<MenuItemDTO>> menu = new LinkedHashMap<>();
+            for (MenuItemDTO item : vendor.getItems()) {
+                if (item.isAvailable()) {
+                    menu.computeIfAbsent(item.getCategoryName(), name -> new ArrayList<>()).add(item);
+                }
+            }
+            if (!menu.isEmpty()) {
+                entries.add(new StationCatalogVendorDTO(vendor.getVendorId(), vendor.getBusinessName(), vendor.getRating(),
+                        vendor.getPreparationTimeMin(), menu));
+            }
+        });
+        PrecompressedBody body = encode(new StationCatalogDTO(stationId, entries.isEmpty() ? null : ZonedDateTime.now(), entries));
+        catalogs.put(stationId, body);
+        logger.info("Built catalog for station ID {} with {} vendors: {} bytes, {} gzipped", stationId, entries.size(),
+                body.getIdentitySize(), body.getGzipSize());
+    }
+
+    /**
+     * The station's catalog; a station without active vendors gets an empty one, encoded once and kept until
+     * a vendor opens there. Unknown stations are a 404 rather than an empty catalog.
+     */
+    public PrecompressedBody getCatalog(Integer stationId) {
+        PrecompressedBody body = catalogs.get(stationId);
+        if (body != null) {
+            return body;
+        }
+        if (!stationRepository.existsById(stationId)) {
+            throw new ResourceNotFoundException("Station not found with id: " + stationId);
+        }
+        return catalogs.computeIfAbsent(stationId, id -> encode(new StationCatalogDTO(id, null, Collections.emptyList())));
+    }
+
+    private PrecompressedBody encode(StationCatalogDTO catalog) {
+        try {
+            return PrecompressedBody.encode(builds.incrementAndGet(), objectMapper.writeValueAsBytes(catalog));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize station catalog", e);
+        }
+    }
+}
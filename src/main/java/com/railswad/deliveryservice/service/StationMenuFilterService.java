@@ -0,0 +1,247 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import com.railswad.deliveryservice.dto.StationMenuItemDTO;
+import com.railswad.deliveryservice.exception.ServiceException;
+import com.railswad.deliveryservice.util.ItemBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Attribute filters over every active vendor's items at a station, answered from bitmaps. Items are numbered
+ * densely per station; vegetarian, price band and preparation-time band bitmaps are built when
+ * {@link StationMenuRegistry} reports a change at the station, and each sort order is precomputed as an item
+ * permutation so a page is read by walking it and testing the combined bitmap. "Available now" is worked out
+ * per query in {@code train.timezone}, testing only the items that have a time window.
+ */
+@Service
+public class StationMenuFilterService implements StationMenuRegistry.StationMenuListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationMenuFilterService.class);
+
+    public static final List<String> SORTS = List.of("menu", "price_asc", "price_desc", "rating", "prep_time");
+
+    @Value("${menu.filter.price-bands:100,200,300,500}")
+    private double[] priceBandEdges;
+
+    @Value("${menu.filter.prep-bands:10,20,30,45}")
+    private double[] prepBandEdges;
+
+    @Value("${train.timezone:Asia/Kolkata}")
+    private ZoneId zone;
+
+    private final Map<Integer, StationIndex> stations = new ConcurrentHashMap<>();
+
+    private record Entry(MenuItemDTO item, StationMenuRegistry.VendorMenu vendor, int prepMinutes) {
+    }
+
+    private static final class StationIndex {
+        private final Entry[] entries;
+        private final ItemBitmap vegetarian;
+        private final ItemBitmap available;
+        private final BandedIndex price;
+        private final BandedIndex prepTime;
+        // Items without a time window are always in; the few with one are checked one by one per query.
+        private final ItemBitmap untimed;
+        private final int[] timedItems;
+        private final Map<String, int[]> sortOrders;
+
+        private StationIndex(Entry[] entries, ItemBitmap vegetarian, ItemBitmap available, BandedIndex price,
+                             BandedIndex prepTime, ItemBitmap untimed, int[] timedItems, Map<String, int[]> sortOrders) {
+            this.entries = entries;
+            this.vegetarian = vegetarian;
+            this.available = available;
+            this.price = price;
+            this.prepTime = prepTime;
+            this.untimed = untimed;
+            this.timedItems = timedItems;
+            this.sortOrders = sortOrders;
+        }
+
+        private ItemBitmap availableAt(int secondOfDay) {
+            ItemBitmap open = untimed.copy();
+            for (int item : timedItems) {
+                if (MenuAvailabilityService.isAvailableAt(entries[item].item(), secondOfDay)) {
+                    open.set(item);
+                }
+            }
+            return open;
+        }
+    }
+
+    /** One bitmap per value band; a range query ORs the bands it covers and checks values only in the edge bands. */
+    private static final class BandedIndex {
+        private final double[] edges;
+        private final double[] values;
+        private final ItemBitmap[] bands;
+
+        private BandedIndex(double[] edges, double[] values) {
+            this.edges = edges;
+            this.values = values;
+            this.bands = new ItemBitmap[edges.length + 1];
+            for (int band = 0; band < bands.length; band++) {
+                bands[band] = new ItemBitmap(values.length);
+            }
+            for (int item = 0; item < values.length; item++) {
+                bands[bandOf(values[item])].set(item);
+            }
+        }
+
+        private int bandOf(double value) {
+            int band = 0;
+            while (band < edges.length && value >= edges[band]) {
+                band++;
+            }
+            return band;
+        }
+
+        private ItemBitmap range(double min, double max) {
+            List<ItemBitmap> covered = new ArrayList<>();
+            ItemBitmap edgeMatches = new ItemBitmap(values.length);
+            for (int band = bandOf(min); band <= bandOf(max); band++) {
+                double low = band == 0 ? Double.NEGATIVE_INFINITY : edges[band - 1];
+                double high = band == edges.length ? Double.POSITIVE_INFINITY : edges[band];
+                if (low >= min && high <= max) {
+                    covered.add(bands[band]);
+                } else {
+                    bands[band].forEach(item -> {
+                        if (values[item] >= min && values[item] <= max) {
+                            edgeMatches.set(item);
+                        }
+                    });
+                }
+            }
+            covered.add(edgeMatches);
+            return ItemBitmap.or(values.length, covered);
+        }
+    }
+
+    @Override
+    public void onStationMenusChanged(Integer stationId, List<StationMenuRegistry.VendorMenu> vendors) {
+        List<Entry> list = new ArrayList<>();
+        for (StationMenuRegistry.VendorMenu vendor : vendors) {
+            if (vendor.isActive()) {
+                for (MenuItemDTO item : vendor.getItems()) {
+                    Integer prep = item.getPreparationTimeMin() != null ? item.getPreparationTimeMin() : vendor.getPreparationTimeMin();
+                    list.add(new Entry(item, vendor, prep != null ? prep : 0));
+                }
+            }
+        }
+        if (list.isEmpty()) {
+            stations.remove(stationId);
+            return;
+        }
+
+        Entry[] entries = list.toArray(new Entry[0]);
+        int size = entries.length;
+        ItemBitmap vegetarian = new ItemBitmap(size);
+        ItemBitmap available = new ItemBitmap(size);
+        double[] prices = new double[size];
+        double[] prepTimes = new double[size];
+        ItemBitmap untimed = new ItemBitmap(size);
+        List<Integer> timed = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            MenuItemDTO item = entries[i].item();
+            if (item.isVegetarian()) {
+                vegetarian.set(i);
+            }
+            if (item.isAvailable()) {
+                available.set(i);
+            }
+            prices[i] = item.getPrice() != null ? item.getPrice().doubleValue() : 0;
+            prepTimes[i] = entries[i].prepMinutes();
+            if (item.getAvailableStartTime() != null && item.getAvailableEndTime() != null) {
+                timed.add(i);
+            } else {
+                untimed.set(i);
+            }
+        }
+        int[] timedItems = timed.stream().mapToInt(Integer::intValue).toArray();
+
+        Map<String, int[]> sortOrders = Map.of(
+                "menu", IntStream.range(0, size).toArray(),
+                "price_asc", sorted(size, Comparator.comparingDouble(i -> prices[i])),
+                "price_desc", sorted(size, Comparator.comparingDouble(i -> -prices[i])),
+                "rating", sorted(size, Comparator.comparingDouble(i -> {
+                    Double rating = entries[i].vendor().getRating();
+                    return rating != null ? -rating : 0;
+                })),
+                "prep_time", sorted(size, Comparator.comparingDouble(i -> prepTimes[i])));
+
+        stations.put(stationId, new StationIndex(entries, vegetarian, available, new BandedIndex(priceBandEdges, prices),
+                new BandedIndex(prepBandEdges, prepTimes), untimed, timedItems, sortOrders));
+        logger.debug("Filter index for station ID {} holds {} items, {} with time windows", stationId, size, timedItems.length);
+    }
+
+    private static int[] sorted(int size, Comparator<Integer> order) {
+        // Ties keep menu order, so pages are stable across rebuilds with the same data.
+        return IntStream.range(0, size).boxed().sorted(order.thenComparingInt(i -> i)).mapToInt(Integer::intValue).toArray();
+    }
+
+    public Page<StationMenuItemDTO> filter(Integer stationId, Boolean vegetarian, Double minPrice, Double maxPrice,
+                                           Integer maxPrepMinutes, boolean availableNow, String sort, int page, int size) {
+        if (!SORTS.contains(sort)) {
+            throw new ServiceException("INVALID_SORT", "Sort must be one of " + SORTS);
+        }
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+        StationIndex index = stations.get(stationId);
+        if (index == null) {
+            return Page.empty(pageRequest);
+        }
+
+        List<ItemBitmap> conditions = new ArrayList<>();
+        conditions.add(index.available);
+        if (vegetarian != null) {
+            conditions.add(vegetarian ? index.vegetarian : index.vegetarian.not());
+        }
+        if (minPrice != null || maxPrice != null) {
+            conditions.add(index.price.range(minPrice != null ? minPrice : Double.NEGATIVE_INFINITY,
+                    maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY));
+        }
+        if (maxPrepMinutes != null) {
+            conditions.add(index.prepTime.range(Double.NEGATIVE_INFINITY, maxPrepMinutes));
+        }
+        if (availableNow) {
+            conditions.add(index.availableAt(LocalTime.now(zone).toSecondOfDay()));
+        }
+        ItemBitmap matches = ItemBitmap.and(conditions);
+
+        List<StationMenuItemDTO> content = new ArrayList<>(pageRequest.getPageSize());
+        long skip = pageRequest.getOffset();
+        for (int item : index.sortOrders.get(sort)) {
+            if (!matches.get(item)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            content.add(toDTO(index.entries[item]));
+            if (content.size() == pageRequest.getPageSize()) {
+                break;
+            }
+        }
+        return new PageImpl<>(content, pageRequest, matches.cardinality());
+    }
+
+    private static StationMenuItemDTO toDTO(Entry entry) {
+        MenuItemDTO item = entry.item();
+        return new StationMenuItemDTO(item.getItemId(), entry.vendor().getVendorId(), entry.vendor().getBusinessName(),
+                entry.vendor().getRating(), item.getCategoryName(), item.getItemName(), item.getPrice(),
+                item.isVegetarian(), entry.prepMinutes(), item.getImageUrl());
+    }
+}
@@ -0,0 +1,158 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import com.railswad.deliveryservice.event.MenuChangedEvent;
+import com.railswad.deliveryservice.repository.VendorRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every vendor's menu grouped by station, for the station-wide indexes. Vendors whose menu version moved
+ * are queued by {@link MenuChangedEvent} and reloaded in one pass per refresh tick, a batch of vendors and
+ * their menus per query; each affected station is then handed, whole, to every {@link StationMenuListener}.
+ */
+@Service
+public class StationMenuRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationMenuRegistry.class);
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private MenuCacheService menuCacheService;
+
+    @Autowired
+    private List<StationMenuListener> listeners;
+
+    @Value("${menu.station-index.batch-size:500}")
+    private int batchSize;
+
+    private final Set<Long> dirtyVendors = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Integer> stationOfVendor = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<Long, VendorMenu>> stations = new ConcurrentHashMap<>();
+
+    /** Receives the full vendor list of a station whenever any vendor there changed. */
+    public interface StationMenuListener {
+        void onStationMenusChanged(Integer stationId, List<VendorMenu> vendors);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class VendorMenu {
+        private final Long vendorId;
+        private final Integer stationId;
+        private final String businessName;
+        private final Double rating;
+        private final Integer preparationTimeMin;
+        private final boolean active;
+        private final long version;
+        private final List<MenuItemDTO> items;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        dirtyVendors.addAll(vendorRepository.findAllVendorIds());
+        logger.info("Queued {} vendors for station menu indexing", dirtyVendors.size());
+    }
+
+    @EventListener
+    public void onMenuChanged(MenuChangedEvent event) {
+        dirtyVendors.add(event.getVendorId());
+    }
+
+    @Scheduled(fixedDelayString = "${menu.station-index.refresh-ms:1000}")
+    public void refresh() {
+        if (dirtyVendors.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Set<Integer> touchedStations = new HashSet<>();
+        List<Long> batch = new ArrayList<>(dirtyVendors);
+        dirtyVendors.removeAll(batch);
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<Long> chunk = batch.subList(from, Math.min(from + batchSize, batch.size()));
+            try {
+                reload(chunk, touchedStations);
+            } catch (RuntimeException e) {
+                logger.error("Could not index menus of {} vendors: {}", chunk.size(), e.getMessage());
+                dirtyVendors.addAll(chunk);
+            }
+        }
+        for (Integer stationId : touchedStations) {
+            List<VendorMenu> vendors = getStationMenus(stationId);
+            for (StationMenuListener listener : listeners) {
+                listener.onStationMenusChanged(stationId, vendors);
+            }
+        }
+        logger.info("Reindexed {} vendors across {} stations in {} ms", batch.size(), touchedStations.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    public List<VendorMenu> getStationMenus(Integer stationId) {
+        Map<Long, VendorMenu> vendors = stations.get(stationId);
+        return vendors == null ? Collections.emptyList() : List.copyOf(vendors.values());
+    }
+
+    /** The vendor as last indexed, or null when it is unknown or has not been indexed yet. */
+    public VendorMenu getVendorMenu(Long vendorId) {
+        Integer stationId = stationOfVendor.get(vendorId);
+        return stationId == null ? null : stations.getOrDefault(stationId, Collections.emptyMap()).get(vendorId);
+    }
+
+    /** Loads the vendors and their menus with one query each, then swaps every entry in place. */
+    private void reload(List<Long> vendorIds, Set<Integer> touchedStations) {
+        List<Object[]> headers = vendorRepository.findStationMenuHeaders(vendorIds);
+        Map<Long, MenuCacheService.MenuSnapshot> snapshots = menuCacheService.getMenus(
+                headers.stream().map(header -> (Long) header[0]).toList());
+
+        Set<Long> missing = new HashSet<>(vendorIds);
+        for (Object[] header : headers) {
+            Long vendorId = (Long) header[0];
+            MenuCacheService.MenuSnapshot snapshot = snapshots.get(vendorId);
+            List<MenuItemDTO> items = new ArrayList<>();
+            snapshot.getMenu().values().forEach(items::addAll);
+            place(vendorId, new VendorMenu(vendorId, (Integer) header[1], (String) header[2], (Double) header[3],
+                    (Integer) header[4], Boolean.TRUE.equals(header[5]), snapshot.getVersion(),
+                    Collections.unmodifiableList(items)), touchedStations);
+            missing.remove(vendorId);
+        }
+        // Deleted, or no longer attached to a station.
+        missing.forEach(vendorId -> place(vendorId, null, touchedStations));
+    }
+
+    /**
+     * Replaces the vendor's entry with {@code menu}, or drops it when {@code menu} is null. The new entry is
+     * put before the old one is removed, so readers never see the vendor missing from its station.
+     */
+    private void place(Long vendorId, VendorMenu menu, Set<Integer> touchedStations) {
+        Integer previousStation;
+        if (menu == null) {
+            previousStation = stationOfVendor.remove(vendorId);
+        } else {
+            stations.computeIfAbsent(menu.getStationId(), id -> new ConcurrentHashMap<>()).put(vendorId, menu);
+            previousStation = stationOfVendor.put(vendorId, menu.getStationId());
+            touchedStations.add(menu.getStationId());
+        }
+        if (previousStation != null && (menu == null || !previousStation.equals(menu.getStationId()))) {
+            stations.getOrDefault(previousStation, Collections.emptyMap()).remove(vendorId);
+            touchedStations.add(previousStation);
+        }
+    }
+}
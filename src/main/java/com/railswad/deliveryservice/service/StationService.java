@@ -3,18 +3,28 @@ package com.railswad.deliveryservice.service;
 import com.railswad.deliveryservice.dto.StationDTO;
 import com.railswad.deliveryservice.entity.Station;
 import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.exception.ServiceException;
 import com.railswad.deliveryservice.repository.StationRepository;
+import com.railswad.deliveryservice.util.GeoShapes;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.Objects;
+
 @Service
 public class StationService {
 
     @Autowired
     private StationRepository stationRepository;
 
+    @Autowired
+    private VendorService vendorService;
+
+    @Autowired
+    private GeoIndexService geoIndexService;
+
     public StationDTO createStation(StationDTO stationDTO) {
         Station station = new Station();
         station.setStationCode(stationDTO.getStationCode());
@@ -22,10 +32,10 @@ public class StationService {
         station.setCity(stationDTO.getCity());
         station.setState(stationDTO.getState());
         station.setPincode(stationDTO.getPincode());
-        station.setLatitude(stationDTO.getLatitude());
-        station.setLongitude(stationDTO.getLongitude());
+        setCoordinates(station, stationDTO);
 
         Station savedStation = stationRepository.save(station);
+        geoIndexService.markDirty();
         stationDTO.setStationId(savedStation.getStationId());
         return stationDTO;
     }
@@ -38,18 +48,36 @@ public class StationService {
         station.setCity(stationDTO.getCity());
         station.setState(stationDTO.getState());
         station.setPincode(stationDTO.getPincode());
-        station.setLatitude(stationDTO.getLatitude());
-        station.setLongitude(stationDTO.getLongitude());
+        boolean moved = !Objects.equals(station.getLatitude(), stationDTO.getLatitude())
+                || !Objects.equals(station.getLongitude(), stationDTO.getLongitude());
+        setCoordinates(station, stationDTO);
 
         Station updatedStation = stationRepository.save(station);
+        if (moved) {
+            // Delivery areas are drawn around the station.
+            vendorService.updateDeliveryAreas(stationId);
+        }
+        geoIndexService.markDirty();
         stationDTO.setStationId(updatedStation.getStationId());
         return stationDTO;
     }
 
+    private static void setCoordinates(Station station, StationDTO stationDTO) {
+        Double latitude = stationDTO.getLatitude();
+        Double longitude = stationDTO.getLongitude();
+        if (latitude != null && longitude != null && !GeoShapes.isValid(latitude, longitude)) {
+            throw new ServiceException("INVALID_COORDINATES", "Latitude must be within ±90 and longitude within ±180");
+        }
+        station.setLatitude(latitude);
+        station.setLongitude(longitude);
+        station.setLocation(latitude != null && longitude != null ? GeoShapes.point(latitude, longitude) : null);
+    }
+
     public void deleteStation(Integer stationId) {
         Station station = stationRepository.findById(stationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Station not found with id: " + stationId));
         stationRepository.delete(station);
+        geoIndexService.markDirty();
     }
 
     public StationDTO getStationById(Integer stationId) {
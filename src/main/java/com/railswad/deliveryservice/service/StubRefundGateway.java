@@ -0,0 +1,42 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.exception.RefundFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-memory refund gateway for local runs and tests, selected with {@code payment.refund.gateway=stub}. It
+ * answers after a set latency, fails a share of calls as retryable, and keeps receipts like the real gateway.
+ */
+@Service
+@ConditionalOnProperty(name = "payment.refund.gateway", havingValue = "stub")
+public class StubRefundGateway implements RefundGateway {
+
+    @Value("${payment.refund.stub.latency-ms:50}")
+    private long latencyMs;
+
+    @Value("${payment.refund.stub.failure-rate:0.05}")
+    private double failureRate;
+
+    private final Map<String, String> refundsByReceipt = new ConcurrentHashMap<>();
+
+    @Override
+    public String refund(String paymentReference, long amountPaise, String receipt) {
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RefundFailedException("Interrupted", true);
+        }
+        if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new RefundFailedException("SERVER_ERROR:Simulated gateway failure", true);
+        }
+        return refundsByReceipt.computeIfAbsent(receipt, r -> "rfnd_stub_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14));
+    }
+}
@@ -0,0 +1,113 @@
+package com.railswad.deliveryservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed thumbnail files on local disk, capped at a total size with least-recently-used eviction.
+ * A name is derived from the source image's bytes and the rendering, so a file never changes once written
+ * and can be cached by clients forever. Recency survives restarts only as file age.
+ */
+@Component
+public class ThumbnailDiskCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailDiskCache.class);
+
+    @Value("${image.thumbnail.directory:image-cache}")
+    private String directory;
+
+    @Value("${image.thumbnail.cache-max-bytes:536870912}")
+    private long maxBytes;
+
+    // Access-ordered: iteration starts at the least recently served file.
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() throws IOException {
+        Path root = Paths.get(directory);
+        Files.createDirectories(root);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(root)) {
+            files = listing.filter(Files::isRegularFile).toList();
+        }
+        synchronized (this) {
+            files.stream()
+                    .sorted(Comparator.comparing(ThumbnailDiskCache::lastModified))
+                    .forEach(file -> {
+                        String name = file.getFileName().toString();
+                        if (name.endsWith(".tmp")) {
+                            deleteQuietly(file);
+                        } else {
+                            long size = file.toFile().length();
+                            Long previous = sizes.putIfAbsent(name, size);
+                            totalBytes += previous != null ? 0 : size;
+                        }
+                    });
+            evict();
+        }
+        logger.info("Thumbnail cache holds {} files, {} bytes", sizes.size(), totalBytes);
+    }
+
+    /** The cached file and its length, or null when it is not cached. Marks the file as recently used. */
+    public synchronized CachedFile get(String name) {
+        Long size = sizes.get(name);
+        return size != null ? new CachedFile(Paths.get(directory, name), size) : null;
+    }
+
+    public record CachedFile(Path path, long length) {
+    }
+
+    /** Writes the file under a temporary name and renames it into place, so readers never see it half written. */
+    public void put(String name, byte[] content) throws IOException {
+        Path target = Paths.get(directory, name);
+        Path temp = Paths.get(directory, name + "." + Thread.currentThread().getId() + ".tmp");
+        Files.createDirectories(target.getParent());
+        Files.write(temp, content);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        synchronized (this) {
+            Long previous = sizes.put(name, (long) content.length);
+            totalBytes += content.length - (previous != null ? previous : 0);
+            evict();
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> oldest = sizes.entrySet().iterator();
+        while (totalBytes > maxBytes && oldest.hasNext()) {
+            Map.Entry<String, Long> entry = oldest.next();
+            // A transfer already under way keeps reading an unlinked file; new requests regenerate it.
+            deleteQuietly(Paths.get(directory, entry.getKey()));
+            totalBytes -= entry.getValue();
+            oldest.remove();
+        }
+    }
+
+    private static long lastModified(Path file) {
+        return file.toFile().lastModified();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete thumbnail file {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,494 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.TrainCancellationJobDTO;
+import com.railswad.deliveryservice.entity.TrainCancellationJob;
+import com.railswad.deliveryservice.event.OrdersCancelledEvent;
+import com.railswad.deliveryservice.exception.RefundFailedException;
+import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.exception.ServiceException;
+import com.railswad.deliveryservice.repository.TrainCancellationJobRepository;
+import com.railswad.deliveryservice.repository.TrainCancellationRepository;
+import com.railswad.deliveryservice.repository.TrainCancellationRepository.CancelledOrder;
+import com.railswad.deliveryservice.repository.TrainCancellationRepository.RefundClaim;
+import com.railswad.deliveryservice.repository.TrainCancellationRepository.RefundOutcome;
+import com.railswad.deliveryservice.repository.TrainDelayRepository;
+import com.railswad.deliveryservice.repository.TrainDelayRepository.StopWindow;
+import com.railswad.deliveryservice.repository.TrainDelayRepository.TrackingRow;
+import com.railswad.deliveryservice.util.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Cancels every open order of a cancelled train run and refunds the paid ones as a background job, one per
+ * train and journey date. Orders are cancelled with one UPDATE on the cancellation pool and their tracking rows
+ * written in one batch; refunds are queued in {@code order_refunds} and worked off by a scheduled refund worker
+ * in claimed batches on a bounded pool, spaced by a shared rate limit, with failures retried on an exponential
+ * backoff. The worker only takes refunds that are due, so a backoff holds no thread. All progress lives in the
+ * database, so a job stopped at any point resumes on restart, or when the same cancellation is submitted again,
+ * without cancelling or refunding anything twice.
+ */
+@Service
+public class TrainCancellationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainCancellationService.class);
+
+    private static final Set<String> ACTIVE_STATUSES = Set.of(TrainCancellationJob.QUEUED, TrainCancellationJob.CANCELLING,
+            TrainCancellationJob.REFUNDING);
+    private static final int MAX_MESSAGE_LENGTH = 255;
+
+    @Autowired
+    private TrainCancellationJobRepository trainCancellationJobRepository;
+
+    @Autowired
+    private TrainCancellationRepository trainCancellationRepository;
+
+    @Autowired
+    private TrainDelayRepository trainDelayRepository;
+
+    @Autowired
+    private TrainDelayService trainDelayService;
+
+    @Autowired
+    private TrainRouteIndex trainRouteIndex;
+
+    @Autowired
+    private VendorQueueService vendorQueueService;
+
+    @Autowired
+    private RefundGateway refundGateway;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    @Qualifier("cancellationExecutor")
+    private ThreadPoolTaskExecutor cancellationExecutor;
+
+    @Autowired
+    @Qualifier("refundExecutor")
+    private ThreadPoolTaskExecutor refundExecutor;
+
+    @Value("${payment.refund.claim-size:50}")
+    private int claimSize;
+
+    @Value("${payment.refund.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${payment.refund.retry-base-ms:2000}")
+    private long retryBaseMs;
+
+    @Value("${payment.refund.retry-max-ms:300000}")
+    private long retryMaxMs;
+
+    // A refund claimed longer ago than this without an outcome is taken to have been cut short and is queued again.
+    @Value("${payment.refund.submit-lease-ms:300000}")
+    private long submitLeaseMs;
+
+    @Value("${train.cancellation.refresh-ms:5000}")
+    private long refreshMs;
+
+    @Value("${train.delay.retention-days:3}")
+    private int retentionDays;
+
+    private final TransactionTemplate transactionTemplate;
+    private final RateLimiter rateLimiter;
+
+    private record RunKey(Integer trainId, LocalDate journeyDate) {
+    }
+
+    // Runs cancelled here, or on another instance as of the last refresh; a run is never un-cancelled.
+    private final Set<RunKey> cancelledRuns = ConcurrentHashMap.newKeySet();
+    private final Set<String> runningJobs = ConcurrentHashMap.newKeySet();
+    private volatile boolean refundsResumed;
+
+    public TrainCancellationService(PlatformTransactionManager transactionManager,
+                                    @Value("${payment.refund.rate-per-second:10}") double refundsPerSecond) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rateLimiter = new RateLimiter(refundsPerSecond);
+    }
+
+    /**
+     * Whether the run was cancelled, answered from memory; the order cutoff turns away new orders for it. A run
+     * cancelled on another instance is seen here after the next refresh, and orders taken for it meanwhile are
+     * cancelled by the job's closing sweep.
+     */
+    public boolean isCancelled(Integer trainId, LocalDate journeyDate) {
+        return cancelledRuns.contains(new RunKey(trainId, journeyDate));
+    }
+
+    /** Picks up runs cancelled on other instances from {@code train_cancellation_jobs}. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${train.cancellation.refresh-ms:5000}", initialDelayString = "${train.cancellation.refresh-ms:5000}")
+    public void loadCancelledRuns() {
+        LocalDate from = ZonedDateTime.now(trainRouteIndex.getZone()).toLocalDate().minusDays(retentionDays);
+        for (Object[] row : trainCancellationJobRepository.findCancelledRunsFrom(from)) {
+            cancelledRuns.add(new RunKey((Integer) row[0], (LocalDate) row[1]));
+        }
+    }
+
+    /**
+     * Starts cancelling the run, or restarts its existing job: a finished job sweeps up any order placed since
+     * and retries its failed refunds; a job already running here, or refunding, is left to carry on.
+     */
+    public TrainCancellationJobDTO submit(Integer trainId, LocalDate journeyDate, String reason) {
+        TrainRouteIndex.Route route = trainRouteIndex.getRoute(trainId);
+        if (route == null) {
+            throw new ServiceException("NO_TIMETABLE", "No timetable is known for train " + trainId);
+        }
+        if (!route.runsOn(journeyDate)) {
+            throw new ServiceException("TRAIN_NOT_RUNNING", "Train " + route.trainNumber() + " does not leave its origin on " + journeyDate);
+        }
+        // New orders for the run are refused from here on, before the sweep starts.
+        cancelledRuns.add(new RunKey(trainId, journeyDate));
+
+        TrainCancellationJob job = trainCancellationJobRepository.findByTrainIdAndJourneyDate(trainId, journeyDate)
+                .orElseGet(() -> create(trainId, journeyDate, reason));
+        if (runningJobs.contains(job.getJobId()) || TrainCancellationJob.REFUNDING.equals(job.getStatus())) {
+            return getJob(job.getJobId());
+        }
+        if (!ACTIVE_STATUSES.contains(job.getStatus())) {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Refunds claimed by an instance that stopped before recording them go back once their lease lapses.
+                releaseExpiredSubmissions(job.getJobId());
+                int requeued = trainCancellationRepository.requeueFailed(job.getJobId(), ZonedDateTime.now(trainRouteIndex.getZone()));
+                logger.info("Restarting cancellation job {} for train {} on {}; {} failed refunds queued again",
+                        job.getJobId(), route.trainNumber(), journeyDate, requeued);
+            });
+            update(job.getJobId(), j -> {
+                j.setStatus(TrainCancellationJob.QUEUED);
+                j.setFinishedAt(null);
+            });
+        }
+        queue(job.getJobId());
+        return getJob(job.getJobId());
+    }
+
+    private TrainCancellationJob create(Integer trainId, LocalDate journeyDate, String reason) {
+        TrainCancellationJob job = new TrainCancellationJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setTrainId(trainId);
+        job.setJourneyDate(journeyDate);
+        job.setReason(truncate(reason));
+        job.setStatus(TrainCancellationJob.QUEUED);
+        job.setCreatedAt(ZonedDateTime.now());
+        try {
+            TrainCancellationJob saved = trainCancellationJobRepository.save(job);
+            logger.info("Created cancellation job {} for train ID {} on {}", saved.getJobId(), trainId, journeyDate);
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            // Submitted concurrently; the unique key on train and date keeps the first job.
+            return trainCancellationJobRepository.findByTrainIdAndJourneyDate(trainId, journeyDate).orElseThrow(() -> e);
+        }
+    }
+
+    private void queue(String jobId) {
+        if (!runningJobs.add(jobId)) {
+            return;
+        }
+        try {
+            cancellationExecutor.execute(() -> run(jobId));
+        } catch (TaskRejectedException e) {
+            runningJobs.remove(jobId);
+            throw new ServiceException("CANCELLATION_QUEUE_FULL", "Too many cancellation jobs queued, please retry shortly");
+        }
+    }
+
+    public TrainCancellationJobDTO getJob(String jobId) {
+        TrainCancellationJob job = trainCancellationJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cancellation job not found with id: " + jobId));
+        return toDTO(job, trainCancellationRepository.countByStatus(jobId));
+    }
+
+    /**
+     * Resumes jobs that were under way when the application last stopped: refunds left mid-submission past
+     * their lease are queued again before the refund worker starts, and jobs that had not finished cancelling
+     * are run again. Submissions another instance still holds are left to it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (TrainCancellationJob job : trainCancellationJobRepository.findByStatusIn(ACTIVE_STATUSES)) {
+            logger.info("Resuming cancellation job {} for train ID {} on {} at {}", job.getJobId(), job.getTrainId(),
+                    job.getJourneyDate(), job.getStatus());
+            releaseExpiredSubmissions(job.getJobId());
+            if (TrainCancellationJob.REFUNDING.equals(job.getStatus())) {
+                continue;
+            }
+            try {
+                queue(job.getJobId());
+            } catch (ServiceException e) {
+                finish(job.getJobId(), TrainCancellationJob.FAILED, "Cancellation queue is full; submit again to resume");
+            }
+        }
+        refundsResumed = true;
+    }
+
+    /** Forgets cancelled runs that have left the delay retention window. */
+    @Scheduled(fixedDelayString = "${train.delay.prune-ms:3600000}")
+    public void pruneCancelledRuns() {
+        LocalDate from = ZonedDateTime.now(trainRouteIndex.getZone()).toLocalDate().minusDays(retentionDays);
+        cancelledRuns.removeIf(run -> run.journeyDate().isBefore(from));
+    }
+
+    void run(String jobId) {
+        try {
+            TrainCancellationJob job = trainCancellationJobRepository.findById(jobId).orElse(null);
+            if (job == null || !ACTIVE_STATUSES.contains(job.getStatus())) {
+                return;
+            }
+            TrainRouteIndex.Route route = trainRouteIndex.getRoute(job.getTrainId());
+            if (route == null) {
+                finish(jobId, TrainCancellationJob.FAILED, "No timetable is known for train " + job.getTrainId());
+                return;
+            }
+            update(jobId, j -> {
+                j.setStatus(TrainCancellationJob.CANCELLING);
+                if (j.getStartedAt() == null) {
+                    j.setStartedAt(ZonedDateTime.now());
+                }
+            });
+            cancelOrders(job, route);
+            // The refund worker takes the job from here; the cancellation pool is free for the next run.
+            update(jobId, j -> j.setStatus(TrainCancellationJob.REFUNDING));
+        } catch (Exception e) {
+            logger.error("Cancellation job {} failed: {}", jobId, e.getMessage());
+            finish(jobId, TrainCancellationJob.FAILED, "Stopped: " + e.getMessage() + "; submit again to resume");
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+
+    /** Cancels the run's open orders in one transaction and queues refunds of the paid ones. */
+    private int cancelOrders(TrainCancellationJob job, TrainRouteIndex.Route route) {
+        List<StopWindow> windows = trainDelayService.scheduledWindows(route, job.getJourneyDate());
+        if (windows.isEmpty()) {
+            return 0;
+        }
+        ZonedDateTime now = ZonedDateTime.now(trainRouteIndex.getZone());
+        String remarks = "Train " + route.trainNumber() + " of " + job.getJourneyDate() + " cancelled"
+                + (job.getReason() != null ? ": " + job.getReason() : "");
+        Integer cancelled = transactionTemplate.execute(status -> {
+            trainDelayRepository.lockTrain(job.getTrainId());
+            List<CancelledOrder> orders = trainCancellationRepository.cancelOrders(job.getTrainId(), windows,
+                    windows.get(0).windowStart(), trainDelayService.latestDeliveryTime(windows), VendorQueueService.CLOSED_STATUSES, now);
+            if (orders.isEmpty()) {
+                return 0;
+            }
+            trainDelayRepository.insertTracking(orders.stream()
+                    .map(order -> new TrackingRow(order.orderId(), "CANCELLED", remarks)).toList(), now);
+            trainCancellationRepository.insertRefunds(job.getJobId(), orders.stream()
+                    .filter(order -> "REFUND_PENDING".equals(order.paymentStatus())).toList(), now);
+            trainCancellationJobRepository.addCancelled(job.getJobId(), orders.size());
+
+            Map<Long, List<Long>> idsByVendor = new HashMap<>();
+            for (CancelledOrder order : orders) {
+                idsByVendor.computeIfAbsent(order.vendorId(), id -> new ArrayList<>()).add(order.orderId());
+            }
+            vendorQueueService.ordersClosed(idsByVendor);
+            eventPublisher.publishEvent(new OrdersCancelledEvent(route.trainId(), route.trainNumber(), job.getJourneyDate(),
+                    job.getReason(), idsByVendor));
+            return orders.size();
+        });
+        logger.info("Cancellation job {} cancelled {} orders of train {}", job.getJobId(), cancelled, route.trainNumber());
+        return cancelled != null ? cancelled : 0;
+    }
+
+    /**
+     * Refund worker: works off the due refunds of every refunding job, a claimed batch per job in turn, and
+     * completes the jobs with nothing left to refund. Refunds waiting out a backoff are left for a later pass.
+     */
+    @Scheduled(fixedDelayString = "${payment.refund.poll-ms:1000}")
+    public void refundDue() {
+        if (!refundsResumed) {
+            return;
+        }
+        List<TrainCancellationJob> jobs = trainCancellationJobRepository.findByStatusIn(Set.of(TrainCancellationJob.REFUNDING)).stream()
+                .filter(job -> !runningJobs.contains(job.getJobId()))
+                .toList();
+        Set<String> draining = new HashSet<>(jobs.stream().map(TrainCancellationJob::getJobId).toList());
+        while (!draining.isEmpty() && !Thread.currentThread().isInterrupted()) {
+            draining.removeIf(jobId -> !refundBatch(jobId));
+        }
+        for (TrainCancellationJob job : jobs) {
+            completeIfRefunded(job);
+        }
+    }
+
+    /** Submits one claimed batch of the job's due refunds and records the outcomes; false when none was due. */
+    private boolean refundBatch(String jobId) {
+        try {
+            ZonedDateTime now = ZonedDateTime.now(trainRouteIndex.getZone());
+            List<RefundClaim> claims = transactionTemplate.execute(status -> trainCancellationRepository.claim(jobId, claimSize, now));
+            if (claims == null || claims.isEmpty()) {
+                return false;
+            }
+            List<CompletableFuture<RefundOutcome>> attempts = claims.stream()
+                    .map(claim -> CompletableFuture.supplyAsync(() -> attempt(claim), refundExecutor))
+                    .toList();
+            List<RefundOutcome> outcomes = attempts.stream().map(CompletableFuture::join).toList();
+            ZonedDateTime recordedAt = ZonedDateTime.now(trainRouteIndex.getZone());
+            transactionTemplate.executeWithoutResult(status -> {
+                trainCancellationRepository.recordOutcomes(outcomes, recordedAt);
+                trainDelayRepository.insertTracking(outcomes.stream()
+                        .filter(outcome -> TrainCancellationRepository.REFUNDED.equals(outcome.status()))
+                        .map(outcome -> new TrackingRow(outcome.orderId(), "CANCELLED", "Refund " + outcome.refundReference() + " issued"))
+                        .toList(), recordedAt);
+            });
+            long refunded = outcomes.stream().filter(outcome -> TrainCancellationRepository.REFUNDED.equals(outcome.status())).count();
+            logger.debug("Cancellation job {} refunded {} of {} claimed orders", jobId, refunded, outcomes.size());
+            return true;
+        } catch (RuntimeException e) {
+            // Claimed rows stay submitting and are queued again once their lease lapses.
+            logger.error("Refund batch of cancellation job {} failed: {}", jobId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Completes the job once no refund is pending or in flight, after one more sweep for orders validated just
+     * before the run was marked cancelled that committed after the first one; a sweep that finds some leaves
+     * their refunds to the next pass.
+     */
+    private void completeIfRefunded(TrainCancellationJob job) {
+        try {
+            Map<String, long[]> counts = trainCancellationRepository.countByStatus(job.getJobId());
+            if (count(counts, TrainCancellationRepository.SUBMITTING) > 0) {
+                // Submissions of an instance that stopped are due again on the next pass.
+                releaseExpiredSubmissions(job.getJobId());
+            }
+            if (count(counts, TrainCancellationRepository.PENDING) + count(counts, TrainCancellationRepository.SUBMITTING) > 0) {
+                return;
+            }
+            // Other instances take orders for the run until they next refresh; the closing sweep waits for them.
+            if (job.getCreatedAt() != null && job.getCreatedAt().isAfter(ZonedDateTime.now().minus(Duration.ofMillis(2 * refreshMs)))) {
+                return;
+            }
+            TrainRouteIndex.Route route = trainRouteIndex.getRoute(job.getTrainId());
+            if (route != null && cancelOrders(job, route) > 0) {
+                return;
+            }
+            finish(job.getJobId(), TrainCancellationJob.COMPLETED, "Cancelled " + job.getOrdersCancelled() + " orders; "
+                    + count(counts, TrainCancellationRepository.REFUNDED) + " refunded, "
+                    + count(counts, TrainCancellationRepository.FAILED) + " refunds failed, "
+                    + count(counts, TrainCancellationRepository.MANUAL) + " need manual refunds");
+        } catch (RuntimeException e) {
+            logger.error("Cancellation job {} could not be completed: {}", job.getJobId(), e.getMessage());
+        }
+    }
+
+    private int releaseExpiredSubmissions(String jobId) {
+        ZonedDateTime claimedBefore = ZonedDateTime.now(trainRouteIndex.getZone()).minus(Duration.ofMillis(submitLeaseMs));
+        int released = trainCancellationRepository.releaseSubmitting(jobId, claimedBefore);
+        if (released > 0) {
+            logger.info("Cancellation job {} re-queued {} refunds left mid-submission", jobId, released);
+        }
+        return released;
+    }
+
+    private RefundOutcome attempt(RefundClaim claim) {
+        try {
+            rateLimiter.acquire();
+            String reference = refundGateway.refund(claim.paymentReference(), claim.amountPaise(), "cancel_" + claim.orderId());
+            return new RefundOutcome(claim.orderId(), TrainCancellationRepository.REFUNDED, reference, null, null);
+        } catch (RefundFailedException e) {
+            return failed(claim, e.getMessage(), e.isRetryable());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new RefundOutcome(claim.orderId(), TrainCancellationRepository.PENDING, null, "Interrupted", ZonedDateTime.now());
+        } catch (RuntimeException e) {
+            return failed(claim, e.getMessage(), true);
+        }
+    }
+
+    private RefundOutcome failed(RefundClaim claim, String error, boolean retryable) {
+        if (!retryable || claim.attempts() >= maxAttempts) {
+            logger.warn("Refund of order {} failed after {} attempts: {}", claim.orderId(), claim.attempts(), error);
+            return new RefundOutcome(claim.orderId(), TrainCancellationRepository.FAILED, null, error, null);
+        }
+        // Exponential backoff with jitter, so retries of one failed batch spread out instead of arriving together.
+        long backoff = Math.min(retryMaxMs, retryBaseMs << Math.min(claim.attempts() - 1, 20));
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        return new RefundOutcome(claim.orderId(), TrainCancellationRepository.PENDING, null, error, ZonedDateTime.now().plusNanos(delay * 1_000_000));
+    }
+
+    private void finish(String jobId, String status, String message) {
+        update(jobId, j -> {
+            j.setStatus(status);
+            j.setMessage(truncate(message));
+            j.setFinishedAt(ZonedDateTime.now());
+        });
+        logger.info("Cancellation job {} finished as {}: {}", jobId, status, message);
+    }
+
+    private void update(String jobId, Consumer<TrainCancellationJob> change) {
+        transactionTemplate.executeWithoutResult(status -> trainCancellationJobRepository.findById(jobId).ifPresent(change));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private static long count(Map<String, long[]> counts, String status) {
+        long[] entry = counts.get(status);
+        return entry != null ? entry[0] : 0;
+    }
+
+    private TrainCancellationJobDTO toDTO(TrainCancellationJob job, Map<String, long[]> counts) {
+        TrainRouteIndex.Route route = trainRouteIndex.getRoute(job.getTrainId());
+        TrainCancellationJobDTO dto = new TrainCancellationJobDTO();
+        dto.setJobId(job.getJobId());
+        dto.setTrainId(job.getTrainId());
+        dto.setTrainNumber(route != null ? route.trainNumber() : null);
+        dto.setJourneyDate(job.getJourneyDate());
+        dto.setReason(job.getReason());
+        dto.setStatus(job.getStatus());
+        dto.setOrdersCancelled(job.getOrdersCancelled());
+        dto.setRefundsQueued(counts.values().stream().mapToLong(entry -> entry[0]).sum());
+        dto.setRefundsPending(count(counts, TrainCancellationRepository.PENDING) + count(counts, TrainCancellationRepository.SUBMITTING));
+        dto.setRefundsCompleted(count(counts, TrainCancellationRepository.REFUNDED));
+        dto.setRefundsFailed(count(counts, TrainCancellationRepository.FAILED));
+        dto.setRefundsManual(count(counts, TrainCancellationRepository.MANUAL));
+        long[] refunded = counts.get(TrainCancellationRepository.REFUNDED);
+        dto.setAmountRefundedPaise(refunded != null ? refunded[1] : 0);
+        dto.setMessage(job.getMessage());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        if (job.getStartedAt() != null) {
+            ZonedDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : ZonedDateTime.now();
+            long millis = Math.max(1, Duration.between(job.getStartedAt(), end).toMillis());
+            dto.setRefundsPerSecond(dto.getRefundsCompleted() * 1000.0 / millis);
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,111 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.TrainDelayDTO;
+import com.railswad.deliveryservice.exception.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Picks up delay feed files dropped into a directory: CSV with columns {@code train_number, journey_date,
+ * station_code, delay_minutes, reported_at}, where the date and report time may be blank. Files are taken in
+ * name order and moved to {@code processed/} or, if rejected, {@code failed/}; applying a file twice changes
+ * nothing. Feeds should write a file under another name and rename it to {@code .csv} once complete.
+ */
+@Service
+public class TrainDelayFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainDelayFeedService.class);
+
+    @Autowired
+    private TrainDelayService trainDelayService;
+
+    @Value("${train.delay.feed-directory:delay-feed}")
+    private Path directory;
+
+    @Scheduled(fixedDelayString = "${train.delay.feed-poll-ms:10000}")
+    public void poll() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.csv")) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            logger.error("Could not list delay feed directory {}: {}", directory, e.getMessage());
+            return;
+        }
+        files.sort(null);
+        for (Path file : files) {
+            String target = "processed";
+            try {
+                List<TrainDelayDTO> reports = read(file);
+                trainDelayService.ingest(reports);
+                logger.info("Applied delay feed {} with {} reports", file.getFileName(), reports.size());
+            } catch (ServiceException | IOException e) {
+                logger.error("Rejected delay feed {}: {}", file.getFileName(), e.getMessage());
+                target = "failed";
+            } catch (RuntimeException e) {
+                // Left in place to be retried on the next poll, as when the database is unreachable.
+                logger.error("Delay feed {} could not be applied: {}", file.getFileName(), e.getMessage());
+                return;
+            }
+            move(file, target);
+        }
+    }
+
+    private static List<TrainDelayDTO> read(Path file) throws IOException {
+        List<TrainDelayDTO> reports = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.startsWith("train_number"))) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                if (fields.length < 4) {
+                    throw new ServiceException("INVALID_DELAY_FILE", "Line " + lineNumber + " has " + fields.length + " columns, expected 5");
+                }
+                TrainDelayDTO report = new TrainDelayDTO();
+                report.setTrainNumber(fields[0].trim());
+                report.setStationCode(fields[2].trim());
+                try {
+                    report.setJourneyDate(fields[1].isBlank() ? null : LocalDate.parse(fields[1].trim()));
+                    report.setDelayMinutes(Integer.valueOf(fields[3].trim()));
+                    report.setReportedAt(fields.length > 4 && !fields[4].isBlank() ? ZonedDateTime.parse(fields[4].trim()) : null);
+                } catch (NumberFormatException | DateTimeParseException e) {
+                    throw new ServiceException("INVALID_DELAY_FILE", "Line " + lineNumber + ": " + e.getMessage());
+                }
+                reports.add(report);
+            }
+        }
+        return reports;
+    }
+
+    private void move(Path file, String target) {
+        try {
+            Path folder = Files.createDirectories(directory.resolve(target));
+            Files.move(file, folder.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.error("Could not move delay feed {} to {}: {}", file.getFileName(), target, e.getMessage());
+        }
+    }
+}
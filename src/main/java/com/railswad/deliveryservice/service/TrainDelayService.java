@@ -0,0 +1,280 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.ExpectedStopDTO;
+import com.railswad.deliveryservice.dto.TrainDelayDTO;
+import com.railswad.deliveryservice.entity.Station;
+import com.railswad.deliveryservice.event.OrdersRetimedEvent;
+import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.exception.ServiceException;
+import com.railswad.deliveryservice.repository.TrainDelayRepository;
+import com.railswad.deliveryservice.repository.TrainDelayRepository.DelayRow;
+import com.railswad.deliveryservice.repository.TrainDelayRepository.RetimedOrder;
+import com.railswad.deliveryservice.repository.TrainDelayRepository.StopWindow;
+import com.railswad.deliveryservice.repository.TrainDelayRepository.TrackingRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Running delays of train runs and the re-timing of the orders waiting on them. A report says a run is so
+ * many minutes late at a station; the delay is expected at every later stop until a later station reports.
+ * Each run's reports are held in memory for the order cutoff, and every ingested run moves its open orders
+ * with one UPDATE and one batch of tracking rows, so a long delay on a full train costs two round trips.
+ */
+@Service
+public class TrainDelayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainDelayService.class);
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("dd MMM HH:mm");
+
+    @Autowired
+    private TrainDelayRepository trainDelayRepository;
+
+    @Autowired
+    private TrainRouteIndex trainRouteIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${train.delay.max-minutes:2880}")
+    private int maxDelayMinutes;
+
+    @Value("${train.delay.retention-days:3}")
+    private int retentionDays;
+
+    @Value("${order.cutoff.time-tolerance-min:30}")
+    private int toleranceMinutes;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private record RunKey(Integer trainId, LocalDate journeyDate) {
+    }
+
+    private record Report(int delayMinutes, ZonedDateTime reportedAt) {
+    }
+
+    // Reports of each run by station; a run has a handful, so lookups scan them.
+    private volatile Map<RunKey, Map<Integer, Report>> runs = new ConcurrentHashMap<>();
+
+    public TrainDelayService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${train.delay.refresh-ms:60000}", initialDelayString = "${train.delay.refresh-ms:60000}")
+    public void refresh() {
+        Map<RunKey, Map<Integer, Report>> loaded = new ConcurrentHashMap<>();
+        for (DelayRow row : trainDelayRepository.findFrom(oldestKeptDate(), trainRouteIndex.getZone())) {
+            loaded.computeIfAbsent(new RunKey(row.trainId(), row.journeyDate()), key -> new ConcurrentHashMap<>())
+                    .put(row.stationId(), new Report(row.delayMinutes(), row.reportedAt()));
+        }
+        runs = loaded;
+        logger.debug("Holding delays of {} train runs", loaded.size());
+    }
+
+    @Scheduled(fixedDelayString = "${train.delay.prune-ms:3600000}")
+    public void prune() {
+        LocalDate oldest = oldestKeptDate();
+        runs.keySet().removeIf(key -> key.journeyDate().isBefore(oldest));
+        int deleted = trainDelayRepository.deleteBefore(oldest);
+        if (deleted > 0) {
+            logger.info("Pruned {} delay reports of runs before {}", deleted, oldest);
+        }
+    }
+
+    private LocalDate oldestKeptDate() {
+        return ZonedDateTime.now(trainRouteIndex.getZone()).toLocalDate().minusDays(retentionDays);
+    }
+
+    /** Delay expected at the stop at {@code position} of the run: that of the last reporting stop at or before it. */
+    public int getDelayMinutes(TrainRouteIndex.Route route, LocalDate journeyDate, int position) {
+        Map<Integer, Report> reports = runs.get(new RunKey(route.trainId(), journeyDate));
+        return reports == null ? 0 : delayAt(route, reports, position);
+    }
+
+    private static int delayAt(TrainRouteIndex.Route route, Map<Integer, Report> reports, int position) {
+        int bestPosition = -1;
+        int delay = 0;
+        for (Map.Entry<Integer, Report> entry : reports.entrySet()) {
+            int reported = route.positionOf(entry.getKey());
+            if (reported >= 0 && reported <= position && reported > bestPosition) {
+                bestPosition = reported;
+                delay = entry.getValue().delayMinutes();
+            }
+        }
+        return delay;
+    }
+
+    /** Scheduled and expected times at every stop of the run; the current run when no date is given. */
+    public List<ExpectedStopDTO> getExpectedStops(Integer trainId, LocalDate journeyDate) {
+        TrainRouteIndex.Route route = trainRouteIndex.getRoute(trainId);
+        if (route == null) {
+            throw new ResourceNotFoundException("No route found for train with id: " + trainId);
+        }
+        int terminus = route.stops().size() - 1;
+        LocalDate date = journeyDate != null ? journeyDate
+                : trainRouteIndex.currentJourneyDate(route, terminus, ZonedDateTime.now(trainRouteIndex.getZone()));
+        Map<Integer, Report> reports = runs.getOrDefault(new RunKey(trainId, date), Map.of());
+        List<ExpectedStopDTO> stops = new ArrayList<>(route.stops().size());
+        for (int i = 0; i <= terminus; i++) {
+            TrainRouteIndex.Stop stop = route.stops().get(i);
+            int delay = delayAt(route, reports, i);
+            Station station = trainRouteIndex.getStation(stop.stationId());
+            ZonedDateTime arrival = stop.arrivalMinute() >= 0 ? trainRouteIndex.at(date, stop.arrivalMinute()) : null;
+            ZonedDateTime departure = stop.departureMinute() >= 0 ? trainRouteIndex.at(date, stop.departureMinute()) : null;
+            stops.add(new ExpectedStopDTO(stop.stationId(), station != null ? station.getStationCode() : null,
+                    stop.sequence(), arrival, departure, arrival != null ? arrival.plusMinutes(delay) : null,
+                    departure != null ? departure.plusMinutes(delay) : null, delay));
+        }
+        return stops;
+    }
+
+    /**
+     * Applies a batch of reports, all or nothing per run, and returns how many reports, runs and orders it
+     * covered. Reports naming an unknown train or station, or a station off the train's route, reject the
+     * whole batch before anything is written.
+     */
+    public Map<String, Integer> ingest(List<TrainDelayDTO> reports) {
+        ZonedDateTime now = ZonedDateTime.now(trainRouteIndex.getZone());
+        Map<RunKey, Map<Integer, DelayRow>> byRun = new LinkedHashMap<>();
+        for (int i = 0; i < reports.size(); i++) {
+            TrainDelayDTO report = reports.get(i);
+            String where = "Report " + (i + 1);
+            TrainRouteIndex.Route route = report.getTrainNumber() != null ? trainRouteIndex.getRouteByNumber(report.getTrainNumber().trim()) : null;
+            if (route == null) {
+                throw new ServiceException("INVALID_DELAY", where + ": no timetable for train " + report.getTrainNumber());
+            }
+            Integer stationId = report.getStationCode() != null ? trainRouteIndex.getStationId(report.getStationCode().trim()) : null;
+            int position = stationId != null ? route.positionOf(stationId) : -1;
+            if (position < 0) {
+                throw new ServiceException("INVALID_DELAY", where + ": train " + route.trainNumber() + " does not stop at " + report.getStationCode());
+            }
+            if (report.getDelayMinutes() == null || report.getDelayMinutes() < 0 || report.getDelayMinutes() > maxDelayMinutes) {
+                throw new ServiceException("INVALID_DELAY", where + ": delay must be between 0 and " + maxDelayMinutes + " minutes");
+            }
+            LocalDate journeyDate = report.getJourneyDate() != null ? report.getJourneyDate()
+                    : trainRouteIndex.currentJourneyDate(route, position, now);
+            ZonedDateTime reportedAt = report.getReportedAt() != null ? report.getReportedAt() : now;
+            // Of several reports for one stop in a batch the latest wins, as it does against stored reports.
+            byRun.computeIfAbsent(new RunKey(route.trainId(), journeyDate), key -> new LinkedHashMap<>())
+                    .merge(stationId, new DelayRow(route.trainId(), journeyDate, stationId, report.getDelayMinutes(), reportedAt),
+                            (a, b) -> b.reportedAt().isBefore(a.reportedAt()) ? a : b);
+        }
+
+        int orders = 0;
+        for (Map.Entry<RunKey, Map<Integer, DelayRow>> entry : byRun.entrySet()) {
+            orders += applyRun(entry.getKey(), entry.getValue().values(), now);
+        }
+        logger.info("Applied {} delay reports across {} train runs; {} orders re-timed", reports.size(), byRun.size(), orders);
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("reports", reports.size());
+        result.put("runs", byRun.size());
+        result.put("orders", orders);
+        return result;
+    }
+
+    /**
+     * Stores the run's reports and moves its orders to the delays now expected at their stops. Stops from the
+     * earliest reporting one onwards are re-timed; the stored reports are re-read under the train's lock, so
+     * reports ingested elsewhere are honoured and the newest report at each stop wins.
+     */
+    private int applyRun(RunKey key, Collection<DelayRow> rows, ZonedDateTime now) {
+        TrainRouteIndex.Route route = trainRouteIndex.getRoute(key.trainId());
+        if (route == null) {
+            // The timetable was removed by a reload since the batch was checked.
+            return 0;
+        }
+        LocalDate date = key.journeyDate();
+        int from = rows.stream().mapToInt(row -> route.positionOf(row.stationId())).min().orElse(0);
+
+        Map<Integer, Report> stored = new ConcurrentHashMap<>();
+        List<RetimedOrder> retimed = transactionTemplate.execute(status -> {
+            trainDelayRepository.lockTrain(key.trainId());
+            trainDelayRepository.upsert(rows);
+            for (DelayRow row : trainDelayRepository.findRun(key.trainId(), date, now.getZone())) {
+                stored.put(row.stationId(), new Report(row.delayMinutes(), row.reportedAt()));
+            }
+
+            List<StopWindow> windows = windows(route, date, from, stored);
+            if (windows.isEmpty()) {
+                return List.<RetimedOrder>of();
+            }
+
+            List<RetimedOrder> moved = trainDelayRepository.retimeOrders(key.trainId(), windows, windows.get(0).windowStart(),
+                    latestDeliveryTime(windows), VendorQueueService.CLOSED_STATUSES, now);
+            if (!moved.isEmpty()) {
+                trainDelayRepository.insertTracking(moved.stream().map(order -> new TrackingRow(order.orderId(),
+                        order.orderStatus(), remarks(route, order))).toList(), now);
+                Map<Long, List<OrdersRetimedEvent.RetimedOrder>> byVendor = new HashMap<>();
+                for (RetimedOrder order : moved) {
+                    byVendor.computeIfAbsent(order.vendorId(), id -> new ArrayList<>()).add(new OrdersRetimedEvent.RetimedOrder(
+                            order.orderId(), order.stationId(), order.deliveryTime(), order.delayMinutes()));
+                }
+                eventPublisher.publishEvent(new OrdersRetimedEvent(route.trainId(), route.trainNumber(), date, byVendor));
+            }
+            return moved;
+        });
+
+        if (!date.isBefore(oldestKeptDate())) {
+            runs.put(key, stored);
+        }
+        logger.debug("Train {} run of {}: {} orders re-timed from stop {}", route.trainNumber(), date, retimed.size(), from);
+        return retimed.size();
+    }
+
+    /**
+     * Scheduled window of each station's first call on the run from {@code from} onwards, widened by the order
+     * cutoff's tolerance, with the delay expected there. Windows follow the route, so they are in time order.
+     */
+    private List<StopWindow> windows(TrainRouteIndex.Route route, LocalDate date, int from, Map<Integer, Report> reports) {
+        List<StopWindow> windows = new ArrayList<>();
+        for (int i = from; i < route.stops().size(); i++) {
+            TrainRouteIndex.Stop stop = route.stops().get(i);
+            // Orders are matched to a station's first call, as the order cutoff places them.
+            if (route.positionOf(stop.stationId()) != i) {
+                continue;
+            }
+            int dueMinute = stop.arrivalMinute() >= 0 ? stop.arrivalMinute() : stop.departureMinute();
+            windows.add(new StopWindow(stop.stationId(), trainRouteIndex.at(date, dueMinute).minusMinutes(toleranceMinutes),
+                    trainRouteIndex.at(date, stop.lastMinute()).plusMinutes(toleranceMinutes), delayAt(route, reports, i)));
+        }
+        return windows;
+    }
+
+    /** Windows of every stop of the run, for operations on all of its orders whatever their delay. */
+    public List<StopWindow> scheduledWindows(TrainRouteIndex.Route route, LocalDate journeyDate) {
+        return windows(route, journeyDate, 0, Map.of());
+    }
+
+    /** Latest delivery time, delay included, that an order in one of the windows can carry. */
+    public ZonedDateTime latestDeliveryTime(List<StopWindow> windows) {
+        return windows.get(windows.size() - 1).windowEnd().plusMinutes(maxDelayMinutes);
+    }
+
+    private static String remarks(TrainRouteIndex.Route route, RetimedOrder order) {
+        return order.delayMinutes() == 0
+                ? "Train " + route.trainNumber() + " back on time; delivery at " + order.deliveryTime().format(TIME)
+                : "Train " + route.trainNumber() + " running " + order.delayMinutes() + " min late; delivery moved to "
+                + order.deliveryTime().format(TIME);
+    }
+}
@@ -0,0 +1,95 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.TrainDelayDTO;
+import com.railswad.deliveryservice.entity.Station;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in delay feed for local runs and load tests, enabled with {@code train.delay.simulator.enabled}.
+ * Each tick it picks a few trains under way, reports each at its next stop with the delay drifting from the
+ * last one, and now and then adds a long hold-up, so the whole ingestion and re-timing path is exercised.
+ */
+@Service
+@ConditionalOnProperty(name = "train.delay.simulator.enabled", havingValue = "true")
+public class TrainDelaySimulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainDelaySimulator.class);
+
+    @Autowired
+    private TrainRouteIndex trainRouteIndex;
+
+    @Autowired
+    private TrainDelayService trainDelayService;
+
+    @Value("${train.delay.simulator.trains-per-tick:5}")
+    private int trainsPerTick;
+
+    @Value("${train.delay.simulator.long-delay-chance:0.02}")
+    private double longDelayChance;
+
+    @Value("${train.delay.simulator.long-delay-min:600}")
+    private int longDelayMinutes;
+
+    @Value("${train.delay.max-minutes:2880}")
+    private int maxDelayMinutes;
+
+    @Scheduled(fixedDelayString = "${train.delay.simulator.interval-ms:30000}")
+    public void tick() {
+        List<TrainRouteIndex.Route> routes = new ArrayList<>(trainRouteIndex.getRoutes());
+        if (routes.isEmpty()) {
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Collections.shuffle(routes, random);
+        ZonedDateTime now = ZonedDateTime.now(trainRouteIndex.getZone());
+        List<TrainDelayDTO> reports = new ArrayList<>();
+        for (TrainRouteIndex.Route route : routes.subList(0, Math.min(trainsPerTick, routes.size()))) {
+            int terminus = route.stops().size() - 1;
+            LocalDate journeyDate = trainRouteIndex.currentJourneyDate(route, terminus, now);
+            int next = nextStop(route, journeyDate, now);
+            Station station = trainRouteIndex.getStation(route.stops().get(next).stationId());
+            if (station == null || station.getStationCode() == null) {
+                continue;
+            }
+            int delay = trainDelayService.getDelayMinutes(route, journeyDate, next) + random.nextInt(-5, 16);
+            if (random.nextDouble() < longDelayChance) {
+                delay += longDelayMinutes;
+            }
+            TrainDelayDTO report = new TrainDelayDTO();
+            report.setTrainNumber(route.trainNumber());
+            report.setJourneyDate(journeyDate);
+            report.setStationCode(station.getStationCode());
+            report.setDelayMinutes(Math.min(Math.max(delay, 0), maxDelayMinutes));
+            report.setReportedAt(now);
+            reports.add(report);
+        }
+        if (!reports.isEmpty()) {
+            logger.debug("Simulating {} delay reports", reports.size());
+            trainDelayService.ingest(reports);
+        }
+    }
+
+    /** The first stop the run has not yet left, allowing for its current delay; the terminus once past all. */
+    private int nextStop(TrainRouteIndex.Route route, LocalDate journeyDate, ZonedDateTime now) {
+        for (int i = 0; i < route.stops().size(); i++) {
+            int delay = trainDelayService.getDelayMinutes(route, journeyDate, i);
+            if (trainRouteIndex.at(journeyDate, route.stops().get(i).lastMinute()).plusMinutes(delay).isAfter(now)) {
+                return i;
+            }
+        }
+        return route.stops().size() - 1;
+    }
+}
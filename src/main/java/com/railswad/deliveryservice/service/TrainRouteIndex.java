@@ -0,0 +1,237 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.JourneyStopDTO;
+import com.railswad.deliveryservice.dto.JourneyStopsDTO;
+import com.railswad.deliveryservice.dto.StopVendorDTO;
+import com.railswad.deliveryservice.entity.Station;
+import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.exception.ServiceException;
+import com.railswad.deliveryservice.repository.StationRepository;
+import com.railswad.deliveryservice.repository.TrainRouteRepository;
+import com.railswad.deliveryservice.repository.TrainRouteRepository.StopRow;
+import com.railswad.deliveryservice.repository.TrainRouteRepository.TrainRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every train's timetable in memory, with the active vendors at each station kept current by
+ * {@link StationMenuRegistry}, so "where can I order on this journey" is answered without a query. Stop
+ * times are held as minutes after midnight on the day the train leaves its origin, which turns a journey
+ * date into wall-clock times by one addition.
+ */
+@Service
+public class TrainRouteIndex implements StationMenuRegistry.StationMenuListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainRouteIndex.class);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final Comparator<StopVendorDTO> BY_RATING = Comparator
+            .comparing(StopVendorDTO::getRating, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(StopVendorDTO::getVendorId);
+
+    @Autowired
+    private TrainRouteRepository trainRouteRepository;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Value("${train.timezone:Asia/Kolkata}")
+    private ZoneId zone;
+
+    private volatile Map<Integer, Route> routes = Map.of();
+    private volatile Map<String, Route> routesByNumber = Map.of();
+    private volatile Map<Integer, Station> stations = Map.of();
+    private volatile Map<String, Integer> stationIdsByCode = Map.of();
+    private final Map<Integer, List<StopVendorDTO>> vendorsByStation = new ConcurrentHashMap<>();
+
+    /** A scheduled stop; minutes count from midnight of the origin day and are -1 where there is no time. */
+    public record Stop(int sequence, Integer stationId, int arrivalMinute, int departureMinute, Integer distanceKm) {
+
+        public Integer haltMinutes() {
+            return arrivalMinute >= 0 && departureMinute >= 0 ? departureMinute - arrivalMinute : null;
+        }
+
+        /** When the train is last at the platform: its departure, or its arrival at the terminus. */
+        public int lastMinute() {
+            return departureMinute >= 0 ? departureMinute : arrivalMinute;
+        }
+    }
+
+    public record Route(Integer trainId, String trainNumber, String trainName, int runningDays, List<Stop> stops,
+                        Map<Integer, Integer> positionByStation) {
+
+        public boolean runsOn(LocalDate journeyDate) {
+            return (runningDays & (1 << (journeyDate.getDayOfWeek().getValue() - 1))) != 0;
+        }
+
+        /** Position of the station's first stop on the route, or -1 when the train does not call there. */
+        public int positionOf(Integer stationId) {
+            return positionByStation.getOrDefault(stationId, -1);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${train.route.refresh-ms:600000}", initialDelayString = "${train.route.refresh-ms:600000}")
+    public void refresh() {
+        Map<Integer, Station> stationsById = new HashMap<>();
+        Map<String, Integer> codes = new HashMap<>();
+        stationRepository.findAll().forEach(station -> {
+            stationsById.put(station.getStationId(), station);
+            if (station.getStationCode() != null) {
+                codes.put(station.getStationCode(), station.getStationId());
+            }
+        });
+
+        Map<Integer, List<Stop>> stopsByTrain = new HashMap<>();
+        for (StopRow row : trainRouteRepository.findAll()) {
+            stopsByTrain.computeIfAbsent(row.trainId(), id -> new ArrayList<>()).add(toStop(row));
+        }
+        Map<Integer, Route> built = new HashMap<>();
+        Map<String, Route> byNumber = new HashMap<>();
+        for (TrainRow train : trainRouteRepository.findTrains()) {
+            List<Stop> stops = stopsByTrain.get(train.trainId());
+            if (stops == null || stops.size() < 2) {
+                continue;
+            }
+            Map<Integer, Integer> positions = new HashMap<>();
+            for (int i = 0; i < stops.size(); i++) {
+                positions.putIfAbsent(stops.get(i).stationId(), i);
+            }
+            Route route = new Route(train.trainId(), train.trainNumber(), train.trainName(), train.runningDays(),
+                    List.copyOf(stops), Map.copyOf(positions));
+            built.put(train.trainId(), route);
+            if (train.trainNumber() != null) {
+                byNumber.put(train.trainNumber(), route);
+            }
+        }
+        stations = Map.copyOf(stationsById);
+        stationIdsByCode = Map.copyOf(codes);
+        routes = Map.copyOf(built);
+        routesByNumber = Map.copyOf(byNumber);
+        logger.info("Route index holds {} trains", built.size());
+    }
+
+    private static Stop toStop(StopRow row) {
+        return new Stop(row.sequence(), row.stationId(), minuteOf(row.arrivalDay(), row.arrival()),
+                minuteOf(row.departureDay(), row.departure()), row.distanceKm());
+    }
+
+    private static int minuteOf(int day, LocalTime time) {
+        return time == null ? -1 : day * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    @Override
+    public void onStationMenusChanged(Integer stationId, List<StationMenuRegistry.VendorMenu> vendors) {
+        List<StopVendorDTO> active = vendors.stream()
+                .filter(StationMenuRegistry.VendorMenu::isActive)
+                .map(vendor -> new StopVendorDTO(vendor.getVendorId(), vendor.getBusinessName(), vendor.getRating(),
+                        vendor.getPreparationTimeMin()))
+                .sorted(BY_RATING)
+                .toList();
+        if (active.isEmpty()) {
+            vendorsByStation.remove(stationId);
+        } else {
+            vendorsByStation.put(stationId, active);
+        }
+    }
+
+    public Route getRoute(Integer trainId) {
+        return routes.get(trainId);
+    }
+
+    public Route getRouteByNumber(String trainNumber) {
+        return routesByNumber.get(trainNumber);
+    }
+
+    /** Every train with a timetable. */
+    public Collection<Route> getRoutes() {
+        return routes.values();
+    }
+
+    public Station getStation(Integer stationId) {
+        return stations.get(stationId);
+    }
+
+    public Integer getStationId(String stationCode) {
+        return stationIdsByCode.get(stationCode);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public ZonedDateTime at(LocalDate journeyDate, int minute) {
+        return journeyDate.atStartOfDay(zone).plusMinutes(minute);
+    }
+
+    /**
+     * The origin date of the run a passenger on the train is most likely aboard: the earliest run that has
+     * not yet left the stop at {@code position}, or the next run to start when none is under way.
+     */
+    public LocalDate currentJourneyDate(Route route, int position, ZonedDateTime now) {
+        int lastMinute = route.stops().get(position).lastMinute();
+        LocalDate today = now.withZoneSameInstant(zone).toLocalDate();
+        for (LocalDate date = today.minusDays(lastMinute / MINUTES_PER_DAY + 1); !date.isAfter(today.plusDays(7)); date = date.plusDays(1)) {
+            if (route.runsOn(date) && at(date, lastMinute).isAfter(now)) {
+                return date;
+            }
+        }
+        return today;
+    }
+
+    /**
+     * Stations still ahead on the train's run up to the destination (the terminus when null) that have
+     * active vendors, with the times the train is due there. Without a journey date the run is inferred
+     * by {@link #currentJourneyDate}.
+     */
+    public JourneyStopsDTO getStopsWithVendors(Integer trainId, Integer destinationStationId, LocalDate journeyDate) {
+        Route route = routes.get(trainId);
+        if (route == null) {
+            throw new ResourceNotFoundException("No route found for train with id: " + trainId);
+        }
+        int end = destinationStationId == null ? route.stops().size() - 1 : route.positionOf(destinationStationId);
+        if (end < 0) {
+            throw new ServiceException("STATION_NOT_ON_ROUTE", "Train " + route.trainNumber() + " does not stop at station " + destinationStationId);
+        }
+        ZonedDateTime now = ZonedDateTime.now(zone);
+        LocalDate date = journeyDate != null ? journeyDate : currentJourneyDate(route, end, now);
+        if (!route.runsOn(date)) {
+            throw new ServiceException("TRAIN_NOT_RUNNING", "Train " + route.trainNumber() + " does not leave its origin on " + date);
+        }
+
+        List<JourneyStopDTO> stops = new ArrayList<>();
+        for (int i = 0; i <= end; i++) {
+            Stop stop = route.stops().get(i);
+            List<StopVendorDTO> vendors = vendorsByStation.getOrDefault(stop.stationId(), Collections.emptyList());
+            if (vendors.isEmpty() || !at(date, stop.lastMinute()).isAfter(now)) {
+                continue;
+            }
+            Station station = stations.get(stop.stationId());
+            stops.add(new JourneyStopDTO(stop.stationId(), station != null ? station.getStationCode() : null,
+                    station != null ? station.getStationName() : null, stop.sequence(),
+                    stop.arrivalMinute() >= 0 ? at(date, stop.arrivalMinute()) : null,
+                    stop.departureMinute() >= 0 ? at(date, stop.departureMinute()) : null,
+                    stop.haltMinutes(), vendors));
+        }
+        return new JourneyStopsDTO(route.trainId(), route.trainNumber(), route.trainName(), date, stops);
+    }
+}
@@ -0,0 +1,219 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.TrainDTO;
+import com.railswad.deliveryservice.dto.TrainStopDTO;
+import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.exception.ServiceException;
+import com.railswad.deliveryservice.repository.TrainRepository;
+import com.railswad.deliveryservice.repository.TrainRouteRepository;
+import com.railswad.deliveryservice.repository.TrainRouteRepository.StopRow;
+import com.railswad.deliveryservice.repository.TrainRouteRepository.TrainRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads train timetables into {@code train_stops}: one train at a time from JSON, or many from a CSV
+ * bulk file with columns {@code train_number, stop_sequence, station_code, arrival_time, departure_time,
+ * arrival_day, departure_day, distance_km, running_days}; the last two may be left blank, and running days
+ * given on any row of a train apply to the whole train. Each load replaces the listed trains' stops, and
+ * running days where given, in one transaction and then rebuilds {@link TrainRouteIndex}.
+ */
+@Service
+public class TrainRouteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainRouteService.class);
+
+    // Bit 0 = Monday .. bit 6 = Sunday.
+    private static final int EVERY_DAY = 127;
+
+    @Autowired
+    private TrainRouteRepository trainRouteRepository;
+
+    @Autowired
+    private TrainRepository trainRepository;
+
+    @Autowired
+    private TrainRouteIndex trainRouteIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public TrainRouteService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public TrainDTO getTrain(Integer trainId) {
+        TrainRow train = trainRouteRepository.findTrain(trainId)
+                .orElseThrow(() -> new ResourceNotFoundException("Train not found with id: " + trainId));
+        return new TrainDTO(train.trainId(), train.trainNumber(), train.trainName(), train.runningDays());
+    }
+
+    public List<TrainStopDTO> getRoute(Integer trainId) {
+        if (!trainRepository.existsById(trainId)) {
+            throw new ResourceNotFoundException("Train not found with id: " + trainId);
+        }
+        return trainRouteRepository.findByTrainId(trainId).stream().map(TrainRouteService::toDTO).toList();
+    }
+
+    /** Replaces the train's stops, and its running days when given; null leaves them as they are. */
+    public List<TrainStopDTO> replaceRoute(Integer trainId, List<TrainStopDTO> stops, Integer runningDays) {
+        if (!trainRepository.existsById(trainId)) {
+            throw new ResourceNotFoundException("Train not found with id: " + trainId);
+        }
+        if (runningDays != null) {
+            validateRunningDays(trainId.toString(), runningDays);
+        }
+        List<StopRow> rows = stops.stream()
+                .map(stop -> new StopRow(trainId, stop.getStopSequence() != null ? stop.getStopSequence() : 0,
+                        stop.getStationId(), stop.getArrivalTime(), stop.getDepartureTime(), stop.getArrivalDay(),
+                        stop.getDepartureDay(), stop.getDistanceKm()))
+                .toList();
+        validate(trainId.toString(), rows);
+        transactionTemplate.executeWithoutResult(status -> {
+            trainRouteRepository.replaceStops(List.of(trainId), rows);
+            if (runningDays != null) {
+                trainRouteRepository.updateRunningDays(Map.of(trainId, runningDays));
+            }
+        });
+        trainRouteIndex.refresh();
+        logger.info("Replaced route of train ID {} with {} stops", trainId, rows.size());
+        return getRoute(trainId);
+    }
+
+    /** Replaces the route of every train in the file; returns the number of trains loaded. */
+    public int importRoutes(MultipartFile file) throws IOException {
+        Map<String, Integer> trainIds = trainRouteRepository.findTrainIdsByNumber();
+        Map<String, Integer> stationIds = trainRouteRepository.findStationIdsByCode();
+        Map<Integer, List<StopRow>> routes = new LinkedHashMap<>();
+        Map<Integer, String> numbers = new LinkedHashMap<>();
+        Map<Integer, Integer> runningDays = new LinkedHashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.startsWith("train_number"))) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                if (fields.length < 7 || fields.length > 9) {
+                    throw new ServiceException("INVALID_ROUTE_FILE", "Line " + lineNumber + " has " + fields.length + " columns, expected 7 to 9");
+                }
+                Integer trainId = trainIds.get(fields[0].trim());
+                Integer stationId = stationIds.get(fields[2].trim());
+                if (trainId == null || stationId == null) {
+                    throw new ServiceException("INVALID_ROUTE_FILE", "Line " + lineNumber + ": unknown "
+                            + (trainId == null ? "train number " + fields[0].trim() : "station code " + fields[2].trim()));
+                }
+                try {
+                    routes.computeIfAbsent(trainId, id -> new ArrayList<>()).add(new StopRow(trainId,
+                            Integer.parseInt(fields[1].trim()), stationId, time(fields[3]), time(fields[4]),
+                            Integer.parseInt(fields[5].trim()), Integer.parseInt(fields[6].trim()),
+                            fields.length > 7 && !fields[7].isBlank() ? Integer.valueOf(fields[7].trim()) : null));
+                    if (fields.length > 8 && !fields[8].isBlank()) {
+                        Integer days = Integer.valueOf(fields[8].trim());
+                        Integer previous = runningDays.putIfAbsent(trainId, days);
+                        if (previous != null && !previous.equals(days)) {
+                            throw new ServiceException("INVALID_ROUTE_FILE", "Line " + lineNumber + ": running days of train "
+                                    + fields[0].trim() + " differ from an earlier row");
+                        }
+                    }
+                } catch (NumberFormatException | DateTimeParseException e) {
+                    throw new ServiceException("INVALID_ROUTE_FILE", "Line " + lineNumber + ": " + e.getMessage());
+                }
+                numbers.putIfAbsent(trainId, fields[0].trim());
+            }
+        }
+        routes.forEach((trainId, rows) -> validate(numbers.get(trainId), rows));
+        runningDays.forEach((trainId, days) -> validateRunningDays(numbers.get(trainId), days));
+
+        List<StopRow> all = new ArrayList<>();
+        routes.values().forEach(all::addAll);
+        transactionTemplate.executeWithoutResult(status -> {
+            trainRouteRepository.replaceStops(routes.keySet(), all);
+            trainRouteRepository.updateRunningDays(runningDays);
+        });
+        trainRouteIndex.refresh();
+        logger.info("Imported {} stops for {} trains from {}", all.size(), routes.size(), file.getOriginalFilename());
+        return routes.size();
+    }
+
+    private static LocalTime time(String field) {
+        return field.isBlank() ? null : LocalTime.parse(field.trim());
+    }
+
+    /** Stops must run in sequence order with times that never go backwards along the route. */
+    private static void validate(String train, List<StopRow> rows) {
+        if (rows.size() < 2) {
+            throw new ServiceException("INVALID_ROUTE", "Train " + train + " needs at least two stops");
+        }
+        int previousSequence = Integer.MIN_VALUE;
+        int previousMinute = -1;
+        for (int i = 0; i < rows.size(); i++) {
+            StopRow row = rows.get(i);
+            boolean first = i == 0;
+            boolean last = i == rows.size() - 1;
+            if (row.stationId() == null) {
+                throw new ServiceException("INVALID_ROUTE", "Train " + train + " stop " + row.sequence() + " has no station");
+            }
+            if (row.arrivalDay() < 0 || row.departureDay() < 0) {
+                throw new ServiceException("INVALID_ROUTE", "Train " + train + " stop " + row.sequence() + " has a negative day offset");
+            }
+            if (row.sequence() <= previousSequence) {
+                throw new ServiceException("INVALID_ROUTE", "Train " + train + " stops must be in increasing sequence order");
+            }
+            if ((!first && row.arrival() == null) || (!last && row.departure() == null)) {
+                throw new ServiceException("INVALID_ROUTE", "Train " + train + " stop " + row.sequence() + " is missing a time");
+            }
+            for (int minute : new int[]{minuteOf(row.arrivalDay(), row.arrival()), minuteOf(row.departureDay(), row.departure())}) {
+                if (minute < 0) {
+                    continue;
+                }
+                if (minute < previousMinute) {
+                    throw new ServiceException("INVALID_ROUTE", "Train " + train + " stop " + row.sequence() + " is scheduled before the stop ahead of it");
+                }
+                previousMinute = minute;
+            }
+            previousSequence = row.sequence();
+        }
+    }
+
+    /** At least one weekday, and no bits beyond Sunday. */
+    private static void validateRunningDays(String train, int runningDays) {
+        if (runningDays < 1 || runningDays > EVERY_DAY) {
+            throw new ServiceException("INVALID_ROUTE", "Train " + train + " running days must be between 1 and " + EVERY_DAY);
+        }
+    }
+
+    private static int minuteOf(int day, LocalTime time) {
+        return time == null ? -1 : day * 24 * 60 + time.getHour() * 60 + time.getMinute();
+    }
+
+    private static TrainStopDTO toDTO(StopRow row) {
+        TrainStopDTO dto = new TrainStopDTO();
+        dto.setStopSequence(row.sequence());
+        dto.setStationId(row.stationId());
+        dto.setArrivalTime(row.arrival());
+        dto.setDepartureTime(row.departure());
+        dto.setArrivalDay(row.arrivalDay());
+        dto.setDepartureDay(row.departureDay());
+        dto.setDistanceKm(row.distanceKm());
+        return dto;
+    }
+}
@@ -0,0 +1,108 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.VendorNoticeDTO;
+import com.railswad.deliveryservice.event.OrdersCancelledEvent;
+import com.railswad.deliveryservice.event.OrdersRetimedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recent notices for each vendor's kitchen queue, such as orders moved by a train delay or cancelled with
+ * their train, which vendor apps poll with the last sequence they saw. Notices live in memory on the instance
+ * that raised them and only the newest few per vendor are kept; the order tracking rows remain the durable
+ * record.
+ */
+@Service
+public class VendorNoticeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VendorNoticeService.class);
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("dd MMM HH:mm");
+
+    @Autowired
+    private VendorOwnershipService vendorOwnershipService;
+
+    @Value("${vendor.notice.max-per-vendor:200}")
+    private int maxPerVendor;
+
+    // Starts from the boot time, with room for a thousand notices a millisecond, so an app still holding a
+    // sequence from before a restart keeps receiving new notices instead of waiting for the count to catch up.
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final Map<Long, Deque<VendorNoticeDTO>> notices = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener
+    public void onOrdersRetimed(OrdersRetimedEvent event) {
+        ZonedDateTime now = ZonedDateTime.now();
+        event.getOrdersByVendor().forEach((vendorId, orders) -> {
+            for (OrdersRetimedEvent.RetimedOrder order : orders) {
+                add(vendorId, "ORDER_RETIMED", order.getOrderId(), order.getDeliveryTime(), "Train " + event.getTrainNumber()
+                        + " is " + order.getDelayMinutes() + " min late; deliver order " + order.getOrderId() + " at "
+                        + order.getDeliveryTime().format(TIME), now);
+            }
+        });
+        logger.debug("Queued re-timing notices for {} vendors of train {}", event.getOrdersByVendor().size(), event.getTrainNumber());
+    }
+
+    @TransactionalEventListener
+    public void onOrdersCancelled(OrdersCancelledEvent event) {
+        ZonedDateTime now = ZonedDateTime.now();
+        String cause = "Train " + event.getTrainNumber() + " of " + event.getJourneyDate() + " is cancelled"
+                + (event.getReason() != null ? " (" + event.getReason() + ")" : "");
+        event.getOrderIdsByVendor().forEach((vendorId, orderIds) -> {
+            for (Long orderId : orderIds) {
+                add(vendorId, "ORDER_CANCELLED", orderId, null, cause + "; order " + orderId + " is cancelled", now);
+            }
+        });
+    }
+
+    public void add(Long vendorId, String type, Long orderId, ZonedDateTime deliveryTime, String message, ZonedDateTime now) {
+        Deque<VendorNoticeDTO> queue = notices.computeIfAbsent(vendorId, id -> new ArrayDeque<>());
+        synchronized (queue) {
+            // Sequences are drawn under the vendor's queue lock, so each queue stays in sequence order.
+            queue.addLast(new VendorNoticeDTO(sequence.incrementAndGet(), type, orderId, deliveryTime, message, now));
+            while (queue.size() > maxPerVendor) {
+                queue.removeFirst();
+            }
+        }
+    }
+
+    /** Notices of the vendor newer than {@code since}, oldest first. */
+    public List<VendorNoticeDTO> getNotices(Long vendorId, long since) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = auth.getAuthorities().stream()
+                .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_ADMIN"));
+        if (!isAdmin && !vendorOwnershipService.isOwner(auth, vendorId)) {
+            logger.error("User {} not authorized to read notices of vendor ID: {}", auth.getName(), vendorId);
+            throw new SecurityException("User not authorized to read this vendor's notices");
+        }
+        Deque<VendorNoticeDTO> queue = notices.get(vendorId);
+        if (queue == null) {
+            return List.of();
+        }
+        List<VendorNoticeDTO> newer = new ArrayList<>();
+        synchronized (queue) {
+            for (VendorNoticeDTO notice : queue) {
+                if (notice.getSequence() > since) {
+                    newer.add(notice);
+                }
+            }
+        }
+        return newer;
+    }
+}
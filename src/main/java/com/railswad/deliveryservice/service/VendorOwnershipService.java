@@ -0,0 +1,85 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.repository.UserRepository;
+import com.railswad.deliveryservice.repository.VendorRepository;
+import com.railswad.deliveryservice.security.AuthenticatedUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Vendor ownership as carried in access tokens. A token lists the vendor ids its user owned at login along
+ * with the user's ownership version; {@link VendorService} raises that version whenever a vendor is assigned
+ * to or taken from the user, which retires older tokens for ownership checks. Versions above zero are held
+ * in memory, keeping checks off the database. A revocation applies on the instance that made it once its
+ * transaction commits, and on other instances only after their next re-read, so for up to
+ * {@code auth.ownership.refresh-ms} a token there can still manage a vendor its user no longer owns.
+ */
+@Service
+public class VendorOwnershipService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VendorOwnershipService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${auth.ownership.refresh-ms:5000}", initialDelayString = "${auth.ownership.refresh-ms:5000}")
+    public void loadVersions() {
+        for (Object[] row : userRepository.findOwnershipVersions()) {
+            versions.merge((Long) row[0], (Long) row[1], Math::max);
+        }
+        logger.debug("Tracking ownership versions for {} users", versions.size());
+    }
+
+    public long currentVersion(Long userId) {
+        return versions.getOrDefault(userId, 0L);
+    }
+
+    public List<Long> findOwnedVendorIds(Long userId) {
+        return vendorRepository.findVendorIdsByUserId(userId);
+    }
+
+    /** Raises the user's ownership version; the new version takes effect locally once the transaction commits. */
+    @Transactional
+    public void revoke(Long userId) {
+        userRepository.incrementOwnershipVersion(userId);
+        long version = userRepository.findOwnershipVersion(userId).orElse(0L);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versions.merge(userId, version, Math::max);
+                logger.info("Ownership version for user ID {} advanced to {}", userId, version);
+            }
+        });
+    }
+
+    /** Whether the caller may manage the vendor, judged from their token claims alone. */
+    public boolean isOwner(Authentication auth, Long vendorId) {
+        if (!(auth.getPrincipal() instanceof AuthenticatedUser user) || user.getUserId() == null) {
+            return false;
+        }
+        if (user.getOwnershipVersion() < currentVersion(user.getUserId())) {
+            logger.warn("Rejecting stale ownership claims of user {} at version {}", user.getName(), user.getOwnershipVersion());
+            return false;
+        }
+        return user.getVendorIds().contains(vendorId);
+    }
+}
@@ -0,0 +1,173 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.event.OrderCreatedEvent;
+import com.railswad.deliveryservice.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Open orders per vendor kitchen, held in memory with their delivery times: seeded from one query, moved by
+ * order creation and status changes after they commit, and re-seeded periodically to absorb changes made
+ * on other instances. Changes that commit while a re-seed is reading are replayed onto its result before it
+ * replaces the queues, so they are not lost until the next one. A new order waits only behind the open orders due before it, so pre-orders for later
+ * trains do not make a kitchen look busy now.
+ */
+@Service
+public class VendorQueueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VendorQueueService.class);
+
+    /** Statuses after which an order no longer occupies the kitchen. */
+    public static final Set<String> CLOSED_STATUSES = Set.of("DELIVERED", "CANCELLED", "REJECTED", "REFUNDED", "FAILED");
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // Vendor to its open orders' delivery times by order ID.
+    private volatile Map<Long, Map<Long, ZonedDateTime>> queues = new ConcurrentHashMap<>();
+
+    // Guards the swap of the queues against changes applied at the same time.
+    private final Object changeLock = new Object();
+
+    // Changes applied since the running re-seed started reading, in order; null when none is running.
+    private List<Consumer<Map<Long, Map<Long, ZonedDateTime>>>> pending;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${order.queue.resync-ms:60000}", initialDelayString = "${order.queue.resync-ms:60000}")
+    public synchronized void resync() {
+        synchronized (changeLock) {
+            pending = new ArrayList<>();
+        }
+        try {
+            Map<Long, Map<Long, ZonedDateTime>> fresh = new ConcurrentHashMap<>();
+            List<Object[]> rows = orderRepository.findOpenOrderDeliveryTimes(CLOSED_STATUSES);
+            for (Object[] row : rows) {
+                fresh.computeIfAbsent((Long) row[0], id -> new ConcurrentHashMap<>()).put((Long) row[1], (ZonedDateTime) row[2]);
+            }
+            synchronized (changeLock) {
+                // The query may or may not have seen these; adding and removing again is harmless either way.
+                pending.forEach(change -> change.accept(fresh));
+                queues = fresh;
+            }
+            logger.debug("Kitchen queues re-seeded with {} open orders of {} vendors", rows.size(), fresh.size());
+        } finally {
+            synchronized (changeLock) {
+                pending = null;
+            }
+        }
+    }
+
+    public int getDepth(Long vendorId) {
+        Map<Long, ZonedDateTime> queue = queues.get(vendorId);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /** Open orders of the vendor due no later than the given time, which the kitchen works through first. */
+    public int getDepthDueBy(Long vendorId, ZonedDateTime due) {
+        Map<Long, ZonedDateTime> queue = queues.get(vendorId);
+        if (queue == null) {
+            return 0;
+        }
+        int depth = 0;
+        for (ZonedDateTime deliveryTime : queue.values()) {
+            if (!deliveryTime.isAfter(due)) {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    /** Open orders of every vendor that has any. */
+    public Map<Long, Integer> getDepths() {
+        Map<Long, Integer> snapshot = new HashMap<>();
+        queues.forEach((vendorId, queue) -> {
+            if (!queue.isEmpty()) {
+                snapshot.put(vendorId, queue.size());
+            }
+        });
+        return snapshot;
+    }
+
+    @TransactionalEventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        add(event.getVendorId(), event.getOrderId(), event.getDeliveryTime());
+    }
+
+    /** Records a status change of one of the vendor's orders once the surrounding transaction commits. */
+    public void statusChanged(Long vendorId, Long orderId, ZonedDateTime deliveryTime, String from, String to) {
+        boolean open = isOpen(to);
+        if (isOpen(from) == open) {
+            return;
+        }
+        afterCommit(() -> {
+            if (open) {
+                add(vendorId, orderId, deliveryTime);
+            } else {
+                remove(vendorId, orderId);
+            }
+        });
+    }
+
+    /** Takes orders closed in bulk off their vendors' queues once the surrounding transaction commits. */
+    public void ordersClosed(Map<Long, List<Long>> orderIdsByVendor) {
+        afterCommit(() -> orderIdsByVendor.forEach((vendorId, orderIds) -> orderIds.forEach(orderId -> remove(vendorId, orderId))));
+    }
+
+    public static boolean isOpen(String status) {
+        return status != null && !CLOSED_STATUSES.contains(status);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void add(Long vendorId, Long orderId, ZonedDateTime deliveryTime) {
+        if (deliveryTime != null) {
+            apply(target -> target.computeIfAbsent(vendorId, id -> new ConcurrentHashMap<>()).put(orderId, deliveryTime));
+        }
+    }
+
+    private void remove(Long vendorId, Long orderId) {
+        apply(target -> {
+            Map<Long, ZonedDateTime> queue = target.get(vendorId);
+            if (queue != null) {
+                queue.remove(orderId);
+            }
+        });
+    }
+
+    private void apply(Consumer<Map<Long, Map<Long, ZonedDateTime>>> change) {
+        synchronized (changeLock) {
+            change.accept(queues);
+            if (pending != null) {
+                pending.add(change);
+            }
+        }
+    }
+}
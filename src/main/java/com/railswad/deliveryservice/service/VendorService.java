@@ -5,14 +5,19 @@ import com.railswad.deliveryservice.entity.Station;
 import com.railswad.deliveryservice.entity.User;
 import com.railswad.deliveryservice.entity.Vendor;
 import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.exception.ServiceException;
 import com.railswad.deliveryservice.repository.StationRepository;
 import com.railswad.deliveryservice.repository.UserRepository;
 import com.railswad.deliveryservice.repository.VendorRepository;
+import com.railswad.deliveryservice.util.GeoShapes;
 import org.jetbrains.annotations.NotNull;
+import org.locationtech.jts.geom.Polygon;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class VendorService {
@@ -26,6 +31,19 @@ public class VendorService {
     @Autowired
     private StationRepository stationRepository;
 
+    @Autowired
+    private MenuCacheService menuCacheService;
+
+    @Autowired
+    private VendorOwnershipService vendorOwnershipService;
+
+    @Autowired
+    private GeoIndexService geoIndexService;
+
+    @Value("${geo.delivery.max-radius-m:50000}")
+    private int maxDeliveryRadiusMeters;
+
+    @Transactional
     public VendorDTO createVendor(VendorDTO vendorDTO) {
         User user = userRepository.findById(vendorDTO.getVendorId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + vendorDTO.getVendorId()));
@@ -33,8 +51,12 @@ public class VendorService {
                 .orElseThrow(() -> new ResourceNotFoundException("Station not found with id: " + vendorDTO.getStationId()));
 
         Vendor vendor = getVendor(vendorDTO, user, station);
+        setDeliveryRadius(vendor, vendorDTO.getDeliveryRadiusMeters());
 
         Vendor savedVendor = vendorRepository.save(vendor);
+        menuCacheService.bumpVersion(savedVendor.getVendorId());
+        vendorOwnershipService.revoke(user.getUserId());
+        geoIndexService.markDirty();
         vendorDTO.setVendorId(savedVendor.getVendorId());
         return vendorDTO;
     }
@@ -57,6 +79,7 @@ public class VendorService {
         return vendor;
     }
 
+    @Transactional
     public VendorDTO updateVendor(Long vendorId, VendorDTO vendorDTO) {
         Vendor vendor = vendorRepository.findById(vendorId)
                 .orElseThrow(() -> new ResourceNotFoundException("Vendor not found with id: " + vendorId));
@@ -74,16 +97,50 @@ public class VendorService {
         vendor.setVerified(vendorDTO.isVerified());
         vendor.setRating(vendorDTO.getRating());
         vendor.setActiveStatus(vendorDTO.isActiveStatus());
+        setDeliveryRadius(vendor, vendorDTO.getDeliveryRadiusMeters());
 
         Vendor updatedVendor = vendorRepository.save(vendor);
+        // Station, name and status feed the station-wide menu indexes.
+        menuCacheService.bumpVersion(vendorId);
+        geoIndexService.markDirty();
         vendorDTO.setVendorId(updatedVendor.getVendorId());
         return vendorDTO;
     }
 
+    private void setDeliveryRadius(Vendor vendor, Integer radiusMeters) {
+        if (radiusMeters != null && (radiusMeters < 0 || radiusMeters > maxDeliveryRadiusMeters)) {
+            throw new ServiceException("INVALID_DELIVERY_RADIUS", "Delivery radius must be between 0 and " + maxDeliveryRadiusMeters + " metres");
+        }
+        vendor.setDeliveryRadiusMeters(radiusMeters);
+        vendor.setDeliveryArea(deliveryArea(vendor.getStation(), radiusMeters));
+    }
+
+    private static Polygon deliveryArea(Station station, Integer radiusMeters) {
+        if (radiusMeters == null || radiusMeters == 0 || station == null
+                || station.getLatitude() == null || station.getLongitude() == null) {
+            return null;
+        }
+        return GeoShapes.circle(station.getLatitude(), station.getLongitude(), radiusMeters);
+    }
+
+    /** Redraws the delivery areas of the station's vendors after the station has moved. */
+    @Transactional
+    public void updateDeliveryAreas(Integer stationId) {
+        for (Vendor vendor : vendorRepository.findByStationStationId(stationId)) {
+            vendor.setDeliveryArea(deliveryArea(vendor.getStation(), vendor.getDeliveryRadiusMeters()));
+        }
+    }
+
+    @Transactional
     public void deleteVendor(Long vendorId) {
         Vendor vendor = vendorRepository.findById(vendorId)
                 .orElseThrow(() -> new ResourceNotFoundException("Vendor not found with id: " + vendorId));
         vendorRepository.delete(vendor);
+        menuCacheService.bumpVersion(vendorId);
+        geoIndexService.markDirty();
+        if (vendor.getUser() != null) {
+            vendorOwnershipService.revoke(vendor.getUser().getUserId());
+        }
     }
 
     public VendorDTO getVendorById(Long vendorId) {
@@ -102,6 +159,7 @@ public class VendorService {
         vendorDTO.setVerified(vendor.getVerified());
         vendorDTO.setRating(vendor.getRating());
         vendorDTO.setActiveStatus(vendor.getActiveStatus());
+        vendorDTO.setDeliveryRadiusMeters(vendor.getDeliveryRadiusMeters());
         return vendorDTO;
     }
 
@@ -120,6 +178,7 @@ public class VendorService {
             vendorDTO.setVerified(vendor.getVerified());
             vendorDTO.setRating(vendor.getRating());
             vendorDTO.setActiveStatus(vendor.getActiveStatus());
+            vendorDTO.setDeliveryRadiusMeters(vendor.getDeliveryRadiusMeters());
             return vendorDTO;
         });
     }
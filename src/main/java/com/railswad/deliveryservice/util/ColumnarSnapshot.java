@@ -0,0 +1,127 @@
+package com.railswad.deliveryservice.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only, memory-mapped view over a file produced by {@link ColumnarSnapshotWriter}.
+ * Column accessors return absolute-indexed buffers, which are safe to share between threads.
+ */
+public class ColumnarSnapshot implements Closeable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+    private final int rowCount;
+    private final Map<String, ColumnInfo> columns = new HashMap<>();
+
+    private ColumnarSnapshot(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot files larger than 2 GB must be split per month");
+        }
+        this.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+        if (mapped.getInt(0) != ColumnarSnapshotWriter.MAGIC || mapped.getInt((int) size - 4) != ColumnarSnapshotWriter.MAGIC) {
+            throw new IOException("Not a columnar snapshot file");
+        }
+        if (mapped.getInt(4) != ColumnarSnapshotWriter.VERSION) {
+            throw new IOException("Unsupported snapshot version: " + mapped.getInt(4));
+        }
+        int footerOffset = (int) mapped.getLong((int) size - 12);
+        byte[] footerBytes = new byte[(int) size - 12 - footerOffset];
+        mapped.get(footerOffset, footerBytes);
+
+        try (DataInputStream footer = new DataInputStream(new ByteArrayInputStream(footerBytes))) {
+            this.rowCount = footer.readInt();
+            int columnCount = footer.readInt();
+            for (int c = 0; c < columnCount; c++) {
+                String name = footer.readUTF();
+                byte type = footer.readByte();
+                int offset = (int) footer.readLong();
+                List<String> dictionary = Collections.emptyList();
+                if (type == ColumnarSnapshotWriter.TYPE_DICTIONARY) {
+                    int dictionarySize = footer.readInt();
+                    dictionary = new ArrayList<>(dictionarySize);
+                    for (int i = 0; i < dictionarySize; i++) {
+                        dictionary.add(footer.readUTF());
+                    }
+                }
+                columns.put(name, new ColumnInfo(type, offset, Collections.unmodifiableList(dictionary)));
+            }
+        }
+    }
+
+    public static ColumnarSnapshot open(Path path) throws IOException {
+        return new ColumnarSnapshot(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public LongBuffer longColumn(String name) {
+        return slice(name, ColumnarSnapshotWriter.TYPE_LONG, 8).asLongBuffer();
+    }
+
+    public IntBuffer intColumn(String name) {
+        return slice(name, ColumnarSnapshotWriter.TYPE_INT, 4).asIntBuffer();
+    }
+
+    public DoubleBuffer doubleColumn(String name) {
+        return slice(name, ColumnarSnapshotWriter.TYPE_DOUBLE, 8).asDoubleBuffer();
+    }
+
+    /** Dictionary codes for a string column; resolve them with {@link #dictionary(String)}. */
+    public IntBuffer codeColumn(String name) {
+        return slice(name, ColumnarSnapshotWriter.TYPE_DICTIONARY, 4).asIntBuffer();
+    }
+
+    public List<String> dictionary(String name) {
+        return info(name, ColumnarSnapshotWriter.TYPE_DICTIONARY).dictionary();
+    }
+
+    /** Returns the dictionary code of a value, or -1 when no row carries it. */
+    public int codeOf(String column, String value) {
+        return dictionary(column).indexOf(value);
+    }
+
+    private ByteBuffer slice(String name, byte type, int width) {
+        ColumnInfo info = info(name, type);
+        return mapped.slice(info.offset(), rowCount * width);
+    }
+
+    private ColumnInfo info(String name, byte type) {
+        ColumnInfo info = columns.get(name);
+        if (info == null) {
+            throw new IllegalArgumentException("Unknown snapshot column: " + name);
+        }
+        if (info.type() != type) {
+            throw new IllegalArgumentException("Column " + name + " has type " + info.type() + ", not " + type);
+        }
+        return info;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private record ColumnInfo(byte type, int offset, List<String> dictionary) {
+    }
+}
@@ -0,0 +1,244 @@
+package com.railswad.deliveryservice.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a snapshot file laid out as one contiguous array per column followed by a footer index.
+ * String columns are dictionary-encoded into int codes; the dictionary lives in the footer.
+ *
+ * <pre>
+ * [magic:int][version:int] [column 0 data] [column 1 data] ... [footer] [footerOffset:long][magic:int]
+ * footer = rowCount:int, columnCount:int, then per column: name:UTF, type:byte, offset:long, (dictionary)
+ * </pre>
+ *
+ * Rows are buffered a row group at a time and each full group is appended to a per-column spill file
+ * next to the snapshot, so heap use stays at one group per column however many rows are written; the
+ * spill files are concatenated into the final layout by {@link #writeTo(Path)}.
+ */
+public class ColumnarSnapshotWriter implements Closeable {
+
+    public static final int MAGIC = 0x52534E50; // "RSNP"
+    public static final int VERSION = 1;
+
+    public static final byte TYPE_LONG = 0;
+    public static final byte TYPE_INT = 1;
+    public static final byte TYPE_DOUBLE = 2;
+    public static final byte TYPE_DICTIONARY = 3;
+
+    public static final int DEFAULT_ROW_GROUP_SIZE = 64 * 1024;
+
+    private final Path spillDirectory;
+    private final int rowGroupSize;
+    private final List<Column> columns = new ArrayList<>();
+    private final Map<String, Column> columnsByName = new HashMap<>();
+    private int rowCount;
+
+    public ColumnarSnapshotWriter(Path spillDirectory) {
+        this(spillDirectory, DEFAULT_ROW_GROUP_SIZE);
+    }
+
+    public ColumnarSnapshotWriter(Path spillDirectory, int rowGroupSize) {
+        this.spillDirectory = spillDirectory;
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    public ColumnarSnapshotWriter longColumn(String name) {
+        return addColumn(new Column(name, TYPE_LONG, 8));
+    }
+
+    public ColumnarSnapshotWriter intColumn(String name) {
+        return addColumn(new Column(name, TYPE_INT, 4));
+    }
+
+    public ColumnarSnapshotWriter doubleColumn(String name) {
+        return addColumn(new Column(name, TYPE_DOUBLE, 8));
+    }
+
+    public ColumnarSnapshotWriter dictionaryColumn(String name) {
+        return addColumn(new Column(name, TYPE_DICTIONARY, 4));
+    }
+
+    private ColumnarSnapshotWriter addColumn(Column column) {
+        if (rowCount > 0) {
+            throw new IllegalStateException("Columns must be declared before rows are appended");
+        }
+        column.group = ByteBuffer.allocate(rowGroupSize * column.width);
+        columns.add(column);
+        columnsByName.put(column.name, column);
+        return this;
+    }
+
+    public void putLong(String name, long value) {
+        append(column(name), value);
+    }
+
+    public void putInt(String name, int value) {
+        append(column(name), value);
+    }
+
+    public void putDouble(String name, double value) {
+        append(column(name), Double.doubleToRawLongBits(value));
+    }
+
+    public void putString(String name, String value) {
+        Column column = column(name);
+        append(column, column.encode(value == null ? "" : value));
+    }
+
+    /** Closes the current row; every column must have been written exactly once for it. */
+    public void endRow() {
+        rowCount++;
+        for (Column column : columns) {
+            if (column.rows != rowCount) {
+                throw new IllegalStateException("Column " + column.name + " has " + column.rows + " values in row " + rowCount);
+            }
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    private Column column(String name) {
+        Column column = columnsByName.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Unknown snapshot column: " + name);
+        }
+        return column;
+    }
+
+    private void append(Column column, long raw) {
+        try {
+            if (!column.group.hasRemaining()) {
+                column.flush(spillDirectory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (column.width == 4) {
+            column.group.putInt((int) raw);
+        } else {
+            column.group.putLong(raw);
+        }
+        column.rows++;
+    }
+
+    /** Writes to a temporary sibling first and moves it into place so readers never map a partial file. */
+    public void writeTo(Path target) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            channel.write(header);
+
+            long[] offsets = new long[columns.size()];
+            for (int c = 0; c < columns.size(); c++) {
+                Column column = columns.get(c);
+                column.flush(spillDirectory);
+                offsets[c] = channel.position();
+                if (column.spill != null) {
+                    long size = column.spill.size();
+                    for (long position = 0; position < size; ) {
+                        position += column.spill.transferTo(position, size - position, channel);
+                    }
+                }
+                // Keep every column 8-byte aligned so long/double views can be sliced directly.
+                long padding = (8 - channel.position() % 8) % 8;
+                if (padding > 0) {
+                    channel.write(ByteBuffer.allocate((int) padding));
+                }
+            }
+
+            long footerOffset = channel.position();
+            ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+            try (DataOutputStream footer = new DataOutputStream(footerBytes)) {
+                footer.writeInt(rowCount);
+                footer.writeInt(columns.size());
+                for (int c = 0; c < columns.size(); c++) {
+                    Column column = columns.get(c);
+                    footer.writeUTF(column.name);
+                    footer.writeByte(column.type);
+                    footer.writeLong(offsets[c]);
+                    if (column.type == TYPE_DICTIONARY) {
+                        footer.writeInt(column.dictionary.size());
+                        for (String entry : column.dictionary) {
+                            footer.writeUTF(entry);
+                        }
+                    }
+                }
+                footer.writeLong(footerOffset);
+                footer.writeInt(MAGIC);
+            }
+            channel.write(ByteBuffer.wrap(footerBytes.toByteArray()));
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        close();
+    }
+
+    /** Deletes the spill files; called by {@link #writeTo(Path)}, and needed only when a write is abandoned. */
+    @Override
+    public void close() throws IOException {
+        for (Column column : columns) {
+            if (column.spill != null) {
+                column.spill.close();
+                column.spill = null;
+                Files.deleteIfExists(column.spillPath);
+            }
+        }
+    }
+
+    private static final class Column {
+        private final String name;
+        private final byte type;
+        private final int width;
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+        private ByteBuffer group;
+        private int rows;
+        private Path spillPath;
+        private FileChannel spill;
+
+        private Column(String name, byte type, int width) {
+            this.name = name;
+            this.type = type;
+            this.width = width;
+        }
+
+        private void flush(Path spillDirectory) throws IOException {
+            if (group.position() == 0) {
+                return;
+            }
+            if (spill == null) {
+                spillPath = Files.createTempFile(spillDirectory, "snapshot-" + name + "-", ".col");
+                spill = FileChannel.open(spillPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            group.flip();
+            while (group.hasRemaining()) {
+                spill.write(group);
+            }
+            group.clear();
+        }
+
+        private int encode(String value) {
+            return codes.computeIfAbsent(value, v -> {
+                dictionary.add(v);
+                return dictionary.size() - 1;
+            });
+        }
+    }
+}
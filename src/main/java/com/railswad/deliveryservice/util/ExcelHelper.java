@@ -1,17 +1,48 @@
 package com.railswad.deliveryservice.util;
 
+import com.railswad.deliveryservice.dto.MenuImportErrorDTO;
 import com.railswad.deliveryservice.dto.MenuItemDTO;
-import org.apache.poi.ss.usermodel.*;
+import com.railswad.deliveryservice.exception.ServiceException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedWriter;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 public class ExcelHelper {
@@ -19,100 +50,302 @@ public class ExcelHelper {
     private static final Logger logger = LoggerFactory.getLogger(ExcelHelper.class);
     public static final String TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
 
+    public static final String CSV_TYPE = "text/csv";
+
+    // Export headers; the reader matches them case-insensitively against COLUMNS, so exported sheets re-upload as is.
+    static final String[] HEADERS = {"categoryName", "itemName", "description", "price", "vegetarian", "available",
+            "preparationTimeMin", "imageUrl", "displayOrder", "availableStartTime", "availableEndTime"};
+
+    static final String[] COLUMNS = {"categoryname", "itemname", "description", "price", "vegetarian", "available",
+            "preparationtimemin", "imageurl", "displayorder", "availablestarttime", "availableendtime"};
+
+    // SXSSF keeps this many rows in memory and flushes older ones to a temp file.
+    private static final int EXPORT_ROW_WINDOW = 200;
+
+    private static final int CATEGORY_NAME = 0, ITEM_NAME = 1, DESCRIPTION = 2, PRICE = 3, VEGETARIAN = 4, AVAILABLE = 5,
+            PREPARATION_TIME = 6, IMAGE_URL = 7, DISPLAY_ORDER = 8, START_TIME = 9, END_TIME = 10;
+
+    private static final int MAX_ERRORS_IN_MESSAGE = 20;
+
+    /** Receives each parsed data row with its 1-based sheet row number. */
+    @FunctionalInterface
+    public interface MenuRowHandler {
+        void onRow(int rowNumber, MenuItemDTO dto);
+    }
+
     public boolean hasExcelFormat(MultipartFile file) {
         boolean isExcel = TYPE.equals(file.getContentType());
         logger.info("Checking file format: {}. Is Excel: {}", file.getContentType(), isExcel);
         return isExcel;
     }
 
+    /**
+     * Parses the whole sheet into DTOs. Every bad row is reported in a single {@code INVALID_MENU_FILE}
+     * error instead of stopping at the first one.
+     */
     public List<MenuItemDTO> excelToMenuItemDTOs(InputStream is) throws IOException {
-        logger.info("Starting Excel file parsing");
         List<MenuItemDTO> menuItemDTOs = new ArrayList<>();
-        Workbook workbook = null;
+        List<MenuImportErrorDTO> errors = readMenuItems(is, (rowNumber, dto) -> menuItemDTOs.add(dto));
+        if (!errors.isEmpty()) {
+            throw new ServiceException("INVALID_MENU_FILE", describeErrors(errors));
+        }
+        return menuItemDTOs;
+    }
 
+    /**
+     * Streams the first sheet through POI's SAX reader, handing each row to {@code handler} as it is read,
+     * so heap use stays flat regardless of the number of rows. An {@link IllegalArgumentException} thrown by
+     * the handler is recorded against that row like a parse error. Returns all row errors in sheet order.
+     */
+    public List<MenuImportErrorDTO> readMenuItems(InputStream is, MenuRowHandler handler) throws IOException {
+        // OPCPackage inflates every part into memory when opened from a stream; from a file it reads parts lazily.
+        Path spool = Files.createTempFile("menu-import-", ".xlsx");
         try {
-            workbook = WorkbookFactory.create(is);
-            Sheet sheet = workbook.getSheetAt(0);
-            DataFormatter formatter = new DataFormatter();
-
-            Iterator<Row> rowIterator = sheet.iterator();
-            if (!rowIterator.hasNext()) {
-                logger.warn("Excel sheet is empty");
-                return menuItemDTOs;
+            Files.copy(is, spool, StandardCopyOption.REPLACE_EXISTING);
+            return readMenuItems(spool.toFile(), handler);
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    public List<MenuImportErrorDTO> readMenuItems(File file, MenuRowHandler handler) throws IOException {
+        logger.info("Starting streaming Excel parsing of {}", file.getName());
+        long started = System.nanoTime();
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                logger.warn("Excel workbook has no sheets");
+                return Collections.emptyList();
             }
 
-            // Step 1: Read header row
-            Row headerRow = rowIterator.next();
-            Map<String, Integer> headerMap = new HashMap<>();
-            for (Cell cell : headerRow) {
-                String header = formatter.formatCellValue(cell).trim().toLowerCase();
-                headerMap.put(header, cell.getColumnIndex());
+            MenuSheetHandler sheetHandler = new MenuSheetHandler(handler);
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, sheetHandler, new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
             }
 
-            logger.info("Header columns found: {}", headerMap.keySet());
+            logger.info("Parsed {} menu rows from Excel in {} ms with {} errors", sheetHandler.rowsRead,
+                    (System.nanoTime() - started) / 1_000_000, sheetHandler.errors.size());
+            return sheetHandler.errors;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Unreadable Excel file: " + e.getMessage(), e);
+        }
+    }
 
-            // Step 2: Read data rows
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                MenuItemDTO dto = new MenuItemDTO();
+    /** Writes items as an XLSX sheet in the upload layout, holding only a small window of rows in memory. */
+    public void writeMenuItemsXlsx(Stream<MenuItemDTO> items, OutputStream os) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXPORT_ROW_WINDOW);
+        try {
+            workbook.setCompressTempFiles(true);
+            Sheet sheet = workbook.createSheet("Menu");
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < HEADERS.length; i++) {
+                header.createCell(i).setCellValue(HEADERS[i]);
+            }
+            int[] rowNum = {1};
+            items.forEach(item -> {
+                Row row = sheet.createRow(rowNum[0]++);
+                row.createCell(CATEGORY_NAME).setCellValue(item.getCategoryName());
+                row.createCell(ITEM_NAME).setCellValue(item.getItemName());
+                setIfPresent(row, DESCRIPTION, item.getDescription());
+                if (item.getPrice() != null) {
+                    row.createCell(PRICE).setCellValue(item.getPrice().doubleValue());
+                }
+                row.createCell(VEGETARIAN).setCellValue(String.valueOf(item.isVegetarian()));
+                row.createCell(AVAILABLE).setCellValue(String.valueOf(item.isAvailable()));
+                if (item.getPreparationTimeMin() != null) {
+                    row.createCell(PREPARATION_TIME).setCellValue(item.getPreparationTimeMin());
+                }
+                setIfPresent(row, IMAGE_URL, item.getImageUrl());
+                if (item.getDisplayOrder() != null) {
+                    row.createCell(DISPLAY_ORDER).setCellValue(item.getDisplayOrder());
+                }
+                // Times go out as ISO text so they parse back with LocalTime.parse whatever the reader's locale.
+                setIfPresent(row, START_TIME, item.getAvailableStartTime() == null ? null : item.getAvailableStartTime().toString());
+                setIfPresent(row, END_TIME, item.getAvailableEndTime() == null ? null : item.getAvailableEndTime().toString());
+            });
+            workbook.write(os);
+            logger.info("Exported {} menu rows to Excel", rowNum[0] - 1);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
 
-                try {
-                    dto.setCategoryName(getValue(formatter, row, headerMap, "categoryname"));
-                    dto.setItemName(getValue(formatter, row, headerMap, "itemname"));
-                    dto.setDescription(getValue(formatter, row, headerMap, "description"));
+    /** Writes items as RFC 4180 CSV in the upload layout; each row is flushed through as it is read. */
+    public void writeMenuItemsCsv(Stream<MenuItemDTO> items, OutputStream os) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+        writer.write(String.join(",", HEADERS));
+        writer.write("\r\n");
+        int rows = 0;
+        for (Iterator<MenuItemDTO> it = items.iterator(); it.hasNext(); rows++) {
+            MenuItemDTO item = it.next();
+            String[] values = {csvText(item.getCategoryName()), csvText(item.getItemName()), csvText(item.getDescription()),
+                    item.getPrice() == null ? null : item.getPrice().toPlainString(),
+                    String.valueOf(item.isVegetarian()), String.valueOf(item.isAvailable()),
+                    item.getPreparationTimeMin() == null ? null : item.getPreparationTimeMin().toString(),
+                    csvText(item.getImageUrl()),
+                    item.getDisplayOrder() == null ? null : item.getDisplayOrder().toString(),
+                    item.getAvailableStartTime() == null ? null : item.getAvailableStartTime().toString(),
+                    item.getAvailableEndTime() == null ? null : item.getAvailableEndTime().toString()};
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvField(values[i]));
+            }
+            writer.write("\r\n");
+        }
+        writer.flush();
+        logger.info("Exported {} menu rows to CSV", rows);
+    }
 
-                    String priceStr = getValue(formatter, row, headerMap, "price");
-                    dto.setPrice(priceStr.isEmpty() ? null : new BigDecimal(priceStr));
+    private static void setIfPresent(Row row, int column, String value) {
+        if (value != null) {
+            row.createCell(column).setCellValue(value);
+        }
+    }
 
-                    String vegetarianStr = getValue(formatter, row, headerMap, "vegetarian");
-                    dto.setVegetarian(vegetarianStr.equalsIgnoreCase("true"));
+    /**
+     * Vendor-entered text that a spreadsheet would read as a formula gets a leading apostrophe, which makes
+     * it plain text. XLSX needs no such guard: its cells are written as string cells and never evaluated.
+     */
+    private static String csvText(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r'
+                ? "'" + value : value;
+    }
 
-                    String availableStr = getValue(formatter, row, headerMap, "available");
-                    dto.setAvailable(availableStr.equalsIgnoreCase("true"));
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
 
-                    String prepTime = getValue(formatter, row, headerMap, "preparationtimemin");
-                    dto.setPreparationTimeMin(prepTime.isEmpty() ? null : Integer.parseInt(prepTime));
+    /** Summarises row errors for an error response, listing the first few in full. */
+    public static String describeErrors(List<MenuImportErrorDTO> errors) {
+        String listed = errors.stream()
+                .limit(MAX_ERRORS_IN_MESSAGE)
+                .map(error -> "row " + error.getRow() + ": " + error.getMessage())
+                .collect(Collectors.joining("; "));
+        int remaining = errors.size() - MAX_ERRORS_IN_MESSAGE;
+        return errors.size() + " invalid rows: " + listed + (remaining > 0 ? "; and " + remaining + " more" : "");
+    }
 
-                    dto.setImageUrl(getValue(formatter, row, headerMap, "imageurl"));
+    /** Maps header names to column indexes once, then reuses one value buffer for every row. */
+    private static final class MenuSheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
 
-                    String orderStr = getValue(formatter, row, headerMap, "displayorder");
-                    dto.setDisplayOrder(orderStr.isEmpty() ? 0 : Integer.parseInt(orderStr));
+        private final MenuRowHandler handler;
+        private final List<MenuImportErrorDTO> errors = new ArrayList<>();
+        private final int[] columnOf = new int[COLUMNS.length];
+        private String[] values;
+        private boolean headerRead;
+        private boolean blank;
+        private int nextColumn;
+        private int rowsRead;
 
-                    String startTime = getValue(formatter, row, headerMap, "availablestarttime");
-                    dto.setAvailableStartTime(startTime.isEmpty() ? null : LocalTime.parse(startTime));
+        private MenuSheetHandler(MenuRowHandler handler) {
+            this.handler = handler;
+            Arrays.fill(columnOf, -1);
+        }
 
-                    String endTime = getValue(formatter, row, headerMap, "availableendtime");
-                    dto.setAvailableEndTime(endTime.isEmpty() ? null : LocalTime.parse(endTime));
+        @Override
+        public void startRow(int rowNum) {
+            nextColumn = 0;
+            blank = true;
+            if (values != null) {
+                Arrays.fill(values, null);
+            }
+        }
 
-                    menuItemDTOs.add(dto);
-                    logger.debug("Parsed row {}: {}", row.getRowNum() + 1, dto);
-                } catch (Exception e) {
-                    logger.error("Error parsing row {}: {}", row.getRowNum() + 1, e.getMessage());
-                    throw new RuntimeException("Error processing row " + (row.getRowNum() + 1) + ": " + e.getMessage());
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? nextColumn : new CellReference(cellReference).getCol();
+            nextColumn = column + 1;
+            String value = formattedValue == null ? "" : formattedValue.trim();
+            if (!headerRead) {
+                String header = value.toLowerCase();
+                for (int i = 0; i < COLUMNS.length; i++) {
+                    if (COLUMNS[i].equals(header)) {
+                        columnOf[i] = column;
+                    }
                 }
+                return;
+            }
+            if (column < values.length) {
+                values[column] = value;
+                blank &= value.isEmpty();
             }
+        }
 
-            logger.info("Successfully parsed {} menu items from Excel", menuItemDTOs.size());
-            return menuItemDTOs;
-        } finally {
-            if (workbook != null) {
-                try {
-                    workbook.close();
-                    logger.debug("Closed Excel workbook");
-                } catch (IOException e) {
-                    logger.error("Error closing workbook: {}", e.getMessage());
+        @Override
+        public void endRow(int rowNum) {
+            if (!headerRead) {
+                headerRead = true;
+                int width = 0;
+                for (int i = 0; i < COLUMNS.length; i++) {
+                    if (columnOf[i] < 0) {
+                        logger.warn("Column '{}' not found in header", COLUMNS[i]);
+                    }
+                    width = Math.max(width, columnOf[i] + 1);
                 }
+                values = new String[width];
+                return;
+            }
+            if (blank) {
+                return;
+            }
+
+            rowsRead++;
+            int rowNumber = rowNum + 1;
+            try {
+                handler.onRow(rowNumber, toDTO());
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                logger.debug("Error parsing row {}: {}", rowNumber, e.getMessage());
+                errors.add(new MenuImportErrorDTO(rowNumber, e.getMessage()));
             }
         }
-    }
 
-    private String getValue(DataFormatter formatter, Row row, Map<String, Integer> headerMap, String key) {
-        Integer colIndex = headerMap.get(key.toLowerCase());
-        if (colIndex == null) {
-            logger.warn("Column '{}' not found in header", key);
-            return "";
+        private MenuItemDTO toDTO() {
+            MenuItemDTO dto = new MenuItemDTO();
+            dto.setCategoryName(value(CATEGORY_NAME));
+            dto.setItemName(value(ITEM_NAME));
+            dto.setDescription(value(DESCRIPTION));
+
+            String price = value(PRICE);
+            dto.setPrice(price.isEmpty() ? null : new BigDecimal(price));
+            dto.setVegetarian(value(VEGETARIAN).equalsIgnoreCase("true"));
+            dto.setAvailable(value(AVAILABLE).equalsIgnoreCase("true"));
+
+            String prepTime = value(PREPARATION_TIME);
+            dto.setPreparationTimeMin(prepTime.isEmpty() ? null : Integer.parseInt(prepTime));
+            dto.setImageUrl(value(IMAGE_URL));
+
+            String order = value(DISPLAY_ORDER);
+            dto.setDisplayOrder(order.isEmpty() ? 0 : Integer.parseInt(order));
+
+            String startTime = value(START_TIME);
+            dto.setAvailableStartTime(startTime.isEmpty() ? null : LocalTime.parse(startTime));
+            String endTime = value(END_TIME);
+            dto.setAvailableEndTime(endTime.isEmpty() ? null : LocalTime.parse(endTime));
+            return dto;
+        }
+
+        private String value(int field) {
+            int column = columnOf[field];
+            String value = column < 0 ? null : values[column];
+            return value == null ? "" : value;
         }
-        Cell cell = row.getCell(colIndex);
-        return cell == null ? "" : formatter.formatCellValue(cell).trim();
     }
 }
@@ -0,0 +1,63 @@
+package com.railswad.deliveryservice.util;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.util.GeometricShapeFactory;
+
+/**
+ * WGS84 geometries and distances for stations and delivery areas. Coordinates are (longitude, latitude) in
+ * degrees, SRID 4326, as PostGIS stores them; distances are great-circle metres.
+ */
+public final class GeoShapes {
+
+    public static final int SRID = 4326;
+    public static final GeometryFactory FACTORY = new GeometryFactory(new PrecisionModel(), SRID);
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    // Shortest length of a degree of latitude (at the equator), so envelopes err on the large side.
+    private static final double METERS_PER_DEGREE = 110_574;
+    private static final int CIRCLE_POINTS = 32;
+
+    private GeoShapes() {
+    }
+
+    public static boolean isValid(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    public static Point point(double latitude, double longitude) {
+        return FACTORY.createPoint(new Coordinate(longitude, latitude));
+    }
+
+    /** A polygon approximating the circle of the given radius, stretched in longitude for the latitude. */
+    public static Polygon circle(double latitude, double longitude, double radiusMeters) {
+        GeometricShapeFactory shapes = new GeometricShapeFactory(FACTORY);
+        shapes.setCentre(new Coordinate(longitude, latitude));
+        shapes.setWidth(2 * radiusMeters / (METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude))));
+        shapes.setHeight(2 * radiusMeters / METERS_PER_DEGREE);
+        shapes.setNumPoints(CIRCLE_POINTS);
+        return shapes.createEllipse();
+    }
+
+    /** A lon/lat box containing every point within the radius; wider than needed, never narrower. */
+    public static Envelope envelope(double latitude, double longitude, double radiusMeters) {
+        double latDelta = radiusMeters / METERS_PER_DEGREE;
+        double farLatitude = Math.min(90, Math.abs(latitude) + latDelta);
+        double cos = Math.cos(Math.toRadians(farLatitude));
+        double lonDelta = cos > 1e-6 ? Math.min(180, latDelta / cos) : 180;
+        return new Envelope(longitude - lonDelta, longitude + lonDelta,
+                Math.max(-90, latitude - latDelta), Math.min(90, latitude + latDelta));
+    }
+
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
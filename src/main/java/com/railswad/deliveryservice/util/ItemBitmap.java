@@ -0,0 +1,99 @@
+package com.railswad.deliveryservice.util;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Fixed-size bitmap over dense item numbers, one bit per item in a {@code long[]}. Combining bitmaps
+ * works word by word on the calling thread; a station's menu is a few thousand items, a few dozen words.
+ */
+public final class ItemBitmap {
+
+    private final int size;
+    private final long[] words;
+
+    public ItemBitmap(int size) {
+        this.size = size;
+        this.words = new long[(size + 63) >>> 6];
+    }
+
+    private ItemBitmap(int size, long[] words) {
+        this.size = size;
+        this.words = words;
+    }
+
+    public ItemBitmap copy() {
+        return new ItemBitmap(size, words.clone());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void set(int item) {
+        words[item >>> 6] |= 1L << item;
+    }
+
+    public boolean get(int item) {
+        return (words[item >>> 6] & (1L << item)) != 0;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                action.accept((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /** Intersection of all the bitmaps, which must share one size. */
+    public static ItemBitmap and(List<ItemBitmap> bitmaps) {
+        ItemBitmap first = bitmaps.get(0);
+        long[] result = first.words.clone();
+        for (int i = 1; i < bitmaps.size(); i++) {
+            long[] other = bitmaps.get(i).words;
+            for (int w = 0; w < result.length; w++) {
+                result[w] &= other[w];
+            }
+        }
+        return new ItemBitmap(first.size, result);
+    }
+
+    /** Union of all the bitmaps, which must share one size. */
+    public static ItemBitmap or(int size, List<ItemBitmap> bitmaps) {
+        long[] result = new long[(size + 63) >>> 6];
+        for (ItemBitmap bitmap : bitmaps) {
+            for (int w = 0; w < result.length; w++) {
+                result[w] |= bitmap.words[w];
+            }
+        }
+        return new ItemBitmap(size, result);
+    }
+
+    public ItemBitmap not() {
+        long[] result = new long[words.length];
+        for (int w = 0; w < words.length; w++) {
+            result[w] = ~words[w];
+        }
+        ItemBitmap complement = new ItemBitmap(size, result);
+        complement.clearTail();
+        return complement;
+    }
+
+    private void clearTail() {
+        int tail = size & 63;
+        if (tail != 0) {
+            words[words.length - 1] &= (1L << tail) - 1;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.railswad.deliveryservice.util;
+
+/** Column names shared by the order snapshot exporter and the query engine. */
+public final class OrderSnapshotColumns {
+
+    public static final String ORDER_ID = "order_id";
+    public static final String CREATED_AT = "created_at"; // epoch seconds
+    public static final String VENDOR = "vendor";
+    public static final String STATION = "station";
+    public static final String STATUS = "status";
+    public static final String FINAL_AMOUNT = "final_amount";
+
+    public static final String ITEM_ID = "item_id";
+    public static final String QUANTITY = "quantity";
+    public static final String UNIT_PRICE = "unit_price";
+
+    private OrderSnapshotColumns() {
+    }
+}
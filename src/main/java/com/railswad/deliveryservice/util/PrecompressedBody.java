@@ -0,0 +1,133 @@
+package com.railswad.deliveryservice.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A JSON response body encoded once, held as identity and gzip bytes in read-only heap buffers. Bodies are
+ * replaced on every menu version, so they are short-lived garbage rather than long-lived native memory.
+ * The ETag is a digest of the JSON; the gzip variant carries its own tag, as a different representation must.
+ */
+public final class PrecompressedBody {
+
+    private final long version;
+    private final String etag;
+    private final String gzipEtag;
+    private final ByteBuffer identity;
+    private final ByteBuffer gzip;
+
+    private PrecompressedBody(long version, String etag, ByteBuffer identity, ByteBuffer gzip) {
+        this.version = version;
+        this.etag = "\"" + etag + "\"";
+        this.gzipEtag = "\"" + etag + "-gz\"";
+        this.identity = identity;
+        this.gzip = gzip;
+    }
+
+    public static PrecompressedBody encode(long version, byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, json.length / 6));
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new PrecompressedBody(version, digest(json), readOnly(json), readOnly(compressed.toByteArray()));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getGzipSize() {
+        return gzip.capacity();
+    }
+
+    public int getIdentitySize() {
+        return identity.capacity();
+    }
+
+    /** Answers 304 on a matching If-None-Match, otherwise writes the best encoding the client accepts. */
+    public void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean useGzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String tag = useGzip ? gzipEtag : etag;
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.ETAG, tag);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        ByteBuffer body = (useGzip ? gzip : identity).duplicate();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.remaining());
+        if (useGzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        while (body.hasRemaining()) {
+            channel.write(body);
+        }
+    }
+
+    private boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] coding = part.trim().split(";");
+            if (coding[0].trim().equalsIgnoreCase("gzip") || coding[0].trim().equals("*")) {
+                return coding.length < 2 || !coding[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static ByteBuffer readOnly(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    private static String digest(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.railswad.deliveryservice.util;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Filter and group-by over a memory-mapped {@link ColumnarSnapshot}. Row ranges are split across
+ * the fork/join pool, each task aggregates into its own map, and partial maps are merged on join.
+ */
+public class SnapshotQueryEngine {
+
+    private static final int SPLIT_THRESHOLD = 64 * 1024;
+
+    private final ForkJoinPool pool;
+
+    public SnapshotQueryEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SnapshotQueryEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @FunctionalInterface
+    public interface RowFilter {
+        boolean test(int row);
+    }
+
+    @FunctionalInterface
+    public interface RowKey {
+        long key(int row);
+    }
+
+    public static final class Aggregate {
+        private long count;
+        private double sum;
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getSum() {
+            return sum;
+        }
+
+        private void merge(Aggregate other) {
+            count += other.count;
+            sum += other.sum;
+        }
+    }
+
+    public Map<Long, Aggregate> groupBy(ColumnarSnapshot snapshot, RowFilter filter, RowKey key, String sumColumn) {
+        DoubleBuffer values = snapshot.doubleColumn(sumColumn);
+        return pool.invoke(new GroupByTask(filter, key, values, 0, snapshot.getRowCount()));
+    }
+
+    /**
+     * Revenue by delivery station and hour of day for orders created in {@code [from, to)}.
+     * Keys are {@code "<stationCode>@<hour>"}, ordered by station then hour. Hours are local to {@code zone},
+     * with each row taking the offset in force at its own timestamp, so a range across a DST change buckets
+     * the rows on both sides correctly.
+     */
+    public Map<String, Aggregate> revenueByStationByHour(ColumnarSnapshot snapshot, Instant from, Instant to, ZoneId zone) {
+        LongBuffer createdAt = snapshot.longColumn(OrderSnapshotColumns.CREATED_AT);
+        IntBuffer station = snapshot.codeColumn(OrderSnapshotColumns.STATION);
+        long fromSeconds = from.getEpochSecond();
+        long toSeconds = to.getEpochSecond();
+        OffsetTimeline offsets = OffsetTimeline.of(zone, from, to);
+
+        Map<Long, Aggregate> grouped = groupBy(snapshot,
+                row -> {
+                    long ts = createdAt.get(row);
+                    return ts >= fromSeconds && ts < toSeconds;
+                },
+                row -> {
+                    long ts = createdAt.get(row);
+                    return ((long) station.get(row) << 5) | Math.floorMod(ts + offsets.at(ts), 86_400L) / 3_600L;
+                },
+                OrderSnapshotColumns.FINAL_AMOUNT);
+
+        Map<String, Aggregate> result = new LinkedHashMap<>();
+        var dictionary = snapshot.dictionary(OrderSnapshotColumns.STATION);
+        new TreeMap<>(grouped).forEach((k, aggregate) ->
+                result.put(dictionary.get((int) (k >> 5)) + "@" + (k & 31), aggregate));
+        return result;
+    }
+
+    /** The zone's UTC offsets over a range, as the few transitions in it, so per-row lookups don't allocate. */
+    private record OffsetTimeline(long[] startSeconds, int[] offsetSeconds) {
+
+        static OffsetTimeline of(ZoneId zone, Instant from, Instant to) {
+            ZoneRules rules = zone.getRules();
+            List<ZoneOffsetTransition> transitions = new ArrayList<>();
+            for (ZoneOffsetTransition t = rules.nextTransition(from); t != null && t.getInstant().isBefore(to);
+                 t = rules.nextTransition(t.getInstant())) {
+                transitions.add(t);
+            }
+            long[] starts = new long[transitions.size() + 1];
+            int[] offsets = new int[transitions.size() + 1];
+            starts[0] = Long.MIN_VALUE;
+            offsets[0] = rules.getOffset(from).getTotalSeconds();
+            for (int i = 0; i < transitions.size(); i++) {
+                starts[i + 1] = transitions.get(i).getInstant().getEpochSecond();
+                offsets[i + 1] = transitions.get(i).getOffsetAfter().getTotalSeconds();
+            }
+            return new OffsetTimeline(starts, offsets);
+        }
+
+        int at(long epochSecond) {
+            int i = startSeconds.length - 1;
+            while (i > 0 && epochSecond < startSeconds[i]) {
+                i--;
+            }
+            return offsetSeconds[i];
+        }
+    }
+
+    private static final class GroupByTask extends RecursiveTask<Map<Long, Aggregate>> {
+        private final RowFilter filter;
+        private final RowKey key;
+        private final DoubleBuffer values;
+        private final int from;
+        private final int to;
+
+        private GroupByTask(RowFilter filter, RowKey key, DoubleBuffer values, int from, int to) {
+            this.filter = filter;
+            this.key = key;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Long, Aggregate> compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                Map<Long, Aggregate> partial = new HashMap<>();
+                for (int row = from; row < to; row++) {
+                    if (filter.test(row)) {
+                        Aggregate aggregate = partial.computeIfAbsent(key.key(row), k -> new Aggregate());
+                        aggregate.count++;
+                        aggregate.sum += values.get(row);
+                    }
+                }
+                return partial;
+            }
+            int mid = (from + to) >>> 1;
+            GroupByTask left = new GroupByTask(filter, key, values, from, mid);
+            left.fork();
+            Map<Long, Aggregate> right = new GroupByTask(filter, key, values, mid, to).compute();
+            Map<Long, Aggregate> merged = left.join();
+            right.forEach((k, aggregate) -> merged.merge(k, aggregate, (a, b) -> {
+                a.merge(b);
+                return a;
+            }));
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+--liquibase formatted sql
+
+--changeset ashish:10-postgis
+CREATE EXTENSION IF NOT EXISTS postgis;
+
+--changeset ashish:10-station-location
+ALTER TABLE stations ADD COLUMN IF NOT EXISTS location geometry(Point, 4326);
+UPDATE stations SET location = ST_SetSRID(ST_MakePoint(longitude, latitude), 4326)
+    WHERE location IS NULL AND latitude IS NOT NULL AND longitude IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_stations_location ON stations USING GIST (location);
+
+--changeset ashish:10-vendor-delivery-area
+-- delivery_area is a circle of delivery_radius_m around the vendor's station, kept in step by the application.
+ALTER TABLE vendors ADD COLUMN IF NOT EXISTS delivery_radius_m INTEGER;
+ALTER TABLE vendors ADD COLUMN IF NOT EXISTS delivery_area geometry(Polygon, 4326);
+CREATE INDEX IF NOT EXISTS idx_vendors_delivery_area ON vendors USING GIST (delivery_area);
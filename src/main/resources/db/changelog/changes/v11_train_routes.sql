@@ -0,0 +1,22 @@
+--liquibase formatted sql
+
+--changeset ashish:11-train-running-days
+-- Bit 0 is Monday through bit 6 for Sunday: the weekdays on which the train leaves its origin.
+ALTER TABLE trains ADD COLUMN IF NOT EXISTS running_days SMALLINT NOT NULL DEFAULT 127;
+
+--changeset ashish:11-train-stops
+-- Times are local station times; the day columns count days after the train leaves its origin, so a
+-- halt that spans midnight has departure_day = arrival_day + 1. The origin has no arrival and the
+-- terminus no departure.
+CREATE TABLE IF NOT EXISTS train_stops (
+    train_id INTEGER NOT NULL REFERENCES trains (train_id) ON DELETE CASCADE,
+    stop_sequence SMALLINT NOT NULL,
+    station_id INTEGER NOT NULL REFERENCES stations (station_id),
+    arrival_time TIME,
+    departure_time TIME,
+    arrival_day SMALLINT NOT NULL DEFAULT 0,
+    departure_day SMALLINT NOT NULL DEFAULT 0,
+    distance_km INTEGER,
+    PRIMARY KEY (train_id, stop_sequence)
+);
+CREATE INDEX IF NOT EXISTS idx_train_stops_station ON train_stops (station_id);
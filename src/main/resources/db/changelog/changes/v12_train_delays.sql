@@ -0,0 +1,26 @@
+--liquibase formatted sql
+
+--changeset ashish:12-train-delays
+-- Latest reported running delay of a train run at a station; the run is named by the date it leaves
+-- its origin. A delay holds for the stops after the station until a later station reports.
+CREATE TABLE IF NOT EXISTS train_delays (
+    train_id INTEGER NOT NULL REFERENCES trains (train_id) ON DELETE CASCADE,
+    journey_date DATE NOT NULL,
+    station_id INTEGER NOT NULL REFERENCES stations (station_id),
+    delay_minutes INTEGER NOT NULL,
+    reported_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (train_id, journey_date, station_id)
+);
+CREATE INDEX IF NOT EXISTS idx_train_delays_journey_date ON train_delays (journey_date);
+
+--changeset ashish:12-orders-applied-delay
+-- The delay already added to delivery_time, so re-timing can find an order's scheduled slot and apply
+-- only the difference.
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS applied_delay_minutes INTEGER NOT NULL DEFAULT 0;
+
+--changeset ashish:12-orders-train-delivery-idx
+-- Left pending rather than marked ran while orders does not exist yet, so a later startup builds it.
+--preconditions onFail:CONTINUE
+--precondition-sql-check expectedResult:1 SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'orders'
+CREATE INDEX IF NOT EXISTS idx_orders_train_delivery_time ON orders (train_id, delivery_time);
+
@@ -0,0 +1,39 @@
+--liquibase formatted sql
+
+--changeset ashish:13-orders-payment-reference
+-- Gateway payment id of a captured payment, needed to refund it.
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS payment_reference VARCHAR(64);
+
+--changeset ashish:13-train-cancellation-jobs
+-- One job per cancelled run; the unique key makes a repeated cancellation resume the existing job.
+CREATE TABLE IF NOT EXISTS train_cancellation_jobs (
+    job_id VARCHAR(36) PRIMARY KEY,
+    train_id INTEGER NOT NULL REFERENCES trains (train_id),
+    journey_date DATE NOT NULL,
+    reason VARCHAR(255),
+    status VARCHAR(20) NOT NULL,
+    orders_cancelled INTEGER NOT NULL DEFAULT 0,
+    message VARCHAR(255),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    started_at TIMESTAMP WITH TIME ZONE,
+    finished_at TIMESTAMP WITH TIME ZONE,
+    UNIQUE (train_id, journey_date)
+);
+CREATE INDEX IF NOT EXISTS idx_train_cancellation_jobs_status ON train_cancellation_jobs (status);
+
+--changeset ashish:13-order-refunds
+-- One refund per order. The status moves PENDING -> SUBMITTING -> REFUNDED, back to PENDING with a later
+-- next_attempt_at on a retryable failure, or to FAILED; MANUAL marks paid orders with no payment reference.
+CREATE TABLE IF NOT EXISTS order_refunds (
+    order_id BIGINT PRIMARY KEY REFERENCES orders (order_id),
+    job_id VARCHAR(36) NOT NULL REFERENCES train_cancellation_jobs (job_id) ON DELETE CASCADE,
+    payment_reference VARCHAR(64),
+    amount_paise BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    refund_reference VARCHAR(64),
+    last_error VARCHAR(255),
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_order_refunds_job_status ON order_refunds (job_id, status, next_attempt_at);
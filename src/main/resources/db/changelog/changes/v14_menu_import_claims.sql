@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset ashish:14-menu-import-job-claims
+-- The instance running a job and its last sign of life; a job whose heartbeat lapses is queued again.
+ALTER TABLE menu_import_jobs ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(36);
+ALTER TABLE menu_import_jobs ADD COLUMN IF NOT EXISTS heartbeat_at TIMESTAMP WITH TIME ZONE;
+CREATE INDEX IF NOT EXISTS idx_menu_import_jobs_vendor_status ON menu_import_jobs (vendor_id, status);
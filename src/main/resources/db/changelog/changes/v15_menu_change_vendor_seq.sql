@@ -0,0 +1,64 @@
+--liquibase formatted sql
+
+--changeset ashish:15-menu-change-vendor-seq
+-- BIGSERIAL values are handed out at insert but become visible at commit, so a reader could see seq 10 before
+-- seq 9 committed and skip it for good. Each vendor's entries are now numbered from a counter on its row,
+-- which the writer holds locked until it commits, so a vendor's entries commit in sequence order. Existing
+-- entries keep their numbers and every vendor's counter starts above them, so sequences clients already
+-- hold stay valid.
+ALTER TABLE vendors ADD COLUMN IF NOT EXISTS menu_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE vendors ADD COLUMN IF NOT EXISTS menu_pruned_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE menu_changes ADD COLUMN IF NOT EXISTS vendor_seq BIGINT;
+UPDATE menu_changes SET vendor_seq = seq WHERE vendor_seq IS NULL;
+UPDATE vendors SET menu_seq = GREATEST(menu_seq, (SELECT COALESCE(MAX(seq), 0) FROM menu_changes)),
+    menu_pruned_seq = GREATEST(menu_pruned_seq, (SELECT COALESCE(MIN(seq) - 1, 0) FROM menu_changes));
+ALTER TABLE menu_changes ALTER COLUMN vendor_seq SET NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_menu_changes_vendor_vendor_seq ON menu_changes (vendor_id, vendor_seq);
+DROP INDEX IF EXISTS idx_menu_changes_vendor_seq;
+
+--changeset ashish:15-menu-change-vendor-seq-triggers splitStatements:false
+-- Appends one entry under the vendor's row lock. A vendor deleted in the same statement has nothing to sync.
+CREATE OR REPLACE FUNCTION append_menu_change(p_vendor_id BIGINT, p_entity_type CHAR, p_entity_id BIGINT, p_deleted BOOLEAN) RETURNS void AS $$
+DECLARE
+    next_seq BIGINT;
+BEGIN
+    UPDATE vendors SET menu_seq = menu_seq + 1 WHERE vendor_id = p_vendor_id RETURNING menu_seq INTO next_seq;
+    IF next_seq IS NOT NULL THEN
+        INSERT INTO menu_changes (vendor_id, vendor_seq, entity_type, entity_id, deleted)
+        VALUES (p_vendor_id, next_seq, p_entity_type, p_entity_id, p_deleted);
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION record_menu_category_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND OLD.vendor_id IS DISTINCT FROM NEW.vendor_id) THEN
+        PERFORM append_menu_change(OLD.vendor_id, 'C', OLD.category_id, true);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM append_menu_change(NEW.vendor_id, 'C', NEW.category_id, false);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION record_menu_item_change() RETURNS trigger AS $$
+DECLARE
+    old_vendor BIGINT;
+    new_vendor BIGINT;
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        SELECT vendor_id INTO old_vendor FROM menu_categories WHERE category_id = OLD.category_id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        SELECT vendor_id INTO new_vendor FROM menu_categories WHERE category_id = NEW.category_id;
+    END IF;
+    IF old_vendor IS NOT NULL AND old_vendor IS DISTINCT FROM new_vendor THEN
+        PERFORM append_menu_change(old_vendor, 'I', OLD.item_id, true);
+    END IF;
+    IF new_vendor IS NOT NULL THEN
+        PERFORM append_menu_change(new_vendor, 'I', NEW.item_id, false);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
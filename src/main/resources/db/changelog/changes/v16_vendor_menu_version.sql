@@ -0,0 +1,6 @@
+--liquibase formatted sql
+
+--changeset ashish:16-vendor-menu-version
+-- Raised in the transaction of every write that changes what a vendor's menu shows, including vendor edits
+-- and items selling out, so each instance can tell from the vendor rows whether its cached menus are current.
+ALTER TABLE vendors ADD COLUMN IF NOT EXISTS menu_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,19 @@
+--liquibase formatted sql
+-- On a fresh database Hibernate creates orders and order_items after this runs; CONTINUE leaves these
+-- changesets pending so the next startup builds the indexes instead of recording them as ran.
+
+--changeset ashish:4-orders-vendor-created-idx
+--preconditions onFail:CONTINUE
+--precondition-sql-check expectedResult:1 SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'orders'
+CREATE INDEX IF NOT EXISTS idx_orders_vendor_created_at ON orders (vendor_id, created_at);
+
+--changeset ashish:4-orders-station-created-idx
+--preconditions onFail:CONTINUE
+--precondition-sql-check expectedResult:1 SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'orders'
+CREATE INDEX IF NOT EXISTS idx_orders_station_created_at ON orders (delivery_station_id, created_at);
+
+--changeset ashish:4-order-items-order-item-idx
+--preconditions onFail:CONTINUE
+--precondition-sql-check expectedResult:1 SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'order_items'
+CREATE INDEX IF NOT EXISTS idx_order_items_order_item ON order_items (order_id, item_id);
+
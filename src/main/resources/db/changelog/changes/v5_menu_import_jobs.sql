@@ -0,0 +1,27 @@
+--liquibase formatted sql
+
+--changeset ashish:5-menu-import-jobs
+CREATE TABLE IF NOT EXISTS menu_import_jobs (
+    job_id VARCHAR(36) PRIMARY KEY,
+    vendor_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    file_name VARCHAR(255),
+    spool_path VARCHAR(255) NOT NULL,
+    clear_existing BOOLEAN NOT NULL,
+    total_rows INTEGER,
+    committed_rows INTEGER NOT NULL DEFAULT 0,
+    error_count INTEGER NOT NULL DEFAULT 0,
+    message VARCHAR(255),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    started_at TIMESTAMP WITH TIME ZONE,
+    finished_at TIMESTAMP WITH TIME ZONE
+);
+CREATE INDEX IF NOT EXISTS idx_menu_import_jobs_status ON menu_import_jobs (status);
+
+--changeset ashish:5-menu-import-job-errors
+CREATE TABLE IF NOT EXISTS menu_import_job_errors (
+    job_id VARCHAR(36) NOT NULL REFERENCES menu_import_jobs(job_id) ON DELETE CASCADE,
+    row_number INTEGER NOT NULL,
+    message VARCHAR(255) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_menu_import_job_errors_job ON menu_import_job_errors (job_id);
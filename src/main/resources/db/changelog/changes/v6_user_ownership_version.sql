@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset ashish:6-user-ownership-version
+ALTER TABLE users ADD COLUMN IF NOT EXISTS ownership_version BIGINT NOT NULL DEFAULT 0;
+CREATE INDEX IF NOT EXISTS idx_vendors_user_id ON vendors (user_id);
@@ -0,0 +1,4 @@
+--liquibase formatted sql
+
+--changeset ashish:7-menu-item-stock
+ALTER TABLE menu_items ADD COLUMN IF NOT EXISTS stock_count INTEGER;
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset ashish:8-menu-versions
+ALTER TABLE menu_categories ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE menu_items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
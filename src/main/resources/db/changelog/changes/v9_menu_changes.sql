@@ -0,0 +1,65 @@
+--liquibase formatted sql
+
+--changeset ashish:9-menu-changes
+CREATE TABLE IF NOT EXISTS menu_changes (
+    seq BIGSERIAL PRIMARY KEY,
+    vendor_id BIGINT NOT NULL,
+    entity_type CHAR(1) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL,
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS idx_menu_changes_vendor_seq ON menu_changes (vendor_id, seq);
+CREATE INDEX IF NOT EXISTS idx_menu_changes_changed_at ON menu_changes (changed_at);
+
+--changeset ashish:9-menu-change-triggers splitStatements:false
+-- entity_type is 'C' for a category and 'I' for an item. A row moved to another vendor is logged as a
+-- delete for the old vendor and an upsert for the new one.
+CREATE OR REPLACE FUNCTION record_menu_category_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND OLD.vendor_id IS DISTINCT FROM NEW.vendor_id) THEN
+        INSERT INTO menu_changes (vendor_id, entity_type, entity_id, deleted) VALUES (OLD.vendor_id, 'C', OLD.category_id, true);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO menu_changes (vendor_id, entity_type, entity_id, deleted) VALUES (NEW.vendor_id, 'C', NEW.category_id, false);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION record_menu_item_change() RETURNS trigger AS $$
+DECLARE
+    old_vendor BIGINT;
+    new_vendor BIGINT;
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        SELECT vendor_id INTO old_vendor FROM menu_categories WHERE category_id = OLD.category_id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        SELECT vendor_id INTO new_vendor FROM menu_categories WHERE category_id = NEW.category_id;
+    END IF;
+    IF old_vendor IS NOT NULL AND old_vendor IS DISTINCT FROM new_vendor THEN
+        INSERT INTO menu_changes (vendor_id, entity_type, entity_id, deleted) VALUES (old_vendor, 'I', OLD.item_id, true);
+    END IF;
+    IF new_vendor IS NOT NULL THEN
+        INSERT INTO menu_changes (vendor_id, entity_type, entity_id, deleted) VALUES (new_vendor, 'I', NEW.item_id, false);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS menu_categories_changes ON menu_categories;
+CREATE TRIGGER menu_categories_changes AFTER INSERT OR UPDATE OR DELETE ON menu_categories
+    FOR EACH ROW EXECUTE FUNCTION record_menu_category_change();
+
+DROP TRIGGER IF EXISTS menu_items_changes ON menu_items;
+CREATE TRIGGER menu_items_changes AFTER INSERT OR DELETE ON menu_items
+    FOR EACH ROW EXECUTE FUNCTION record_menu_item_change();
+
+-- Every content write raises the version; stock counts only matter when the item runs out or comes back.
+DROP TRIGGER IF EXISTS menu_items_updates ON menu_items;
+CREATE TRIGGER menu_items_updates AFTER UPDATE ON menu_items
+    FOR EACH ROW WHEN (OLD.version IS DISTINCT FROM NEW.version
+        OR OLD.is_available IS DISTINCT FROM NEW.is_available
+        OR (COALESCE(OLD.stock_count, 1) > 0) IS DISTINCT FROM (COALESCE(NEW.stock_count, 1) > 0))
+    EXECUTE FUNCTION record_menu_item_change();
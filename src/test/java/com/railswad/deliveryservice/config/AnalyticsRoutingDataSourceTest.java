@@ -0,0 +1,104 @@
+package com.railswad.deliveryservice.config;
+
+import com.railswad.deliveryservice.service.AnalyticsQueryGovernor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs a primary and a stand-in replica Postgres and checks that only governed read-only
+ * transactions reach the analytics pool, and that its statement timeout applies.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AnalyticsRoutingDataSourceTest {
+
+    @Container
+    static final GenericContainer<?> primary = postgres();
+
+    @Container
+    static final GenericContainer<?> replica = postgres();
+
+    private static HikariDataSource oltpPool;
+    private static HikariDataSource analyticsPool;
+    private static JdbcTemplate jdbcTemplate;
+    private static AnalyticsQueryGovernor governor;
+
+    @BeforeAll
+    static void setUp() {
+        oltpPool = pool(primary);
+        analyticsPool = pool(replica);
+        analyticsPool.setReadOnly(true);
+        analyticsPool.setConnectionInitSql("SET statement_timeout = 200");
+
+        new JdbcTemplate(oltpPool).execute("CREATE TABLE whoami AS SELECT 'primary' AS name");
+        try (HikariDataSource replicaSetup = pool(replica)) {
+            new JdbcTemplate(replicaSetup).execute("CREATE TABLE whoami AS SELECT 'replica' AS name");
+        }
+
+        AnalyticsRoutingDataSource routing = new AnalyticsRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                AnalyticsRoutingDataSource.OLTP, oltpPool,
+                AnalyticsRoutingDataSource.ANALYTICS, analyticsPool));
+        routing.setDefaultTargetDataSource(oltpPool);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        governor = new AnalyticsQueryGovernor(new DataSourceTransactionManager(dataSource), 2, 500);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        oltpPool.close();
+        analyticsPool.close();
+    }
+
+    @Test
+    void ungovernedQueriesStayOnPrimary() {
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class));
+    }
+
+    @Test
+    void governedQueriesReadFromReplica() {
+        assertEquals("replica", governor.execute(() ->
+                jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class)));
+    }
+
+    @Test
+    void analyticsPoolEnforcesStatementTimeout() {
+        assertThrows(Exception.class, () -> governor.execute(() ->
+                jdbcTemplate.queryForObject("SELECT pg_sleep(1)::TEXT", String.class)));
+    }
+
+    private static GenericContainer<?> postgres() {
+        return new GenericContainer<>("postgres:16-alpine")
+                .withEnv("POSTGRES_USER", "test")
+                .withEnv("POSTGRES_PASSWORD", "test")
+                .withEnv("POSTGRES_DB", "railswad")
+                .withExposedPorts(5432)
+                .waitingFor(Wait.forLogMessage(".*database system is ready to accept connections.*", 2));
+    }
+
+    private static HikariDataSource pool(GenericContainer<?> container) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:postgresql://" + container.getHost() + ":" + container.getMappedPort(5432) + "/railswad");
+        dataSource.setUsername("test");
+        dataSource.setPassword("test");
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+}
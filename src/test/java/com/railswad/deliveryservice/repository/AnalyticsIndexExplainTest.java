@@ -0,0 +1,123 @@
+package com.railswad.deliveryservice.repository;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the SQL Hibernate generates for the {@link AnalyticsQueryBuilder} queries is served by the
+ * composite indexes, on a schema built the way production gets it: Hibernate's tables, then the full
+ * Liquibase changelog. Plans are generic, as for a cached prepared statement, with sequential scans
+ * priced out so an unusable predicate shape shows up as a missing index rather than a cost tie.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.liquibase.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.railswad.deliveryservice.repository.AnalyticsIndexExplainTest$CapturingInspector"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AnalyticsRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+class AnalyticsIndexExplainTest extends PostgisContainerTest {
+
+    private static boolean migrated;
+
+    /** Records the SQL Hibernate sends, so the test explains exactly what the repository runs. */
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private AnalyticsRepository analyticsRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void migrate() throws Exception {
+        if (migrated) {
+            return;
+        }
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+        migrated = true;
+    }
+
+    @Test
+    void vendorDateRangeUsesVendorCreatedAtIndex() throws SQLException {
+        String plan = explain(() -> analyticsRepository.getMonthlySalesByVendor(7L, ZonedDateTime.now().minusDays(30), null));
+        assertTrue(plan.contains("idx_orders_vendor_created_at"), plan);
+    }
+
+    @Test
+    void stationDateRangeUsesStationCreatedAtIndex() throws SQLException {
+        String plan = explain(() -> analyticsRepository.getTopVendorsByStation(11, ZonedDateTime.now().minusDays(30),
+                ZonedDateTime.now(), "revenue", 10));
+        assertTrue(plan.contains("idx_orders_station_created_at"), plan);
+    }
+
+    @Test
+    void favoriteItemsUseVendorAndOrderItemIndexes() throws SQLException {
+        String plan = explain(() -> analyticsRepository.getFavoriteItemsByVendor(7L, ZonedDateTime.now().minusDays(30),
+                null, "quantity", 10));
+        assertTrue(plan.contains("idx_orders_vendor_created_at"), plan);
+        assertTrue(plan.contains("idx_order_items_order_item"), plan);
+    }
+
+    private String explain(Runnable query) throws SQLException {
+        CapturingInspector.statements.clear();
+        query.run();
+        String sql = CapturingInspector.statements.stream()
+                .filter(statement -> statement.trim().toLowerCase().startsWith("select"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + numbered)) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            } finally {
+                statement.execute("RESET enable_seqscan");
+            }
+            return plan.toString();
+        }
+    }
+}
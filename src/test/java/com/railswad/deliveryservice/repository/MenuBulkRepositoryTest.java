@@ -0,0 +1,118 @@
+package com.railswad.deliveryservice.repository;
+
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/** An import is applied as a diff: listed items are written in place, unlisted ones removed unless orders reference them. */
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=create", "spring.liquibase.enabled=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(MenuBulkRepository.class)
+class MenuBulkRepositoryTest extends PostgisContainerTest {
+
+    @Autowired
+    private MenuBulkRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Categories without their vendor row and an order line without its order; neither plays a part here.
+        // Explicit ids stay clear of the identity values the inserts under test are given.
+        jdbcTemplate.execute("SET session_replication_role = replica");
+        jdbcTemplate.update("INSERT INTO menu_categories (category_id, vendor_id, category_name, display_order, version) VALUES (101, 7, 'Meals', 1, 0)");
+        jdbcTemplate.update("INSERT INTO menu_categories (category_id, vendor_id, category_name, display_order, version) VALUES (102, 7, 'Drinks', 2, 0)");
+        jdbcTemplate.update("INSERT INTO menu_categories (category_id, vendor_id, category_name, display_order, version) VALUES (103, 8, 'Meals', 1, 0)");
+        item(11L, 101L, "Thali");
+        item(12L, 101L, "Biryani");
+        item(21L, 102L, "Chai");
+        item(31L, 103L, "Thali");
+        jdbcTemplate.update("INSERT INTO order_items (order_id, item_id, quantity, unit_price) VALUES (1, 12, 1, 150)");
+    }
+
+    @Test
+    void prefetchReadsOnlyTheVendorsMenu() {
+        assertEquals(Map.of("Meals", 101L, "Drinks", 102L), repository.findCategoryIds(7L));
+        assertEquals(Map.of(
+                new MenuBulkRepository.ItemKey(101L, "Thali"), 11L,
+                new MenuBulkRepository.ItemKey(101L, "Biryani"), 12L,
+                new MenuBulkRepository.ItemKey(102L, "Chai"), 21L), repository.findItemIds(7L));
+    }
+
+    @Test
+    void listedItemsAreInsertedOrOverwrittenInPlace() {
+        Map<String, Integer> categories = new LinkedHashMap<>();
+        categories.put("Snacks", 3);
+        repository.insertCategories(7L, categories);
+        Long snacks = repository.findCategoryIds(7L).get("Snacks");
+
+        MenuItemDTO thali = row(101L, "Thali", 180);
+        thali.setItemId(11L);
+        repository.updateItems(List.of(thali));
+        repository.insertItems(List.of(row(snacks, "Samosa", 30)));
+
+        assertEquals(0, new BigDecimal("180").compareTo(price(11L)));
+        assertEquals(4, repository.findItemIds(7L).size());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM menu_items WHERE category_id = ? AND item_name = 'Samosa'",
+                Integer.class, snacks));
+    }
+
+    @Test
+    void unchangedRowsKeepTheirVersion() {
+        MenuItemDTO thali = row(101L, "Thali", 180);
+        thali.setItemId(11L);
+
+        repository.updateItems(List.of(thali));
+        repository.updateItems(List.of(thali));
+
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT version FROM menu_items WHERE item_id = 11", Long.class));
+    }
+
+    @Test
+    void unlistedItemsOnPastOrdersAreRetiredAndOthersDeleted() {
+        repository.removeItems(List.of(12L, 21L));
+
+        assertFalse(jdbcTemplate.queryForObject("SELECT is_available FROM menu_items WHERE item_id = 12", Boolean.class));
+        assertNull(jdbcTemplate.query("SELECT item_id FROM menu_items WHERE item_id = 21", rs -> rs.next() ? rs.getLong(1) : null));
+
+        repository.removeEmptyCategories(List.of(101L, 102L));
+
+        assertEquals(Map.of("Meals", 101L), repository.findCategoryIds(7L));
+    }
+
+    private void item(Long itemId, Long categoryId, String name) {
+        jdbcTemplate.update("INSERT INTO menu_items (item_id, category_id, item_name, price, is_vegetarian, is_available, version) "
+                + "VALUES (?, ?, ?, 100, true, true, 0)", itemId, categoryId, name);
+    }
+
+    private BigDecimal price(Long itemId) {
+        return jdbcTemplate.queryForObject("SELECT price FROM menu_items WHERE item_id = ?", BigDecimal.class, itemId);
+    }
+
+    private static MenuItemDTO row(Long categoryId, String name, double price) {
+        MenuItemDTO row = new MenuItemDTO();
+        row.setCategoryId(categoryId);
+        row.setItemName(name);
+        row.setPrice(BigDecimal.valueOf(price));
+        row.setVegetarian(true);
+        row.setAvailable(true);
+        return row;
+    }
+}
@@ -0,0 +1,135 @@
+package com.railswad.deliveryservice.repository;
+
+import com.railswad.deliveryservice.repository.MenuChangeRepository.ChangeRow;
+import com.railswad.deliveryservice.repository.MenuChangeRepository.VendorSequence;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Two writers on one vendor's menu: the reader never sees the second entry before the first has committed. */
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=create", "spring.liquibase.enabled=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(MenuChangeRepository.class)
+class MenuChangeRepositoryTest extends PostgisContainerTest {
+
+    @Autowired
+    private MenuChangeRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // The log and its triggers live in the changelog, on top of the tables Hibernate just created.
+        for (String changelog : List.of("v9_menu_changes.sql", "v15_menu_change_vendor_seq.sql")) {
+            String sql = new ClassPathResource("db/changelog/changes/" + changelog).getContentAsString(StandardCharsets.UTF_8);
+            String[] changesets = sql.split("--changeset");
+            for (int i = 1; i < changesets.length; i++) {
+                jdbcTemplate.execute(changesets[i].substring(changesets[i].indexOf('\n') + 1));
+            }
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Bare vendor, category and item rows; the replica role skips their foreign keys and the log triggers.
+            jdbcTemplate.execute("SET LOCAL session_replication_role = replica");
+            jdbcTemplate.update("DELETE FROM menu_changes");
+            jdbcTemplate.update("DELETE FROM menu_items");
+            jdbcTemplate.update("DELETE FROM menu_categories");
+            jdbcTemplate.update("DELETE FROM vendors");
+            for (long vendorId : new long[]{7, 8}) {
+                jdbcTemplate.update("INSERT INTO vendors (vendor_id) VALUES (?)", vendorId);
+                jdbcTemplate.update("INSERT INTO menu_categories (category_id, vendor_id, category_name, version) VALUES (?, ?, 'Meals', 0)",
+                        vendorId * 10, vendorId);
+                for (long item = 1; item <= 2; item++) {
+                    jdbcTemplate.update("INSERT INTO menu_items (item_id, category_id, item_name, price, is_vegetarian, is_available, version) "
+                            + "VALUES (?, ?, 'Item', 100, true, true, 0)", vendorId * 100 + item, vendorId * 10);
+                }
+            }
+        });
+    }
+
+    @Test
+    void secondWriterWaitsAndCommitsInSequenceOrder() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            first.setAutoCommit(false);
+            second.setAutoCommit(false);
+            rename(first, 701L);
+            Future<?> blocked = executor.submit(() -> {
+                rename(second, 702L);
+                second.commit();
+                return null;
+            });
+
+            assertThrows(TimeoutException.class, () -> blocked.get(300, TimeUnit.MILLISECONDS));
+            assertEquals(0, repository.findSequence(7L).orElseThrow().current());
+            assertEquals(List.of(), repository.findSince(7L, 0, 10));
+
+            first.commit();
+            blocked.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<ChangeRow> changes = repository.findSince(7L, 0, 10);
+        assertEquals(List.of(1L, 2L), changes.stream().map(ChangeRow::seq).toList());
+        assertEquals(List.of(701L, 702L), changes.stream().map(ChangeRow::entityId).toList());
+        assertEquals(2, repository.findSequence(7L).orElseThrow().current());
+    }
+
+    @Test
+    void pruningRaisesOnlyTheAffectedVendorsPrunedSequence() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            rename(connection, 801L);
+            rename(connection, 802L);
+        }
+        jdbcTemplate.update("UPDATE menu_changes SET changed_at = now() - interval '40 days' WHERE vendor_id = 8 AND vendor_seq = 1");
+
+        assertEquals(1, repository.deleteOlderThan(ZonedDateTime.now().minusDays(30)));
+
+        assertEquals(new VendorSequence(2, 1), repository.findSequence(8L).orElseThrow());
+        assertEquals(new VendorSequence(0, 0), repository.findSequence(7L).orElseThrow());
+        assertEquals(1, repository.findSince(8L, 1, 10).size());
+    }
+
+    private static void rename(Connection connection, Long itemId) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "UPDATE menu_items SET item_name = item_name || '+', version = version + 1 WHERE item_id = ?")) {
+            ps.setLong(1, itemId);
+            ps.executeUpdate();
+        }
+    }
+}
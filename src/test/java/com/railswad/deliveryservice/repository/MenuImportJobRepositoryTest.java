@@ -0,0 +1,67 @@
+package com.railswad.deliveryservice.repository;
+
+import com.railswad.deliveryservice.entity.MenuImportJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Claims, leases and checkpoints of menu import jobs as two instances would see them. */
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=create", "spring.liquibase.enabled=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class MenuImportJobRepositoryTest extends PostgisContainerTest {
+
+    @Autowired
+    private MenuImportJobRepository repository;
+
+    private final ZonedDateTime now = ZonedDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        repository.saveAndFlush(job("job-1", 7L, now.minusMinutes(2)));
+        repository.saveAndFlush(job("job-2", 7L, now.minusMinutes(1)));
+    }
+
+    @Test
+    void onlyOneInstanceClaimsAQueuedJob() {
+        assertEquals(1, repository.claim("job-1", "instance-a", now));
+        assertEquals(0, repository.claim("job-1", "instance-b", now));
+
+        assertEquals(List.of("job-2"), repository.findQueuedJobIds(10));
+        assertEquals(1, repository.countByVendorIdAndStatusIn(7L, Set.of(MenuImportJob.VALIDATING)));
+    }
+
+    @Test
+    void lapsedLeaseIsRequeuedAndTheOldOwnerCanNoLongerCheckpoint() {
+        repository.claim("job-1", "instance-a", now.minusMinutes(10));
+        repository.claim("job-2", "instance-a", now.minusMinutes(10));
+        repository.heartbeat(Set.of("job-2"), "instance-a", now);
+
+        assertEquals(1, repository.requeueStale(now.minusMinutes(2)));
+        assertEquals(List.of("job-1"), repository.findQueuedJobIds(10));
+
+        assertEquals(1, repository.claim("job-1", "instance-b", now));
+        assertEquals(0, repository.updateCheckpoint("job-1", "instance-a", 1000, now));
+        assertEquals(1, repository.updateCheckpoint("job-1", "instance-b", 1000, now));
+    }
+
+    private static MenuImportJob job(String jobId, Long vendorId, ZonedDateTime createdAt) {
+        MenuImportJob job = new MenuImportJob();
+        job.setJobId(jobId);
+        job.setVendorId(vendorId);
+        job.setStatus(MenuImportJob.QUEUED);
+        job.setSpoolPath("menu-imports/" + jobId + ".xlsx");
+        job.setCreatedAt(createdAt);
+        return job;
+    }
+}
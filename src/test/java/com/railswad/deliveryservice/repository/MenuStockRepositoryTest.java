@@ -0,0 +1,75 @@
+package com.railswad.deliveryservice.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Stock is taken in the database, so the last portions go to one order whichever instance serves it. */
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=create", "spring.liquibase.enabled=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(MenuStockRepository.class)
+class MenuStockRepositoryTest extends PostgisContainerTest {
+
+    @Autowired
+    private MenuStockRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // A category without its vendor row; the vendor plays no part in taking stock.
+        jdbcTemplate.execute("SET session_replication_role = replica");
+        jdbcTemplate.update("INSERT INTO menu_categories (category_id, vendor_id, category_name) VALUES (1, 7, 'Meals')");
+        item(1L, true, 3);
+        item(2L, false, 5);
+        item(3L, true, null);
+    }
+
+    @Test
+    void secondOrderForTheLastPortionsGetsNothing() {
+        assertEquals(Map.of(1L, 1), repository.take(Map.of(1L, 2)));
+        assertTrue(repository.take(Map.of(1L, 2)).isEmpty());
+        assertEquals(Map.of(1L, 0), repository.take(Map.of(1L, 1)));
+    }
+
+    @Test
+    void switchedOffAndUnlimitedItemsAreNotDecremented() {
+        assertTrue(repository.take(Map.of(2L, 1, 3L, 1)).isEmpty());
+        assertEquals(5, stock(2L));
+    }
+
+    @Test
+    void toggleLeavesStockAloneAndRestockLeavesToggleAlone() {
+        repository.take(Map.of(1L, 1));
+        repository.updateAvailability(List.of(new MenuStockRepository.AvailabilityChange(1L, false, false, null)));
+        assertEquals(2, stock(1L));
+
+        repository.updateAvailability(List.of(new MenuStockRepository.AvailabilityChange(1L, null, true, 10)));
+        MenuStockRepository.StockRow row = repository.findByItemIds(List.of(1L)).get(0);
+        assertFalse(row.available());
+        assertEquals(10, row.stockCount());
+    }
+
+    private void item(Long itemId, boolean available, Integer stock) {
+        jdbcTemplate.update("INSERT INTO menu_items (item_id, category_id, item_name, price, is_vegetarian, is_available, stock_count) "
+                + "VALUES (?, 1, ?, 100, true, ?, ?)", itemId, "Item " + itemId, available, stock);
+    }
+
+    private int stock(Long itemId) {
+        return jdbcTemplate.queryForObject("SELECT stock_count FROM menu_items WHERE item_id = ?", Integer.class, itemId);
+    }
+}
@@ -0,0 +1,35 @@
+package com.railswad.deliveryservice.repository;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+
+/**
+ * Points a test's datasource at one PostGIS container shared by every test class of the run. It is started on
+ * first use and removed when the JVM exits. Subclasses keep {@code @Testcontainers(disabledWithoutDocker = true)}
+ * so they are skipped where Docker is missing.
+ */
+abstract class PostgisContainerTest {
+
+    static final GenericContainer<?> postgres = new GenericContainer<>("postgis/postgis:16-3.4-alpine")
+            .withEnv("POSTGRES_USER", "test")
+            .withEnv("POSTGRES_PASSWORD", "test")
+            .withEnv("POSTGRES_DB", "railswad")
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forLogMessage(".*database system is ready to accept connections.*", 2));
+
+    static {
+        if (DockerClientFactory.instance().isDockerAvailable()) {
+            postgres.start();
+        }
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:postgresql://" + postgres.getHost() + ":" + postgres.getMappedPort(5432) + "/railswad");
+        registry.add("spring.datasource.username", () -> "test");
+        registry.add("spring.datasource.password", () -> "test");
+    }
+}
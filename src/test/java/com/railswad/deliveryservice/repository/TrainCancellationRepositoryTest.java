@@ -0,0 +1,152 @@
+package com.railswad.deliveryservice.repository;
+
+import com.railswad.deliveryservice.repository.TrainCancellationRepository.RefundClaim;
+import com.railswad.deliveryservice.repository.TrainCancellationRepository.RefundOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Refund claims never overlap, and a stopped or resubmitted job refunds each order at most once. */
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=create", "spring.liquibase.enabled=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TrainCancellationRepository.class)
+class TrainCancellationRepositoryTest extends PostgisContainerTest {
+
+    @Autowired
+    private TrainCancellationRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // The refund queue lives in the changelog, next to the tables Hibernate just created.
+        String sql = new ClassPathResource("db/changelog/changes/v13_train_cancellations.sql").getContentAsString(StandardCharsets.UTF_8);
+        String[] changesets = sql.split("--changeset");
+        for (int i = 1; i < changesets.length; i++) {
+            jdbcTemplate.execute(changesets[i].substring(changesets[i].indexOf('\n') + 1));
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            // Bare job, order and refund rows; the replica role skips their foreign keys.
+            jdbcTemplate.execute("SET LOCAL session_replication_role = replica");
+            jdbcTemplate.update("DELETE FROM order_refunds");
+            jdbcTemplate.update("DELETE FROM orders");
+            jdbcTemplate.update("DELETE FROM train_cancellation_jobs");
+            jdbcTemplate.update("INSERT INTO train_cancellation_jobs (job_id, train_id, journey_date, status, orders_cancelled, created_at) "
+                    + "VALUES ('job-1', 1, CURRENT_DATE, 'REFUNDING', 4, now())");
+            ZonedDateTime now = ZonedDateTime.now();
+            for (long orderId = 1; orderId <= 4; orderId++) {
+                jdbcTemplate.update("INSERT INTO orders (order_id, delivery_station_id, delivery_time, applied_delay_minutes, order_status, "
+                        + "total_amount, final_amount, payment_status) VALUES (?, 1, now(), 0, 'CANCELLED', 100, 100, 'REFUND_PENDING')", orderId);
+                // The fourth refund is waiting out a backoff.
+                ZonedDateTime due = orderId == 4 ? now.plusHours(1) : now.minusSeconds(1);
+                jdbcTemplate.update("INSERT INTO order_refunds (order_id, job_id, payment_reference, amount_paise, status, next_attempt_at, updated_at) "
+                        + "VALUES (?, 'job-1', ?, 10000, 'PENDING', ?, now())", orderId, "pay_" + orderId, Timestamp.from(due.toInstant()));
+            }
+        });
+    }
+
+    @Test
+    void secondClaimSkipsRowsTheFirstStillHolds() throws Exception {
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<RefundClaim>> first = executor.submit(() -> transactionTemplate.execute(status -> {
+                List<RefundClaim> claims = repository.claim("job-1", 2, ZonedDateTime.now());
+                claimed.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return claims;
+            }));
+            assertTrue(claimed.await(5, TimeUnit.SECONDS));
+
+            List<RefundClaim> second = transactionTemplate.execute(status -> repository.claim("job-1", 10, ZonedDateTime.now()));
+            release.countDown();
+
+            assertEquals(List.of(1L, 2L), orderIds(first.get(5, TimeUnit.SECONDS)));
+            assertEquals(List.of(3L), orderIds(second));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(3, statusCount(TrainCancellationRepository.SUBMITTING));
+    }
+
+    @Test
+    void releasedClaimsAreTakenAgainWithTheirAttemptsCounted() {
+        ZonedDateTime claimedAt = ZonedDateTime.now();
+        repository.claim("job-1", 10, claimedAt);
+
+        // Claims still within their lease stay with the instance that took them.
+        assertEquals(0, repository.releaseSubmitting("job-1", claimedAt));
+        assertEquals(3, repository.releaseSubmitting("job-1", claimedAt.plusSeconds(1)));
+
+        List<RefundClaim> again = repository.claim("job-1", 10, ZonedDateTime.now());
+        assertEquals(List.of(1L, 2L, 3L), orderIds(again));
+        assertTrue(again.stream().allMatch(claim -> claim.attempts() == 2));
+    }
+
+    @Test
+    void requeueingAFinishedJobRetriesOnlyItsFailedRefunds() {
+        repository.claim("job-1", 10, ZonedDateTime.now());
+        ZonedDateTime now = ZonedDateTime.now();
+        repository.recordOutcomes(List.of(
+                new RefundOutcome(1L, TrainCancellationRepository.REFUNDED, "rfnd_1", null, null),
+                new RefundOutcome(2L, TrainCancellationRepository.FAILED, null, "BAD_REQUEST", null),
+                new RefundOutcome(3L, TrainCancellationRepository.PENDING, null, "SERVER_ERROR", now.plusHours(1))), now);
+        assertEquals("REFUNDED", paymentStatus(1L));
+        assertEquals("REFUND_FAILED", paymentStatus(2L));
+
+        assertEquals(1, repository.requeueFailed("job-1", now));
+
+        assertEquals(List.of(2L), orderIds(repository.claim("job-1", 10, ZonedDateTime.now())));
+        assertEquals("REFUND_PENDING", paymentStatus(2L));
+        assertEquals("rfnd_1", jdbcTemplate.queryForObject("SELECT refund_reference FROM order_refunds WHERE order_id = 1", String.class));
+    }
+
+    private static List<Long> orderIds(List<RefundClaim> claims) {
+        return claims.stream().map(RefundClaim::orderId).sorted().toList();
+    }
+
+    private int statusCount(String status) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_refunds WHERE status = ?", Integer.class, status);
+    }
+
+    private String paymentStatus(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT payment_status FROM orders WHERE order_id = ?", String.class, orderId);
+    }
+}
@@ -0,0 +1,101 @@
+package com.railswad.deliveryservice.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Re-timing applies only the difference from the delay already on an order, whatever order reports arrive in. */
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=create", "spring.liquibase.enabled=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(TrainDelayRepository.class)
+class TrainDelayRepositoryTest extends PostgisContainerTest {
+
+    private static final ZonedDateTime SCHEDULED = ZonedDateTime.of(2026, 3, 1, 10, 5, 0, 0, ZoneOffset.UTC);
+    private static final List<String> CLOSED = List.of("DELIVERED", "CANCELLED");
+
+    @Autowired
+    private TrainDelayRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Orders without their train, station, vendor or customer rows; re-timing reads only the order's own columns.
+        jdbcTemplate.execute("SET session_replication_role = replica");
+        order(1L, 5, "PREPARING");
+        order(2L, 5, "DELIVERED");
+        order(3L, 6, "PREPARING");
+    }
+
+    @Test
+    void repeatedReportMovesTheOrderOnce() {
+        List<TrainDelayRepository.RetimedOrder> first = retime(20);
+        assertEquals(List.of(1L), first.stream().map(TrainDelayRepository.RetimedOrder::orderId).toList());
+        assertEquals(SCHEDULED.plusMinutes(20).toInstant(), first.get(0).deliveryTime().toInstant());
+
+        assertTrue(retime(20).isEmpty());
+        assertEquals(SCHEDULED.plusMinutes(20).toInstant(), deliveryTime(1L));
+        assertEquals(20, appliedDelay(1L));
+    }
+
+    @Test
+    void smallerDelayMovesTheOrderBackByTheDifference() {
+        retime(20);
+
+        List<TrainDelayRepository.RetimedOrder> reduced = retime(5);
+        assertEquals(1, reduced.size());
+        assertEquals(SCHEDULED.plusMinutes(5).toInstant(), deliveryTime(1L));
+        assertEquals(5, appliedDelay(1L));
+
+        retime(0);
+        assertEquals(SCHEDULED.toInstant(), deliveryTime(1L));
+        assertEquals(0, appliedDelay(1L));
+    }
+
+    @Test
+    void closedOrdersAndOtherStopsAreLeftAlone() {
+        retime(20);
+
+        assertEquals(SCHEDULED.toInstant(), deliveryTime(2L));
+        assertEquals(0, appliedDelay(2L));
+        assertEquals(SCHEDULED.toInstant(), deliveryTime(3L));
+    }
+
+    private List<TrainDelayRepository.RetimedOrder> retime(int delayMinutes) {
+        TrainDelayRepository.StopWindow stop = new TrainDelayRepository.StopWindow(5,
+                SCHEDULED.minusMinutes(5), SCHEDULED.plusMinutes(5), delayMinutes);
+        return repository.retimeOrders(12345, List.of(stop), SCHEDULED.minusHours(1), SCHEDULED.plusHours(2),
+                CLOSED, ZonedDateTime.now(ZoneOffset.UTC));
+    }
+
+    private void order(Long orderId, int stationId, String status) {
+        jdbcTemplate.update("INSERT INTO orders (order_id, train_id, delivery_station_id, delivery_time, applied_delay_minutes, " +
+                        "order_status, total_amount, final_amount, payment_status) VALUES (?, 12345, ?, ?, 0, ?, 100, 100, 'PAID')",
+                orderId, stationId, Timestamp.from(SCHEDULED.toInstant()), status);
+    }
+
+    private Instant deliveryTime(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT delivery_time FROM orders WHERE order_id = ?", Timestamp.class, orderId)
+                .toInstant();
+    }
+
+    private int appliedDelay(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT applied_delay_minutes FROM orders WHERE order_id = ?", Integer.class, orderId);
+    }
+}
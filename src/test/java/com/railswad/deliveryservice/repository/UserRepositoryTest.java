@@ -0,0 +1,65 @@
+package com.railswad.deliveryservice.repository;
+
+import com.railswad.deliveryservice.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/** A login racing an ownership revocation must not write the old ownership version back. */
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=create", "spring.liquibase.enabled=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class UserRepositoryTest extends PostgisContainerTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void savingAStaleUserKeepsTheRaisedOwnershipVersion() {
+        User user = userRepository.saveAndFlush(user());
+        entityManager.clear();
+        User stale = userRepository.findById(user.getUserId()).orElseThrow();
+        entityManager.detach(stale);
+
+        userRepository.incrementOwnershipVersion(user.getUserId());
+        stale.setLastLogin(ZonedDateTime.now());
+        userRepository.saveAndFlush(stale);
+        entityManager.clear();
+
+        assertEquals(1L, userRepository.findOwnershipVersion(user.getUserId()).orElseThrow());
+    }
+
+    @Test
+    void lastLoginIsSetWithoutTouchingOtherColumns() {
+        User user = userRepository.saveAndFlush(user());
+        userRepository.incrementOwnershipVersion(user.getUserId());
+
+        assertEquals(1, userRepository.updateLastLogin(user.getUserId(), ZonedDateTime.now()));
+        entityManager.clear();
+
+        User reloaded = userRepository.findById(user.getUserId()).orElseThrow();
+        assertNotNull(reloaded.getLastLogin());
+        assertEquals(1L, reloaded.getOwnershipVersion());
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setUsername("vendor");
+        user.setEmail("vendor@example.com");
+        user.setPhone("9000000000");
+        user.setPasswordHash("hash");
+        user.setSalt("salt");
+        return user;
+    }
+}
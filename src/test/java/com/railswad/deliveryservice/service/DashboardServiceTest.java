@@ -0,0 +1,107 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.DashboardDTO;
+import com.railswad.deliveryservice.repository.AnalyticsRepository;
+import com.railswad.deliveryservice.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardServiceTest {
+
+    private final AnalyticsRepository analyticsRepository = mock(AnalyticsRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final AnalyticsQueryGovernor governor = mock(AnalyticsQueryGovernor.class);
+    private ThreadPoolTaskExecutor executor;
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+
+        dashboardService = new DashboardService();
+        ReflectionTestUtils.setField(dashboardService, "analyticsRepository", analyticsRepository);
+        ReflectionTestUtils.setField(dashboardService, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(dashboardService, "analyticsQueryGovernor", governor);
+        ReflectionTestUtils.setField(dashboardService, "analyticsExecutor", executor);
+        when(governor.execute(any(Supplier.class), anyLong())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void timedOutSectionIsInterruptedAndSaturatedPoolDegradesSection() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(analyticsRepository.getAllVendorsSalesOverview(any(), any())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return List.of();
+        });
+
+        // One thread and no queue: the slow section takes the thread and the next one is rejected.
+        DashboardDTO dashboard = dashboardService.getDashboard(null, null, ZonedDateTime.now().minusDays(7),
+                ZonedDateTime.now(), 10, 200);
+
+        assertEquals("TIMED_OUT", dashboard.getSections().get("vendorOverview").getStatus());
+        assertEquals("REJECTED", dashboard.getSections().get("stationOverview").getStatus());
+        assertFalse(dashboard.isComplete());
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS), "timed-out section kept running");
+    }
+
+    @Test
+    void sectionsWithinDeadlineComplete() {
+        when(analyticsRepository.getAllVendorsSalesOverview(any(), any())).thenReturn(List.of());
+        executor.setMaxPoolSize(4);
+        executor.setCorePoolSize(4);
+
+        DashboardDTO dashboard = dashboardService.getDashboard(null, null, ZonedDateTime.now().minusDays(7),
+                ZonedDateTime.now(), 10, 5_000);
+
+        assertEquals("OK", dashboard.getSections().get("vendorOverview").getStatus());
+        assertEquals("OK", dashboard.getSections().get("stationOverview").getStatus());
+        assertEquals("SKIPPED", dashboard.getSections().get("topVendors").getStatus());
+        assertTrue(dashboard.isComplete());
+    }
+
+    @Test
+    void sectionLimitIsClamped() {
+        executor.setMaxPoolSize(4);
+        executor.setCorePoolSize(4);
+
+        dashboardService.getDashboard(3L, 1, ZonedDateTime.now().minusDays(7), ZonedDateTime.now(), 1_000_000, 5_000);
+        dashboardService.getDashboard(3L, 1, ZonedDateTime.now().minusDays(7), ZonedDateTime.now(), -5, 5_000);
+
+        verify(analyticsRepository).getTopVendorsByStation(eq(1), any(), any(), eq("revenue"), eq(100));
+        verify(analyticsRepository).getFavoriteItemsByVendor(eq(3L), any(), any(), eq("quantity"), eq(100));
+        verify(analyticsRepository).getTopVendorsByStation(eq(1), any(), any(), eq("revenue"), eq(1));
+        verify(analyticsRepository).getFavoriteItemsByVendor(eq(3L), any(), any(), eq("quantity"), eq(1));
+    }
+}
@@ -0,0 +1,75 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.entity.Station;
+import com.railswad.deliveryservice.repository.StationRepository;
+import com.railswad.deliveryservice.repository.VendorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GeoIndexServiceTest {
+
+    private final StationRepository stationRepository = mock(StationRepository.class);
+    private final VendorRepository vendorRepository = mock(VendorRepository.class);
+    private final GeoIndexService geoIndexService = new GeoIndexService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(geoIndexService, "stationRepository", stationRepository);
+        ReflectionTestUtils.setField(geoIndexService, "vendorRepository", vendorRepository);
+        ReflectionTestUtils.setField(geoIndexService, "initialRadiusMeters", 5000.0);
+        ReflectionTestUtils.setField(geoIndexService, "maxResults", 50);
+        when(stationRepository.findAllWithCoordinates()).thenReturn(List.of());
+        when(vendorRepository.findActiveDeliveryAreas()).thenReturn(List.of());
+    }
+
+    @Test
+    void writesOnlyMarkTheIndexAndOneTickRebuildsIt() {
+        geoIndexService.markDirty();
+        geoIndexService.markDirty();
+        verify(stationRepository, never()).findAllWithCoordinates();
+
+        Station station = new Station();
+        station.setStationId(1);
+        station.setStationCode("NDLS");
+        station.setLatitude(28.6430);
+        station.setLongitude(77.2195);
+        when(stationRepository.findAllWithCoordinates()).thenReturn(List.of(station));
+        geoIndexService.rebuildIfDirty();
+        geoIndexService.rebuildIfDirty();
+
+        verify(stationRepository, times(1)).findAllWithCoordinates();
+        assertEquals(1, geoIndexService.findNearestStations(28.64, 77.22, 5).size());
+    }
+
+    @Test
+    void writeInsideATransactionIsPickedUpOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            geoIndexService.markDirty();
+            geoIndexService.rebuildIfDirty();
+            verify(stationRepository, never()).findAllWithCoordinates();
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertFalse(synchronizations.isEmpty());
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        geoIndexService.rebuildIfDirty();
+        verify(stationRepository, times(1)).findAllWithCoordinates();
+    }
+}
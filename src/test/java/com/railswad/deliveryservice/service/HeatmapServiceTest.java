@@ -0,0 +1,98 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.HeatmapCellDTO;
+import com.railswad.deliveryservice.event.OrderCreatedEvent;
+import com.railswad.deliveryservice.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HeatmapServiceTest {
+
+    private static final double LAT = 28.6139;
+    private static final double LON = 77.2090;
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final AnalyticsQueryGovernor governor = mock(AnalyticsQueryGovernor.class);
+    private HeatmapService heatmapService;
+
+    @BeforeEach
+    void setUp() {
+        heatmapService = new HeatmapService();
+        ReflectionTestUtils.setField(heatmapService, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(heatmapService, "analyticsQueryGovernor", governor);
+        ReflectionTestUtils.setField(heatmapService, "overlapMinutes", 10);
+        when(governor.execute(any(Supplier.class))).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+    }
+
+    @Test
+    void eventForOrderAlreadySeededIsNotCountedAgain() {
+        when(orderRepository.getOrderTotalsByStationLocation(any())).thenReturn(rows(new Object[]{LAT, LON, 5L, 500.0}));
+        when(orderRepository.getOrdersByStationLocationSince(any())).thenReturn(rows(new Object[]{42L, LAT, LON, 100.0}));
+        heatmapService.rebuild();
+
+        heatmapService.onOrderCreated(event(42L, ZonedDateTime.now().minusMinutes(1)));
+
+        assertEquals(6, orderCount());
+    }
+
+    @Test
+    void lowerIdCommittingAfterTheSeedIsCounted() {
+        // Order 41 was created before order 42 but committed after the seed was read.
+        when(orderRepository.getOrderTotalsByStationLocation(any())).thenReturn(rows());
+        when(orderRepository.getOrdersByStationLocationSince(any())).thenReturn(rows(new Object[]{42L, LAT, LON, 100.0}));
+        heatmapService.rebuild();
+
+        heatmapService.onOrderCreated(event(41L, ZonedDateTime.now().minusMinutes(2)));
+
+        assertEquals(2, orderCount());
+    }
+
+    @Test
+    void eventOlderThanTheCutoffIsAlreadyInTheAggregate() {
+        when(orderRepository.getOrderTotalsByStationLocation(any())).thenReturn(rows(new Object[]{LAT, LON, 3L, 300.0}));
+        when(orderRepository.getOrdersByStationLocationSince(any())).thenReturn(rows());
+        heatmapService.rebuild();
+
+        heatmapService.onOrderCreated(event(7L, ZonedDateTime.now().minusHours(1)));
+
+        assertEquals(3, orderCount());
+    }
+
+    @Test
+    void eventsDuringRebuildAreAppliedToTheNewGrid() {
+        when(orderRepository.getOrderTotalsByStationLocation(any())).thenReturn(rows(new Object[]{LAT, LON, 2L, 200.0}));
+        when(orderRepository.getOrdersByStationLocationSince(any())).thenAnswer(invocation -> {
+            // Arrives while the seed is being read and is not part of it.
+            heatmapService.onOrderCreated(event(99L, ZonedDateTime.now()));
+            return rows();
+        });
+
+        heatmapService.rebuild();
+
+        assertEquals(3, orderCount());
+    }
+
+    private long orderCount() {
+        List<HeatmapCellDTO> cells = heatmapService.getTile(HeatmapService.MAX_ZOOM, LAT - 1, LON - 1, LAT + 1, LON + 1);
+        return cells.stream().mapToLong(HeatmapCellDTO::getOrderCount).sum();
+    }
+
+    private static OrderCreatedEvent event(long orderId, ZonedDateTime createdAt) {
+        return new OrderCreatedEvent(orderId, 1L, 1, LAT, LON, 100.0, createdAt, createdAt.plusHours(2));
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
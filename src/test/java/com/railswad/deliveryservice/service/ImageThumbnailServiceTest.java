@@ -0,0 +1,101 @@
+package com.railswad.deliveryservice.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ImageThumbnailServiceTest {
+
+    private final ImageThumbnailService thumbnailService = new ImageThumbnailService();
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Runs renders on the calling thread, so each one has finished before computeIfAbsent returns.
+        ThreadPoolTaskExecutor inline = mock(ThreadPoolTaskExecutor.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(inline).execute(any(Runnable.class));
+        ReflectionTestUtils.setField(thumbnailService, "thumbnailDiskCache", mock(ThumbnailDiskCache.class));
+        ReflectionTestUtils.setField(thumbnailService, "imageExecutor", inline);
+        ReflectionTestUtils.setField(thumbnailService, "widths", new int[]{96, 240});
+        ReflectionTestUtils.setField(thumbnailService, "waitMs", 1000L);
+        ReflectionTestUtils.setField(thumbnailService, "retryAfterMs", 600000L);
+        ReflectionTestUtils.setField(thumbnailService, "maxSourceBytes", 1024);
+        ReflectionTestUtils.setField(thumbnailService, "sourceTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(thumbnailService, "allowedHosts", List.of());
+        ReflectionTestUtils.setField(thumbnailService, "maxRedirects", 3);
+        ReflectionTestUtils.setField(thumbnailService, "digestTtlMs", 3600000L);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(200, 0);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void internalAddressesAreNeverFetched() {
+        ReflectionTestUtils.setField(thumbnailService, "allowedHosts",
+                List.of("127.0.0.1", "169.254.169.254", "10.0.0.5", "[::7f00:1]", "[64:ff9b::a00:5]"));
+        int port = server.getAddress().getPort();
+
+        assertNull(thumbnailService.getThumbnailName("http://127.0.0.1:" + port + "/logo.png", 96));
+        assertNull(thumbnailService.getThumbnailName("http://169.254.169.254/latest/meta-data/", 96));
+        assertNull(thumbnailService.getThumbnailName("http://10.0.0.5/logo.png", 96));
+        // IPv6 forms that carry an internal IPv4 address.
+        assertNull(thumbnailService.getThumbnailName("http://[::7f00:1]:" + port + "/logo.png", 96));
+        assertNull(thumbnailService.getThumbnailName("http://[64:ff9b::a00:5]/logo.png", 96));
+
+        assertEquals(0, requests.get());
+    }
+
+    @Test
+    void nothingIsFetchedWithoutAllowedHosts() {
+        assertNull(thumbnailService.getThumbnailName("http://localhost:" + server.getAddress().getPort() + "/logo.png", 96));
+
+        assertEquals(0, requests.get());
+    }
+
+    @Test
+    void hostsOffTheAllowListAreRefused() {
+        ReflectionTestUtils.setField(thumbnailService, "allowedHosts", List.of("images.railswad.example"));
+
+        assertNull(thumbnailService.getThumbnailName("http://localhost:" + server.getAddress().getPort() + "/logo.png", 96));
+
+        assertEquals(0, requests.get());
+    }
+
+    @Test
+    void renderFinishedBeforeComputeIfAbsentReturnsIsCleanedUp() {
+        // Failing at once on the calling thread used to remove the entry from inside its own mapping function.
+        assertNull(thumbnailService.getThumbnailName("ftp://images.railswad.example/logo.png", 96));
+
+        Map<?, ?> inFlight = (Map<?, ?>) ReflectionTestUtils.getField(thumbnailService, "inFlight");
+        assertTrue(inFlight.isEmpty());
+    }
+}
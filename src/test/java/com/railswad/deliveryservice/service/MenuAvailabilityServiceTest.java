@@ -0,0 +1,64 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MenuAvailabilityServiceTest {
+
+    private static final ZoneId STATION_ZONE = ZoneId.of("Asia/Kolkata");
+    // 17.5 hours from the station zone, so an hour-wide window around one never covers the other's clock.
+    private static final ZoneId OTHER_ZONE = ZoneId.of("Etc/GMT+12");
+
+    private final MenuCacheService menuCacheService = mock(MenuCacheService.class);
+    private final MenuAvailabilityService availabilityService = new MenuAvailabilityService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(availabilityService, "menuCacheService", menuCacheService);
+        ReflectionTestUtils.setField(availabilityService, "taskScheduler", mock(TaskScheduler.class));
+        ReflectionTestUtils.setField(availabilityService, "zone", STATION_ZONE);
+    }
+
+    @Test
+    void windowsAreReadInTheStationZone() {
+        MenuItemDTO stationNow = item(1L, LocalTime.now(STATION_ZONE));
+        MenuItemDTO elsewhereNow = item(2L, LocalTime.now(OTHER_ZONE));
+        MenuItemDTO allDay = item(3L, null);
+        when(menuCacheService.currentVersion(5L)).thenReturn(1L);
+        when(menuCacheService.getMenu(5L)).thenReturn(new MenuCacheService.MenuSnapshot(1L,
+                Map.of("Meals", List.of(stationNow, elsewhereNow, allDay))));
+
+        List<MenuItemDTO> available = availabilityService.getAvailableItems(5L);
+
+        assertEquals(2, available.size());
+        assertTrue(available.contains(stationNow));
+        assertFalse(available.contains(elsewhereNow));
+    }
+
+    /** An item open from an hour before {@code around} to an hour after, wrapping midnight where needed. */
+    private static MenuItemDTO item(Long itemId, LocalTime around) {
+        MenuItemDTO item = new MenuItemDTO();
+        item.setItemId(itemId);
+        item.setItemName("Item " + itemId);
+        item.setAvailable(true);
+        if (around != null) {
+            item.setAvailableStartTime(around.minusHours(1).withNano(0));
+            item.setAvailableEndTime(around.plusHours(1).withNano(0));
+        }
+        return item;
+    }
+}
@@ -0,0 +1,128 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.event.MenuChangedEvent;
+import com.railswad.deliveryservice.repository.MenuCategoryRepository;
+import com.railswad.deliveryservice.repository.VendorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MenuCacheServiceTest {
+
+    private final MenuCategoryRepository menuCategoryRepository = mock(MenuCategoryRepository.class);
+    private final VendorRepository vendorRepository = mock(VendorRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private MenuCacheService menuCacheService;
+
+    @BeforeEach
+    void setUp() {
+        menuCacheService = new MenuCacheService();
+        ReflectionTestUtils.setField(menuCacheService, "menuCategoryRepository", menuCategoryRepository);
+        ReflectionTestUtils.setField(menuCacheService, "vendorRepository", vendorRepository);
+        ReflectionTestUtils.setField(menuCacheService, "eventPublisher", eventPublisher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void readsForUnknownVendorsDoNotGrowTheVersionMap() {
+        when(menuCategoryRepository.findByVendorIdWithItems(any())).thenReturn(List.of());
+        when(vendorRepository.existsById(any())).thenReturn(false);
+
+        for (long vendorId = 1; vendorId <= 1000; vendorId++) {
+            assertEquals(0, menuCacheService.currentVersion(vendorId));
+            assertNull(menuCacheService.getMenu(vendorId));
+        }
+
+        assertTrue(versions().isEmpty());
+    }
+
+    @Test
+    void bumpTakesEffectOnceCommitted() {
+        when(vendorRepository.findMenuVersion(1L)).thenReturn(Optional.of(3L));
+        TransactionSynchronizationManager.initSynchronization();
+
+        menuCacheService.bumpVersion(1L);
+
+        verify(vendorRepository).incrementMenuVersion(1L);
+        assertEquals(0, menuCacheService.currentVersion(1L));
+        commit();
+        assertEquals(3, menuCacheService.currentVersion(1L));
+        verify(eventPublisher).publishEvent(any(MenuChangedEvent.class));
+    }
+
+    @Test
+    void bumpForUnknownVendorIsIgnored() {
+        when(vendorRepository.findMenuVersion(2L)).thenReturn(Optional.empty());
+        TransactionSynchronizationManager.initSynchronization();
+
+        menuCacheService.bumpVersion(2L);
+        commit();
+
+        assertEquals(0, menuCacheService.currentVersion(2L));
+        assertTrue(versions().isEmpty());
+        verify(eventPublisher, never()).publishEvent(any(MenuChangedEvent.class));
+    }
+
+    @Test
+    void writesCommittedOnAnotherInstanceRebuildTheSnapshotAfterRefresh() {
+        when(menuCategoryRepository.findByVendorIdWithItems(1L)).thenReturn(List.of());
+        when(vendorRepository.existsById(1L)).thenReturn(true);
+        assertEquals(0, menuCacheService.getMenu(1L).getVersion());
+        when(vendorRepository.findMenuVersions()).thenReturn(List.<Object[]>of(new Object[]{1L, 2L}));
+
+        menuCacheService.refreshVersions();
+        menuCacheService.refreshVersions();
+
+        assertEquals(2, menuCacheService.getMenu(1L).getVersion());
+        verify(menuCategoryRepository, times(2)).findByVendorIdWithItems(1L);
+        verify(eventPublisher, times(1)).publishEvent(any(MenuChangedEvent.class));
+    }
+
+    @Test
+    void vendorsDeletedOnAnotherInstanceAreDroppedAfterRefresh() {
+        when(vendorRepository.findMenuVersions()).thenReturn(List.<Object[]>of(new Object[]{1L, 2L}), List.of());
+
+        menuCacheService.refreshVersions();
+        menuCacheService.refreshVersions();
+
+        assertEquals(0, menuCacheService.currentVersion(1L));
+        assertTrue(versions().isEmpty());
+        verify(eventPublisher, times(2)).publishEvent(any(MenuChangedEvent.class));
+    }
+
+    // Stands in for the transaction manager finishing a commit.
+    private static void commit() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, ?> versions() {
+        return (Map<Long, ?>) ReflectionTestUtils.getField(menuCacheService, "versions");
+    }
+}
@@ -0,0 +1,129 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import com.railswad.deliveryservice.entity.MenuImportJob;
+import com.railswad.deliveryservice.repository.MenuBulkRepository;
+import com.railswad.deliveryservice.repository.MenuImportJobRepository;
+import com.railswad.deliveryservice.util.ExcelHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MenuImportJobServiceTest {
+
+    private final MenuImportJobRepository jobRepository = mock(MenuImportJobRepository.class);
+    private final MenuBulkRepository bulkRepository = mock(MenuBulkRepository.class);
+    private final ExcelHelper excelHelper = mock(ExcelHelper.class);
+    private final MenuImportJobService importService = new MenuImportJobService(mock(PlatformTransactionManager.class));
+
+    private final MenuImportJob job = new MenuImportJob();
+
+    @TempDir
+    Path spoolDirectory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(importService, "menuImportJobRepository", jobRepository);
+        ReflectionTestUtils.setField(importService, "menuBulkRepository", bulkRepository);
+        ReflectionTestUtils.setField(importService, "menuCacheService", mock(MenuCacheService.class));
+        ReflectionTestUtils.setField(importService, "excelHelper", excelHelper);
+        ReflectionTestUtils.setField(importService, "menuWriteLocks", mock(MenuWriteLocks.class));
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+        ReflectionTestUtils.setField(importService, "maxStoredErrors", 500);
+
+        job.setJobId("job-1");
+        job.setVendorId(7L);
+        job.setStatus(MenuImportJob.VALIDATING);
+        job.setSpoolPath(Files.createFile(spoolDirectory.resolve("job-1.xlsx")).toString());
+        job.setClaimedBy((String) ReflectionTestUtils.getField(importService, "instanceId"));
+        when(jobRepository.claim(eq("job-1"), anyString(), any())).thenReturn(1);
+        when(jobRepository.findById("job-1")).thenReturn(Optional.of(job));
+        when(jobRepository.updateCheckpoint(eq("job-1"), anyString(), anyInt(), any())).thenReturn(1);
+        when(bulkRepository.findCategoryIds(7L)).thenReturn(Map.of("Meals", 1L));
+        when(bulkRepository.findItemIds(7L)).thenReturn(Map.of(new MenuBulkRepository.ItemKey(1L, "Item 1"), 101L));
+        when(excelHelper.readMenuItems(any(File.class), any())).thenAnswer(invocation -> {
+            ExcelHelper.MenuRowHandler handler = invocation.getArgument(1);
+            for (int i = 1; i <= 5; i++) {
+                handler.onRow(i + 1, row("Item " + i));
+            }
+            return List.of();
+        });
+    }
+
+    @Test
+    void interruptedJobResumesAfterItsCheckpointInChunks() {
+        job.setCommittedRows(2);
+
+        importService.run("job-1");
+
+        ArgumentCaptor<Integer> checkpoints = ArgumentCaptor.forClass(Integer.class);
+        verify(jobRepository, times(2)).updateCheckpoint(eq("job-1"), anyString(), checkpoints.capture(), any());
+        assertEquals(List.of(4, 5), checkpoints.getAllValues());
+        List<String> inserted = new ArrayList<>();
+        ArgumentCaptor<List<MenuItemDTO>> inserts = listCaptor();
+        verify(bulkRepository, times(2)).insertItems(inserts.capture());
+        inserts.getAllValues().forEach(chunk -> chunk.forEach(row -> inserted.add(row.getItemName())));
+        assertEquals(List.of("Item 3", "Item 4", "Item 5"), inserted);
+        assertEquals(MenuImportJob.COMPLETED, job.getStatus());
+        assertFalse(Files.exists(Path.of(job.getSpoolPath())));
+    }
+
+    @Test
+    void rowsAlreadyOnTheMenuAreUpdatedInPlace() {
+        importService.run("job-1");
+
+        ArgumentCaptor<List<MenuItemDTO>> updates = listCaptor();
+        verify(bulkRepository, times(3)).updateItems(updates.capture());
+        MenuItemDTO updated = updates.getAllValues().get(0).get(0);
+        assertEquals("Item 1", updated.getItemName());
+        assertEquals(101L, updated.getItemId());
+    }
+
+    @Test
+    void jobTakenOverByAnotherInstanceStopsWithoutFinishing() {
+        when(jobRepository.updateCheckpoint(eq("job-1"), anyString(), anyInt(), any())).thenReturn(0);
+
+        importService.run("job-1");
+
+        verify(jobRepository, times(1)).updateCheckpoint(eq("job-1"), anyString(), anyInt(), any());
+        verify(bulkRepository, never()).removeItems(any());
+        assertEquals(MenuImportJob.RUNNING, job.getStatus());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<MenuItemDTO>> listCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static MenuItemDTO row(String name) {
+        MenuItemDTO row = new MenuItemDTO();
+        row.setCategoryName("Meals");
+        row.setItemName(name);
+        row.setPrice(BigDecimal.valueOf(100));
+        return row;
+    }
+}
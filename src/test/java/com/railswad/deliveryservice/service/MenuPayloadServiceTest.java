@@ -0,0 +1,87 @@
+package com.railswad.deliveryservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railswad.deliveryservice.util.PrecompressedBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MenuPayloadServiceTest {
+
+    private final MenuCacheService menuCacheService = mock(MenuCacheService.class);
+    private final MenuPayloadService payloadService = new MenuPayloadService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(payloadService, "menuCacheService", menuCacheService);
+        ReflectionTestUtils.setField(payloadService, "menuAvailabilityService", mock(MenuAvailabilityService.class));
+        ReflectionTestUtils.setField(payloadService, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void concurrentColdReadsEncodeOnce() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(menuCacheService.currentVersion(1L)).thenReturn(3L);
+        when(menuCacheService.getMenu(1L)).thenAnswer(invocation -> {
+            building.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new MenuCacheService.MenuSnapshot(3L, Map.of("Meals", List.of()));
+        });
+
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<PrecompressedBody>> reads = new ArrayList<>();
+            reads.add(readers.submit(() -> payloadService.getMenuBody(1L)));
+            assertTrue(building.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                reads.add(readers.submit(() -> payloadService.getMenuBody(1L)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            PrecompressedBody first = reads.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<PrecompressedBody> read : reads) {
+                assertSame(first, read.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+        verify(menuCacheService, times(1)).getMenu(1L);
+    }
+
+    @Test
+    void newVersionIsEncodedAgainAndMissingVendorIsNotCached() {
+        when(menuCacheService.currentVersion(1L)).thenReturn(1L, 1L, 2L);
+        when(menuCacheService.getMenu(1L)).thenReturn(
+                new MenuCacheService.MenuSnapshot(1L, Map.of()),
+                new MenuCacheService.MenuSnapshot(2L, Map.of("Meals", List.of())));
+
+        PrecompressedBody v1 = payloadService.getMenuBody(1L);
+        assertSame(v1, payloadService.getMenuBody(1L));
+        assertEquals(2L, payloadService.getMenuBody(1L).getVersion());
+
+        when(menuCacheService.getMenu(9L)).thenReturn(null);
+        assertNull(payloadService.getMenuBody(9L));
+        assertNull(payloadService.getMenuBody(9L));
+        verify(menuCacheService, times(2)).getMenu(9L);
+    }
+}
@@ -0,0 +1,108 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.MenuAvailabilityUpdateDTO;
+import com.railswad.deliveryservice.event.MenuChangedEvent;
+import com.railswad.deliveryservice.exception.ServiceException;
+import com.railswad.deliveryservice.repository.MenuStockRepository;
+import com.railswad.deliveryservice.repository.MenuStockRepository.StockRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MenuStockServiceTest {
+
+    private final MenuStockRepository menuStockRepository = mock(MenuStockRepository.class);
+    private final MenuCacheService menuCacheService = mock(MenuCacheService.class);
+    private final MenuStockService stockService = new MenuStockService(mock(PlatformTransactionManager.class));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(stockService, "menuStockRepository", menuStockRepository);
+        ReflectionTestUtils.setField(stockService, "menuCacheService", menuCacheService);
+        ReflectionTestUtils.setField(stockService, "menuWriteLocks", mock(MenuWriteLocks.class));
+        when(menuStockRepository.findAll()).thenReturn(List.of(
+                new StockRow(1L, 5L, true, 3),
+                new StockRow(2L, 5L, true, null),
+                new StockRow(3L, 5L, false, 4)));
+        stockService.loadAll();
+    }
+
+    @Test
+    void lastPortionsSoldElsewhereAreRefusedAndTheVendorIsReRead() {
+        when(menuStockRepository.take(anyMap())).thenReturn(Map.of());
+        when(menuStockRepository.findByVendorId(5L)).thenReturn(List.of(
+                new StockRow(1L, 5L, true, 0), new StockRow(2L, 5L, true, null), new StockRow(3L, 5L, false, 4)));
+
+        ServiceException refused = assertThrows(ServiceException.class, () -> stockService.reserve(Map.of(1L, 2)));
+        assertEquals("ITEM_UNAVAILABLE", refused.getErrorCode());
+
+        stockService.flush();
+        verify(menuStockRepository).findByVendorId(5L);
+        verify(menuCacheService).bumpVersion(5L);
+        // Memory now knows it is sold out, so the next order never reaches the database.
+        assertThrows(ServiceException.class, () -> stockService.reserve(Map.of(1L, 1)));
+        verify(menuStockRepository, times(1)).take(anyMap());
+    }
+
+    @Test
+    void switchedOffAndUnlimitedItemsAreNotTakenInTheDatabase() {
+        assertThrows(ServiceException.class, () -> stockService.reserve(Map.of(3L, 1)));
+        stockService.reserve(Map.of(2L, 50));
+        verify(menuStockRepository, never()).take(anyMap());
+    }
+
+    @Test
+    void flushAfterAnOrderDoesNotWriteBackAVendorsToggle() {
+        when(menuStockRepository.take(anyMap())).thenReturn(Map.of(1L, 2));
+        stockService.reserve(Map.of(1L, 1));
+
+        when(menuStockRepository.findByItemIds(anyCollection())).thenReturn(List.of(new StockRow(1L, 5L, false, 2)));
+        List<MenuAvailabilityUpdateDTO> written = stockService.update(5L, List.of(new MenuAvailabilityUpdateDTO(1L, false, null)));
+        assertEquals(false, written.get(0).getAvailable());
+        stockService.flush();
+
+        // The toggle is written once, by the vendor's update; the flush only moves the menu version.
+        verify(menuStockRepository, times(1)).updateAvailability(anyCollection());
+        verify(menuCacheService, times(1)).bumpVersion(any());
+        assertThrows(ServiceException.class, () -> stockService.reserve(Map.of(1L, 1)));
+    }
+
+    @Test
+    void rollbackAfterTheItemWasDroppedStillReReadsItsVendor() {
+        when(menuStockRepository.take(anyMap())).thenReturn(Map.of(1L, 2));
+        when(menuStockRepository.findByVendorId(5L)).thenReturn(List.of(new StockRow(2L, 5L, true, null)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stockService.reserve(Map.of(1L, 1));
+            // The item leaves the menu before the order's transaction ends.
+            stockService.onMenuChanged(new MenuChangedEvent(5L, 2));
+            stockService.flush();
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        stockService.flush();
+        verify(menuStockRepository, times(2)).findByVendorId(5L);
+    }
+}
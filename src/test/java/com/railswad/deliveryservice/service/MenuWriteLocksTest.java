@@ -0,0 +1,95 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.exception.MenuWriteConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MenuWriteLocksTest {
+
+    private final MenuWriteLocks locks = new MenuWriteLocks(4);
+    private final ExecutorService other = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete();
+        }
+        other.shutdownNow();
+    }
+
+    @Test
+    void secondWriterForTheVendorWaitsUntilTheFirstTransactionCompletes() throws Exception {
+        ReflectionTestUtils.setField(locks, "lockTimeoutMs", 5000L);
+        TransactionSynchronizationManager.initSynchronization();
+        locks.lockForTransaction(7L);
+
+        Future<?> second = other.submit(() -> inTransaction(() -> locks.lockForTransaction(7L)));
+        Thread.sleep(200);
+        assertFalse(second.isDone());
+
+        complete();
+        second.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void writerThatCannotGetTheLockInTimeGetsAConflict() throws Exception {
+        ReflectionTestUtils.setField(locks, "lockTimeoutMs", 50L);
+        TransactionSynchronizationManager.initSynchronization();
+        locks.lockForTransaction(7L);
+
+        Future<?> second = other.submit(() -> inTransaction(() -> locks.lockForTransaction(7L)));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(MenuWriteConflictException.class, e.getCause());
+        // A vendor on another stripe is not held up.
+        CompletableFuture.runAsync(() -> inTransaction(() -> locks.lockForTransaction(8L)), other).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void lockingAgainInTheSameTransactionReleasesOnce() {
+        ReflectionTestUtils.setField(locks, "lockTimeoutMs", 50L);
+        TransactionSynchronizationManager.initSynchronization();
+        locks.lockForTransaction(7L);
+        locks.lockForTransaction(11L);
+
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        complete();
+    }
+
+    @Test
+    void lockingOutsideATransactionIsRefused() {
+        assertThrows(IllegalStateException.class, () -> locks.lockForTransaction(7L));
+    }
+
+    private static void inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+        } finally {
+            complete();
+        }
+    }
+
+    // Stands in for the transaction manager finishing a commit.
+    private static void complete() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -0,0 +1,113 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.OrderDTO;
+import com.railswad.deliveryservice.event.OrderCreatedEvent;
+import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.exception.ServiceException;
+import com.railswad.deliveryservice.repository.VendorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderCutoffServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    private final TrainRouteIndex trainRouteIndex = mock(TrainRouteIndex.class);
+    private final StationMenuRegistry stationMenuRegistry = mock(StationMenuRegistry.class);
+    private final VendorRepository vendorRepository = mock(VendorRepository.class);
+    private final VendorQueueService vendorQueueService = new VendorQueueService();
+    private final OrderCutoffService cutoffService = new OrderCutoffService();
+
+    private ZonedDateTime due;
+    private long nextOrderId = 1;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cutoffService, "trainRouteIndex", trainRouteIndex);
+        ReflectionTestUtils.setField(cutoffService, "stationMenuRegistry", stationMenuRegistry);
+        ReflectionTestUtils.setField(cutoffService, "vendorQueueService", vendorQueueService);
+        ReflectionTestUtils.setField(cutoffService, "geoIndexService", mock(GeoIndexService.class));
+        ReflectionTestUtils.setField(cutoffService, "trainDelayService", mock(TrainDelayService.class));
+        ReflectionTestUtils.setField(cutoffService, "trainCancellationService", mock(TrainCancellationService.class));
+        ReflectionTestUtils.setField(cutoffService, "vendorRepository", vendorRepository);
+        ReflectionTestUtils.setField(cutoffService, "minHaltMinutes", 2);
+        ReflectionTestUtils.setField(cutoffService, "toleranceMinutes", 30);
+        ReflectionTestUtils.setField(cutoffService, "handoverMinutes", 5);
+        ReflectionTestUtils.setField(cutoffService, "defaultPrepMinutes", 30);
+        ReflectionTestUtils.setField(cutoffService, "minutesPerQueuedOrder", 3);
+        ReflectionTestUtils.setField(cutoffService, "maxQueueDepth", 50);
+
+        // The train calls at station 20 two hours from now, every day.
+        LocalDate today = LocalDate.now(ZONE);
+        ZonedDateTime now = ZonedDateTime.now(ZONE);
+        int arrival = (int) Duration.between(today.atStartOfDay(ZONE), now.plusHours(2)).toMinutes();
+        TrainRouteIndex.Route route = new TrainRouteIndex.Route(1, "12951", "Rajdhani", 127, List.of(
+                new TrainRouteIndex.Stop(1, 10, -1, 0, 0),
+                new TrainRouteIndex.Stop(2, 20, arrival, arrival + 5, 300)), Map.of(10, 0, 20, 1));
+        when(trainRouteIndex.getRoute(1)).thenReturn(route);
+        when(trainRouteIndex.getZone()).thenReturn(ZONE);
+        when(trainRouteIndex.at(any(), anyInt())).thenAnswer(invocation ->
+                invocation.<LocalDate>getArgument(0).atStartOfDay(ZONE).plusMinutes(invocation.<Integer>getArgument(1)));
+        due = today.atStartOfDay(ZONE).plusMinutes(arrival);
+        when(stationMenuRegistry.getVendorMenu(5L)).thenReturn(
+                new StationMenuRegistry.VendorMenu(5L, 20, "Vendor 5", 4.0, 30, true, 1L, List.of()));
+    }
+
+    @Test
+    void ordersDueAfterThisOneDoNotHoldItUp() {
+        queue(40, due.plusHours(10));
+
+        assertEquals(0, cutoffService.validate(order(5L)));
+    }
+
+    @Test
+    void ordersDueBeforeThisOneDo() {
+        queue(40, due.minusMinutes(30));
+
+        ServiceException late = assertThrows(ServiceException.class, () -> cutoffService.validate(order(5L)));
+        assertEquals("ORDER_TOO_LATE", late.getErrorCode());
+    }
+
+    @Test
+    void vendorMissingFromTheStationIndexIsReadFromTheDatabase() {
+        when(vendorRepository.findStationMenuHeaders(anyCollection())).thenReturn(List.of());
+        assertThrows(ResourceNotFoundException.class, () -> cutoffService.validate(order(6L)));
+
+        when(vendorRepository.findStationMenuHeaders(anyCollection())).thenReturn(
+                List.<Object[]>of(new Object[]{7L, 20, "Vendor 7", 4.0, 30, false}));
+        ServiceException inactive = assertThrows(ServiceException.class, () -> cutoffService.validate(order(7L)));
+        assertEquals("VENDOR_INACTIVE", inactive.getErrorCode());
+    }
+
+    private void queue(int orders, ZonedDateTime deliveryTime) {
+        for (int i = 0; i < orders; i++) {
+            vendorQueueService.onOrderCreated(new OrderCreatedEvent(nextOrderId++, 5L, 20, null, null, 100.0,
+                    ZonedDateTime.now(ZONE), deliveryTime));
+        }
+    }
+
+    private OrderDTO order(Long vendorId) {
+        OrderDTO order = new OrderDTO();
+        order.setVendorId(vendorId);
+        order.setTrainId(1);
+        order.setDeliveryStationId(20);
+        order.setDeliveryTime(due);
+        return order;
+    }
+}
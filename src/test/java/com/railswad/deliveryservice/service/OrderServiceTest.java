@@ -0,0 +1,56 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.OrderDTO;
+import com.railswad.deliveryservice.dto.OrderItemDTO;
+import com.railswad.deliveryservice.exception.ServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class OrderServiceTest {
+
+    private final MenuStockService menuStockService = mock(MenuStockService.class);
+    private final OrderCutoffService orderCutoffService = mock(OrderCutoffService.class);
+    private final OrderService orderService = new OrderService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderService, "menuStockService", menuStockService);
+        ReflectionTestUtils.setField(orderService, "orderCutoffService", orderCutoffService);
+    }
+
+    @Test
+    void itemWithoutAnIdIsRejectedBeforeAnythingIsReserved() {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setQuantity(1);
+        OrderDTO order = new OrderDTO();
+        order.setItems(List.of(item));
+
+        ServiceException rejected = assertThrows(ServiceException.class, () -> orderService.createOrder(order));
+
+        assertEquals("INVALID_ORDER_ITEMS", rejected.getErrorCode());
+        verify(orderCutoffService, never()).validate(any());
+        verify(menuStockService, never()).reserve(any());
+    }
+
+    @Test
+    void nonPositiveQuantityIsRejected() {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setItemId(1L);
+        item.setQuantity(0);
+        OrderDTO order = new OrderDTO();
+        order.setItems(List.of(item));
+
+        assertThrows(ServiceException.class, () -> orderService.createOrder(order));
+        verify(menuStockService, never()).reserve(any());
+    }
+}
@@ -0,0 +1,58 @@
+package com.railswad.deliveryservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import com.railswad.deliveryservice.exception.ResourceNotFoundException;
+import com.railswad.deliveryservice.repository.StationRepository;
+import com.railswad.deliveryservice.util.PrecompressedBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StationCatalogServiceTest {
+
+    private final StationRepository stationRepository = mock(StationRepository.class);
+    private final StationCatalogService catalogService = new StationCatalogService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalogService, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(catalogService, "stationRepository", stationRepository);
+    }
+
+    @Test
+    void unknownStationIsNotFound() {
+        when(stationRepository.existsById(404)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> catalogService.getCatalog(404));
+    }
+
+    @Test
+    void emptyCatalogIsEncodedOnceUntilAVendorOpens() {
+        when(stationRepository.existsById(100)).thenReturn(true);
+
+        PrecompressedBody empty = catalogService.getCatalog(100);
+        assertSame(empty, catalogService.getCatalog(100));
+        verify(stationRepository, times(1)).existsById(100);
+
+        MenuItemDTO item = new MenuItemDTO();
+        item.setItemId(1L);
+        item.setCategoryName("Meals");
+        item.setAvailable(true);
+        catalogService.onStationMenusChanged(100, List.of(
+                new StationMenuRegistry.VendorMenu(1L, 100, "Vendor 1", 4.0, 20, true, 1L, List.of(item))));
+
+        assertNotSame(empty, catalogService.getCatalog(100));
+    }
+}
@@ -0,0 +1,99 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import com.railswad.deliveryservice.dto.StationMenuItemDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StationMenuFilterServiceTest {
+
+    private static final ZoneId STATION_ZONE = ZoneId.of("Asia/Kolkata");
+    private static final ZoneId OTHER_ZONE = ZoneId.of("Etc/GMT+12");
+
+    private final StationMenuFilterService filterService = new StationMenuFilterService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filterService, "priceBandEdges", new double[]{100, 200, 300, 500});
+        ReflectionTestUtils.setField(filterService, "prepBandEdges", new double[]{10, 20, 30, 45});
+        ReflectionTestUtils.setField(filterService, "zone", STATION_ZONE);
+    }
+
+    @Test
+    void combinesAttributeFiltersAndSortsByPrice() {
+        List<MenuItemDTO> items = List.of(
+                item(1L, 80, true, 10, null),
+                item(2L, 150, true, 25, null),
+                item(3L, 250, false, 15, null),
+                item(4L, 180, true, 50, null),
+                item(5L, 120, true, 5, null));
+        filterService.onStationMenusChanged(100, List.of(vendor(1L, items, true), vendor(2L, List.of(item(6L, 110, true, 5, null)), false)));
+
+        Page<StationMenuItemDTO> page = filterService.filter(100, true, 100.0, 200.0, 30, false, "price_desc", 0, 10);
+
+        assertEquals(List.of(2L, 5L), page.getContent().stream().map(StationMenuItemDTO::getItemId).toList());
+        assertEquals(2, page.getTotalElements());
+    }
+
+    @Test
+    void availableNowUsesTheStationZoneAndChecksEveryTimedItem() {
+        List<MenuItemDTO> items = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            // Alternate windows around the station's clock and a clock 17.5 hours away; every fifth item has none.
+            LocalTime around = id % 5 == 0 ? null : LocalTime.now(id % 2 == 0 ? STATION_ZONE : OTHER_ZONE);
+            items.add(item(id, 100 + id, true, 10, around));
+        }
+        filterService.onStationMenusChanged(100, List.of(vendor(1L, items, true)));
+
+        Page<StationMenuItemDTO> page = filterService.filter(100, null, null, null, null, true, "menu", 0, 100);
+
+        long expected = items.stream().filter(item -> item.getItemId() % 5 == 0 || item.getItemId() % 2 == 0).count();
+        assertEquals(expected, page.getTotalElements());
+        assertTrue(page.getContent().stream().allMatch(dto -> dto.getItemId() % 5 == 0 || dto.getItemId() % 2 == 0));
+    }
+
+    @Test
+    void pagesWalkTheSortOrder() {
+        List<MenuItemDTO> items = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            items.add(item(id, id * 10, false, 10, null));
+        }
+        filterService.onStationMenusChanged(100, List.of(vendor(1L, items, true)));
+
+        Page<StationMenuItemDTO> second = filterService.filter(100, null, null, null, null, false, "price_asc", 1, 10);
+
+        assertEquals(11L, second.getContent().get(0).getItemId());
+        assertEquals(10, second.getContent().size());
+        assertEquals(25, second.getTotalElements());
+    }
+
+    private static StationMenuRegistry.VendorMenu vendor(Long vendorId, List<MenuItemDTO> items, boolean active) {
+        return new StationMenuRegistry.VendorMenu(vendorId, 100, "Vendor " + vendorId, 4.0, 20, active, 1L, items);
+    }
+
+    private static MenuItemDTO item(Long itemId, double price, boolean vegetarian, int prepMinutes, LocalTime around) {
+        MenuItemDTO item = new MenuItemDTO();
+        item.setItemId(itemId);
+        item.setItemName("Item " + itemId);
+        item.setPrice(BigDecimal.valueOf(price));
+        item.setVegetarian(vegetarian);
+        item.setAvailable(true);
+        item.setPreparationTimeMin(prepMinutes);
+        if (around != null) {
+            item.setAvailableStartTime(around.minusHours(1).withNano(0));
+            item.setAvailableEndTime(around.plusHours(1).withNano(0));
+        }
+        return item;
+    }
+}
@@ -0,0 +1,106 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import com.railswad.deliveryservice.event.MenuChangedEvent;
+import com.railswad.deliveryservice.repository.VendorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StationMenuRegistryTest {
+
+    private final VendorRepository vendorRepository = mock(VendorRepository.class);
+    private final MenuCacheService menuCacheService = mock(MenuCacheService.class);
+    private final List<String> notifications = new ArrayList<>();
+    private final StationMenuRegistry registry = new StationMenuRegistry();
+
+    // vendorId -> stationId as the database currently has it
+    private final Map<Long, Integer> stationOfVendor = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        StationMenuRegistry.StationMenuListener listener = (stationId, vendors) ->
+                notifications.add(stationId + ":" + vendors.size());
+        ReflectionTestUtils.setField(registry, "vendorRepository", vendorRepository);
+        ReflectionTestUtils.setField(registry, "menuCacheService", menuCacheService);
+        ReflectionTestUtils.setField(registry, "listeners", List.of(listener));
+        ReflectionTestUtils.setField(registry, "batchSize", 2);
+
+        when(vendorRepository.findStationMenuHeaders(anyCollection())).thenAnswer(invocation -> {
+            List<Object[]> headers = new ArrayList<>();
+            for (Long vendorId : invocation.<Collection<Long>>getArgument(0)) {
+                Integer stationId = stationOfVendor.get(vendorId);
+                if (stationId != null) {
+                    headers.add(new Object[]{vendorId, stationId, "Vendor " + vendorId, 4.5, 20, true});
+                }
+            }
+            return headers;
+        });
+        when(menuCacheService.getMenus(anyCollection())).thenAnswer(invocation -> {
+            Map<Long, MenuCacheService.MenuSnapshot> menus = new HashMap<>();
+            for (Long vendorId : invocation.<Collection<Long>>getArgument(0)) {
+                MenuItemDTO item = new MenuItemDTO();
+                item.setItemId(vendorId * 10);
+                menus.put(vendorId, new MenuCacheService.MenuSnapshot(1L, Map.of("Meals", List.of(item))));
+            }
+            return menus;
+        });
+    }
+
+    @Test
+    void startupLoadsVendorsInBatchesWithoutPerVendorQueries() {
+        for (long vendorId = 1; vendorId <= 5; vendorId++) {
+            stationOfVendor.put(vendorId, vendorId <= 3 ? 100 : 200);
+        }
+        when(vendorRepository.findAllVendorIds()).thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+
+        registry.loadAll();
+        registry.refresh();
+
+        assertEquals(3, registry.getStationMenus(100).size());
+        assertEquals(2, registry.getStationMenus(200).size());
+        // Five vendors in batches of two: three header queries and three menu loads.
+        verify(vendorRepository, times(3)).findStationMenuHeaders(anyCollection());
+        verify(menuCacheService, times(3)).getMenus(anyCollection());
+        verify(vendorRepository, never()).findById(any());
+        verify(menuCacheService, never()).getMenu(any());
+    }
+
+    @Test
+    void reloadSwapsTheEntryAndFollowsStationMovesAndDeletes() {
+        stationOfVendor.put(1L, 100);
+        stationOfVendor.put(2L, 100);
+        registry.onMenuChanged(new MenuChangedEvent(1L, 1));
+        registry.onMenuChanged(new MenuChangedEvent(2L, 1));
+        registry.refresh();
+        notifications.clear();
+
+        stationOfVendor.put(1L, 200);
+        stationOfVendor.remove(2L);
+        registry.onMenuChanged(new MenuChangedEvent(1L, 2));
+        registry.onMenuChanged(new MenuChangedEvent(2L, 2));
+        registry.refresh();
+
+        assertEquals(200, registry.getVendorMenu(1L).getStationId());
+        assertNull(registry.getVendorMenu(2L));
+        assertEquals(0, registry.getStationMenus(100).size());
+        assertEquals(1, registry.getStationMenus(200).size());
+        assertEquals(2, notifications.size());
+    }
+}
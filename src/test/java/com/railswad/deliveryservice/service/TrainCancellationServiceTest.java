@@ -0,0 +1,201 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.entity.TrainCancellationJob;
+import com.railswad.deliveryservice.exception.RefundFailedException;
+import com.railswad.deliveryservice.repository.TrainCancellationJobRepository;
+import com.railswad.deliveryservice.repository.TrainCancellationRepository;
+import com.railswad.deliveryservice.repository.TrainCancellationRepository.RefundClaim;
+import com.railswad.deliveryservice.repository.TrainCancellationRepository.RefundOutcome;
+import com.railswad.deliveryservice.repository.TrainDelayRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TrainCancellationServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+    private static final LocalDate JOURNEY_DATE = LocalDate.of(2026, 3, 2);
+
+    private final TrainCancellationJobRepository jobRepository = mock(TrainCancellationJobRepository.class);
+    private final TrainCancellationRepository cancellationRepository = mock(TrainCancellationRepository.class);
+    private final TrainRouteIndex trainRouteIndex = mock(TrainRouteIndex.class);
+    private final TrainDelayService trainDelayService = mock(TrainDelayService.class);
+    private final RefundGateway refundGateway = mock(RefundGateway.class);
+    private final ThreadPoolTaskExecutor cancellationExecutor = mock(ThreadPoolTaskExecutor.class);
+    private final ThreadPoolTaskExecutor refundExecutor = new ThreadPoolTaskExecutor();
+    private final TrainCancellationService service = new TrainCancellationService(mock(PlatformTransactionManager.class), 1000);
+
+    private final TrainCancellationJob job = new TrainCancellationJob();
+
+    @BeforeEach
+    void setUp() {
+        refundExecutor.setCorePoolSize(2);
+        refundExecutor.initialize();
+        ReflectionTestUtils.setField(service, "trainCancellationJobRepository", jobRepository);
+        ReflectionTestUtils.setField(service, "trainCancellationRepository", cancellationRepository);
+        ReflectionTestUtils.setField(service, "trainDelayRepository", mock(TrainDelayRepository.class));
+        ReflectionTestUtils.setField(service, "trainDelayService", trainDelayService);
+        ReflectionTestUtils.setField(service, "trainRouteIndex", trainRouteIndex);
+        ReflectionTestUtils.setField(service, "vendorQueueService", mock(VendorQueueService.class));
+        ReflectionTestUtils.setField(service, "refundGateway", refundGateway);
+        ReflectionTestUtils.setField(service, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "cancellationExecutor", cancellationExecutor);
+        ReflectionTestUtils.setField(service, "refundExecutor", refundExecutor);
+        ReflectionTestUtils.setField(service, "claimSize", 50);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "retryBaseMs", 2000L);
+        ReflectionTestUtils.setField(service, "retryMaxMs", 300000L);
+        ReflectionTestUtils.setField(service, "submitLeaseMs", 300000L);
+        ReflectionTestUtils.setField(service, "refreshMs", 5000L);
+        ReflectionTestUtils.setField(service, "retentionDays", 3);
+
+        job.setJobId("job-1");
+        job.setTrainId(1);
+        job.setJourneyDate(JOURNEY_DATE);
+        job.setStatus(TrainCancellationJob.REFUNDING);
+        when(trainRouteIndex.getZone()).thenReturn(ZONE);
+        when(trainRouteIndex.getRoute(1)).thenReturn(new TrainRouteIndex.Route(1, "12951", "Rajdhani", 127, List.of(), Map.of()));
+        when(trainDelayService.scheduledWindows(any(), any())).thenReturn(List.of());
+        when(jobRepository.findById("job-1")).thenReturn(Optional.of(job));
+        when(jobRepository.findByTrainIdAndJourneyDate(1, JOURNEY_DATE)).thenReturn(Optional.of(job));
+        when(jobRepository.findByStatusIn(anyCollection())).thenReturn(List.of(job));
+        when(cancellationRepository.countByStatus("job-1")).thenReturn(Map.of(TrainCancellationRepository.PENDING, new long[]{1, 100}));
+    }
+
+    @AfterEach
+    void tearDown() {
+        refundExecutor.shutdown();
+    }
+
+    @Test
+    void refundWorkerWaitsForResumeToReleaseInterruptedSubmissions() {
+        service.refundDue();
+        verify(cancellationRepository, never()).claim(anyString(), anyInt(), any());
+
+        service.resumeInterruptedJobs();
+
+        // Only claims older than the lease are released; newer ones may belong to another live instance.
+        ArgumentCaptor<ZonedDateTime> claimedBefore = ArgumentCaptor.forClass(ZonedDateTime.class);
+        verify(cancellationRepository).releaseSubmitting(eq("job-1"), claimedBefore.capture());
+        assertTrue(claimedBefore.getValue().isBefore(ZonedDateTime.now().minusMinutes(4)));
+        // A refunding job goes straight back to the refund worker, not through the cancellation pool.
+        verify(cancellationExecutor, never()).execute(any());
+        service.refundDue();
+        verify(cancellationRepository).claim(eq("job-1"), eq(50), any());
+    }
+
+    @Test
+    void retryableFailureIsRetriedLaterAndFailsOnceAttemptsRunOut() {
+        when(cancellationRepository.claim(eq("job-1"), anyInt(), any())).thenReturn(
+                List.of(new RefundClaim(11L, "pay_11", 100, 1), new RefundClaim(12L, "pay_12", 100, 3)), List.of());
+        when(refundGateway.refund(anyString(), anyLong(), anyString())).thenThrow(new RefundFailedException("SERVER_ERROR", true));
+        service.resumeInterruptedJobs();
+
+        service.refundDue();
+
+        Map<Long, RefundOutcome> outcomes = recordedOutcomes();
+        assertEquals(TrainCancellationRepository.PENDING, outcomes.get(11L).status());
+        assertTrue(outcomes.get(11L).nextAttemptAt().isAfter(ZonedDateTime.now()));
+        assertEquals(TrainCancellationRepository.FAILED, outcomes.get(12L).status());
+        // A backoff leaves the job refunding without holding the worker.
+        assertEquals(TrainCancellationJob.REFUNDING, job.getStatus());
+    }
+
+    @Test
+    void refundsAreIssuedUnderTheOrdersReceiptAndTheJobCompletesWhenNothingIsLeft() {
+        when(cancellationRepository.claim(eq("job-1"), anyInt(), any())).thenReturn(
+                List.of(new RefundClaim(11L, "pay_11", 100, 1)), List.of());
+        when(refundGateway.refund("pay_11", 100, "cancel_11")).thenReturn("rfnd_1");
+        when(cancellationRepository.countByStatus("job-1")).thenReturn(Map.of(TrainCancellationRepository.REFUNDED, new long[]{1, 100}));
+        service.resumeInterruptedJobs();
+
+        service.refundDue();
+
+        assertEquals("rfnd_1", recordedOutcomes().get(11L).refundReference());
+        assertEquals(TrainCancellationJob.COMPLETED, job.getStatus());
+        assertNotNull(job.getFinishedAt());
+    }
+
+    @Test
+    void resubmittingARefundingJobLeavesItToTheWorker() {
+        service.submit(1, JOURNEY_DATE, "Flooding");
+
+        verify(cancellationRepository, never()).requeueFailed(anyString(), any());
+        verify(cancellationRepository, never()).releaseSubmitting(anyString(), any());
+        verify(cancellationExecutor, never()).execute(any());
+    }
+
+    @Test
+    void resubmittingAFinishedJobRequeuesOnlyItsFailedRefunds() {
+        job.setStatus(TrainCancellationJob.COMPLETED);
+
+        service.submit(1, JOURNEY_DATE, "Flooding");
+
+        verify(cancellationRepository).requeueFailed(eq("job-1"), any());
+        verify(cancellationExecutor).execute(any());
+        assertEquals(TrainCancellationJob.QUEUED, job.getStatus());
+    }
+
+    @Test
+    void cancellationOnAnotherInstanceIsSeenAfterRefreshWithoutQueryingPerOrder() {
+        assertFalse(service.isCancelled(2, JOURNEY_DATE));
+        when(jobRepository.findCancelledRunsFrom(any())).thenReturn(List.<Object[]>of(new Object[]{2, JOURNEY_DATE}));
+
+        service.loadCancelledRuns();
+
+        assertTrue(service.isCancelled(2, JOURNEY_DATE));
+        assertFalse(service.isCancelled(3, JOURNEY_DATE));
+        verify(jobRepository, times(1)).findCancelledRunsFrom(any());
+    }
+
+    @Test
+    void freshJobWaitsOutOtherInstancesRefreshBeforeCompleting() {
+        job.setCreatedAt(ZonedDateTime.now());
+        when(cancellationRepository.countByStatus("job-1")).thenReturn(Map.of(TrainCancellationRepository.REFUNDED, new long[]{1, 100}));
+        service.resumeInterruptedJobs();
+
+        service.refundDue();
+        assertEquals(TrainCancellationJob.REFUNDING, job.getStatus());
+
+        job.setCreatedAt(ZonedDateTime.now().minusSeconds(11));
+        service.refundDue();
+        assertEquals(TrainCancellationJob.COMPLETED, job.getStatus());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, RefundOutcome> recordedOutcomes() {
+        ArgumentCaptor<Collection<RefundOutcome>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(cancellationRepository).recordOutcomes(captor.capture(), any());
+        return captor.getValue().stream().collect(Collectors.toMap(RefundOutcome::orderId, outcome -> outcome));
+    }
+}
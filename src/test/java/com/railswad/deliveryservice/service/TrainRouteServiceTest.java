@@ -0,0 +1,105 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.dto.TrainStopDTO;
+import com.railswad.deliveryservice.exception.ServiceException;
+import com.railswad.deliveryservice.repository.TrainRepository;
+import com.railswad.deliveryservice.repository.TrainRouteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TrainRouteServiceTest {
+
+    private static final String HEADER = "train_number,stop_sequence,station_code,arrival_time,departure_time,arrival_day,departure_day,distance_km,running_days\n";
+
+    private final TrainRouteRepository trainRouteRepository = mock(TrainRouteRepository.class);
+    private final TrainRepository trainRepository = mock(TrainRepository.class);
+    private final TrainRouteService routeService = new TrainRouteService(mock(PlatformTransactionManager.class));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(routeService, "trainRouteRepository", trainRouteRepository);
+        ReflectionTestUtils.setField(routeService, "trainRepository", trainRepository);
+        ReflectionTestUtils.setField(routeService, "trainRouteIndex", mock(TrainRouteIndex.class));
+        when(trainRouteRepository.findTrainIdsByNumber()).thenReturn(Map.of("12951", 1));
+        when(trainRouteRepository.findStationIdsByCode()).thenReturn(Map.of("MMCT", 10, "BRC", 11, "NDLS", 12));
+        when(trainRepository.existsById(1)).thenReturn(true);
+    }
+
+    @Test
+    void runningDaysFromAnyRowApplyToTheTrain() throws Exception {
+        routeService.importRoutes(csv(HEADER
+                + "12951,1,MMCT,,17:00,0,0,0,\n"
+                + "12951,2,BRC,21:00,21:05,0,0,392,31\n"
+                + "12951,3,NDLS,08:30,,1,1,1384,\n"));
+
+        verify(trainRouteRepository).updateRunningDays(Map.of(1, 31));
+    }
+
+    @Test
+    void fileRowsAreCheckedForColumnsDaysAndRunningDays() {
+        ServiceException columns = assertThrows(ServiceException.class,
+                () -> routeService.importRoutes(csv("12951,1,MMCT,,17:00,0\n")));
+        assertTrue(columns.getMessage().contains("expected 7 to 9"));
+
+        assertThrows(ServiceException.class, () -> routeService.importRoutes(csv(
+                "12951,1,MMCT,,17:00,0,0\n12951,2,NDLS,08:30,,-1,-1\n")));
+        assertThrows(ServiceException.class, () -> routeService.importRoutes(csv(
+                "12951,1,MMCT,,17:00,0,0,,128\n12951,2,NDLS,08:30,,1,1\n")));
+        assertThrows(ServiceException.class, () -> routeService.importRoutes(csv(
+                "12951,1,MMCT,,17:00,0,0,,31\n12951,2,NDLS,08:30,,1,1,,96\n")));
+
+        verify(trainRouteRepository, never()).replaceStops(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void routePutValidatesAndStoresRunningDays() {
+        List<TrainStopDTO> stops = List.of(stop(1, null, LocalTime.of(17, 0), 0), stop(2, LocalTime.of(8, 30), null, 1));
+
+        ServiceException none = assertThrows(ServiceException.class, () -> routeService.replaceRoute(1, stops, 0));
+        assertEquals("INVALID_ROUTE", none.getErrorCode());
+        verify(trainRouteRepository, never()).updateRunningDays(any());
+
+        routeService.replaceRoute(1, stops, 96);
+        verify(trainRouteRepository).updateRunningDays(Map.of(1, 96));
+    }
+
+    @Test
+    void negativeDayOffsetIsRejected() {
+        List<TrainStopDTO> stops = List.of(stop(1, null, LocalTime.of(17, 0), -1), stop(2, LocalTime.of(8, 30), null, 0));
+
+        assertThrows(ServiceException.class, () -> routeService.replaceRoute(1, stops, null));
+    }
+
+    private static MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "routes.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static TrainStopDTO stop(int sequence, LocalTime arrival, LocalTime departure, int day) {
+        TrainStopDTO stop = new TrainStopDTO();
+        stop.setStopSequence(sequence);
+        stop.setStationId(10 + sequence);
+        stop.setArrivalTime(arrival);
+        stop.setDepartureTime(departure);
+        stop.setArrivalDay(day);
+        stop.setDepartureDay(day);
+        return stop;
+    }
+}
@@ -0,0 +1,86 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.repository.UserRepository;
+import com.railswad.deliveryservice.repository.VendorRepository;
+import com.railswad.deliveryservice.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VendorOwnershipServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final VendorOwnershipService ownershipService = new VendorOwnershipService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ownershipService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(ownershipService, "vendorRepository", mock(VendorRepository.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void tokenClaimsDecideOwnershipWithoutTheDatabase() {
+        Authentication auth = token(5L, Set.of(7L), 0);
+
+        assertTrue(ownershipService.isOwner(auth, 7L));
+        assertFalse(ownershipService.isOwner(auth, 8L));
+        assertFalse(ownershipService.isOwner(new UsernamePasswordAuthenticationToken("anonymous", null, List.of()), 7L));
+    }
+
+    @Test
+    void versionRaisedOnAnotherInstanceRetiresOlderTokensAfterRefresh() {
+        Authentication old = token(5L, Set.of(7L), 0);
+        when(userRepository.findOwnershipVersions()).thenReturn(List.<Object[]>of(new Object[]{5L, 1L}));
+
+        ownershipService.loadVersions();
+
+        assertFalse(ownershipService.isOwner(old, 7L));
+        assertTrue(ownershipService.isOwner(token(5L, Set.of(7L), 1), 7L));
+        // Other users' tokens are untouched.
+        assertTrue(ownershipService.isOwner(token(6L, Set.of(7L), 0), 7L));
+    }
+
+    @Test
+    void revocationAppliesLocallyOnlyOnceCommitted() {
+        when(userRepository.findOwnershipVersion(5L)).thenReturn(Optional.of(1L));
+        TransactionSynchronizationManager.initSynchronization();
+
+        ownershipService.revoke(5L);
+
+        verify(userRepository).incrementOwnershipVersion(5L);
+        assertEquals(0L, ownershipService.currentVersion(5L));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertEquals(1L, ownershipService.currentVersion(5L));
+        assertFalse(ownershipService.isOwner(token(5L, Set.of(7L), 0), 7L));
+    }
+
+    private static Authentication token(Long userId, Set<Long> vendorIds, long ownershipVersion) {
+        AuthenticatedUser user = new AuthenticatedUser("vendor" + userId + "@example.com", userId, vendorIds, ownershipVersion);
+        return new UsernamePasswordAuthenticationToken(user, null, List.of());
+    }
+}
@@ -0,0 +1,60 @@
+package com.railswad.deliveryservice.service;
+
+import com.railswad.deliveryservice.event.OrderCreatedEvent;
+import com.railswad.deliveryservice.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VendorQueueServiceTest {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final VendorQueueService queueService = new VendorQueueService();
+
+    private final ZonedDateTime due = ZonedDateTime.now().plusHours(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(queueService, "orderRepository", orderRepository);
+    }
+
+    @Test
+    void changesCommittedWhileReseedingSurviveTheSwap() {
+        when(orderRepository.findOpenOrderDeliveryTimes(any())).thenReturn(List.<Object[]>of(new Object[]{7L, 1L, due}));
+        queueService.resync();
+
+        // The query read the table before order 2 was placed and order 1 closed.
+        when(orderRepository.findOpenOrderDeliveryTimes(any())).thenAnswer(invocation -> {
+            queueService.onOrderCreated(created(7L, 2L));
+            queueService.statusChanged(7L, 1L, due, "PREPARING", "DELIVERED");
+            return List.<Object[]>of(new Object[]{7L, 1L, due});
+        });
+        queueService.resync();
+
+        assertEquals(Map.of(7L, 1), queueService.getDepths());
+        assertEquals(1, queueService.getDepthDueBy(7L, due));
+    }
+
+    @Test
+    void changesAfterTheSwapApplyToTheNewQueues() {
+        when(orderRepository.findOpenOrderDeliveryTimes(any())).thenReturn(List.<Object[]>of(new Object[]{7L, 1L, due}));
+        queueService.resync();
+
+        queueService.onOrderCreated(created(8L, 2L));
+
+        assertEquals(Map.of(7L, 1, 8L, 1), queueService.getDepths());
+    }
+
+    private OrderCreatedEvent created(Long vendorId, Long orderId) {
+        return new OrderCreatedEvent(orderId, vendorId, 1, null, null, 100.0, ZonedDateTime.now(), due);
+    }
+}
@@ -0,0 +1,93 @@
+package com.railswad.deliveryservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColumnarSnapshotWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEveryColumnTypeAcrossRowGroups() throws Exception {
+        int rows = 10_007; // several full row groups and a partial last one
+        Path file = directory.resolve("orders.rsnp");
+        try (ColumnarSnapshotWriter writer = new ColumnarSnapshotWriter(directory, 1_000)
+                .longColumn("id")
+                .intColumn("quantity")
+                .doubleColumn("amount")
+                .dictionaryColumn("station")) {
+            for (int row = 0; row < rows; row++) {
+                writer.putLong("id", 1_000_000_000_000L + row);
+                writer.putInt("quantity", row % 7 - 3);
+                writer.putDouble("amount", row * 0.25);
+                writer.putString("station", row % 3 == 0 ? null : "ST" + row % 5);
+                writer.endRow();
+            }
+            writer.writeTo(file);
+        }
+
+        try (ColumnarSnapshot snapshot = ColumnarSnapshot.open(file)) {
+            assertEquals(rows, snapshot.getRowCount());
+            LongBuffer ids = snapshot.longColumn("id");
+            IntBuffer quantities = snapshot.intColumn("quantity");
+            DoubleBuffer amounts = snapshot.doubleColumn("amount");
+            IntBuffer stations = snapshot.codeColumn("station");
+            List<String> dictionary = snapshot.dictionary("station");
+            for (int row = 0; row < rows; row++) {
+                assertEquals(1_000_000_000_000L + row, ids.get(row));
+                assertEquals(row % 7 - 3, quantities.get(row));
+                assertEquals(row * 0.25, amounts.get(row));
+                assertEquals(row % 3 == 0 ? "" : "ST" + row % 5, dictionary.get(stations.get(row)));
+            }
+            assertEquals(-1, snapshot.codeOf("station", "MISSING"));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList(), "spill files left behind");
+        }
+    }
+
+    @Test
+    void emptySnapshotHasNoRows() throws Exception {
+        Path file = directory.resolve("empty.rsnp");
+        try (ColumnarSnapshotWriter writer = new ColumnarSnapshotWriter(directory).longColumn("id").dictionaryColumn("station")) {
+            writer.writeTo(file);
+        }
+        try (ColumnarSnapshot snapshot = ColumnarSnapshot.open(file)) {
+            assertEquals(0, snapshot.getRowCount());
+            assertEquals(0, snapshot.longColumn("id").remaining());
+        }
+    }
+
+    @Test
+    void rowMissingAColumnIsRejected() throws Exception {
+        try (ColumnarSnapshotWriter writer = new ColumnarSnapshotWriter(directory).longColumn("id").intColumn("quantity")) {
+            writer.putLong("id", 1);
+            assertThrows(IllegalStateException.class, writer::endRow);
+        }
+    }
+
+    @Test
+    void abandonedWriteRemovesSpillFiles() throws Exception {
+        try (ColumnarSnapshotWriter writer = new ColumnarSnapshotWriter(directory, 10).longColumn("id")) {
+            for (int row = 0; row < 100; row++) {
+                writer.putLong("id", row);
+                writer.endRow();
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
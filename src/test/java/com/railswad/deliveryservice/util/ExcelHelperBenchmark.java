@@ -0,0 +1,133 @@
+package com.railswad.deliveryservice.util;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares peak heap and wall time of the old {@link WorkbookFactory} parse against the streaming
+ * {@link ExcelHelper#readMenuItems} path. Run with {@code MENU_IMPORT_BENCHMARK=true ./gradlew test
+ * --tests '*ExcelHelperBenchmark'}; numbers are printed to stdout.
+ */
+@EnabledIfEnvironmentVariable(named = "MENU_IMPORT_BENCHMARK", matches = "true")
+class ExcelHelperBenchmark {
+
+    private static Path workDir;
+
+    @BeforeAll
+    static void createWorkDir() throws Exception {
+        workDir = Files.createTempDirectory("menu-benchmark");
+    }
+
+    @AfterAll
+    static void deleteWorkDir() throws Exception {
+        try (var files = Files.list(workDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(workDir);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 10_000, 100_000})
+    void compareDomAndStreamingParse(int rows) throws Exception {
+        File file = writeMenu(rows);
+        ExcelHelper helper = new ExcelHelper();
+
+        Result dom = measure(() -> {
+            int parsed = 0;
+            try (InputStream is = Files.newInputStream(file.toPath()); Workbook workbook = WorkbookFactory.create(is)) {
+                DataFormatter formatter = new DataFormatter();
+                for (Row row : workbook.getSheetAt(0)) {
+                    formatter.formatCellValue(row.getCell(1));
+                    parsed++;
+                }
+            }
+            return parsed - 1;
+        });
+        Result streaming = measure(() -> {
+            AtomicInteger parsed = new AtomicInteger();
+            assertTrue(helper.readMenuItems(file, (rowNumber, dto) -> parsed.incrementAndGet()).isEmpty());
+            return parsed.get();
+        });
+
+        assertEquals(rows, dom.rows);
+        assertEquals(rows, streaming.rows);
+        System.out.printf("%,8d rows  file %,6d KB | DOM %,6d ms %,6d MB peak | SAX %,6d ms %,6d MB peak%n",
+                rows, file.length() / 1024, dom.millis, dom.peakHeapMb, streaming.millis, streaming.peakHeapMb);
+    }
+
+    private static File writeMenu(int rows) throws Exception {
+        Path path = workDir.resolve("menu-" + rows + ".xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100); OutputStream os = Files.newOutputStream(path)) {
+            Sheet sheet = workbook.createSheet("Menu");
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < ExcelHelper.COLUMNS.length; i++) {
+                header.createCell(i).setCellValue(ExcelHelper.COLUMNS[i]);
+            }
+            for (int r = 1; r <= rows; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue("Category " + (r % 25));
+                row.createCell(1).setCellValue("Item " + r);
+                row.createCell(2).setCellValue("Freshly prepared item number " + r + " with seasonal sides");
+                row.createCell(3).setCellValue(50 + (r % 400));
+                row.createCell(4).setCellValue(r % 2 == 0 ? "true" : "false");
+                row.createCell(5).setCellValue("true");
+                row.createCell(6).setCellValue(10 + (r % 30));
+                row.createCell(7).setCellValue("https://cdn.example.com/items/" + r + ".jpg");
+                row.createCell(8).setCellValue(r % 100);
+                row.createCell(9).setCellValue("08:00");
+                row.createCell(10).setCellValue("22:30");
+            }
+            workbook.write(os);
+            workbook.dispose();
+        }
+        return path.toFile();
+    }
+
+    private static Result measure(Callable<Integer> parse) throws Exception {
+        System.gc();
+        long baseline = heapUsed();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+        long started = System.nanoTime();
+        int rows = parse.call();
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        long peak = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        return new Result(rows, millis, Math.max(0, peak - baseline) / (1024 * 1024));
+    }
+
+    private static long heapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private record Result(int rows, long millis, long peakHeapMb) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.railswad.deliveryservice.util;
+
+import com.railswad.deliveryservice.dto.MenuItemDTO;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExcelHelperTest {
+
+    private final ExcelHelper excelHelper = new ExcelHelper();
+
+    @Test
+    void csvExportNeutralizesFormulaText() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        excelHelper.writeMenuItemsCsv(Stream.of(item("=HYPERLINK(\"http://evil\",\"x\")", "+91 thali", "-spicy", "@home")), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+
+        assertEquals("'+91 thali,\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\",'-spicy,-12.50,true,true,,'@home,,,", lines[1]);
+    }
+
+    @Test
+    void csvExportLeavesOrdinaryTextAlone() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        excelHelper.writeMenuItemsCsv(Stream.of(item("Veg Thali", "Meals", "Rice, dal", "https://img/1.jpg")), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+
+        assertEquals("Meals,Veg Thali,\"Rice, dal\",-12.50,true,true,,https://img/1.jpg,,,", lines[1]);
+    }
+
+    @Test
+    void xlsxExportWritesFormulaTextAsStringCells() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        excelHelper.writeMenuItemsXlsx(Stream.of(item("=1+1", "+91 thali", "-spicy", "@home")), out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Row row = workbook.getSheetAt(0).getRow(1);
+            for (int column : new int[]{0, 1, 2, 7}) {
+                Cell cell = row.getCell(column);
+                assertEquals(CellType.STRING, cell.getCellType());
+            }
+            // Kept verbatim, so the export still imports back unchanged.
+            assertEquals("=1+1", row.getCell(1).getStringCellValue());
+            assertEquals("@home", row.getCell(7).getStringCellValue());
+        }
+    }
+
+    private static MenuItemDTO item(String itemName, String categoryName, String description, String imageUrl) {
+        MenuItemDTO item = new MenuItemDTO();
+        item.setItemName(itemName);
+        item.setCategoryName(categoryName);
+        item.setDescription(description);
+        item.setImageUrl(imageUrl);
+        // A negative number is data, not a formula, and keeps its sign.
+        item.setPrice(new BigDecimal("-12.50"));
+        item.setVegetarian(true);
+        item.setAvailable(true);
+        return item;
+    }
+}
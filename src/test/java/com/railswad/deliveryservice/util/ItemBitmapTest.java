@@ -0,0 +1,50 @@
+package com.railswad.deliveryservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemBitmapTest {
+
+    @Test
+    void andOrNotAcrossWordBoundaries() {
+        ItemBitmap evens = new ItemBitmap(130);
+        ItemBitmap threes = new ItemBitmap(130);
+        for (int i = 0; i < 130; i++) {
+            if (i % 2 == 0) {
+                evens.set(i);
+            }
+            if (i % 3 == 0) {
+                threes.set(i);
+            }
+        }
+
+        assertEquals(22, ItemBitmap.and(List.of(evens, threes)).cardinality());
+        assertEquals(87, ItemBitmap.or(130, List.of(evens, threes)).cardinality());
+        // The complement must not count the unused bits of the last word.
+        assertEquals(65, evens.not().cardinality());
+        assertTrue(evens.not().get(129));
+        assertFalse(evens.not().get(128));
+    }
+
+    @Test
+    void copyIsIndependentAndForEachVisitsSetBitsInOrder() {
+        ItemBitmap original = new ItemBitmap(200);
+        original.set(3);
+        original.set(64);
+        ItemBitmap copy = original.copy();
+        copy.set(199);
+
+        List<Integer> visited = new ArrayList<>();
+        copy.forEach(visited::add);
+
+        assertEquals(List.of(3, 64, 199), visited);
+        assertFalse(original.get(199));
+        assertEquals(2, original.cardinality());
+    }
+}
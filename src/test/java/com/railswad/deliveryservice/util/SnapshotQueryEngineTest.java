@@ -0,0 +1,63 @@
+package com.railswad.deliveryservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SnapshotQueryEngineTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void revenueByHourUsesTheOffsetOfEachRow() throws Exception {
+        // London moves from GMT to BST at 01:00 UTC on 31 March 2024.
+        Path file = write(
+                order(Instant.parse("2024-03-31T00:30:00Z"), "EUS", 100),  // 00:30 GMT
+                order(Instant.parse("2024-03-31T01:30:00Z"), "EUS", 200),  // 02:30 BST
+                order(Instant.parse("2024-03-31T02:10:00Z"), "EUS", 300),  // 03:10 BST
+                order(Instant.parse("2024-03-31T01:45:00Z"), "KGX", 50),   // 02:45 BST
+                order(Instant.parse("2024-04-02T01:30:00Z"), "EUS", 999)); // outside the range
+
+        try (ColumnarSnapshot snapshot = ColumnarSnapshot.open(file)) {
+            Map<String, SnapshotQueryEngine.Aggregate> revenue = new SnapshotQueryEngine().revenueByStationByHour(snapshot,
+                    Instant.parse("2024-03-30T12:00:00Z"), Instant.parse("2024-04-01T00:00:00Z"), ZoneId.of("Europe/London"));
+
+            assertEquals(List.of("EUS@0", "EUS@2", "EUS@3", "KGX@2"), List.copyOf(revenue.keySet()));
+            assertEquals(100, revenue.get("EUS@0").getSum());
+            assertEquals(200, revenue.get("EUS@2").getSum());
+            assertEquals(1, revenue.get("KGX@2").getCount());
+        }
+    }
+
+    private record Order(Instant createdAt, String station, double amount) {
+    }
+
+    private static Order order(Instant createdAt, String station, double amount) {
+        return new Order(createdAt, station, amount);
+    }
+
+    private Path write(Order... orders) throws Exception {
+        Path file = directory.resolve("orders.rsnp");
+        try (ColumnarSnapshotWriter writer = new ColumnarSnapshotWriter(directory)
+                .longColumn(OrderSnapshotColumns.CREATED_AT)
+                .dictionaryColumn(OrderSnapshotColumns.STATION)
+                .doubleColumn(OrderSnapshotColumns.FINAL_AMOUNT)) {
+            for (Order order : orders) {
+                writer.putLong(OrderSnapshotColumns.CREATED_AT, order.createdAt().getEpochSecond());
+                writer.putString(OrderSnapshotColumns.STATION, order.station());
+                writer.putDouble(OrderSnapshotColumns.FINAL_AMOUNT, order.amount());
+                writer.endRow();
+            }
+            writer.writeTo(file);
+        }
+        return file;
+    }
+}